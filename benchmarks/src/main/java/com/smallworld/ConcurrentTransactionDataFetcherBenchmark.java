@@ -0,0 +1,85 @@
+package com.smallworld;
+
+import com.smallworld.benchmark.TransactionGenerator;
+import com.smallworld.data.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Query throughput of {@link ConcurrentTransactionDataFetcher}, alone and next to an ingest thread. Run the
+ * read-only benchmarks with <code>-t 1,2,4,8,16</code> to check that throughput scales with reader threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ConcurrentTransactionDataFetcherBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"10000"})
+    private int clientCardinality;
+
+    private List<Transaction> transactions;
+    private ConcurrentTransactionDataFetcher fetcher;
+    private String client;
+    private final AtomicInteger nextRow = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        transactions = new TransactionGenerator(42, 0.3, clientCardinality).generate(rows);
+        fetcher = new ConcurrentTransactionDataFetcher().appendAll(transactions.subList(0, rows / 2));
+        client = transactions.get(rows / 4).getSenderFullName().toUpperCase();
+        nextRow.set(rows / 2);
+    }
+
+    @Benchmark
+    public double totalTransactionAmount() {
+        return fetcher.getTotalTransactionAmount();
+    }
+
+    @Benchmark
+    public double totalTransactionAmountSentBy() {
+        return fetcher.getTotalTransactionAmountSentBy(client);
+    }
+
+    @Benchmark
+    public List<Transaction> top3TransactionsByAmount() {
+        return fetcher.getTop3TransactionsByAmount();
+    }
+
+    @Benchmark
+    @Group("ingest")
+    @GroupThreads(1)
+    public void append() {
+        final int row = nextRow.getAndIncrement();
+        fetcher.append(transactions.get(row % rows));
+    }
+
+    @Benchmark
+    @Group("ingest")
+    @GroupThreads(7)
+    public Optional<String> topSenderWhileAppending() {
+        return fetcher.getTopSender();
+    }
+}
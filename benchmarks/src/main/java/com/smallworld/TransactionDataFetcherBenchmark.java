@@ -0,0 +1,203 @@
+package com.smallworld;
+
+import com.smallworld.aggregate.Measure;
+import com.smallworld.aggregate.TransactionSummary;
+import com.smallworld.benchmark.TransactionGenerator;
+import com.smallworld.data.ClientTotal;
+import com.smallworld.data.Transaction;
+import com.smallworld.store.TransactionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every {@link TransactionDataFetcher} query, per engine: the list based fetcher, the columnar
+ * store, the single pass aggregator and the fork-join fetcher. Run with <code>-prof gc</code> for allocation
+ * rate and GC counts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class TransactionDataFetcherBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    @Param({"0.3"})
+    private double issueRatio;
+
+    @Param({"10000"})
+    private int clientCardinality;
+
+    private final TransactionDataFetcher fetcher = new TransactionDataFetcher();
+    private ForkJoinPool pool;
+    private TransactionDataFetcher parallelFetcher;
+    private List<Transaction> transactions;
+    private TransactionStore store;
+    private String client;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactions = new TransactionGenerator(42, issueRatio, clientCardinality).generate(rows);
+        store = TransactionStore.of(transactions.stream());
+        client = transactions.get(rows / 2).getSenderFullName().toUpperCase();
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        parallelFetcher = new ParallelTransactionDataFetcher(pool, 8192);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double totalTransactionAmount() {
+        return fetcher.getTotalTransactionAmount(transactions);
+    }
+
+    @Benchmark
+    public double totalTransactionAmountStore() {
+        return fetcher.getTotalTransactionAmount(store);
+    }
+
+    @Benchmark
+    public double totalTransactionAmountParallel() {
+        return parallelFetcher.getTotalTransactionAmount(transactions);
+    }
+
+    @Benchmark
+    public double totalTransactionAmountSentBy() {
+        return fetcher.getTotalTransactionAmountSentBy(client, transactions);
+    }
+
+    @Benchmark
+    public double totalTransactionAmountSentByStore() {
+        return fetcher.getTotalTransactionAmountSentBy(client, store);
+    }
+
+    @Benchmark
+    public double maxTransactionAmount() {
+        return fetcher.getMaxTransactionAmount(transactions);
+    }
+
+    @Benchmark
+    public double maxTransactionAmountStore() {
+        return fetcher.getMaxTransactionAmount(store);
+    }
+
+    @Benchmark
+    public int countUniqueClients() {
+        return fetcher.countUniqueClients(transactions);
+    }
+
+    @Benchmark
+    public int countUniqueClientsStore() {
+        return fetcher.countUniqueClients(store);
+    }
+
+    @Benchmark
+    public int countUniqueClientsParallel() {
+        return parallelFetcher.countUniqueClients(transactions);
+    }
+
+    @Benchmark
+    public boolean hasOpenComplianceIssues() {
+        return fetcher.hasOpenComplianceIssues(client, transactions);
+    }
+
+    @Benchmark
+    public boolean hasOpenComplianceIssuesStore() {
+        return fetcher.hasOpenComplianceIssues(client, store);
+    }
+
+    @Benchmark
+    public Map<String, List<Transaction>> transactionsByBeneficiaryName() {
+        return fetcher.getTransactionsByBeneficiaryName(transactions);
+    }
+
+    @Benchmark
+    public Map<String, List<Transaction>> transactionsByBeneficiaryNameStore() {
+        return fetcher.getTransactionsByBeneficiaryName(store);
+    }
+
+    @Benchmark
+    public Set<Long> unsolvedIssueIds() {
+        return fetcher.getUnsolvedIssueIds(transactions);
+    }
+
+    @Benchmark
+    public Set<Long> unsolvedIssueIdsStore() {
+        return fetcher.getUnsolvedIssueIds(store);
+    }
+
+    @Benchmark
+    public List<String> allSolvedIssueMessages() {
+        return fetcher.getAllSolvedIssueMessages(transactions);
+    }
+
+    @Benchmark
+    public List<String> allSolvedIssueMessagesStore() {
+        return fetcher.getAllSolvedIssueMessages(store);
+    }
+
+    @Benchmark
+    public List<Transaction> top3TransactionsByAmount() {
+        return fetcher.getTop3TransactionsByAmount(transactions);
+    }
+
+    @Benchmark
+    public List<Transaction> top3TransactionsByAmountStore() {
+        return fetcher.getTop3TransactionsByAmount(store);
+    }
+
+    @Benchmark
+    public List<Transaction> top100TransactionsByAmount() {
+        return fetcher.getTopTransactionsByAmount(100, transactions);
+    }
+
+    @Benchmark
+    public Optional<String> topSender() {
+        return fetcher.getTopSender(transactions);
+    }
+
+    @Benchmark
+    public Optional<String> topSenderStore() {
+        return fetcher.getTopSender(store);
+    }
+
+    @Benchmark
+    public List<ClientTotal> top100Senders() {
+        return fetcher.getTopSenders(100, transactions);
+    }
+
+    @Benchmark
+    public TransactionSummary summarizeAllMeasures() {
+        return fetcher.summarize(EnumSet.allOf(Measure.class), transactions);
+    }
+
+    @Benchmark
+    public TransactionSummary summarizeAllMeasuresParallel() {
+        return parallelFetcher.summarize(EnumSet.allOf(Measure.class), transactions);
+    }
+}
@@ -0,0 +1,123 @@
+package com.smallworld.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.smallworld.data.Transaction;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Generates synthetic transaction/issue join rows shaped like <code>transactions.json</code>: a transaction with
+ * issues is repeated once per issue, the others come as a single row with a <code>null</code> issue.
+ * <p>
+ * Output only depends on the seed and the settings, so runs are comparable across engines and machines.
+ */
+public class TransactionGenerator {
+    private static final String[] FIRST_NAMES = {"Tom", "Arthur", "John", "Ada", "Polly", "Michael", "Grace",
+            "Alfie", "Ben", "Aberama", "Esme", "Lizzie", "Finn", "Linda", "Isaiah", "Ruby"};
+    private static final String[] ISSUE_MESSAGES = {"Looks like money laundering", "Never gonna give you up",
+            "Something's fishy", "Investigating", "Sender identity not verified", "Beneficiary on watch list",
+            "Unusual amount for corridor", "Duplicate transfer suspected"};
+    private static final int MAX_ISSUES_PER_TRANSACTION = 3;
+
+    private final SplittableRandom random;
+    private final double issueRatio;
+    private final String[] clients;
+    private long nextMtn = 1;
+    private long nextIssueId = 1;
+
+    /**
+     * @param seed              Seed of the pseudo random sequence.
+     * @param issueRatio        Share of transactions having at least one issue, in [0, 1].
+     * @param clientCardinality Number of distinct client names.
+     */
+    public TransactionGenerator(final long seed, final double issueRatio, final int clientCardinality) {
+        this.random = new SplittableRandom(seed);
+        this.issueRatio = issueRatio;
+        this.clients = new String[clientCardinality];
+        for (int client = 0; client < clientCardinality; client++) {
+            clients[client] = FIRST_NAMES[client % FIRST_NAMES.length] + " Client" + client;
+        }
+    }
+
+    /**
+     * Returns <code>rows</code> join rows
+     */
+    public List<Transaction> generate(final int rows) {
+        final List<Transaction> transactions = new ArrayList<>(rows);
+        generate(rows, transactions::add);
+        return transactions;
+    }
+
+    /**
+     * Writes <code>rows</code> join rows to <code>path</code> as a json array, without holding them in memory
+     */
+    public void writeJson(final Path path, final long rows) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(path);
+             JsonGenerator generator = new JsonFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            generate(rows, transaction -> {
+                try {
+                    writeTransaction(generator, transaction);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
+    }
+
+    private void generate(final long rows, final Consumer<Transaction> consumer) {
+        long generatedRows = 0;
+        while (generatedRows < rows) {
+            final long mtn = nextMtn++;
+            final double amount = Math.round(Math.exp(3 + random.nextDouble() * 5) * 100) / 100.0;
+            final int sender = random.nextInt(clients.length);
+            final int beneficiary = random.nextInt(clients.length);
+            final int senderAge = 18 + random.nextInt(70);
+            final int beneficiaryAge = 18 + random.nextInt(70);
+            final int issues = random.nextDouble() < issueRatio ? 1 + random.nextInt(MAX_ISSUES_PER_TRANSACTION) : 0;
+
+            for (int issue = 0; issue < Math.max(1, issues) && generatedRows < rows; issue++, generatedRows++) {
+                final Transaction.Builder builder = Transaction.Builder.newInstance()
+                        .setMtn(mtn)
+                        .setAmount(amount)
+                        .setSenderFullName(clients[sender])
+                        .setSenderAge(senderAge)
+                        .setBeneficiaryFullName(clients[beneficiary])
+                        .setBeneficiaryAge(beneficiaryAge);
+                if (issues > 0) {
+                    builder.setIssueId(nextIssueId++)
+                            .setIssueSolved(random.nextInt(10) < 7)
+                            .setIssueMessage(ISSUE_MESSAGES[random.nextInt(ISSUE_MESSAGES.length)]);
+                }
+                consumer.accept(builder.build());
+            }
+        }
+    }
+
+    private static void writeTransaction(final JsonGenerator generator, final Transaction transaction) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("mtn", transaction.getMtn());
+        generator.writeNumberField("amount", transaction.getAmount());
+        generator.writeStringField("senderFullName", transaction.getSenderFullName());
+        generator.writeNumberField("senderAge", transaction.getSenderAge());
+        generator.writeStringField("beneficiaryFullName", transaction.getBeneficiaryFullName());
+        generator.writeNumberField("beneficiaryAge", transaction.getBeneficiaryAge());
+        if (transaction.getIssueId() == null) {
+            generator.writeNullField("issueId");
+        } else {
+            generator.writeNumberField("issueId", transaction.getIssueId());
+        }
+        generator.writeBooleanField("issueSolved", transaction.isIssueSolved());
+        generator.writeStringField("issueMessage", transaction.getIssueMessage());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,72 @@
+package com.smallworld.kernel;
+
+import com.smallworld.benchmark.TransactionGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar against vector {@link ColumnKernels} on the reports of {@link TransactionColumns}. The vector kernels are
+ * only there when the main module was installed with <code>-Pvector</code>; the speedup depends on the vector width
+ * of the CPU, so compare both <code>kernels</code> values on each machine the reports run on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules=jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class ColumnKernelsBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"scalar", "vector"})
+    private String kernels;
+
+    private TransactionColumns columns;
+
+    @Setup
+    public void setUp() {
+        final ColumnKernels selected = "scalar".equals(kernels) ? ColumnKernels.scalar() : ColumnKernels.get();
+        if (!"scalar".equals(kernels) && selected == ColumnKernels.scalar()) {
+            throw new IllegalStateException("Vector kernels are not available, install the main module with -Pvector");
+        }
+        columns = TransactionColumns.of(new TransactionGenerator(42, 0.3, 10_000).generate(rows)).using(selected);
+    }
+
+    @Benchmark
+    public double totalAmount() {
+        return columns.getTotalAmount();
+    }
+
+    @Benchmark
+    public double maxAmount() {
+        return columns.getMaxAmount();
+    }
+
+    @Benchmark
+    public int countSolved() {
+        return columns.countSolved();
+    }
+
+    @Benchmark
+    public double totalAmountSentByAgedBetween() {
+        return columns.getTotalAmountSentByAgedBetween(18, 30);
+    }
+
+    @Benchmark
+    public long[] senderAgeHistogram() {
+        return columns.getSenderAgeHistogram(10, 10, 8);
+    }
+}
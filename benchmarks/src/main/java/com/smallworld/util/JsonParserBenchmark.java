@@ -0,0 +1,117 @@
+package com.smallworld.util;
+
+import com.smallworld.benchmark.TransactionGenerator;
+import com.smallworld.data.Transaction;
+import com.smallworld.store.TransactionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cost of loading a generated <code>transactions.json</code>: whole-string deserialization, streaming
+ * deserialization, streaming straight into the columnar store and parallel chunked loading of the array and of
+ * its newline delimited form. Run with <code>-prof gc</code> for allocation
+ * rate and GC counts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class JsonParserBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    @Param({"0.3"})
+    private double issueRatio;
+
+    @Param({"10000"})
+    private int clientCardinality;
+
+    private final JsonParser jsonParser = new JsonParser();
+    private Path file;
+    private Path linesFile;
+    private String json;
+    private ForkJoinPool pool;
+    private ParallelJsonLoader parallelLoader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("transactions", ".json");
+        new TransactionGenerator(42, issueRatio, clientCardinality).writeJson(file, rows);
+        json = Files.readString(file);
+        linesFile = Files.createTempFile("transactions", ".ndjson");
+        try (Stream<Transaction> transactions = jsonParser.toStream(file, Transaction.class)) {
+            final StringBuilder lines = new StringBuilder();
+            transactions.forEach(transaction -> {
+                try {
+                    lines.append(jsonParser.toString(transaction)).append('\n');
+                } catch (ParseException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Files.writeString(linesFile, lines);
+        } catch (ParseException e) {
+            throw new IOException(e);
+        }
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        parallelLoader = new ParallelJsonLoader(pool, 1 << 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(linesFile);
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Transaction[] toObject() throws ParseException {
+        return jsonParser.toObject(json, Transaction[].class);
+    }
+
+    @Benchmark
+    public long toStream() throws ParseException {
+        try (Stream<Transaction> transactions = jsonParser.toStream(file, Transaction.class)) {
+            return transactions.count();
+        }
+    }
+
+    @Benchmark
+    public TransactionStore toStore() throws ParseException {
+        try (Stream<Transaction> transactions = jsonParser.toStream(file, Transaction.class)) {
+            return TransactionStore.of(transactions);
+        }
+    }
+
+    @Benchmark
+    public List<Transaction> readArrayParallel() throws ParseException {
+        return parallelLoader.readArray(file, Transaction.class);
+    }
+
+    @Benchmark
+    public List<Transaction> readLinesParallel() throws ParseException {
+        return parallelLoader.readLines(linesFile, Transaction.class);
+    }
+}
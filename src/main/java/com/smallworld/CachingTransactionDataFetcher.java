@@ -0,0 +1,216 @@
+package com.smallworld;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.store.ClientIndex;
+import com.smallworld.util.LruCache;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.trim;
+
+/**
+ * Memoizing facade answering {@link TransactionDataFetcher} queries over one dataset. Results are cached per query
+ * and argument in a bounded {@link LruCache}, keyed on the dataset version: {@link #reload(List)} bumps the version
+ * and drops every cached result, so a query never sees results computed over a previous dataset. A result still
+ * loading over the previous dataset when it is replaced is returned to its caller but not cached.
+ * <p>
+ * Client names are cached by their case-insensitive form, as the fetcher compares them ignoring case. Returned
+ * collections are read-only and shared between callers.
+ */
+public class CachingTransactionDataFetcher {
+    private final TransactionDataFetcher fetcher;
+    private final LruCache<QueryKey, Object> cache;
+    private volatile Dataset dataset;
+
+    public CachingTransactionDataFetcher(final TransactionDataFetcher fetcher,
+                                         final List<Transaction> transactions,
+                                         final int maxEntries) {
+        this.fetcher = fetcher;
+        this.cache = new LruCache<>(maxEntries);
+        this.dataset = new Dataset(0, transactions);
+    }
+
+    /**
+     * Replaces the dataset and invalidates every cached result
+     *
+     * @return the new dataset version
+     */
+    public long reload(final List<Transaction> transactions) {
+        synchronized (cache) {
+            dataset = new Dataset(dataset.version + 1, transactions);
+            cache.clear();
+            return dataset.version;
+        }
+    }
+
+    public long getVersion() {
+        return dataset.version;
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Returns the sum of the amounts of all successful transactions
+     */
+    public double getTotalTransactionAmount() {
+        final Dataset current = dataset;
+        return cached(current, Query.TOTAL_AMOUNT, null,
+                () -> fetcher.getTotalTransactionAmount(current.transactions));
+    }
+
+    /**
+     * Returns the sum of the amounts of all successful transactions sent by the specified client
+     */
+    public double getTotalTransactionAmountSentBy(final String senderFullName) {
+        final Dataset current = dataset;
+        return cached(current, Query.TOTAL_AMOUNT_SENT_BY, clientKey(senderFullName),
+                () -> fetcher.getTotalTransactionAmountSentBy(senderFullName, current.transactions));
+    }
+
+    /**
+     * Returns the highest successful transaction amount
+     */
+    public double getMaxTransactionAmount() {
+        final Dataset current = dataset;
+        return cached(current, Query.MAX_AMOUNT, null,
+                () -> fetcher.getMaxTransactionAmount(current.transactions));
+    }
+
+    /**
+     * Counts the number of unique clients that sent or received a successful transaction
+     */
+    public int countUniqueClients() {
+        final Dataset current = dataset;
+        return cached(current, Query.UNIQUE_CLIENTS, null,
+                () -> fetcher.countUniqueClients(current.transactions));
+    }
+
+    /**
+     * Returns whether a client (sender or beneficiary) has at least one transaction with a compliance
+     * issue that has not been solved
+     */
+    public boolean hasOpenComplianceIssues(final String clientFullName) {
+        final Dataset current = dataset;
+        return cached(current, Query.HAS_OPEN_COMPLIANCE_ISSUES, clientKey(clientFullName),
+                () -> fetcher.hasOpenComplianceIssues(clientFullName, current.transactions));
+    }
+
+    /**
+     * Returns all transactions indexed by beneficiary name
+     */
+    public Map<String, List<Transaction>> getTransactionsByBeneficiaryName() {
+        final Dataset current = dataset;
+        return cached(current, Query.TRANSACTIONS_BY_BENEFICIARY_NAME, null, () -> {
+            final Map<String, List<Transaction>> transactionsByBeneficiaryName = new LinkedHashMap<>();
+            fetcher.getTransactionsByBeneficiaryName(current.transactions).forEach((beneficiaryFullName, transactions) ->
+                    transactionsByBeneficiaryName.put(beneficiaryFullName, Collections.unmodifiableList(transactions)));
+            return Collections.unmodifiableMap(transactionsByBeneficiaryName);
+        });
+    }
+
+    /**
+     * Returns the identifiers of all open compliance issues
+     */
+    public Set<Long> getUnsolvedIssueIds() {
+        final Dataset current = dataset;
+        return cached(current, Query.UNSOLVED_ISSUE_IDS, null,
+                () -> Collections.unmodifiableSet(fetcher.getUnsolvedIssueIds(current.transactions)));
+    }
+
+    /**
+     * Returns a list of all solved issue messages
+     */
+    public List<String> getAllSolvedIssueMessages() {
+        final Dataset current = dataset;
+        return cached(current, Query.SOLVED_ISSUE_MESSAGES, null,
+                () -> Collections.unmodifiableList(fetcher.getAllSolvedIssueMessages(current.transactions)));
+    }
+
+    /**
+     * Returns the 3 transactions with the highest amount sorted by amount descending
+     */
+    public List<Transaction> getTop3TransactionsByAmount() {
+        final Dataset current = dataset;
+        return cached(current, Query.TOP_3_TRANSACTIONS, null,
+                () -> Collections.unmodifiableList(fetcher.getTop3TransactionsByAmount(current.transactions)));
+    }
+
+    /**
+     * Returns the senderFullName of the sender with the most total sent amount
+     */
+    public Optional<String> getTopSender() {
+        final Dataset current = dataset;
+        return cached(current, Query.TOP_SENDER, null, () -> fetcher.getTopSender(current.transactions));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(final Dataset current, final Query query, final String argument, final Supplier<T> loader) {
+        return (T) cache.get(new QueryKey(current.version, query, argument), loader, () -> dataset == current);
+    }
+
+    private static String clientKey(final String clientFullName) {
+        return isBlank(clientFullName) ? clientFullName : ClientIndex.canonicalize(trim(clientFullName));
+    }
+
+    private enum Query {
+        TOTAL_AMOUNT,
+        TOTAL_AMOUNT_SENT_BY,
+        MAX_AMOUNT,
+        UNIQUE_CLIENTS,
+        HAS_OPEN_COMPLIANCE_ISSUES,
+        TRANSACTIONS_BY_BENEFICIARY_NAME,
+        UNSOLVED_ISSUE_IDS,
+        SOLVED_ISSUE_MESSAGES,
+        TOP_3_TRANSACTIONS,
+        TOP_SENDER
+    }
+
+    private static final class Dataset {
+        private final long version;
+        private final List<Transaction> transactions;
+
+        private Dataset(final long version, final List<Transaction> transactions) {
+            this.version = version;
+            this.transactions = transactions;
+        }
+    }
+
+    private static final class QueryKey {
+        private final long version;
+        private final Query query;
+        private final String argument;
+
+        private QueryKey(final long version, final Query query, final String argument) {
+            this.version = version;
+            this.query = query;
+            this.argument = argument;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof QueryKey
+                    && version == ((QueryKey) obj).version
+                    && query == ((QueryKey) obj).query
+                    && Objects.equals(argument, ((QueryKey) obj).argument);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(version, query, argument);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.smallworld;
+
+import com.smallworld.aggregate.TopN;
+import com.smallworld.data.ClientTotal;
+import com.smallworld.data.MinorUnits;
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import com.smallworld.store.ClientIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+import static org.apache.commons.lang3.StringUtils.trim;
+
+/**
+ * Thread-safe counterpart of {@link IncrementalTransactionDataFetcher} for one in-memory dataset that request
+ * threads query while ingest threads {@link #append(Transaction) append} to it.
+ * <p>
+ * No lock is taken on the read path: sums are striped {@link LongAdder}s of {@link MinorUnits micros}, clients and
+ * issues live in concurrent sets, and the top transactions are an immutable snapshot swapped in by compare-and-set,
+ * so readers neither block on writers nor contend with each other. Each answer reflects every append that completed before the query
+ * started, and possibly some in flight; answers of different queries are not taken atomically together.
+ * <p>
+ * Answers match the {@link TransactionDataFetcher} methods run over the appended transactions, sums included as
+ * integer stripes add up exactly, except that ties between top transactions are broken by append order. Unlike
+ * theirs, these sums are not checked for overflow: past {@link Long#MAX_VALUE} micros, about 9.2 trillion major
+ * units, they wrap around.
+ */
+public class ConcurrentTransactionDataFetcher {
+    private static final int TOP_TRANSACTIONS_SIZE = 3;
+
+    private final LongAdder totalAmountMicros = new LongAdder();
+    private final LongAccumulator maxAmountMicros = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    private final Set<String> clients = ConcurrentHashMap.newKeySet();
+    private final Set<Long> unsolvedIssueIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean unsolvedIssueWithoutIdSeen;
+    private final Set<String> clientsWithOpenIssues = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<String> solvedIssueMessages = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<List<Transaction>> topTransactions = new AtomicReference<>(List.of());
+    private final ConcurrentHashMap<String, LongAdder> senderTotals = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> senderTotalsByClient = new ConcurrentHashMap<>();
+
+    /**
+     * Records a new transaction row, safe to call from several threads. A row without sender or beneficiary name is
+     * rejected before any state is updated.
+     */
+    public ConcurrentTransactionDataFetcher append(final Transaction transaction) {
+        if (transaction.getSenderFullName() == null || transaction.getBeneficiaryFullName() == null) {
+            throw new OperationException("Transaction " + transaction.getMtn() + " needs a sender and a beneficiary name");
+        }
+        final long amountMicros = transaction.getAmountMicros();
+        offerTopTransaction(transaction);
+
+        if (!transaction.isIssueSolved()) {
+            if (transaction.getIssueId() == null) {
+                unsolvedIssueWithoutIdSeen = true;
+            } else {
+                unsolvedIssueIds.add(transaction.getIssueId());
+            }
+            clientsWithOpenIssues.add(ClientIndex.canonicalize(transaction.getSenderFullName()));
+            clientsWithOpenIssues.add(ClientIndex.canonicalize(transaction.getBeneficiaryFullName()));
+            return this;
+        }
+
+        totalAmountMicros.add(amountMicros);
+        maxAmountMicros.accumulate(amountMicros);
+        clients.add(transaction.getBeneficiaryFullName());
+        clients.add(transaction.getSenderFullName());
+        if (!isEmpty(transaction.getIssueMessage())) {
+            solvedIssueMessages.add(transaction.getIssueMessage());
+        }
+        adderOf(senderTotals, transaction.getSenderFullName()).add(amountMicros);
+        adderOf(senderTotalsByClient, ClientIndex.canonicalize(transaction.getSenderFullName())).add(amountMicros);
+        return this;
+    }
+
+    public ConcurrentTransactionDataFetcher appendAll(final List<Transaction> transactions) {
+        transactions.forEach(this::append);
+        return this;
+    }
+
+    /**
+     * Returns the sum of the amounts of all successful transactions
+     */
+    public double getTotalTransactionAmount() {
+        return MinorUnits.microsToDouble(totalAmountMicros.sum());
+    }
+
+    /**
+     * Returns the sum of the amounts of all successful transactions sent by the specified client
+     */
+    public double getTotalTransactionAmountSentBy(final String senderFullName) {
+        if (isBlank(senderFullName)) {
+            throw new OperationException("Operation is not allowed with null or empty sender name");
+        }
+
+        final LongAdder senderTotal = senderTotalsByClient.get(ClientIndex.canonicalize(trim(senderFullName)));
+        return senderTotal == null ? 0 : MinorUnits.microsToDouble(senderTotal.sum());
+    }
+
+    /**
+     * Returns the highest successful transaction amount
+     */
+    public double getMaxTransactionAmount() {
+        final long max = maxAmountMicros.get();
+        return max == Long.MIN_VALUE ? 0 : MinorUnits.microsToDouble(max);
+    }
+
+    /**
+     * Counts the number of unique clients that sent or received a successful transaction
+     */
+    public int countUniqueClients() {
+        return clients.size();
+    }
+
+    /**
+     * Returns whether a client (sender or beneficiary) has at least one transaction with a compliance
+     * issue that has not been solved
+     */
+    public boolean hasOpenComplianceIssues(final String clientFullName) {
+        if (isBlank(clientFullName)) {
+            throw new OperationException("Operation is not allowed with null or empty client name");
+        }
+
+        return clientsWithOpenIssues.contains(ClientIndex.canonicalize(trim(clientFullName)));
+    }
+
+    /**
+     * Returns a copy of the identifiers of all open compliance issues
+     */
+    public Set<Long> getUnsolvedIssueIds() {
+        final Set<Long> issueIds = new HashSet<>(unsolvedIssueIds);
+        if (unsolvedIssueWithoutIdSeen) {
+            issueIds.add(null);
+        }
+        return issueIds;
+    }
+
+    /**
+     * Returns a copy of all solved issue messages, in append order
+     */
+    public List<String> getAllSolvedIssueMessages() {
+        return new ArrayList<>(solvedIssueMessages);
+    }
+
+    /**
+     * Returns the 3 transactions with the highest amount sorted by amount descending
+     */
+    public List<Transaction> getTop3TransactionsByAmount() {
+        return topTransactions.get();
+    }
+
+    /**
+     * Returns the senderFullName of the sender with the most total sent amount
+     */
+    public Optional<String> getTopSender() {
+        return getTopSenders(1).stream()
+                .findFirst()
+                .map(ClientTotal::getClientFullName);
+    }
+
+    /**
+     * Returns the n senders with the most total sent amount in successful transactions, highest first
+     */
+    public List<ClientTotal> getTopSenders(final int n) {
+        final TopN<ClientTotal> topSenders = new TopN<>(n, ClientTotal.BY_TOTAL_AMOUNT_DESCENDING);
+        senderTotals.forEach((senderFullName, senderTotal) ->
+                topSenders.offer(new ClientTotal(senderFullName, MinorUnits.microsToDouble(senderTotal.sum()))));
+        return topSenders.toList();
+    }
+
+    /**
+     * Inserts <code>transaction</code> into a copy of the current top transactions and publishes the copy,
+     * retrying when another writer published first. Transactions below the current third, the common case once
+     * the dataset grows, are rejected by a single read without writing anything.
+     */
+    private void offerTopTransaction(final Transaction transaction) {
+        while (true) {
+            final List<Transaction> current = topTransactions.get();
+            final int size = current.size();
+            if (size == TOP_TRANSACTIONS_SIZE && transaction.getAmount() <= current.get(size - 1).getAmount()) {
+                return;
+            }
+
+            int position = size;
+            for (int index = 0; index < size; index++) {
+                if (current.get(index).getMtn().equals(transaction.getMtn())) {
+                    return;
+                }
+                if (position == size && transaction.getAmount() > current.get(index).getAmount()) {
+                    position = index;
+                }
+            }
+
+            final List<Transaction> next = new ArrayList<>(current);
+            next.add(position, transaction);
+            if (next.size() > TOP_TRANSACTIONS_SIZE) {
+                next.remove(TOP_TRANSACTIONS_SIZE);
+            }
+            if (topTransactions.compareAndSet(current, Collections.unmodifiableList(next))) {
+                return;
+            }
+        }
+    }
+
+    private static LongAdder adderOf(final ConcurrentHashMap<String, LongAdder> adders, final String key) {
+        final LongAdder adder = adders.get(key);
+        return adder != null ? adder : adders.computeIfAbsent(key, name -> new LongAdder());
+    }
+}
@@ -0,0 +1,255 @@
+package com.smallworld;
+
+import com.smallworld.aggregate.TopN;
+import com.smallworld.data.MinorUnits;
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import com.smallworld.store.ClientIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import static java.util.Comparator.comparingDouble;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+import static org.apache.commons.lang3.StringUtils.trim;
+
+/**
+ * Stateful counterpart of {@link TransactionDataFetcher} fed by a stream of events: new transaction rows are
+ * {@link #append(Transaction) appended} and open issues are later {@link #resolveIssue(long, long) resolved}.
+ * Every aggregate is kept up to date on each event in O(1) or O(log n), so queries are plain reads.
+ * <p>
+ * Answers match the {@link TransactionDataFetcher} methods run over the rows seen so far with resolved issues
+ * marked as solved, top transactions included. Open rows without an issue id cannot be resolved, as there is no id
+ * to name them by, and stay open. Instances are not thread-safe.
+ */
+public class IncrementalTransactionDataFetcher {
+    private static final int TOP_TRANSACTIONS_SIZE = 3;
+    private static final Comparator<SenderTotal> TOP_SENDER_ORDER = Comparator
+            .comparingLong((SenderTotal senderTotal) -> senderTotal.totalMicros).reversed()
+            .thenComparing(senderTotal -> senderTotal.senderFullName);
+
+    private long totalAmountMicros;
+    private long maxAmountMicros;
+    private boolean solvedTransactionSeen;
+    private final Set<String> clients = new HashSet<>();
+    private final Map<Long, Integer> openIssueRowCounts = new HashMap<>();
+    private final Map<IssueKey, List<Transaction>> openIssueRows = new HashMap<>();
+    private final Map<String, Integer> openIssueRowCountsByClient = new HashMap<>();
+    private final List<String> solvedIssueMessages = new ArrayList<>();
+    private final TopN<Transaction> topTransactions = new TopN<>(TOP_TRANSACTIONS_SIZE,
+            comparingDouble(Transaction::getAmount).reversed(), Transaction::getMtn);
+    private final Map<String, SenderTotal> senderTotals = new HashMap<>();
+    private final TreeSet<SenderTotal> senderTotalsByAmount = new TreeSet<>(TOP_SENDER_ORDER);
+    private final Map<String, Long> senderTotalsByClient = new HashMap<>();
+
+    /**
+     * Records a new transaction row. A row without sender or beneficiary name is rejected before any state is updated.
+     */
+    public void append(final Transaction transaction) {
+        if (transaction.getSenderFullName() == null || transaction.getBeneficiaryFullName() == null) {
+            throw new OperationException("Transaction " + transaction.getMtn() + " needs a sender and a beneficiary name");
+        }
+
+        topTransactions.offer(transaction);
+
+        if (transaction.isIssueSolved()) {
+            acceptSolved(transaction);
+            return;
+        }
+
+        openIssueRowCounts.merge(transaction.getIssueId(), 1, Integer::sum);
+        openIssueRows.computeIfAbsent(new IssueKey(transaction.getMtn(), transaction.getIssueId()), key -> new ArrayList<>(1))
+                .add(transaction);
+        forEachClient(transaction, client -> openIssueRowCountsByClient.merge(client, 1, Integer::sum));
+    }
+
+    /**
+     * Marks the open issue <code>issueId</code> of transaction <code>mtn</code> as solved. Its rows are replaced by
+     * solved copies, as {@link Transaction} is immutable.
+     *
+     * @return whether there was such an open issue
+     */
+    public boolean resolveIssue(final long mtn, final long issueId) {
+        final List<Transaction> rows = openIssueRows.remove(new IssueKey(mtn, issueId));
+        if (rows == null) {
+            return false;
+        }
+
+        for (final Transaction row : rows) {
+            openIssueRowCounts.computeIfPresent(row.getIssueId(), (id, count) -> count == 1 ? null : count - 1);
+            forEachClient(row, client -> openIssueRowCountsByClient.computeIfPresent(client,
+                    (name, count) -> count == 1 ? null : count - 1));
+            final Transaction solvedRow = solvedCopy(row);
+            topTransactions.replace(row, solvedRow);
+            acceptSolved(solvedRow);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the sum of the amounts of all successful transactions
+     */
+    public double getTotalTransactionAmount() {
+        return MinorUnits.microsToDouble(totalAmountMicros);
+    }
+
+    /**
+     * Returns the sum of the amounts of all successful transactions sent by the specified client
+     */
+    public double getTotalTransactionAmountSentBy(final String senderFullName) {
+        if (isBlank(senderFullName)) {
+            throw new OperationException("Operation is not allowed with null or empty sender name");
+        }
+
+        return MinorUnits.microsToDouble(senderTotalsByClient.getOrDefault(ClientIndex.canonicalize(trim(senderFullName)), 0L));
+    }
+
+    /**
+     * Returns the highest successful transaction amount
+     */
+    public double getMaxTransactionAmount() {
+        return MinorUnits.microsToDouble(maxAmountMicros);
+    }
+
+    /**
+     * Counts the number of unique clients that sent or received a successful transaction
+     */
+    public int countUniqueClients() {
+        return clients.size();
+    }
+
+    /**
+     * Returns whether a client (sender or beneficiary) has at least one transaction with a compliance
+     * issue that has not been solved
+     */
+    public boolean hasOpenComplianceIssues(final String clientFullName) {
+        if (isBlank(clientFullName)) {
+            throw new OperationException("Operation is not allowed with null or empty client name");
+        }
+
+        return openIssueRowCountsByClient.containsKey(ClientIndex.canonicalize(trim(clientFullName)));
+    }
+
+    /**
+     * Returns a live, read-only view of the identifiers of all open compliance issues
+     */
+    public Set<Long> getUnsolvedIssueIds() {
+        return Collections.unmodifiableSet(openIssueRowCounts.keySet());
+    }
+
+    /**
+     * Returns a live, read-only view of all solved issue messages, in the order the issues got solved
+     */
+    public List<String> getAllSolvedIssueMessages() {
+        return Collections.unmodifiableList(solvedIssueMessages);
+    }
+
+    /**
+     * Returns the 3 transactions with the highest amount sorted by amount descending
+     */
+    public List<Transaction> getTop3TransactionsByAmount() {
+        return topTransactions.toList();
+    }
+
+    /**
+     * Returns the senderFullName of the sender with the most total sent amount, the first name in natural order
+     * on ties
+     */
+    public Optional<String> getTopSender() {
+        return senderTotalsByAmount.isEmpty()
+                ? Optional.empty()
+                : Optional.of(senderTotalsByAmount.first().senderFullName);
+    }
+
+    private void acceptSolved(final Transaction transaction) {
+        final long amountMicros = transaction.getAmountMicros();
+        totalAmountMicros = Math.addExact(totalAmountMicros, amountMicros);
+        if (!solvedTransactionSeen || amountMicros > maxAmountMicros) {
+            maxAmountMicros = amountMicros;
+        }
+        solvedTransactionSeen = true;
+
+        clients.add(transaction.getBeneficiaryFullName());
+        clients.add(transaction.getSenderFullName());
+        if (!isEmpty(transaction.getIssueMessage())) {
+            solvedIssueMessages.add(transaction.getIssueMessage());
+        }
+
+        final SenderTotal previousTotal = senderTotals.get(transaction.getSenderFullName());
+        final SenderTotal senderTotal = new SenderTotal(transaction.getSenderFullName(),
+                previousTotal == null ? amountMicros : Math.addExact(previousTotal.totalMicros, amountMicros));
+        if (previousTotal != null) {
+            senderTotalsByAmount.remove(previousTotal);
+        }
+        senderTotals.put(senderTotal.senderFullName, senderTotal);
+        senderTotalsByAmount.add(senderTotal);
+        senderTotalsByClient.merge(ClientIndex.canonicalize(transaction.getSenderFullName()), amountMicros, Math::addExact);
+    }
+
+    private static Transaction solvedCopy(final Transaction row) {
+        return Transaction.Builder.newInstance()
+                .setMtn(row.getMtn())
+                .setAmount(row.getAmountMinorUnits(), row.getAmountScale())
+                .setSenderFullName(row.getSenderFullName())
+                .setSenderAge(row.getSenderAge())
+                .setBeneficiaryFullName(row.getBeneficiaryFullName())
+                .setBeneficiaryAge(row.getBeneficiaryAge())
+                .setIssueId(row.getIssueId())
+                .setIssueSolved(true)
+                .setIssueMessage(row.getIssueMessage())
+                .setTimestamp(row.getTimestamp())
+                .build();
+    }
+
+    private static void forEachClient(final Transaction transaction, final Consumer<String> action) {
+        final String sender = ClientIndex.canonicalize(transaction.getSenderFullName());
+        final String beneficiary = ClientIndex.canonicalize(transaction.getBeneficiaryFullName());
+        action.accept(sender);
+        if (!beneficiary.equals(sender)) {
+            action.accept(beneficiary);
+        }
+    }
+
+    private static final class SenderTotal {
+        private final String senderFullName;
+        private final long totalMicros;
+
+        private SenderTotal(final String senderFullName, final long totalMicros) {
+            this.senderFullName = senderFullName;
+            this.totalMicros = totalMicros;
+        }
+    }
+
+    private static final class IssueKey {
+        private final long mtn;
+        private final Long issueId;
+
+        private IssueKey(final long mtn, final Long issueId) {
+            this.mtn = mtn;
+            this.issueId = issueId;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof IssueKey
+                    && mtn == ((IssueKey) obj).mtn
+                    && Objects.equals(issueId, ((IssueKey) obj).issueId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(mtn) + Objects.hashCode(issueId);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.smallworld;
+
+import com.smallworld.aggregate.Measure;
+import com.smallworld.aggregate.TransactionSummary;
+import com.smallworld.data.ClientTotal;
+import com.smallworld.data.NormalizedTransaction;
+import com.smallworld.data.Transaction;
+import com.smallworld.metrics.MetricsRecorder;
+import com.smallworld.store.TransactionTable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.smallworld.metrics.Instrumentation.UNKNOWN_ROWS;
+import static com.smallworld.metrics.Instrumentation.time;
+
+/**
+ * {@link TransactionDataFetcher} recording, for every query, its latency as timer <code>fetcher.&lt;method&gt;</code>
+ * and the number of calls and of input rows (list and table inputs only) as counters, see
+ * {@link com.smallworld.metrics.Instrumentation}. With {@link MetricsRecorder#NOOP} queries run untimed.
+ */
+public class InstrumentedTransactionDataFetcher extends TransactionDataFetcher {
+    private final MetricsRecorder metrics;
+
+    public InstrumentedTransactionDataFetcher(final MetricsRecorder metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    double getTotalTransactionAmount(final List<Transaction> transactions) {
+        return time(metrics, "fetcher.getTotalTransactionAmount", transactions.size(),
+                () -> super.getTotalTransactionAmount(transactions));
+    }
+
+    @Override
+    double getTotalTransactionAmount(final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.getTotalTransactionAmount", UNKNOWN_ROWS,
+                () -> super.getTotalTransactionAmount(transactions));
+    }
+
+    @Override
+    double getTotalTransactionAmount(final TransactionTable table) {
+        return time(metrics, "fetcher.getTotalTransactionAmount", table.size(),
+                () -> super.getTotalTransactionAmount(table));
+    }
+
+    @Override
+    double getTotalTransactionAmountSentBy(final String senderFullName, final List<Transaction> transactions) {
+        return time(metrics, "fetcher.getTotalTransactionAmountSentBy", transactions.size(),
+                () -> super.getTotalTransactionAmountSentBy(senderFullName, transactions));
+    }
+
+    @Override
+    double getTotalTransactionAmountSentBy(final String senderFullName, final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.getTotalTransactionAmountSentBy", UNKNOWN_ROWS,
+                () -> super.getTotalTransactionAmountSentBy(senderFullName, transactions));
+    }
+
+    @Override
+    double getTotalTransactionAmountSentBy(final String senderFullName, final TransactionTable table) {
+        return time(metrics, "fetcher.getTotalTransactionAmountSentBy", table.size(),
+                () -> super.getTotalTransactionAmountSentBy(senderFullName, table));
+    }
+
+    @Override
+    double getMaxTransactionAmount(final List<Transaction> transactions) {
+        return time(metrics, "fetcher.getMaxTransactionAmount", transactions.size(),
+                () -> super.getMaxTransactionAmount(transactions));
+    }
+
+    @Override
+    double getMaxTransactionAmount(final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.getMaxTransactionAmount", UNKNOWN_ROWS,
+                () -> super.getMaxTransactionAmount(transactions));
+    }
+
+    @Override
+    double getMaxTransactionAmount(final TransactionTable table) {
+        return time(metrics, "fetcher.getMaxTransactionAmount", table.size(),
+                () -> super.getMaxTransactionAmount(table));
+    }
+
+    @Override
+    int countUniqueClients(final List<Transaction> transactions) {
+        return time(metrics, "fetcher.countUniqueClients", transactions.size(),
+                () -> super.countUniqueClients(transactions));
+    }
+
+    @Override
+    int countUniqueClients(final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.countUniqueClients", UNKNOWN_ROWS,
+                () -> super.countUniqueClients(transactions));
+    }
+
+    @Override
+    int countUniqueClients(final TransactionTable table) {
+        return time(metrics, "fetcher.countUniqueClients", table.size(),
+                () -> super.countUniqueClients(table));
+    }
+
+    @Override
+    long estimateUniqueClients(final int precision, final List<Transaction> transactions) {
+        return time(metrics, "fetcher.estimateUniqueClients", transactions.size(),
+                () -> super.estimateUniqueClients(precision, transactions));
+    }
+
+    @Override
+    long estimateUniqueClients(final int precision, final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.estimateUniqueClients", UNKNOWN_ROWS,
+                () -> super.estimateUniqueClients(precision, transactions));
+    }
+
+    @Override
+    long estimateUniqueClients(final int precision, final TransactionTable table) {
+        return time(metrics, "fetcher.estimateUniqueClients", table.size(),
+                () -> super.estimateUniqueClients(precision, table));
+    }
+
+    @Override
+    boolean hasOpenComplianceIssues(final String clientFullName, final List<Transaction> transactions) {
+        return time(metrics, "fetcher.hasOpenComplianceIssues", transactions.size(),
+                () -> super.hasOpenComplianceIssues(clientFullName, transactions));
+    }
+
+    @Override
+    boolean hasOpenComplianceIssues(final String clientFullName, final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.hasOpenComplianceIssues", UNKNOWN_ROWS,
+                () -> super.hasOpenComplianceIssues(clientFullName, transactions));
+    }
+
+    @Override
+    boolean hasOpenComplianceIssues(final String clientFullName, final TransactionTable table) {
+        return time(metrics, "fetcher.hasOpenComplianceIssues", table.size(),
+                () -> super.hasOpenComplianceIssues(clientFullName, table));
+    }
+
+    @Override
+    Map<String, List<Transaction>> getTransactionsByBeneficiaryName(final List<Transaction> transactions) {
+        return time(metrics, "fetcher.getTransactionsByBeneficiaryName", transactions.size(),
+                () -> super.getTransactionsByBeneficiaryName(transactions));
+    }
+
+    @Override
+    Map<String, List<Transaction>> getTransactionsByBeneficiaryName(final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.getTransactionsByBeneficiaryName", UNKNOWN_ROWS,
+                () -> super.getTransactionsByBeneficiaryName(transactions));
+    }
+
+    @Override
+    Map<String, List<Transaction>> getTransactionsByBeneficiaryName(final TransactionTable table) {
+        return time(metrics, "fetcher.getTransactionsByBeneficiaryName", table.size(),
+                () -> super.getTransactionsByBeneficiaryName(table));
+    }
+
+    @Override
+    Set<Long> getUnsolvedIssueIds(final List<Transaction> transactions) {
+        return time(metrics, "fetcher.getUnsolvedIssueIds", transactions.size(),
+                () -> super.getUnsolvedIssueIds(transactions));
+    }
+
+    @Override
+    Set<Long> getUnsolvedIssueIds(final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.getUnsolvedIssueIds", UNKNOWN_ROWS,
+                () -> super.getUnsolvedIssueIds(transactions));
+    }
+
+    @Override
+    Set<Long> getUnsolvedIssueIds(final TransactionTable table) {
+        return time(metrics, "fetcher.getUnsolvedIssueIds", table.size(),
+                () -> super.getUnsolvedIssueIds(table));
+    }
+
+    @Override
+    List<String> getAllSolvedIssueMessages(final List<Transaction> transactions) {
+        return time(metrics, "fetcher.getAllSolvedIssueMessages", transactions.size(),
+                () -> super.getAllSolvedIssueMessages(transactions));
+    }
+
+    @Override
+    List<String> getAllSolvedIssueMessages(final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.getAllSolvedIssueMessages", UNKNOWN_ROWS,
+                () -> super.getAllSolvedIssueMessages(transactions));
+    }
+
+    @Override
+    List<String> getAllSolvedIssueMessages(final TransactionTable table) {
+        return time(metrics, "fetcher.getAllSolvedIssueMessages", table.size(),
+                () -> super.getAllSolvedIssueMessages(table));
+    }
+
+    @Override
+    List<Transaction> getTop3TransactionsByAmount(final List<Transaction> transactions) {
+        return time(metrics, "fetcher.getTop3TransactionsByAmount", transactions.size(),
+                () -> super.getTop3TransactionsByAmount(transactions));
+    }
+
+    @Override
+    List<Transaction> getTop3TransactionsByAmount(final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.getTop3TransactionsByAmount", UNKNOWN_ROWS,
+                () -> super.getTop3TransactionsByAmount(transactions));
+    }
+
+    @Override
+    List<Transaction> getTop3TransactionsByAmount(final TransactionTable table) {
+        return time(metrics, "fetcher.getTop3TransactionsByAmount", table.size(),
+                () -> super.getTop3TransactionsByAmount(table));
+    }
+
+    @Override
+    List<Transaction> getTopTransactionsByAmount(final int n, final List<Transaction> transactions) {
+        return time(metrics, "fetcher.getTopTransactionsByAmount", transactions.size(),
+                () -> super.getTopTransactionsByAmount(n, transactions));
+    }
+
+    @Override
+    List<Transaction> getTopTransactionsByAmount(final int n, final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.getTopTransactionsByAmount", UNKNOWN_ROWS,
+                () -> super.getTopTransactionsByAmount(n, transactions));
+    }
+
+    @Override
+    List<Transaction> getTopTransactionsByAmount(final int n, final TransactionTable table) {
+        return time(metrics, "fetcher.getTopTransactionsByAmount", table.size(),
+                () -> super.getTopTransactionsByAmount(n, table));
+    }
+
+    @Override
+    Optional<String> getTopSender(final List<Transaction> transactions) {
+        return time(metrics, "fetcher.getTopSender", transactions.size(),
+                () -> super.getTopSender(transactions));
+    }
+
+    @Override
+    Optional<String> getTopSender(final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.getTopSender", UNKNOWN_ROWS,
+                () -> super.getTopSender(transactions));
+    }
+
+    @Override
+    Optional<String> getTopSender(final TransactionTable table) {
+        return time(metrics, "fetcher.getTopSender", table.size(),
+                () -> super.getTopSender(table));
+    }
+
+    @Override
+    List<ClientTotal> getTopSenders(final int n, final List<Transaction> transactions) {
+        return time(metrics, "fetcher.getTopSenders", transactions.size(),
+                () -> super.getTopSenders(n, transactions));
+    }
+
+    @Override
+    List<ClientTotal> getTopSenders(final int n, final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.getTopSenders", UNKNOWN_ROWS,
+                () -> super.getTopSenders(n, transactions));
+    }
+
+    @Override
+    List<ClientTotal> getTopSenders(final int n, final TransactionTable table) {
+        return time(metrics, "fetcher.getTopSenders", table.size(),
+                () -> super.getTopSenders(n, table));
+    }
+
+    @Override
+    List<ClientTotal> getTopBeneficiaries(final int n, final List<Transaction> transactions) {
+        return time(metrics, "fetcher.getTopBeneficiaries", transactions.size(),
+                () -> super.getTopBeneficiaries(n, transactions));
+    }
+
+    @Override
+    List<ClientTotal> getTopBeneficiaries(final int n, final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.getTopBeneficiaries", UNKNOWN_ROWS,
+                () -> super.getTopBeneficiaries(n, transactions));
+    }
+
+    @Override
+    List<ClientTotal> getTopBeneficiaries(final int n, final TransactionTable table) {
+        return time(metrics, "fetcher.getTopBeneficiaries", table.size(),
+                () -> super.getTopBeneficiaries(n, table));
+    }
+
+    @Override
+    TransactionSummary summarize(final Set<Measure> measures, final List<Transaction> transactions) {
+        return time(metrics, "fetcher.summarize", transactions.size(),
+                () -> super.summarize(measures, transactions));
+    }
+
+    @Override
+    TransactionSummary summarize(final Set<Measure> measures, final Stream<Transaction> transactions) {
+        return time(metrics, "fetcher.summarize", UNKNOWN_ROWS,
+                () -> super.summarize(measures, transactions));
+    }
+
+    @Override
+    TransactionSummary summarizeTransfers(final Set<Measure> measures, final Stream<NormalizedTransaction> transactions) {
+        return time(metrics, "fetcher.summarizeTransfers", UNKNOWN_ROWS,
+                () -> super.summarizeTransfers(measures, transactions));
+    }
+}
@@ -0,0 +1,250 @@
+package com.smallworld;
+
+import com.smallworld.aggregate.Measure;
+import com.smallworld.aggregate.TopN;
+import com.smallworld.aggregate.TransactionAggregator;
+import com.smallworld.aggregate.TransactionSummary;
+import com.smallworld.data.ClientTotal;
+import com.smallworld.data.MinorUnits;
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.util.Comparator.comparingDouble;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+import static org.apache.commons.lang3.StringUtils.trim;
+
+/**
+ * {@link TransactionDataFetcher} running its list based queries on a {@link ForkJoinPool}. The list is split into
+ * ranges of at most <code>splitThreshold</code> transactions, each range fills its own accumulator and accumulators
+ * of neighbouring ranges are combined left to right, so answers are the ones of the sequential fetcher. Amounts
+ * are added as integer {@link MinorUnits micros}, so sums match the sequential ones exactly too.
+ */
+public class ParallelTransactionDataFetcher extends TransactionDataFetcher {
+    private final ForkJoinPool pool;
+    private final int splitThreshold;
+
+    public ParallelTransactionDataFetcher(final ForkJoinPool pool, final int splitThreshold) {
+        if (splitThreshold < 1) {
+            throw new OperationException("Split threshold must be positive");
+        }
+
+        this.pool = pool;
+        this.splitThreshold = splitThreshold;
+    }
+
+    @Override
+    double getTotalTransactionAmount(final List<Transaction> transactions) {
+        return summarize(EnumSet.of(Measure.TOTAL_AMOUNT), transactions).getTotalAmount();
+    }
+
+    @Override
+    double getTotalTransactionAmountSentBy(final String senderFullName, final List<Transaction> transactions) {
+        if (isBlank(senderFullName)) {
+            throw new OperationException("Operation is not allowed with null or empty sender name");
+        }
+
+        final String sanitizedSenderName = trim(senderFullName);
+        return MinorUnits.microsToDouble(reduce(transactions, () -> new long[1],
+                (total, transaction) -> {
+                    if (transaction.isIssueSolved() && transaction.getSenderFullName().equalsIgnoreCase(sanitizedSenderName)) {
+                        total[0] = Math.addExact(total[0], transaction.getAmountMicros());
+                    }
+                },
+                (left, right) -> {
+                    left[0] = Math.addExact(left[0], right[0]);
+                    return left;
+                })[0]);
+    }
+
+    @Override
+    double getMaxTransactionAmount(final List<Transaction> transactions) {
+        return summarize(EnumSet.of(Measure.MAX_AMOUNT), transactions).getMaxAmount();
+    }
+
+    @Override
+    int countUniqueClients(final List<Transaction> transactions) {
+        return summarize(EnumSet.of(Measure.UNIQUE_CLIENTS), transactions).getUniqueClients();
+    }
+
+    @Override
+    boolean hasOpenComplianceIssues(final String clientFullName, final List<Transaction> transactions) {
+        if (isBlank(clientFullName)) {
+            throw new OperationException("Operation is not allowed with null or empty client name");
+        }
+
+        final String sanitizedClientName = trim(clientFullName);
+        final AtomicBoolean found = new AtomicBoolean();
+        reduce(transactions, () -> found,
+                (result, transaction) -> {
+                    if (!transaction.isIssueSolved()
+                            && (transaction.getSenderFullName().equalsIgnoreCase(sanitizedClientName)
+                            || transaction.getBeneficiaryFullName().equalsIgnoreCase(sanitizedClientName))) {
+                        result.set(true);
+                    }
+                },
+                (left, right) -> left,
+                found::get);
+        return found.get();
+    }
+
+    @Override
+    Set<Long> getUnsolvedIssueIds(final List<Transaction> transactions) {
+        return summarize(EnumSet.of(Measure.UNSOLVED_ISSUE_IDS), transactions).getUnsolvedIssueIds();
+    }
+
+    @Override
+    List<String> getAllSolvedIssueMessages(final List<Transaction> transactions) {
+        return reduce(transactions, ArrayList::new,
+                (messages, transaction) -> {
+                    if (transaction.isIssueSolved() && !isEmpty(transaction.getIssueMessage())) {
+                        messages.add(transaction.getIssueMessage());
+                    }
+                },
+                (left, right) -> {
+                    left.addAll(right);
+                    return left;
+                });
+    }
+
+    @Override
+    List<Transaction> getTopTransactionsByAmount(final int n, final List<Transaction> transactions) {
+        return reduce(transactions,
+                () -> new TopN<>(n, comparingDouble(Transaction::getAmount).reversed(), Transaction::getMtn),
+                TopN::offer,
+                TopN::addAll).toList();
+    }
+
+    @Override
+    Optional<String> getTopSender(final List<Transaction> transactions) {
+        return getTopSenders(1, transactions).stream()
+                .findFirst()
+                .map(ClientTotal::getClientFullName);
+    }
+
+    @Override
+    List<ClientTotal> getTopSenders(final int n, final List<Transaction> transactions) {
+        return topClientTotals(n, successfulTotals(transactions, Transaction::getSenderFullName));
+    }
+
+    @Override
+    List<ClientTotal> getTopBeneficiaries(final int n, final List<Transaction> transactions) {
+        return topClientTotals(n, successfulTotals(transactions, Transaction::getBeneficiaryFullName));
+    }
+
+    @Override
+    TransactionSummary summarize(final Set<Measure> measures, final List<Transaction> transactions) {
+        return reduce(transactions,
+                () -> new TransactionAggregator(measures),
+                TransactionAggregator::accept,
+                TransactionAggregator::combine).summarize();
+    }
+
+    private Map<String, Long> successfulTotals(final List<Transaction> transactions,
+                                                 final Function<Transaction, String> client) {
+        return reduce(transactions, HashMap::new,
+                (totals, transaction) -> {
+                    if (transaction.isIssueSolved()) {
+                        totals.merge(client.apply(transaction), transaction.getAmountMicros(), Math::addExact);
+                    }
+                },
+                (left, right) -> {
+                    right.forEach((clientFullName, totalMicros) -> left.merge(clientFullName, totalMicros, Math::addExact));
+                    return left;
+                });
+    }
+
+    private <A> A reduce(final List<Transaction> transactions,
+                         final Supplier<A> accumulator,
+                         final BiConsumer<A, Transaction> accumulate,
+                         final BinaryOperator<A> combine) {
+        return reduce(transactions, accumulator, accumulate, combine, () -> false);
+    }
+
+    /**
+     * Reduces like {@link #reduce(List, Supplier, BiConsumer, BinaryOperator)}, every partition stopping as soon as
+     * <code>done</code> holds, as checked before each transaction
+     */
+    private <A> A reduce(final List<Transaction> transactions,
+                         final Supplier<A> accumulator,
+                         final BiConsumer<A, Transaction> accumulate,
+                         final BinaryOperator<A> combine,
+                         final BooleanSupplier done) {
+        final List<Transaction> indexedTransactions = transactions instanceof RandomAccess
+                ? transactions
+                : new ArrayList<>(transactions);
+        return pool.invoke(new PartitionTask<>(indexedTransactions, 0, indexedTransactions.size(),
+                splitThreshold, accumulator, accumulate, combine, done));
+    }
+
+    /**
+     * Accumulates the range [from, to) of the transactions, splitting it in halves above the threshold
+     */
+    private static final class PartitionTask<A> extends RecursiveTask<A> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Transaction> transactions;
+        private final int from;
+        private final int to;
+        private final int splitThreshold;
+        private final Supplier<A> accumulator;
+        private final BiConsumer<A, Transaction> accumulate;
+        private final BinaryOperator<A> combine;
+        private final BooleanSupplier done;
+
+        private PartitionTask(final List<Transaction> transactions,
+                              final int from,
+                              final int to,
+                              final int splitThreshold,
+                              final Supplier<A> accumulator,
+                              final BiConsumer<A, Transaction> accumulate,
+                              final BinaryOperator<A> combine,
+                              final BooleanSupplier done) {
+            this.transactions = transactions;
+            this.from = from;
+            this.to = to;
+            this.splitThreshold = splitThreshold;
+            this.accumulator = accumulator;
+            this.accumulate = accumulate;
+            this.combine = combine;
+            this.done = done;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= splitThreshold || done.getAsBoolean()) {
+                final A partial = accumulator.get();
+                for (int index = from; index < to && !done.getAsBoolean(); index++) {
+                    accumulate.accept(partial, transactions.get(index));
+                }
+                return partial;
+            }
+
+            final int middle = (from + to) >>> 1;
+            final PartitionTask<A> left = new PartitionTask<>(transactions, from, middle, splitThreshold,
+                    accumulator, accumulate, combine, done);
+            final PartitionTask<A> right = new PartitionTask<>(transactions, middle, to, splitThreshold,
+                    accumulator, accumulate, combine, done);
+            left.fork();
+            final A rightPartial = right.compute();
+            return combine.apply(left.join(), rightPartial);
+        }
+    }
+}
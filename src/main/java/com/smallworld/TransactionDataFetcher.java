@@ -1,16 +1,35 @@
 package com.smallworld;
 
+import com.smallworld.aggregate.HyperLogLog;
+import com.smallworld.aggregate.Measure;
+import com.smallworld.aggregate.TopN;
+import com.smallworld.aggregate.TransactionAggregator;
+import com.smallworld.aggregate.TransactionSummary;
+import com.smallworld.data.ClientTotal;
+import com.smallworld.data.MinorUnits;
+import com.smallworld.data.NormalizedTransaction;
 import com.smallworld.data.Transaction;
 import com.smallworld.exception.OperationException;
+import com.smallworld.store.ClientIndex;
+import com.smallworld.store.StringDictionary;
+import com.smallworld.store.TransactionTable;
+import com.smallworld.util.ArraySlice;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
-import static java.util.Comparator.comparing;
 import static java.util.Comparator.comparingDouble;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
@@ -24,35 +43,72 @@ public class TransactionDataFetcher {
      * Returns the sum of the amounts of all successful transactions
      */
     double getTotalTransactionAmount(final List<Transaction> transactions) {
-        final List<Transaction> completeTransactions = transactions.stream()
-                .filter(Transaction::isIssueSolved)
-                .collect(toList());
+        return getTotalTransactionAmount(transactions.stream());
+    }
 
-        return sumTransactionAmounts(completeTransactions);
+    double getTotalTransactionAmount(final Stream<Transaction> transactions) {
+        return sumTransactionAmounts(transactions.filter(Transaction::isIssueSolved));
+    }
+
+    double getTotalTransactionAmount(final TransactionTable table) {
+        long transactionsTotalMicros = 0;
+        for (int row = 0; row < table.size(); row++) {
+            if (table.isIssueSolved(row)) {
+                transactionsTotalMicros = Math.addExact(transactionsTotalMicros, table.getAmountMicros(row));
+            }
+        }
+
+        return MinorUnits.microsToDouble(transactionsTotalMicros);
     }
 
     /**
      * Returns the sum of the amounts of all successful transactions sent by the specified client
      */
     double getTotalTransactionAmountSentBy(final String senderFullName, final List<Transaction> transactions) {
+        return getTotalTransactionAmountSentBy(senderFullName, transactions.stream());
+    }
+
+    double getTotalTransactionAmountSentBy(final String senderFullName, final Stream<Transaction> transactions) {
         if (isBlank(senderFullName)) {
             throw new OperationException("Operation is not allowed with null or empty sender name");
         }
 
         final String sanitizedSenderName = trim(senderFullName);
-        final List<Transaction> senderTransactions = transactions.stream()
+        return sumTransactionAmounts(transactions
                 .filter(transaction -> transaction.getSenderFullName().equalsIgnoreCase(sanitizedSenderName) &&
-                        transaction.isIssueSolved())
-                .collect(toList());
+                        transaction.isIssueSolved()));
+    }
+
+    double getTotalTransactionAmountSentBy(final String senderFullName, final TransactionTable table) {
+        if (isBlank(senderFullName)) {
+            throw new OperationException("Operation is not allowed with null or empty sender name");
+        }
 
-        return sumTransactionAmounts(senderTransactions);
+        final ClientIndex clientIndex = table.getClientIndex();
+        final int sender = clientIndex.getClient(senderFullName);
+        if (sender == ClientIndex.NOT_FOUND) {
+            return 0;
+        }
+
+        long transactionsTotalMicros = 0;
+        for (final int row : clientIndex.getRows(sender)) {
+            if (table.isIssueSolved(row) && clientIndex.getClientOfNameId(table.getSenderId(row)) == sender) {
+                transactionsTotalMicros = Math.addExact(transactionsTotalMicros, table.getAmountMicros(row));
+            }
+        }
+
+        return MinorUnits.microsToDouble(transactionsTotalMicros);
     }
 
     /**
      * Returns the highest successful transaction amount
      */
     double getMaxTransactionAmount(final List<Transaction> transactions) {
-        Optional<Transaction> optionalTransaction = transactions.stream()
+        return getMaxTransactionAmount(transactions.stream());
+    }
+
+    double getMaxTransactionAmount(final Stream<Transaction> transactions) {
+        Optional<Transaction> optionalTransaction = transactions
                 .filter(Transaction::isIssueSolved)
                 .max(comparingDouble(Transaction::getAmount));
 
@@ -61,12 +117,29 @@ public class TransactionDataFetcher {
                 : optionalTransaction.get().getAmount();
     }
 
+    double getMaxTransactionAmount(final TransactionTable table) {
+        double maxAmount = 0;
+        boolean found = false;
+        for (int row = 0; row < table.size(); row++) {
+            if (table.isIssueSolved(row) && (!found || table.getAmount(row) > maxAmount)) {
+                maxAmount = table.getAmount(row);
+                found = true;
+            }
+        }
+
+        return maxAmount;
+    }
+
     /**
      * Counts the number of unique clients that sent or received a successful transaction
      */
     int countUniqueClients(final List<Transaction> transactions) {
+        return countUniqueClients(transactions.stream());
+    }
+
+    int countUniqueClients(final Stream<Transaction> transactions) {
         final Set<String> clients = new HashSet<>();
-        transactions.stream()
+        transactions
                 .filter(Transaction::isIssueSolved)
                 .forEach(transaction -> {
                     clients.add(transaction.getBeneficiaryFullName());
@@ -76,17 +149,74 @@ public class TransactionDataFetcher {
         return clients.size();
     }
 
+    int countUniqueClients(final TransactionTable table) {
+        final BitSet clientIds = new BitSet(table.getNames().size());
+        for (int row = 0; row < table.size(); row++) {
+            if (table.isIssueSolved(row)) {
+                setNameId(clientIds, table.getBeneficiaryId(row));
+                setNameId(clientIds, table.getSenderId(row));
+            }
+        }
+
+        return clientIds.cardinality();
+    }
+
+    /**
+     * Estimates the number of unique clients that sent or received a successful transaction in fixed memory,
+     * with a relative standard error of {@link HyperLogLog#relativeStandardError(int)}
+     */
+    long estimateUniqueClients(final int precision, final List<Transaction> transactions) {
+        return estimateUniqueClients(precision, transactions.stream());
+    }
+
+    long estimateUniqueClients(final int precision, final Stream<Transaction> transactions) {
+        final HyperLogLog clients = new HyperLogLog(precision);
+        transactions
+                .filter(Transaction::isIssueSolved)
+                .forEach(transaction -> {
+                    clients.add(transaction.getBeneficiaryFullName());
+                    clients.add(transaction.getSenderFullName());
+                });
+
+        return clients.estimate();
+    }
+
+    /**
+     * Name ids are first collected in a bitset of one bit per dictionary entry, so that each distinct name is hashed
+     * once rather than once per row. The bitset takes 1/8 byte per name next to the dictionary holding the names
+     * themselves. Rows without a name are skipped, as in {@link #countUniqueClients(TransactionTable)}.
+     */
+    long estimateUniqueClients(final int precision, final TransactionTable table) {
+        final HyperLogLog clients = new HyperLogLog(precision);
+        final BitSet clientIds = new BitSet(table.getNames().size());
+        for (int row = 0; row < table.size(); row++) {
+            if (table.isIssueSolved(row)) {
+                setNameId(clientIds, table.getBeneficiaryId(row));
+                setNameId(clientIds, table.getSenderId(row));
+            }
+        }
+        for (int id = clientIds.nextSetBit(0); id >= 0; id = clientIds.nextSetBit(id + 1)) {
+            clients.add(table.getNames().get(id));
+        }
+
+        return clients.estimate();
+    }
+
     /**
      * Returns whether a client (sender or beneficiary) has at least one transaction with a compliance
      * issue that has not been solved
      */
     boolean hasOpenComplianceIssues(final String clientFullName, final List<Transaction> transactions) {
+        return hasOpenComplianceIssues(clientFullName, transactions.stream());
+    }
+
+    boolean hasOpenComplianceIssues(final String clientFullName, final Stream<Transaction> transactions) {
         if (isBlank(clientFullName)) {
             throw new OperationException("Operation is not allowed with null or empty client name");
         }
 
         final String sanitizedClientName = trim(clientFullName);
-        return transactions.stream()
+        return transactions
                 .anyMatch(transaction -> !transaction.isIssueSolved() &&
                         (transaction.getSenderFullName().equalsIgnoreCase(sanitizedClientName)
                                 || transaction.getBeneficiaryFullName().equalsIgnoreCase(sanitizedClientName))
@@ -94,96 +224,348 @@ public class TransactionDataFetcher {
 
     }
 
+    boolean hasOpenComplianceIssues(final String clientFullName, final TransactionTable table) {
+        if (isBlank(clientFullName)) {
+            throw new OperationException("Operation is not allowed with null or empty client name");
+        }
+
+        final ClientIndex clientIndex = table.getClientIndex();
+        final int client = clientIndex.getClient(clientFullName);
+        if (client == ClientIndex.NOT_FOUND) {
+            return false;
+        }
+
+        for (final int row : clientIndex.getRows(client)) {
+            if (!table.isIssueSolved(row)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Returns all transactions indexed by beneficiary name
      */
     Map<String, List<Transaction>> getTransactionsByBeneficiaryName(final List<Transaction> transactions) {
-        final List<Transaction> sortedTransactionsByName = transactions.stream()
-                .sorted(comparing(Transaction::getBeneficiaryFullName))
-                .collect(toList());
-        final Map<String, List<Transaction>> beneficiaryMap = new HashMap<>();
-
-        if (!sortedTransactionsByName.isEmpty()) {
-            int lastIndex = 0;
-            String lastBeneficiaryName = sortedTransactionsByName.get(lastIndex).getBeneficiaryFullName();
-            for (int i = 1; i < sortedTransactionsByName.size(); i++) {
-                if (!lastBeneficiaryName.equalsIgnoreCase(sortedTransactionsByName.get(i).getBeneficiaryFullName())) {
-                    beneficiaryMap.put(lastBeneficiaryName, sortedTransactionsByName.subList(lastIndex, i));
-                    lastBeneficiaryName = sortedTransactionsByName.get(i).getBeneficiaryFullName();
-                    lastIndex = i;
+        return groupByBeneficiaryName(transactions);
+    }
+
+    Map<String, List<Transaction>> getTransactionsByBeneficiaryName(final Stream<Transaction> transactions) {
+        return groupByBeneficiaryName(transactions.collect(toList()));
+    }
+
+    Map<String, List<Transaction>> getTransactionsByBeneficiaryName(final TransactionTable table) {
+        final ClientIndex clientIndex = table.getClientIndex();
+        final int[] groupOfClient = new int[clientIndex.size()];
+        Arrays.fill(groupOfClient, -1);
+        final List<String> groupNames = new ArrayList<>();
+        final int[] groupOfRow = new int[table.size()];
+        int nullGroup = -1;
+        for (int row = 0; row < table.size(); row++) {
+            final int client = clientIndex.getClientOfNameId(table.getBeneficiaryId(row));
+            if (client == ClientIndex.NOT_FOUND) {
+                if (nullGroup < 0) {
+                    nullGroup = groupNames.size();
+                    groupNames.add(null);
                 }
+                groupOfRow[row] = nullGroup;
+                continue;
+            }
+            if (groupOfClient[client] < 0) {
+                groupOfClient[client] = groupNames.size();
+                groupNames.add(table.getBeneficiaryFullName(row));
             }
-            beneficiaryMap.put(lastBeneficiaryName, sortedTransactionsByName.subList(lastIndex, sortedTransactionsByName.size()));
+            groupOfRow[row] = groupOfClient[client];
         }
-        return beneficiaryMap;
+
+        return sliceGroups(IntStream.range(0, table.size()).mapToObj(table::getTransaction).iterator(),
+                groupOfRow, groupNames);
     }
 
     /**
      * Returns the identifiers of all open compliance issues
      */
     Set<Long> getUnsolvedIssueIds(final List<Transaction> transactions) {
-        return transactions.stream()
+        return getUnsolvedIssueIds(transactions.stream());
+    }
+
+    Set<Long> getUnsolvedIssueIds(final Stream<Transaction> transactions) {
+        return transactions
                 .filter(transaction -> !transaction.isIssueSolved())
                 .map(Transaction::getIssueId)
                 .collect(toSet());
     }
 
+    Set<Long> getUnsolvedIssueIds(final TransactionTable table) {
+        final Set<Long> issueIds = new HashSet<>();
+        for (int row = 0; row < table.size(); row++) {
+            if (!table.isIssueSolved(row)) {
+                issueIds.add(table.hasIssueId(row) ? table.getIssueId(row) : null);
+            }
+        }
+
+        return issueIds;
+    }
+
     /**
      * Returns a list of all solved issue messages
      */
     List<String> getAllSolvedIssueMessages(final List<Transaction> transactions) {
-        return transactions.stream()
+        return getAllSolvedIssueMessages(transactions.stream());
+    }
+
+    List<String> getAllSolvedIssueMessages(final Stream<Transaction> transactions) {
+        return transactions
                 .filter(transaction -> !isEmpty(transaction.getIssueMessage()) && transaction.isIssueSolved())
                 .map(Transaction::getIssueMessage)
                 .collect(toList());
     }
 
+    List<String> getAllSolvedIssueMessages(final TransactionTable table) {
+        final List<String> issueMessages = new ArrayList<>();
+        for (int row = 0; row < table.size(); row++) {
+            final String issueMessage = table.getIssueMessage(row);
+            if (table.isIssueSolved(row) && !isEmpty(issueMessage)) {
+                issueMessages.add(issueMessage);
+            }
+        }
+
+        return issueMessages;
+    }
+
     /**
      * Returns the 3 transactions with the highest amount sorted by amount descending
      */
     List<Transaction> getTop3TransactionsByAmount(final List<Transaction> transactions) {
-        final List<Transaction> sortedTransaction = transactions
-                .stream()
-                .distinct()
-                .sorted(comparingDouble(Transaction::getAmount).reversed())
-                .collect(toList());
+        return getTopTransactionsByAmount(3, transactions);
+    }
+
+    List<Transaction> getTop3TransactionsByAmount(final Stream<Transaction> transactions) {
+        return getTopTransactionsByAmount(3, transactions);
+    }
+
+    List<Transaction> getTop3TransactionsByAmount(final TransactionTable table) {
+        return getTopTransactionsByAmount(3, table);
+    }
+
+    /**
+     * Returns the n distinct transactions with the highest amount sorted by amount descending, ties in encounter
+     * order
+     */
+    List<Transaction> getTopTransactionsByAmount(final int n, final List<Transaction> transactions) {
+        return getTopTransactionsByAmount(n, transactions.stream());
+    }
+
+    List<Transaction> getTopTransactionsByAmount(final int n, final Stream<Transaction> transactions) {
+        final TopN<Transaction> topTransactions = new TopN<>(n, comparingDouble(Transaction::getAmount).reversed(),
+                Transaction::getMtn);
+        transactions.forEach(topTransactions::offer);
 
-        return sortedTransaction.size() > 3
-                ? sortedTransaction.subList(0, 3)
-                : sortedTransaction.subList(0, sortedTransaction.size());
+        return topTransactions.toList();
+    }
+
+    List<Transaction> getTopTransactionsByAmount(final int n, final TransactionTable table) {
+        final TopN<Integer> topRows = new TopN<>(n, comparingDouble(table::getAmount).reversed(), table::getMtn);
+        for (int row = 0; row < table.size(); row++) {
+            if (!topRows.isFull() || table.getAmount(row) > table.getAmount(topRows.peekWorst())) {
+                topRows.offer(row);
+            }
+        }
+
+        final List<Transaction> topTransactions = new ArrayList<>(topRows.size());
+        for (final int row : topRows.toList()) {
+            topTransactions.add(table.getTransaction(row));
+        }
+        return topTransactions;
     }
 
     /**
      * Returns the senderFullName of the sender with the most total sent amount
      */
     Optional<String> getTopSender(final List<Transaction> transactions) {
-        final Map<String, Double> senderTransactionAmountMap = new HashMap<>();
-        final List<Transaction> successfulTransactions = transactions.stream()
+        return getTopSender(transactions.stream());
+    }
+
+    Optional<String> getTopSender(final Stream<Transaction> transactions) {
+        return getTopSenders(1, transactions).stream()
+                .findFirst()
+                .map(ClientTotal::getClientFullName);
+    }
+
+    Optional<String> getTopSender(final TransactionTable table) {
+        return getTopSenders(1, table).stream()
+                .findFirst()
+                .map(ClientTotal::getClientFullName);
+    }
+
+    /**
+     * Returns the n senders with the most total sent amount in successful transactions, highest first
+     */
+    List<ClientTotal> getTopSenders(final int n, final List<Transaction> transactions) {
+        return getTopSenders(n, transactions.stream());
+    }
+
+    List<ClientTotal> getTopSenders(final int n, final Stream<Transaction> transactions) {
+        return topClientTotals(n, transactions, Transaction::getSenderFullName);
+    }
+
+    List<ClientTotal> getTopSenders(final int n, final TransactionTable table) {
+        return topClientTotals(n, table, table::getSenderId);
+    }
+
+    /**
+     * Returns the n beneficiaries with the most total received amount in successful transactions, highest first
+     */
+    List<ClientTotal> getTopBeneficiaries(final int n, final List<Transaction> transactions) {
+        return getTopBeneficiaries(n, transactions.stream());
+    }
+
+    List<ClientTotal> getTopBeneficiaries(final int n, final Stream<Transaction> transactions) {
+        return topClientTotals(n, transactions, Transaction::getBeneficiaryFullName);
+    }
+
+    List<ClientTotal> getTopBeneficiaries(final int n, final TransactionTable table) {
+        return topClientTotals(n, table, table::getBeneficiaryId);
+    }
+
+    /**
+     * Computes all the requested measures in a single pass over the transactions
+     */
+    TransactionSummary summarize(final Set<Measure> measures, final List<Transaction> transactions) {
+        return summarize(measures, transactions.stream());
+    }
+
+    TransactionSummary summarize(final Set<Measure> measures, final Stream<Transaction> transactions) {
+        final TransactionAggregator aggregator = new TransactionAggregator(measures);
+        transactions.forEach(aggregator);
+
+        return aggregator.summarize();
+    }
+
+    /**
+     * Computes all the requested measures in a single pass over normalized transfers, so every transfer is counted
+     * once no matter how many issue rows it had
+     */
+    TransactionSummary summarizeTransfers(final Set<Measure> measures, final Stream<NormalizedTransaction> transactions) {
+        final TransactionAggregator aggregator = new TransactionAggregator(measures);
+        transactions.forEach(aggregator::accept);
+
+        return aggregator.summarize();
+    }
+
+    /**
+     * Groups transactions by beneficiary name ignoring case in O(n). Each group is keyed by the first spelling met
+     * and lists its transactions in encounter order; all groups are slices of one shared array.
+     */
+    static Map<String, List<Transaction>> groupByBeneficiaryName(final List<Transaction> transactions) {
+        final Map<String, Integer> groupOfName = new HashMap<>();
+        final Map<String, Integer> groupOfCanonicalName = new HashMap<>();
+        final List<String> groupNames = new ArrayList<>();
+        final int[] groupOfRow = new int[transactions.size()];
+        int row = 0;
+        for (final Transaction transaction : transactions) {
+            final String beneficiaryFullName = transaction.getBeneficiaryFullName();
+            Integer group = groupOfName.get(beneficiaryFullName);
+            if (group == null) {
+                final String canonicalName = beneficiaryFullName == null ? null : ClientIndex.canonicalize(beneficiaryFullName);
+                group = groupOfCanonicalName.computeIfAbsent(canonicalName, name -> {
+                    groupNames.add(beneficiaryFullName);
+                    return groupNames.size() - 1;
+                });
+                groupOfName.put(beneficiaryFullName, group);
+            }
+            groupOfRow[row++] = group;
+        }
+
+        return sliceGroups(transactions.iterator(), groupOfRow, groupNames);
+    }
+
+    private static Map<String, List<Transaction>> sliceGroups(final Iterator<Transaction> transactions,
+                                                              final int[] groupOfRow,
+                                                              final List<String> groupNames) {
+        final int[] groupOffsets = new int[groupNames.size() + 1];
+        for (final int group : groupOfRow) {
+            groupOffsets[group + 1]++;
+        }
+        for (int group = 0; group < groupNames.size(); group++) {
+            groupOffsets[group + 1] += groupOffsets[group];
+        }
+
+        final Transaction[] groupedTransactions = new Transaction[groupOfRow.length];
+        final int[] nextPosition = Arrays.copyOf(groupOffsets, groupNames.size());
+        for (final int group : groupOfRow) {
+            groupedTransactions[nextPosition[group]++] = transactions.next();
+        }
+
+        final Map<String, List<Transaction>> beneficiaryMap = new HashMap<>((int) (groupNames.size() / 0.75f) + 1);
+        for (int group = 0; group < groupNames.size(); group++) {
+            beneficiaryMap.put(groupNames.get(group),
+                    new ArraySlice<>(groupedTransactions, groupOffsets[group], groupOffsets[group + 1]));
+        }
+        return beneficiaryMap;
+    }
+
+    private static List<ClientTotal> topClientTotals(final int n,
+                                                     final Stream<Transaction> transactions,
+                                                     final Function<Transaction, String> client) {
+        final Map<String, Long> clientTotals = new HashMap<>();
+        transactions
                 .filter(Transaction::isIssueSolved)
-                .collect(toList());
+                .forEach(transaction -> clientTotals.merge(client.apply(transaction), transaction.getAmountMicros(), Math::addExact));
+
+        return topClientTotals(n, clientTotals);
+    }
 
-        double transactionsTotalAmount;
-        for (final Transaction transaction : successfulTransactions) {
-            transactionsTotalAmount = senderTransactionAmountMap.compute(transaction.getSenderFullName(),
-                    (k, v) -> v == null ? transaction.getAmount() : transaction.getAmount() + v);
-            senderTransactionAmountMap.put(transaction.getSenderFullName(), transactionsTotalAmount);
+    /**
+     * Returns the n clients of the highest totals, given in micros
+     */
+    static List<ClientTotal> topClientTotals(final int n, final Map<String, Long> clientTotals) {
+        final TopN<ClientTotal> topClients = new TopN<>(n, ClientTotal.BY_TOTAL_AMOUNT_DESCENDING);
+        clientTotals.forEach((clientFullName, totalMicros) ->
+                topClients.offer(new ClientTotal(clientFullName, MinorUnits.microsToDouble(totalMicros))));
+        return topClients.toList();
+    }
+
+    private static List<ClientTotal> topClientTotals(final int n,
+                                                     final TransactionTable table,
+                                                     final IntUnaryOperator clientId) {
+        final long[] clientTotals = new long[table.getNames().size()];
+        final BitSet clientIds = new BitSet(clientTotals.length);
+        for (int row = 0; row < table.size(); row++) {
+            final int id = clientId.applyAsInt(row);
+            if (table.isIssueSolved(row) && id != StringDictionary.NULL_ID) {
+                clientTotals[id] = Math.addExact(clientTotals[id], table.getAmountMicros(row));
+                clientIds.set(id);
+            }
         }
 
-        Optional<Map.Entry<String, Double>> optionalEntry = senderTransactionAmountMap.entrySet()
-                .stream()
-                .max(comparingDouble(Map.Entry::getValue));
+        final TopN<ClientTotal> topClients = new TopN<>(n, ClientTotal.BY_TOTAL_AMOUNT_DESCENDING);
+        for (int id = clientIds.nextSetBit(0); id >= 0; id = clientIds.nextSetBit(id + 1)) {
+            topClients.offer(new ClientTotal(table.getNames().get(id), MinorUnits.microsToDouble(clientTotals[id])));
+        }
+        return topClients.toList();
+    }
 
-        return optionalEntry.isEmpty()
-                ? Optional.empty()
-                : Optional.of(optionalEntry.get().getKey());
+    /**
+     * Sets the bit of <code>nameId</code>, nothing for a <code>null</code> name
+     */
+    private static void setNameId(final BitSet nameIds, final int nameId) {
+        if (nameId != StringDictionary.NULL_ID) {
+            nameIds.set(nameId);
+        }
     }
 
-    private double sumTransactionAmounts(final List<Transaction> transactions) {
-        double transactionsTotalAmount = 0;
-        for (Transaction transaction : transactions) {
-            transactionsTotalAmount += transaction.getAmount();
+    /**
+     * Adds the amounts as integer micros, so the total does not depend on the order of the transactions
+     */
+    private double sumTransactionAmounts(final Stream<Transaction> transactions) {
+        long transactionsTotalMicros = 0;
+        final Iterator<Transaction> iterator = transactions.iterator();
+        while (iterator.hasNext()) {
+            transactionsTotalMicros = Math.addExact(transactionsTotalMicros, iterator.next().getAmountMicros());
         }
 
-        return transactionsTotalAmount;
+        return MinorUnits.microsToDouble(transactionsTotalMicros);
     }
 }
@@ -0,0 +1,168 @@
+package com.smallworld;
+
+import com.smallworld.aggregate.Measure;
+import com.smallworld.aggregate.TransactionAggregator;
+import com.smallworld.aggregate.TransactionSummary;
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Answers {@link TransactionDataFetcher} queries restricted to a time window. Transactions are pre-aggregated into
+ * fixed width buckets by their {@link Transaction#getTimestamp() timestamp}, so a window costs one merge per bucket
+ * it spans, whatever the number of transactions in it.
+ * <p>
+ * Window bounds must fall on bucket boundaries, so that a window [from, to) holds exactly the transactions
+ * timestamped within it. Instances are not thread-safe.
+ */
+public class WindowedTransactionDataFetcher {
+    private static final Set<Measure> BUCKET_MEASURES = Collections.unmodifiableSet(EnumSet.of(
+            Measure.TOTAL_AMOUNT, Measure.MAX_AMOUNT, Measure.TOP_SENDER, Measure.UNSOLVED_ISSUE_IDS));
+
+    private final long bucketMillis;
+    private final NavigableMap<Long, TransactionAggregator> buckets = new TreeMap<>();
+
+    public WindowedTransactionDataFetcher(final Duration bucketWidth) {
+        if (bucketWidth.toMillis() < 1) {
+            throw new OperationException("Bucket width must be at least one millisecond");
+        }
+
+        this.bucketMillis = bucketWidth.toMillis();
+    }
+
+    /**
+     * Adds a transaction to the bucket of its timestamp, which is required
+     */
+    public WindowedTransactionDataFetcher append(final Transaction transaction) {
+        if (transaction.getTimestamp() == null) {
+            throw new OperationException("Transaction " + transaction.getMtn() + " has no timestamp");
+        }
+
+        buckets.computeIfAbsent(bucketStart(transaction.getTimestamp()), start -> new TransactionAggregator(BUCKET_MEASURES))
+                .accept(transaction);
+        return this;
+    }
+
+    public WindowedTransactionDataFetcher appendAll(final List<Transaction> transactions) {
+        transactions.forEach(this::append);
+        return this;
+    }
+
+    /**
+     * Returns the sum of the amounts of all successful transactions of the window
+     */
+    public double getTotalTransactionAmount(final Instant from, final Instant to) {
+        return summarize(from, to).getTotalAmount();
+    }
+
+    /**
+     * Returns the highest successful transaction amount of the window
+     */
+    public double getMaxTransactionAmount(final Instant from, final Instant to) {
+        return summarize(from, to).getMaxAmount();
+    }
+
+    /**
+     * Returns the senderFullName of the sender with the most total sent amount in the window
+     */
+    public Optional<String> getTopSender(final Instant from, final Instant to) {
+        return summarize(from, to).getTopSender();
+    }
+
+    /**
+     * Returns the identifiers of the compliance issues of the window that are not solved
+     */
+    public Set<Long> getUnsolvedIssueIds(final Instant from, final Instant to) {
+        return summarize(from, to).getUnsolvedIssueIds();
+    }
+
+    /**
+     * Returns total, max, top sender and unsolved issue ids of the window [from, to), whose bounds must be bucket
+     * boundaries
+     */
+    public TransactionSummary summarize(final Instant from, final Instant to) {
+        if (to.isBefore(from)) {
+            throw new OperationException("Window ends before it starts");
+        }
+        if (!isBucketBoundary(from) || !isBucketBoundary(to)) {
+            throw new OperationException("Window bounds must be multiples of the bucket width");
+        }
+
+        final TransactionAggregator window = new TransactionAggregator(BUCKET_MEASURES);
+        for (final TransactionAggregator bucket : buckets.subMap(from.toEpochMilli(), true,
+                to.toEpochMilli(), false).values()) {
+            window.combine(bucket);
+        }
+        return window.summarize();
+    }
+
+    /**
+     * Returns consecutive, non overlapping windows of <code>width</code> covering [from, to)
+     */
+    public List<Window> getTumblingWindows(final Instant from, final Instant to, final Duration width) {
+        return getSlidingWindows(from, to, width, width);
+    }
+
+    /**
+     * Returns the windows of <code>width</code> starting every <code>step</code> from <code>from</code> until
+     * <code>to</code>, the last ones cut at <code>to</code>
+     */
+    public List<Window> getSlidingWindows(final Instant from, final Instant to, final Duration width, final Duration step) {
+        if (width.toMillis() < 1 || step.toMillis() < 1
+                || width.toMillis() % bucketMillis != 0 || step.toMillis() % bucketMillis != 0) {
+            throw new OperationException("Window width and step must be positive multiples of the bucket width");
+        }
+
+        final List<Window> windows = new ArrayList<>();
+        for (Instant start = from; start.isBefore(to); start = start.plus(step)) {
+            final Instant end = start.plus(width).isAfter(to) ? to : start.plus(width);
+            windows.add(new Window(start, end, summarize(start, end)));
+        }
+        return windows;
+    }
+
+    private long bucketStart(final long timestamp) {
+        return Math.floorDiv(timestamp, bucketMillis) * bucketMillis;
+    }
+
+    private boolean isBucketBoundary(final Instant instant) {
+        return instant.getNano() % 1_000_000 == 0 && bucketStart(instant.toEpochMilli()) == instant.toEpochMilli();
+    }
+
+    /**
+     * Measures of the transactions of the time range [start, end)
+     */
+    public static class Window {
+        private final Instant start;
+        private final Instant end;
+        private final TransactionSummary summary;
+
+        Window(final Instant start, final Instant end, final TransactionSummary summary) {
+            this.start = start;
+            this.end = end;
+            this.summary = summary;
+        }
+
+        public Instant getStart() {
+            return start;
+        }
+
+        public Instant getEnd() {
+            return end;
+        }
+
+        public TransactionSummary getSummary() {
+            return summary;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.smallworld.aggregate;
+
+import com.smallworld.data.Transaction;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plain, serializable snapshot of the state of a {@link TransactionAggregator}, exchanged between the nodes
+ * aggregating separate shards of a dataset. Fields of measures that were not requested are <code>null</code>.
+ * Amounts are {@link com.smallworld.data.MinorUnits micros}, so states merge exactly in any order.
+ */
+public class AggregateState {
+    private Set<Measure> measures;
+    private long totalAmountMicros;
+    private long maxAmountMicros;
+    private boolean solvedTransactionSeen;
+    private Set<String> clients;
+    private byte[] clientSketch;
+    private Set<Long> unsolvedIssueIds;
+    private List<String> solvedIssueMessages;
+    private List<Transaction> topTransactions;
+    private Map<String, Long> senderTotalMicros;
+
+    private AggregateState() {
+
+    }
+
+    private AggregateState(final Builder builder) {
+        this.measures = builder.measures;
+        this.totalAmountMicros = builder.totalAmountMicros;
+        this.maxAmountMicros = builder.maxAmountMicros;
+        this.solvedTransactionSeen = builder.solvedTransactionSeen;
+        this.clients = builder.clients;
+        this.clientSketch = builder.clientSketch;
+        this.unsolvedIssueIds = builder.unsolvedIssueIds;
+        this.solvedIssueMessages = builder.solvedIssueMessages;
+        this.topTransactions = builder.topTransactions;
+        this.senderTotalMicros = builder.senderTotalMicros;
+    }
+
+    public Set<Measure> getMeasures() {
+        return measures;
+    }
+
+    public long getTotalAmountMicros() {
+        return totalAmountMicros;
+    }
+
+    public long getMaxAmountMicros() {
+        return maxAmountMicros;
+    }
+
+    public boolean isSolvedTransactionSeen() {
+        return solvedTransactionSeen;
+    }
+
+    public Set<String> getClients() {
+        return clients;
+    }
+
+    /**
+     * Returns the registers of the {@link HyperLogLog} of clients
+     */
+    public byte[] getClientSketch() {
+        return clientSketch;
+    }
+
+    public Set<Long> getUnsolvedIssueIds() {
+        return unsolvedIssueIds;
+    }
+
+    public List<String> getSolvedIssueMessages() {
+        return solvedIssueMessages;
+    }
+
+    /**
+     * Returns the retained top transactions, best first
+     */
+    public List<Transaction> getTopTransactions() {
+        return topTransactions;
+    }
+
+    public Map<String, Long> getSenderTotalMicros() {
+        return senderTotalMicros;
+    }
+
+    public static class Builder {
+        private Set<Measure> measures;
+        private long totalAmountMicros;
+        private long maxAmountMicros;
+        private boolean solvedTransactionSeen;
+        private Set<String> clients;
+        private byte[] clientSketch;
+        private Set<Long> unsolvedIssueIds;
+        private List<String> solvedIssueMessages;
+        private List<Transaction> topTransactions;
+        private Map<String, Long> senderTotalMicros;
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        private Builder() {
+        }
+
+        public AggregateState build() {
+            return new AggregateState(this);
+        }
+
+        public Builder setMeasures(final Set<Measure> measures) {
+            this.measures = measures;
+            return this;
+        }
+
+        public Builder setTotalAmountMicros(final long totalAmountMicros) {
+            this.totalAmountMicros = totalAmountMicros;
+            return this;
+        }
+
+        public Builder setMaxAmountMicros(final long maxAmountMicros) {
+            this.maxAmountMicros = maxAmountMicros;
+            return this;
+        }
+
+        public Builder setSolvedTransactionSeen(final boolean solvedTransactionSeen) {
+            this.solvedTransactionSeen = solvedTransactionSeen;
+            return this;
+        }
+
+        public Builder setClients(final Set<String> clients) {
+            this.clients = clients;
+            return this;
+        }
+
+        public Builder setClientSketch(final byte[] clientSketch) {
+            this.clientSketch = clientSketch;
+            return this;
+        }
+
+        public Builder setUnsolvedIssueIds(final Set<Long> unsolvedIssueIds) {
+            this.unsolvedIssueIds = unsolvedIssueIds;
+            return this;
+        }
+
+        public Builder setSolvedIssueMessages(final List<String> solvedIssueMessages) {
+            this.solvedIssueMessages = solvedIssueMessages;
+            return this;
+        }
+
+        public Builder setTopTransactions(final List<Transaction> topTransactions) {
+            this.topTransactions = topTransactions;
+            return this;
+        }
+
+        public Builder setSenderTotalMicros(final Map<String, Long> senderTotalMicros) {
+            this.senderTotalMicros = senderTotalMicros;
+            return this;
+        }
+    }
+}
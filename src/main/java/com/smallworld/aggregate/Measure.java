@@ -0,0 +1,16 @@
+package com.smallworld.aggregate;
+
+/**
+ * Queries of {@link com.smallworld.TransactionDataFetcher} that can be answered together by a
+ * {@link TransactionAggregator} in a single pass over the transactions.
+ */
+public enum Measure {
+    TOTAL_AMOUNT,
+    MAX_AMOUNT,
+    UNIQUE_CLIENTS,
+    APPROXIMATE_UNIQUE_CLIENTS,
+    UNSOLVED_ISSUE_IDS,
+    SOLVED_ISSUE_MESSAGES,
+    TOP_3_TRANSACTIONS,
+    TOP_SENDER
+}
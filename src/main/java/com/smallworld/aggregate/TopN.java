@@ -0,0 +1,166 @@
+package com.smallworld.aggregate;
+
+import com.smallworld.exception.OperationException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Keeps the best <code>n</code> values offered so far in a bounded heap, O(log n) per offer and O(n) memory
+ * whatever the number of values offered.
+ * <p>
+ * Values are ranked by the given order, best first; values ranking equal keep the order they were offered in,
+ * so results are the same as a stable sort. When a distinct key is given only the first value of each key is
+ * kept. Only the keys of the retained values are tracked, which is exact as long as values sharing a key rank
+ * equal, like the rows of one transaction do by amount.
+ */
+public class TopN<T> {
+    private final int n;
+    private final Comparator<? super T> order;
+    private final Function<? super T, ?> distinctKey;
+    private final PriorityQueue<Entry<T>> heap;
+    private final Map<Object, Entry<T>> entriesByKey;
+    private long offered;
+
+    public TopN(final int n, final Comparator<? super T> order) {
+        this(n, order, null);
+    }
+
+    public TopN(final int n, final Comparator<? super T> order, final Function<? super T, ?> distinctKey) {
+        if (n < 0) {
+            throw new OperationException("Operation is not allowed with a negative size");
+        }
+
+        this.n = n;
+        this.order = order;
+        this.distinctKey = distinctKey;
+        this.heap = new PriorityQueue<>(Math.max(1, n), (left, right) -> compare(right, left));
+        this.entriesByKey = distinctKey == null ? null : new HashMap<>();
+    }
+
+    /**
+     * Offers <code>value</code>
+     *
+     * @return whether the value is now among the best ones
+     */
+    public boolean offer(final T value) {
+        final long sequence = offered++;
+        if (n == 0) {
+            return false;
+        }
+
+        final Object key = distinctKey == null ? null : distinctKey.apply(value);
+        if (key != null && entriesByKey.containsKey(key)) {
+            return false;
+        }
+        if (heap.size() == n) {
+            final Entry<T> worst = heap.peek();
+            if (compare(value, sequence, worst.value, worst.sequence) >= 0) {
+                return false;
+            }
+            heap.poll();
+            if (distinctKey != null) {
+                entriesByKey.remove(distinctKey.apply(worst.value));
+            }
+        }
+
+        final Entry<T> entry = new Entry<>(value, sequence);
+        heap.add(entry);
+        if (key != null) {
+            entriesByKey.put(key, entry);
+        }
+        return true;
+    }
+
+    /**
+     * Offers the values retained by <code>other</code> as if they were offered after every value of this one,
+     * which is how the top values of consecutive partitions combine into the top values of the whole
+     */
+    public TopN<T> addAll(final TopN<T> other) {
+        final List<Entry<T>> entries = new ArrayList<>(other.heap);
+        entries.sort(Comparator.comparingLong(entry -> entry.sequence));
+        for (final Entry<T> entry : entries) {
+            offer(entry.value);
+        }
+        return this;
+    }
+
+    /**
+     * Replaces the retained <code>value</code>, compared by identity, with <code>replacement</code>, which must rank
+     * equal and share its distinct key
+     *
+     * @return whether <code>value</code> was retained
+     */
+    public boolean replace(final T value, final T replacement) {
+        for (final Entry<T> entry : heap) {
+            if (entry.value == value) {
+                final Entry<T> replacementEntry = new Entry<>(replacement, entry.sequence);
+                heap.remove(entry);
+                heap.add(replacementEntry);
+                if (distinctKey != null) {
+                    entriesByKey.put(distinctKey.apply(replacement), replacementEntry);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether <code>n</code> values are retained, after which only values ranking better than
+     * {@link #peekWorst()} are accepted
+     */
+    public boolean isFull() {
+        return heap.size() == n;
+    }
+
+    /**
+     * Returns the worst retained value, <code>null</code> when there is none
+     */
+    public T peekWorst() {
+        final Entry<T> worst = heap.peek();
+        return worst == null ? null : worst.value;
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Returns the retained values, best first
+     */
+    public List<T> toList() {
+        final List<Entry<T>> entries = new ArrayList<>(heap);
+        entries.sort(this::compare);
+
+        final List<T> values = new ArrayList<>(entries.size());
+        for (final Entry<T> entry : entries) {
+            values.add(entry.value);
+        }
+        return values;
+    }
+
+    private int compare(final Entry<T> left, final Entry<T> right) {
+        return compare(left.value, left.sequence, right.value, right.sequence);
+    }
+
+    private int compare(final T left, final long leftSequence, final T right, final long rightSequence) {
+        final int comparison = order.compare(left, right);
+        return comparison != 0 ? comparison : Long.compare(leftSequence, rightSequence);
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private final long sequence;
+
+        private Entry(final T value, final long sequence) {
+            this.value = value;
+            this.sequence = sequence;
+        }
+    }
+}
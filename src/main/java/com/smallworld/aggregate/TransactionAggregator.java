@@ -0,0 +1,250 @@
+package com.smallworld.aggregate;
+
+import com.smallworld.data.ClientTotal;
+import com.smallworld.data.Issue;
+import com.smallworld.data.MinorUnits;
+import com.smallworld.data.NormalizedTransaction;
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static java.util.Comparator.comparingDouble;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Accumulates any set of {@link Measure}s over a sequence of transactions, so that all of them are answered by a
+ * single pass. Only the state needed by the requested measures is allocated.
+ * <p>
+ * Results are identical to the matching {@link com.smallworld.TransactionDataFetcher} methods. Amounts are added
+ * as integer {@link MinorUnits micros}, so combining the aggregators of any partition of the transactions gives the
+ * sequential sums bit for bit.
+ */
+public class TransactionAggregator implements Consumer<Transaction> {
+    private static final int TOP_TRANSACTIONS_SIZE = 3;
+
+    private final Set<Measure> measures;
+    private final boolean totalAmountRequested;
+    private final boolean maxAmountRequested;
+    private long totalAmountMicros;
+    private long maxAmountMicros;
+    private boolean solvedTransactionSeen;
+    private final Set<String> clients;
+    private final HyperLogLog clientSketch;
+    private final Set<Long> unsolvedIssueIds;
+    private final List<String> solvedIssueMessages;
+    private final TopN<Transaction> topTransactions;
+    private final Map<String, Long> senderTotalMicros;
+
+    public TransactionAggregator(final Set<Measure> measures) {
+        this(measures, HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param measures        Measures to accumulate.
+     * @param sketchPrecision Precision of the {@link HyperLogLog} behind {@link Measure#APPROXIMATE_UNIQUE_CLIENTS}.
+     */
+    public TransactionAggregator(final Set<Measure> measures, final int sketchPrecision) {
+        if (measures == null || measures.isEmpty()) {
+            throw new OperationException("At least one measure is required");
+        }
+
+        this.measures = Collections.unmodifiableSet(EnumSet.copyOf(measures));
+        this.totalAmountRequested = measures.contains(Measure.TOTAL_AMOUNT);
+        this.maxAmountRequested = measures.contains(Measure.MAX_AMOUNT);
+        this.clients = measures.contains(Measure.UNIQUE_CLIENTS) ? new HashSet<>() : null;
+        this.clientSketch = measures.contains(Measure.APPROXIMATE_UNIQUE_CLIENTS) ? new HyperLogLog(sketchPrecision) : null;
+        this.unsolvedIssueIds = measures.contains(Measure.UNSOLVED_ISSUE_IDS) ? new HashSet<>() : null;
+        this.solvedIssueMessages = measures.contains(Measure.SOLVED_ISSUE_MESSAGES) ? new ArrayList<>() : null;
+        this.topTransactions = measures.contains(Measure.TOP_3_TRANSACTIONS)
+                ? new TopN<>(TOP_TRANSACTIONS_SIZE, comparingDouble(Transaction::getAmount).reversed(), Transaction::getMtn)
+                : null;
+        this.senderTotalMicros = measures.contains(Measure.TOP_SENDER) ? new HashMap<>() : null;
+    }
+
+    /**
+     * Returns an aggregator resuming from a state produced by {@link #toState()}, possibly on another node
+     */
+    public static TransactionAggregator fromState(final AggregateState state) {
+        final TransactionAggregator aggregator = new TransactionAggregator(state.getMeasures(),
+                state.getClientSketch() == null
+                        ? HyperLogLog.DEFAULT_PRECISION
+                        : HyperLogLog.fromByteArray(state.getClientSketch()).getPrecision());
+        aggregator.totalAmountMicros = state.getTotalAmountMicros();
+        aggregator.maxAmountMicros = state.getMaxAmountMicros();
+        aggregator.solvedTransactionSeen = state.isSolvedTransactionSeen();
+        if (aggregator.clients != null) {
+            aggregator.clients.addAll(state.getClients());
+        }
+        if (aggregator.clientSketch != null) {
+            aggregator.clientSketch.merge(HyperLogLog.fromByteArray(state.getClientSketch()));
+        }
+        if (aggregator.unsolvedIssueIds != null) {
+            aggregator.unsolvedIssueIds.addAll(state.getUnsolvedIssueIds());
+        }
+        if (aggregator.solvedIssueMessages != null) {
+            aggregator.solvedIssueMessages.addAll(state.getSolvedIssueMessages());
+        }
+        if (aggregator.topTransactions != null) {
+            state.getTopTransactions().forEach(aggregator.topTransactions::offer);
+        }
+        if (aggregator.senderTotalMicros != null) {
+            aggregator.senderTotalMicros.putAll(state.getSenderTotalMicros());
+        }
+        return aggregator;
+    }
+
+    @Override
+    public void accept(final Transaction transaction) {
+        if (topTransactions != null) {
+            topTransactions.offer(transaction);
+        }
+
+        if (!transaction.isIssueSolved()) {
+            if (unsolvedIssueIds != null) {
+                unsolvedIssueIds.add(transaction.getIssueId());
+            }
+            return;
+        }
+
+        if (solvedIssueMessages != null && !isEmpty(transaction.getIssueMessage())) {
+            solvedIssueMessages.add(transaction.getIssueMessage());
+        }
+        acceptSuccessful(transaction.getAmountMicros(), transaction.getSenderFullName(), transaction.getBeneficiaryFullName());
+    }
+
+    /**
+     * Accumulates a whole transfer: amounts and clients count once, and only when none of its issues is open
+     */
+    public void accept(final NormalizedTransaction transaction) {
+        if (topTransactions != null
+                && (!topTransactions.isFull() || transaction.getAmount() > topTransactions.peekWorst().getAmount())) {
+            topTransactions.offer(transaction.toTransaction());
+        }
+
+        for (final Issue issue : transaction.getIssues()) {
+            if (!issue.isIssueSolved()) {
+                if (unsolvedIssueIds != null) {
+                    unsolvedIssueIds.add(issue.getIssueId());
+                }
+            } else if (solvedIssueMessages != null && !isEmpty(issue.getIssueMessage())) {
+                solvedIssueMessages.add(issue.getIssueMessage());
+            }
+        }
+
+        if (transaction.isIssueSolved()) {
+            acceptSuccessful(transaction.getAmountMicros(), transaction.getSenderFullName(), transaction.getBeneficiaryFullName());
+        }
+    }
+
+    private void acceptSuccessful(final long amountMicros, final String senderFullName, final String beneficiaryFullName) {
+        if (totalAmountRequested) {
+            totalAmountMicros = Math.addExact(totalAmountMicros, amountMicros);
+        }
+        if (maxAmountRequested && (!solvedTransactionSeen || amountMicros > maxAmountMicros)) {
+            maxAmountMicros = amountMicros;
+        }
+        solvedTransactionSeen = true;
+        if (clients != null) {
+            clients.add(beneficiaryFullName);
+            clients.add(senderFullName);
+        }
+        if (clientSketch != null) {
+            clientSketch.add(beneficiaryFullName);
+            clientSketch.add(senderFullName);
+        }
+        if (senderTotalMicros != null) {
+            senderTotalMicros.merge(senderFullName, amountMicros, Math::addExact);
+        }
+    }
+
+    /**
+     * Folds the state of <code>other</code>, which accumulated the transactions following the ones of this
+     * aggregator, into this one. Results are those of a single aggregator accepting both sequences in order.
+     */
+    public TransactionAggregator combine(final TransactionAggregator other) {
+        if (!measures.equals(other.measures)) {
+            throw new OperationException("Cannot combine aggregators of different measures");
+        }
+
+        totalAmountMicros = Math.addExact(totalAmountMicros, other.totalAmountMicros);
+        if (other.solvedTransactionSeen && (!solvedTransactionSeen || other.maxAmountMicros > maxAmountMicros)) {
+            maxAmountMicros = other.maxAmountMicros;
+        }
+        solvedTransactionSeen |= other.solvedTransactionSeen;
+        if (clients != null) {
+            clients.addAll(other.clients);
+        }
+        if (clientSketch != null) {
+            clientSketch.merge(other.clientSketch);
+        }
+        if (unsolvedIssueIds != null) {
+            unsolvedIssueIds.addAll(other.unsolvedIssueIds);
+        }
+        if (solvedIssueMessages != null) {
+            solvedIssueMessages.addAll(other.solvedIssueMessages);
+        }
+        if (topTransactions != null) {
+            topTransactions.addAll(other.topTransactions);
+        }
+        if (senderTotalMicros != null) {
+            other.senderTotalMicros.forEach((senderFullName, totalMicros) ->
+                    senderTotalMicros.merge(senderFullName, totalMicros, Math::addExact));
+        }
+        return this;
+    }
+
+    /**
+     * Returns a copy of the accumulated state, to be shipped to the node combining the partial aggregates
+     */
+    public AggregateState toState() {
+        return AggregateState.Builder.newInstance()
+                .setMeasures(measures)
+                .setTotalAmountMicros(totalAmountMicros)
+                .setMaxAmountMicros(maxAmountMicros)
+                .setSolvedTransactionSeen(solvedTransactionSeen)
+                .setClients(clients == null ? null : new HashSet<>(clients))
+                .setClientSketch(clientSketch == null ? null : clientSketch.toByteArray())
+                .setUnsolvedIssueIds(unsolvedIssueIds == null ? null : new HashSet<>(unsolvedIssueIds))
+                .setSolvedIssueMessages(solvedIssueMessages == null ? null : new ArrayList<>(solvedIssueMessages))
+                .setTopTransactions(topTransactions == null ? null : topTransactions.toList())
+                .setSenderTotalMicros(senderTotalMicros == null ? null : new HashMap<>(senderTotalMicros))
+                .build();
+    }
+
+    /**
+     * Returns the measures accumulated so far
+     */
+    public TransactionSummary summarize() {
+        return new TransactionSummary(measures,
+                MinorUnits.microsToDouble(totalAmountMicros),
+                MinorUnits.microsToDouble(maxAmountMicros),
+                clients == null ? 0 : clients.size(),
+                clientSketch == null ? 0 : clientSketch.estimate(),
+                unsolvedIssueIds == null ? null : Collections.unmodifiableSet(new HashSet<>(unsolvedIssueIds)),
+                solvedIssueMessages == null ? null : List.copyOf(solvedIssueMessages),
+                topTransactions == null ? null : topTransactions.toList(),
+                topSender());
+    }
+
+    private Optional<String> topSender() {
+        if (senderTotalMicros == null) {
+            return Optional.empty();
+        }
+        final TopN<ClientTotal> topSenders = new TopN<>(1, ClientTotal.BY_TOTAL_AMOUNT_DESCENDING);
+        senderTotalMicros.forEach((senderFullName, totalMicros) ->
+                topSenders.offer(new ClientTotal(senderFullName, MinorUnits.microsToDouble(totalMicros))));
+        return topSenders.toList().stream()
+                .findFirst()
+                .map(ClientTotal::getClientFullName);
+    }
+}
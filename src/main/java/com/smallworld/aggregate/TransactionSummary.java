@@ -0,0 +1,97 @@
+package com.smallworld.aggregate;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Combined result of the {@link Measure}s computed by a {@link TransactionAggregator}. Reading a measure that was
+ * not requested is an {@link OperationException}.
+ */
+public class TransactionSummary {
+    private final Set<Measure> measures;
+    private final double totalAmount;
+    private final double maxAmount;
+    private final int uniqueClients;
+    private final long approximateUniqueClients;
+    private final Set<Long> unsolvedIssueIds;
+    private final List<String> solvedIssueMessages;
+    private final List<Transaction> top3Transactions;
+    private final Optional<String> topSender;
+
+    TransactionSummary(final Set<Measure> measures,
+                       final double totalAmount,
+                       final double maxAmount,
+                       final int uniqueClients,
+                       final long approximateUniqueClients,
+                       final Set<Long> unsolvedIssueIds,
+                       final List<String> solvedIssueMessages,
+                       final List<Transaction> top3Transactions,
+                       final Optional<String> topSender) {
+        this.measures = measures;
+        this.totalAmount = totalAmount;
+        this.maxAmount = maxAmount;
+        this.uniqueClients = uniqueClients;
+        this.approximateUniqueClients = approximateUniqueClients;
+        this.unsolvedIssueIds = unsolvedIssueIds;
+        this.solvedIssueMessages = solvedIssueMessages;
+        this.top3Transactions = top3Transactions;
+        this.topSender = topSender;
+    }
+
+    public Set<Measure> getMeasures() {
+        return measures;
+    }
+
+    public double getTotalAmount() {
+        requireMeasure(Measure.TOTAL_AMOUNT);
+        return totalAmount;
+    }
+
+    public double getMaxAmount() {
+        requireMeasure(Measure.MAX_AMOUNT);
+        return maxAmount;
+    }
+
+    public int getUniqueClients() {
+        requireMeasure(Measure.UNIQUE_CLIENTS);
+        return uniqueClients;
+    }
+
+    /**
+     * Returns the {@link HyperLogLog} estimate of the number of unique clients
+     */
+    public long getApproximateUniqueClients() {
+        requireMeasure(Measure.APPROXIMATE_UNIQUE_CLIENTS);
+        return approximateUniqueClients;
+    }
+
+    public Set<Long> getUnsolvedIssueIds() {
+        requireMeasure(Measure.UNSOLVED_ISSUE_IDS);
+        return unsolvedIssueIds;
+    }
+
+    public List<String> getSolvedIssueMessages() {
+        requireMeasure(Measure.SOLVED_ISSUE_MESSAGES);
+        return solvedIssueMessages;
+    }
+
+    public List<Transaction> getTop3Transactions() {
+        requireMeasure(Measure.TOP_3_TRANSACTIONS);
+        return top3Transactions;
+    }
+
+    public Optional<String> getTopSender() {
+        requireMeasure(Measure.TOP_SENDER);
+        return topSender;
+    }
+
+    private void requireMeasure(final Measure measure) {
+        if (!measures.contains(measure)) {
+            throw new OperationException("Measure " + measure + " was not requested");
+        }
+    }
+}
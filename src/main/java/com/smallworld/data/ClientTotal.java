@@ -0,0 +1,49 @@
+package com.smallworld.data;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Total amount of the successful transactions of a client, in one role (sender or beneficiary)
+ */
+public class ClientTotal {
+    /**
+     * Highest total first, ties broken by name so that rankings do not depend on iteration order, a missing name last
+     */
+    public static final Comparator<ClientTotal> BY_TOTAL_AMOUNT_DESCENDING = Comparator
+            .comparingDouble(ClientTotal::getTotalAmount).reversed()
+            .thenComparing(ClientTotal::getClientFullName, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final String clientFullName;
+    private final double totalAmount;
+
+    public ClientTotal(final String clientFullName, final double totalAmount) {
+        this.clientFullName = clientFullName;
+        this.totalAmount = totalAmount;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof ClientTotal
+                && Objects.equals(clientFullName, ((ClientTotal) obj).clientFullName)
+                && Double.compare(totalAmount, ((ClientTotal) obj).totalAmount) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(clientFullName, totalAmount);
+    }
+
+    @Override
+    public String toString() {
+        return clientFullName + "=" + totalAmount;
+    }
+
+    public String getClientFullName() {
+        return clientFullName;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+}
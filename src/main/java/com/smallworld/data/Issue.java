@@ -0,0 +1,46 @@
+package com.smallworld.data;
+
+import java.util.Objects;
+
+/**
+ * Compliance issue attached to a {@link NormalizedTransaction}
+ */
+public class Issue {
+    private final long issueId;
+    private final boolean issueSolved;
+    private final String issueMessage;
+
+    Issue(final long issueId, final boolean issueSolved, final String issueMessage) {
+        this.issueId = issueId;
+        this.issueSolved = issueSolved;
+        this.issueMessage = issueMessage;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!(obj instanceof Issue)) {
+            return false;
+        }
+        final Issue issue = (Issue) obj;
+        return issueId == issue.issueId
+                && issueSolved == issue.issueSolved
+                && Objects.equals(issueMessage, issue.issueMessage);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(issueId, issueSolved, issueMessage);
+    }
+
+    public long getIssueId() {
+        return issueId;
+    }
+
+    public boolean isIssueSolved() {
+        return issueSolved;
+    }
+
+    public String getIssueMessage() {
+        return issueMessage;
+    }
+}
@@ -0,0 +1,117 @@
+package com.smallworld.data;
+
+import com.smallworld.exception.OperationException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point amounts: a <code>long</code> count of minor units and the currency scale, the number of minor unit
+ * digits, e.g. 55020 at scale 2 for 550.20.
+ * <p>
+ * Aggregates add amounts as micros, minor units of the largest supported scale, which every amount converts to
+ * exactly. Integer sums do not depend on the order of their terms, so partial sums of any partition of the
+ * transactions combine into the sequential result bit for bit; they are only turned into <code>double</code> when
+ * read.
+ */
+public final class MinorUnits {
+    /**
+     * Scale of amounts given as <code>double</code> or as json without more digits
+     */
+    public static final int DEFAULT_SCALE = 2;
+    /**
+     * Largest currency scale, also the scale of micros
+     */
+    public static final int MICROS_SCALE = 6;
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private MinorUnits() {
+    }
+
+    /**
+     * Returns <code>amount</code> in minor units of <code>scale</code>, rounded half to even as doubles only
+     * approximate decimal amounts
+     */
+    public static long of(final double amount, final int scale) {
+        validateScale(scale);
+        if (!Double.isFinite(amount)) {
+            throw new OperationException("Amount must be finite");
+        }
+        try {
+            return BigDecimal.valueOf(amount).setScale(scale, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new OperationException("Amount " + amount + " does not fit in minor units of scale " + scale);
+        }
+    }
+
+    /**
+     * Returns the scale holding every digit of <code>amount</code>, at least {@link #DEFAULT_SCALE}
+     */
+    public static int scaleOf(final BigDecimal amount) {
+        final int scale = Math.max(DEFAULT_SCALE, amount.stripTrailingZeros().scale());
+        if (scale > MICROS_SCALE) {
+            throw new OperationException("Amount " + amount + " has more than " + MICROS_SCALE + " decimals");
+        }
+        return scale;
+    }
+
+    /**
+     * Returns <code>amount</code> in minor units of <code>scale</code>, which must hold all its digits
+     */
+    public static long of(final BigDecimal amount, final int scale) {
+        validateScale(scale);
+        try {
+            return amount.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new OperationException("Amount " + amount + " does not fit in minor units of scale " + scale);
+        }
+    }
+
+    /**
+     * Returns the amount of <code>minorUnits</code> of <code>scale</code> in micros
+     */
+    public static long toMicros(final long minorUnits, final int scale) {
+        return Math.multiplyExact(minorUnits, POWERS_OF_TEN[MICROS_SCALE - scale]);
+    }
+
+    /**
+     * Returns the amount of <code>micros</code> in minor units of <code>scale</code>, which must hold all its digits
+     */
+    public static long fromMicros(final long micros, final int scale) {
+        validateScale(scale);
+        final long divisor = POWERS_OF_TEN[MICROS_SCALE - scale];
+        if (micros % divisor != 0) {
+            throw new OperationException("Amount of " + micros + " micros has more than " + scale + " decimals");
+        }
+        return micros / divisor;
+    }
+
+    /**
+     * Returns the amount of <code>minorUnits</code> of <code>scale</code> as a <code>double</code>, the closest one
+     * below 2^53 minor units
+     */
+    public static double toDouble(final long minorUnits, final int scale) {
+        return minorUnits / (double) POWERS_OF_TEN[scale];
+    }
+
+    /**
+     * Returns the amount of <code>micros</code> as a <code>double</code>
+     */
+    public static double microsToDouble(final long micros) {
+        return toDouble(micros, MICROS_SCALE);
+    }
+
+    /**
+     * Returns the exact decimal amount of <code>minorUnits</code> of <code>scale</code>
+     */
+    public static BigDecimal toBigDecimal(final long minorUnits, final int scale) {
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+
+    public static void validateScale(final int scale) {
+        if (scale < 0 || scale > MICROS_SCALE) {
+            throw new OperationException("Scale must be between 0 and " + MICROS_SCALE);
+        }
+    }
+}
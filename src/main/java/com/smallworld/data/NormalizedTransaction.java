@@ -0,0 +1,113 @@
+package com.smallworld.data;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single money transfer together with all of its compliance issues, folded from the transaction/issue join rows
+ * by {@link TransactionNormalizer}.
+ */
+public class NormalizedTransaction {
+    private static final Issue[] NO_ISSUES = new Issue[0];
+
+    private final long mtn;
+    private final long amountMinorUnits;
+    private final int amountScale;
+    private final String senderFullName;
+    private final int senderAge;
+    private final String beneficiaryFullName;
+    private final int beneficiaryAge;
+    private final Issue[] issues;
+
+    NormalizedTransaction(final Transaction transaction, final Issue[] issues) {
+        this.mtn = transaction.getMtn();
+        this.amountMinorUnits = transaction.getAmountMinorUnits();
+        this.amountScale = transaction.getAmountScale();
+        this.senderFullName = transaction.getSenderFullName();
+        this.senderAge = transaction.getSenderAge();
+        this.beneficiaryFullName = transaction.getBeneficiaryFullName();
+        this.beneficiaryAge = transaction.getBeneficiaryAge();
+        this.issues = issues.length == 0 ? NO_ISSUES : issues;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof NormalizedTransaction && mtn == ((NormalizedTransaction) obj).mtn;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(mtn);
+    }
+
+    public long getMtn() {
+        return mtn;
+    }
+
+    public double getAmount() {
+        return MinorUnits.toDouble(amountMinorUnits, amountScale);
+    }
+
+    public long getAmountMinorUnits() {
+        return amountMinorUnits;
+    }
+
+    public int getAmountScale() {
+        return amountScale;
+    }
+
+    /**
+     * Returns the amount in micros, the unit aggregates add
+     */
+    public long getAmountMicros() {
+        return MinorUnits.toMicros(amountMinorUnits, amountScale);
+    }
+
+    public String getSenderFullName() {
+        return senderFullName;
+    }
+
+    public int getSenderAge() {
+        return senderAge;
+    }
+
+    public String getBeneficiaryFullName() {
+        return beneficiaryFullName;
+    }
+
+    public int getBeneficiaryAge() {
+        return beneficiaryAge;
+    }
+
+    public List<Issue> getIssues() {
+        return Collections.unmodifiableList(Arrays.asList(issues));
+    }
+
+    /**
+     * Returns whether the transfer has no open compliance issue, which is what makes it successful
+     */
+    public boolean isIssueSolved() {
+        for (final Issue issue : issues) {
+            if (!issue.isIssueSolved()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the transfer as a single issue-less row, the shape {@link Transaction} based queries expect
+     */
+    public Transaction toTransaction() {
+        return Transaction.Builder.newInstance()
+                .setMtn(mtn)
+                .setAmount(amountMinorUnits, amountScale)
+                .setSenderFullName(senderFullName)
+                .setSenderAge(senderAge)
+                .setBeneficiaryFullName(beneficiaryFullName)
+                .setBeneficiaryAge(beneficiaryAge)
+                .setIssueSolved(isIssueSolved())
+                .build();
+    }
+}
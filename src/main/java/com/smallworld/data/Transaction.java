@@ -1,11 +1,23 @@
 package com.smallworld.data;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonSetter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Objects;
 
+/**
+ * Transfer between two clients. The amount is held as {@link MinorUnits}: json amounts keep every digit, at a scale
+ * of at least {@link MinorUnits#DEFAULT_SCALE}, up to {@link MinorUnits#MICROS_SCALE} decimals beyond which they are
+ * rounded half to even, and amounts built from a <code>double</code> are rounded half to even to the scale of the
+ * builder.
+ */
 public class Transaction {
     private Long mtn;
-    private double amount;
+    private long amountMinorUnits;
+    private int amountScale = MinorUnits.DEFAULT_SCALE;
     private String senderFullName;
     private int senderAge;
     private String beneficiaryFullName;
@@ -13,6 +25,7 @@ public class Transaction {
     private Long issueId;
     private boolean issueSolved;
     private String issueMessage;
+    private Long timestamp;
 
     private Transaction() {
 
@@ -20,7 +33,13 @@ public class Transaction {
 
     private Transaction(final Builder builder) {
         this.mtn = builder.mtn;
-        this.amount = builder.amount;
+        if (builder.amountMinorUnits != null) {
+            this.amountMinorUnits = builder.amountMinorUnits;
+            this.amountScale = builder.minorUnitsScale;
+        } else {
+            this.amountMinorUnits = MinorUnits.of(builder.amount, builder.amountScale);
+            this.amountScale = builder.amountScale;
+        }
         this.beneficiaryFullName = builder.beneficiaryFullName;
         this.beneficiaryAge = builder.beneficiaryAge;
         this.senderFullName = builder.senderFullName;
@@ -28,6 +47,7 @@ public class Transaction {
         this.issueId = builder.issueId;
         this.issueMessage = builder.issueMessage;
         this.issueSolved = builder.issueSolved;
+        this.timestamp = builder.timestamp;
     }
 
     @Override
@@ -47,7 +67,37 @@ public class Transaction {
     }
 
     public double getAmount() {
-        return amount;
+        return MinorUnits.toDouble(amountMinorUnits, amountScale);
+    }
+
+    @JsonIgnore
+    public long getAmountMinorUnits() {
+        return amountMinorUnits;
+    }
+
+    /**
+     * Returns the number of minor unit digits of the amount
+     */
+    @JsonIgnore
+    public int getAmountScale() {
+        return amountScale;
+    }
+
+    /**
+     * Returns the amount in micros, the unit aggregates add
+     */
+    @JsonIgnore
+    public long getAmountMicros() {
+        return MinorUnits.toMicros(amountMinorUnits, amountScale);
+    }
+
+    @JsonSetter("amount")
+    private void setAmount(final BigDecimal amount) {
+        final BigDecimal roundedAmount = amount.scale() > MinorUnits.MICROS_SCALE
+                ? amount.setScale(MinorUnits.MICROS_SCALE, RoundingMode.HALF_EVEN)
+                : amount;
+        this.amountScale = MinorUnits.scaleOf(roundedAmount);
+        this.amountMinorUnits = MinorUnits.of(roundedAmount, amountScale);
     }
 
     public String getSenderFullName() {
@@ -78,10 +128,20 @@ public class Transaction {
         return issueMessage;
     }
 
+    /**
+     * Returns when the transaction happened, in milliseconds since the epoch, or <code>null</code> if unknown
+     */
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
     public static class Builder {
 
         private Long mtn;
         private double amount;
+        private int amountScale = MinorUnits.DEFAULT_SCALE;
+        private Long amountMinorUnits;
+        private int minorUnitsScale;
         private String senderFullName;
         private int senderAge;
         private String beneficiaryFullName;
@@ -89,6 +149,7 @@ public class Transaction {
         private Long issueId;
         private boolean issueSolved = true;
         private String issueMessage;
+        private Long timestamp;
 
         public static Builder newInstance() {
             return new Builder();
@@ -106,8 +167,32 @@ public class Transaction {
             return this;
         }
 
+        /**
+         * Sets the amount, rounded to the scale set by {@link #setAmountScale(int)}
+         */
         public Builder setAmount(final double amount) {
             this.amount = amount;
+            this.amountMinorUnits = null;
+            return this;
+        }
+
+        /**
+         * Sets the exact amount of <code>minorUnits</code> of <code>scale</code>
+         */
+        public Builder setAmount(final long minorUnits, final int scale) {
+            MinorUnits.validateScale(scale);
+            this.amountMinorUnits = minorUnits;
+            this.minorUnitsScale = scale;
+            return this;
+        }
+
+        /**
+         * Sets the currency scale amounts given as <code>double</code> are rounded to, {@link MinorUnits#DEFAULT_SCALE}
+         * by default
+         */
+        public Builder setAmountScale(final int amountScale) {
+            MinorUnits.validateScale(amountScale);
+            this.amountScale = amountScale;
             return this;
         }
 
@@ -145,6 +230,11 @@ public class Transaction {
             this.issueMessage = issueMessage;
             return this;
         }
+
+        public Builder setTimestamp(final Long timestamp) {
+            this.timestamp = timestamp;
+            return this;
+        }
     }
 }
 
@@ -0,0 +1,112 @@
+package com.smallworld.data;
+
+import com.smallworld.exception.OperationException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Folds transaction/issue join rows into one {@link NormalizedTransaction} per <code>mtn</code>.
+ * <p>
+ * Rows are consumed lazily and only the rows of the transfer being folded are held, which relies on the join
+ * emitting the rows of one <code>mtn</code> next to each other. Repeated identical rows are dropped. By default an
+ * <code>mtn</code> showing up again after its run ended starts a new transfer, as only the current run is
+ * remembered; {@link #TransactionNormalizer(boolean)} can instead report it as an {@link OperationException}.
+ */
+public class TransactionNormalizer {
+    private final boolean rejectSplitRuns;
+
+    public TransactionNormalizer() {
+        this(false);
+    }
+
+    /**
+     * @param rejectSplitRuns Whether to throw an {@link OperationException} when the rows of an <code>mtn</code> are
+     *                        not contiguous. This keeps every <code>mtn</code> met so far, so memory grows with the
+     *                        number of transfers.
+     */
+    public TransactionNormalizer(final boolean rejectSplitRuns) {
+        this.rejectSplitRuns = rejectSplitRuns;
+    }
+
+    /**
+     * Returns the transfers described by <code>transactions</code>, in the order of their first row
+     */
+    public Stream<NormalizedTransaction> normalize(final Stream<Transaction> transactions) {
+        final Iterator<NormalizedTransaction> iterator = new NormalizingIterator(transactions.iterator(), rejectSplitRuns);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(transactions::close);
+    }
+
+    /**
+     * Returns the transfers described by <code>transactions</code>, in the order of their first row
+     */
+    public List<NormalizedTransaction> normalize(final List<Transaction> transactions) {
+        final List<NormalizedTransaction> normalizedTransactions = new ArrayList<>();
+        new NormalizingIterator(transactions.iterator(), rejectSplitRuns).forEachRemaining(normalizedTransactions::add);
+        return normalizedTransactions;
+    }
+
+    private static final class NormalizingIterator implements Iterator<NormalizedTransaction> {
+        private final Iterator<Transaction> rows;
+        private final Set<Long> foldedMtns;
+        private final List<Issue> issues = new ArrayList<>();
+        private Transaction pendingRow;
+
+        private NormalizingIterator(final Iterator<Transaction> rows, final boolean rejectSplitRuns) {
+            this.rows = rows;
+            this.foldedMtns = rejectSplitRuns ? new HashSet<>() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pendingRow != null || rows.hasNext();
+        }
+
+        @Override
+        public NormalizedTransaction next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final Transaction first = pendingRow != null ? pendingRow : rows.next();
+            pendingRow = null;
+            if (foldedMtns != null && !foldedMtns.add(first.getMtn())) {
+                throw new OperationException("Rows of transaction " + first.getMtn() + " are not contiguous");
+            }
+
+            issues.clear();
+            addIssue(first);
+            while (rows.hasNext()) {
+                final Transaction row = rows.next();
+                if (!Objects.equals(row.getMtn(), first.getMtn())) {
+                    pendingRow = row;
+                    break;
+                }
+                addIssue(row);
+            }
+
+            return new NormalizedTransaction(first, issues.toArray(new Issue[0]));
+        }
+
+        private void addIssue(final Transaction row) {
+            if (row.getIssueId() == null) {
+                return;
+            }
+
+            final Issue issue = new Issue(row.getIssueId(), row.isIssueSolved(), row.getIssueMessage());
+            if (!issues.contains(issue)) {
+                issues.add(issue);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.smallworld.kernel;
+
+/**
+ * Loops over the first <code>length</code> entries of primitive columns, the building blocks of
+ * {@link TransactionColumns} reports. Masks are <code>boolean</code> columns selecting the rows where they are
+ * <code>true</code>, ranges are inclusive.
+ * <p>
+ * Values are <code>long</code>s, amounts in {@link com.smallworld.data.MinorUnits micros}, so every implementation
+ * gives the same results whatever order it adds them in. Sums fail with an {@link ArithmeticException} rather than
+ * wrap around past {@link Long#MAX_VALUE}.
+ */
+public interface ColumnKernels {
+
+    /**
+     * Returns the kernels using the SIMD instructions of the CPU when the <code>vector</code> build profile compiled
+     * them and the runtime was started with <code>--add-modules jdk.incubator.vector</code>, the scalar ones
+     * otherwise
+     */
+    static ColumnKernels get() {
+        return VectorSupport.BEST;
+    }
+
+    /**
+     * Returns kernels running one entry at a time
+     */
+    static ColumnKernels scalar() {
+        return ScalarColumnKernels.INSTANCE;
+    }
+
+    /**
+     * Returns the sum of the values of the masked rows
+     */
+    long sum(long[] values, boolean[] mask, int length);
+
+    /**
+     * Returns the sum of the values of the masked rows whose key is between <code>min</code> and <code>max</code>
+     */
+    long sumInRange(long[] values, boolean[] mask, int[] keys, int min, int max, int length);
+
+    /**
+     * Returns the highest value of the masked rows, {@link Long#MIN_VALUE} when no row is masked
+     */
+    long max(long[] values, boolean[] mask, int length);
+
+    /**
+     * Returns the number of masked rows
+     */
+    int count(boolean[] mask, int length);
+
+    /**
+     * Returns the number of masked rows whose key is between <code>min</code> and <code>max</code>
+     */
+    int countInRange(boolean[] mask, int[] keys, int min, int max, int length);
+
+    /**
+     * Returns the number of masked rows per key bucket, bucket <code>b</code> holding the keys from
+     * <code>min + b * width</code> to <code>min + (b + 1) * width - 1</code>. Keys outside every bucket are not
+     * counted.
+     */
+    long[] histogram(boolean[] mask, int[] keys, int min, int width, int buckets, int length);
+}
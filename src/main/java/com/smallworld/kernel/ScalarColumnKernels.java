@@ -0,0 +1,130 @@
+package com.smallworld.kernel;
+
+/**
+ * {@link ColumnKernels} running one entry at a time, the fallback when the vector API is not available. The range
+ * variants also finish the tails of the vector loops.
+ */
+final class ScalarColumnKernels implements ColumnKernels {
+    static final ScalarColumnKernels INSTANCE = new ScalarColumnKernels();
+
+    private ScalarColumnKernels() {
+    }
+
+    @Override
+    public long sum(final long[] values, final boolean[] mask, final int length) {
+        return sum(values, mask, 0, length);
+    }
+
+    long sum(final long[] values, final boolean[] mask, final int from, final int to) {
+        long total = 0;
+        for (int row = from; row < to; row++) {
+            if (mask[row]) {
+                total = Math.addExact(total, values[row]);
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long sumInRange(final long[] values,
+                             final boolean[] mask,
+                             final int[] keys,
+                             final int min,
+                             final int max,
+                             final int length) {
+        return sumInRange(values, mask, keys, min, max, 0, length);
+    }
+
+    long sumInRange(final long[] values,
+                    final boolean[] mask,
+                    final int[] keys,
+                    final int min,
+                    final int max,
+                    final int from,
+                    final int to) {
+        long total = 0;
+        for (int row = from; row < to; row++) {
+            if (mask[row] && keys[row] >= min && keys[row] <= max) {
+                total = Math.addExact(total, values[row]);
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long max(final long[] values, final boolean[] mask, final int length) {
+        return max(values, mask, 0, length);
+    }
+
+    long max(final long[] values, final boolean[] mask, final int from, final int to) {
+        long max = Long.MIN_VALUE;
+        for (int row = from; row < to; row++) {
+            if (mask[row] && values[row] > max) {
+                max = values[row];
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public int count(final boolean[] mask, final int length) {
+        return count(mask, 0, length);
+    }
+
+    int count(final boolean[] mask, final int from, final int to) {
+        int count = 0;
+        for (int row = from; row < to; row++) {
+            if (mask[row]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int countInRange(final boolean[] mask, final int[] keys, final int min, final int max, final int length) {
+        return countInRange(mask, keys, min, max, 0, length);
+    }
+
+    int countInRange(final boolean[] mask, final int[] keys, final int min, final int max, final int from, final int to) {
+        int count = 0;
+        for (int row = from; row < to; row++) {
+            if (mask[row] && keys[row] >= min && keys[row] <= max) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long[] histogram(final boolean[] mask,
+                            final int[] keys,
+                            final int min,
+                            final int width,
+                            final int buckets,
+                            final int length) {
+        final long[] counts = new long[buckets];
+        histogram(mask, keys, min, width, counts, 0, length);
+        return counts;
+    }
+
+    /**
+     * Adds the counts of the rows from <code>from</code> to <code>to</code> to <code>counts</code>
+     */
+    void histogram(final boolean[] mask,
+                   final int[] keys,
+                   final int min,
+                   final int width,
+                   final long[] counts,
+                   final int from,
+                   final int to) {
+        for (int row = from; row < to; row++) {
+            if (mask[row] && keys[row] >= min) {
+                final long bucket = ((long) keys[row] - min) / width;
+                if (bucket < counts.length) {
+                    counts[(int) bucket]++;
+                }
+            }
+        }
+    }
+}
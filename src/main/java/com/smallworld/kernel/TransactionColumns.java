@@ -0,0 +1,133 @@
+package com.smallworld.kernel;
+
+import com.smallworld.data.MinorUnits;
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import com.smallworld.store.TransactionTable;
+
+import java.util.List;
+
+/**
+ * Amounts, sender ages and issue states of transactions copied into primitive arrays, answering amount and age
+ * reports over the successful transactions, like {@link com.smallworld.TransactionDataFetcher}, with
+ * {@link ColumnKernels}. Amounts are kept and summed as {@link MinorUnits micros}, exactly, and only turned into
+ * <code>double</code> in the answers.
+ * <p>
+ * Copying costs one pass over the data, so it pays off for the reports run many times over the same snapshot.
+ * Columns are immutable and safe to query from several threads.
+ */
+public class TransactionColumns {
+    private final int size;
+    private final long[] amountMicros;
+    private final int[] senderAges;
+    private final boolean[] solved;
+    private final ColumnKernels kernels;
+
+    private TransactionColumns(final int size,
+                               final long[] amountMicros,
+                               final int[] senderAges,
+                               final boolean[] solved,
+                               final ColumnKernels kernels) {
+        this.size = size;
+        this.amountMicros = amountMicros;
+        this.senderAges = senderAges;
+        this.solved = solved;
+        this.kernels = kernels;
+    }
+
+    public static TransactionColumns of(final TransactionTable table) {
+        final int size = table.size();
+        final long[] amountMicros = new long[size];
+        final int[] senderAges = new int[size];
+        final boolean[] solved = new boolean[size];
+        for (int row = 0; row < size; row++) {
+            amountMicros[row] = table.getAmountMicros(row);
+            senderAges[row] = table.getSenderAge(row);
+            solved[row] = table.isIssueSolved(row);
+        }
+        return new TransactionColumns(size, amountMicros, senderAges, solved, ColumnKernels.get());
+    }
+
+    public static TransactionColumns of(final List<Transaction> transactions) {
+        final int size = transactions.size();
+        final long[] amountMicros = new long[size];
+        final int[] senderAges = new int[size];
+        final boolean[] solved = new boolean[size];
+        int row = 0;
+        for (final Transaction transaction : transactions) {
+            amountMicros[row] = transaction.getAmountMicros();
+            senderAges[row] = transaction.getSenderAge();
+            solved[row] = transaction.isIssueSolved();
+            row++;
+        }
+        return new TransactionColumns(size, amountMicros, senderAges, solved, ColumnKernels.get());
+    }
+
+    /**
+     * Returns these columns answering with <code>kernels</code> instead of {@link ColumnKernels#get()}
+     */
+    public TransactionColumns using(final ColumnKernels kernels) {
+        return new TransactionColumns(size, amountMicros, senderAges, solved, kernels);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the sum of the amounts of all successful transactions
+     */
+    public double getTotalAmount() {
+        return MinorUnits.microsToDouble(kernels.sum(amountMicros, solved, size));
+    }
+
+    /**
+     * Returns the highest successful transaction amount, 0 when there is none
+     */
+    public double getMaxAmount() {
+        final long max = kernels.max(amountMicros, solved, size);
+        return max == Long.MIN_VALUE ? 0 : MinorUnits.microsToDouble(max);
+    }
+
+    /**
+     * Returns the number of successful transactions
+     */
+    public int countSolved() {
+        return kernels.count(solved, size);
+    }
+
+    /**
+     * Returns the number of successful transactions whose sender is between <code>minAge</code> and
+     * <code>maxAge</code> years old
+     */
+    public int countSentByAgedBetween(final int minAge, final int maxAge) {
+        validateAgeRange(minAge, maxAge);
+        return kernels.countInRange(solved, senderAges, minAge, maxAge, size);
+    }
+
+    /**
+     * Returns the sum of the amounts of the successful transactions whose sender is between <code>minAge</code>
+     * and <code>maxAge</code> years old
+     */
+    public double getTotalAmountSentByAgedBetween(final int minAge, final int maxAge) {
+        validateAgeRange(minAge, maxAge);
+        return MinorUnits.microsToDouble(kernels.sumInRange(amountMicros, solved, senderAges, minAge, maxAge, size));
+    }
+
+    /**
+     * Returns the number of successful transactions per sender age bracket of <code>width</code> years, the first
+     * one starting at <code>minAge</code>
+     */
+    public long[] getSenderAgeHistogram(final int minAge, final int width, final int buckets) {
+        if (width < 1 || buckets < 1) {
+            throw new OperationException("Histogram width and bucket count must be positive");
+        }
+        return kernels.histogram(solved, senderAges, minAge, width, buckets, size);
+    }
+
+    private static void validateAgeRange(final int minAge, final int maxAge) {
+        if (minAge > maxAge) {
+            throw new OperationException("Minimum age must not exceed maximum age");
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.smallworld.kernel;
+
+/**
+ * Picks the best {@link ColumnKernels} once. The vector kernels are loaded reflectively as they are only compiled by
+ * the <code>vector</code> profile and only link when the incubator module is present.
+ */
+final class VectorSupport {
+    static final ColumnKernels BEST = load();
+
+    private VectorSupport() {
+    }
+
+    private static ColumnKernels load() {
+        try {
+            return (ColumnKernels) Class.forName("com.smallworld.kernel.VectorColumnKernels")
+                    .getDeclaredField("INSTANCE").get(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return ColumnKernels.scalar();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.smallworld.metrics;
+
+import com.smallworld.util.JsonParser;
+
+import java.text.ParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe {@link MetricsRecorder} keeping counters and latency histograms in memory, to be dumped as json or in
+ * the Prometheus text exposition format. Histograms count durations in fixed buckets from 1 microsecond to
+ * 50 seconds (1, 2.5 and 5 per decade), so recording costs a few comparisons and an atomic increment.
+ */
+public class InMemoryMetricsRegistry implements MetricsRecorder {
+    private static final long[] BUCKET_BOUNDS_NANOS = bucketBounds();
+
+    private final boolean allocationTracked;
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public InMemoryMetricsRegistry() {
+        this(false);
+    }
+
+    /**
+     * @param allocationTracked Whether instrumented calls should also record the bytes they allocate.
+     */
+    public InMemoryMetricsRegistry(final boolean allocationTracked) {
+        this.allocationTracked = allocationTracked;
+    }
+
+    @Override
+    public void increment(final String counter, final long delta) {
+        counters.computeIfAbsent(counter, name -> new LongAdder()).add(delta);
+    }
+
+    @Override
+    public void recordNanos(final String timer, final long nanos) {
+        histograms.computeIfAbsent(timer, name -> new Histogram()).record(nanos);
+    }
+
+    @Override
+    public boolean isAllocationTracked() {
+        return allocationTracked;
+    }
+
+    /**
+     * Returns the value of <code>counter</code>, 0 if never incremented
+     */
+    public long getCounter(final String counter) {
+        final LongAdder value = counters.get(counter);
+        return value == null ? 0 : value.sum();
+    }
+
+    /**
+     * Returns how many durations <code>timer</code> recorded
+     */
+    public long getTimerCount(final String timer) {
+        final Histogram histogram = histograms.get(timer);
+        return histogram == null ? 0 : histogram.count.sum();
+    }
+
+    /**
+     * Returns counters and timers as json: <code>{"counters": {name: value}, "timers": {name: {"count", "sumNanos",
+     * "buckets": {upper bound in nanos or "+Inf": cumulative count}}}}</code>
+     */
+    public String toJson() throws ParseException {
+        final Map<String, Object> counterValues = new TreeMap<>();
+        counters.forEach((name, value) -> counterValues.put(name, value.sum()));
+
+        final Map<String, Object> timerValues = new TreeMap<>();
+        histograms.forEach((name, histogram) -> {
+            final Map<String, Long> buckets = new LinkedHashMap<>();
+            final long[] cumulativeCounts = histogram.cumulativeCounts();
+            for (int bucket = 0; bucket < BUCKET_BOUNDS_NANOS.length; bucket++) {
+                buckets.put(String.valueOf(BUCKET_BOUNDS_NANOS[bucket]), cumulativeCounts[bucket]);
+            }
+            buckets.put("+Inf", cumulativeCounts[BUCKET_BOUNDS_NANOS.length]);
+
+            final Map<String, Object> timer = new LinkedHashMap<>();
+            timer.put("count", histogram.count.sum());
+            timer.put("sumNanos", histogram.sumNanos.sum());
+            timer.put("buckets", buckets);
+            timerValues.put(name, timer);
+        });
+
+        final Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("counters", counterValues);
+        metrics.put("timers", timerValues);
+        return new JsonParser().toString(metrics);
+    }
+
+    /**
+     * Returns counters and timers in the Prometheus text format, timers as histograms in seconds
+     */
+    public String toPrometheus() {
+        final StringBuilder text = new StringBuilder();
+        new TreeMap<>(counters).forEach((name, value) -> {
+            final String metric = sanitize(name) + "_total";
+            text.append("# TYPE ").append(metric).append(" counter\n")
+                    .append(metric).append(' ').append(value.sum()).append('\n');
+        });
+        new TreeMap<>(histograms).forEach((name, histogram) -> {
+            final String metric = sanitize(name) + "_seconds";
+            final long[] cumulativeCounts = histogram.cumulativeCounts();
+            text.append("# TYPE ").append(metric).append(" histogram\n");
+            for (int bucket = 0; bucket < BUCKET_BOUNDS_NANOS.length; bucket++) {
+                text.append(metric).append("_bucket{le=\"").append(BUCKET_BOUNDS_NANOS[bucket] / 1e9).append("\"} ")
+                        .append(cumulativeCounts[bucket]).append('\n');
+            }
+            text.append(metric).append("_bucket{le=\"+Inf\"} ").append(cumulativeCounts[BUCKET_BOUNDS_NANOS.length]).append('\n')
+                    .append(metric).append("_sum ").append(histogram.sumNanos.sum() / 1e9).append('\n')
+                    .append(metric).append("_count ").append(histogram.count.sum()).append('\n');
+        });
+        return text.toString();
+    }
+
+    private static String sanitize(final String name) {
+        return name.replaceAll("[^a-zA-Z0-9_]", "_");
+    }
+
+    private static long[] bucketBounds() {
+        final long[] bounds = new long[24];
+        long decade = 1_000;
+        for (int bucket = 0; bucket < bounds.length; bucket += 3) {
+            bounds[bucket] = decade;
+            bounds[bucket + 1] = decade * 5 / 2;
+            bounds[bucket + 2] = decade * 5;
+            decade *= 10;
+        }
+        return bounds;
+    }
+
+    private static final class Histogram {
+        private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_BOUNDS_NANOS.length + 1);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sumNanos = new LongAdder();
+
+        private void record(final long nanos) {
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_NANOS.length && nanos > BUCKET_BOUNDS_NANOS[bucket]) {
+                bucket++;
+            }
+            bucketCounts.incrementAndGet(bucket);
+            count.increment();
+            sumNanos.add(nanos);
+        }
+
+        private long[] cumulativeCounts() {
+            final long[] cumulativeCounts = new long[bucketCounts.length()];
+            long total = 0;
+            for (int bucket = 0; bucket < cumulativeCounts.length; bucket++) {
+                total += bucketCounts.get(bucket);
+                cumulativeCounts[bucket] = total;
+            }
+            return cumulativeCounts;
+        }
+    }
+}
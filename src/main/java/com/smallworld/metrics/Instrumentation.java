@@ -0,0 +1,70 @@
+package com.smallworld.metrics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Times calls into a {@link MetricsRecorder}: for a call named <code>name</code> it records the timer
+ * <code>name</code>, the counters <code>name.calls</code>, <code>name.rows</code> when the input size is known and
+ * <code>name.allocated_bytes</code> when allocation is tracked.
+ * <p>
+ * Only the outermost instrumented call of a thread is recorded, so an instrumented method delegating to another
+ * one is counted once.
+ */
+public final class Instrumentation {
+    public static final long UNKNOWN_ROWS = -1;
+
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+    private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+
+    private Instrumentation() {
+    }
+
+    public static <T, E extends Exception> T time(final MetricsRecorder recorder,
+                                                  final String name,
+                                                  final long rows,
+                                                  final Call<T, E> call) throws E {
+        if (recorder == MetricsRecorder.NOOP) {
+            return call.call();
+        }
+
+        final int[] depth = DEPTH.get();
+        if (depth[0] > 0) {
+            return call.call();
+        }
+
+        final boolean allocationTracked = recorder.isAllocationTracked() && THREADS != null;
+        final long allocatedBefore = allocationTracked ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+        final long start = System.nanoTime();
+        depth[0]++;
+        try {
+            return call.call();
+        } finally {
+            depth[0]--;
+            recorder.recordNanos(name, System.nanoTime() - start);
+            recorder.increment(name + ".calls", 1);
+            if (rows != UNKNOWN_ROWS) {
+                recorder.increment(name + ".rows", rows);
+            }
+            if (allocationTracked) {
+                recorder.increment(name + ".allocated_bytes", THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore);
+            }
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        final java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            return (com.sun.management.ThreadMXBean) threads;
+        }
+        return null;
+    }
+
+    /**
+     * Instrumented call, possibly throwing a checked exception
+     */
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T call() throws E;
+    }
+}
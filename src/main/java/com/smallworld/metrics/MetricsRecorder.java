@@ -0,0 +1,36 @@
+package com.smallworld.metrics;
+
+/**
+ * Sink of the counters and latencies recorded by instrumented components. {@link #NOOP} is the default and makes
+ * instrumentation skip even reading the clock.
+ */
+public interface MetricsRecorder {
+
+    MetricsRecorder NOOP = new MetricsRecorder() {
+        @Override
+        public void increment(final String counter, final long delta) {
+        }
+
+        @Override
+        public void recordNanos(final String timer, final long nanos) {
+        }
+    };
+
+    /**
+     * Adds <code>delta</code> to <code>counter</code>
+     */
+    void increment(String counter, long delta);
+
+    /**
+     * Records one duration of <code>timer</code>
+     */
+    void recordNanos(String timer, long nanos);
+
+    /**
+     * Returns whether instrumented calls should also record the bytes they allocate, which costs a thread MXBean
+     * read per call
+     */
+    default boolean isAllocationTracked() {
+        return false;
+    }
+}
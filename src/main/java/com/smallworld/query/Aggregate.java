@@ -0,0 +1,73 @@
+package com.smallworld.query;
+
+import com.smallworld.exception.OperationException;
+
+/**
+ * Value computed over the transactions of each group of a {@link Query}. Aggregates of an empty group are 0, like
+ * the fetcher answers sums and maxima over no transaction.
+ */
+public final class Aggregate {
+    private final Function function;
+    private final Field field;
+
+    private Aggregate(final Function function, final Field field) {
+        if (field != null && function != Function.COUNT_DISTINCT && !field.isNumeric()) {
+            throw new OperationException("Cannot compute " + function + " of non numeric field " + field);
+        }
+
+        this.function = function;
+        this.field = field;
+    }
+
+    public static Aggregate count() {
+        return new Aggregate(Function.COUNT, null);
+    }
+
+    public static Aggregate sum(final Field field) {
+        return new Aggregate(Function.SUM, field);
+    }
+
+    public static Aggregate min(final Field field) {
+        return new Aggregate(Function.MIN, field);
+    }
+
+    public static Aggregate max(final Field field) {
+        return new Aggregate(Function.MAX, field);
+    }
+
+    public static Aggregate average(final Field field) {
+        return new Aggregate(Function.AVERAGE, field);
+    }
+
+    /**
+     * Returns the number of distinct values of <code>field</code>, <code>null</code> counting as a value
+     */
+    public static Aggregate countDistinct(final Field field) {
+        return new Aggregate(Function.COUNT_DISTINCT, field);
+    }
+
+    public Function getFunction() {
+        return function;
+    }
+
+    /**
+     * Returns the aggregated field, <code>null</code> for {@link Function#COUNT}
+     */
+    public Field getField() {
+        return field;
+    }
+
+    @Override
+    public String toString() {
+        return field == null ? function.toString() : function + "(" + field + ")";
+    }
+
+    public enum Function {
+        COUNT,
+        SUM,
+        MIN,
+        MAX,
+        AVERAGE,
+        COUNT_DISTINCT
+    }
+}
@@ -0,0 +1,138 @@
+package com.smallworld.query;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import com.smallworld.store.TransactionTable;
+
+import java.util.function.IntToDoubleFunction;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * {@link Transaction} fields queries filter, group and aggregate on. Numeric fields are read as <code>double</code>,
+ * a missing issue id as {@link Double#NaN}, which fails every comparison. {@link #isIntegral() Integral} fields are
+ * compared with whole numbers as <code>long</code> by {@link Filter}s.
+ */
+public enum Field {
+    MTN(true),
+    AMOUNT(true),
+    SENDER_FULL_NAME(false),
+    SENDER_AGE(true),
+    BENEFICIARY_FULL_NAME(false),
+    BENEFICIARY_AGE(true),
+    ISSUE_ID(true),
+    ISSUE_SOLVED(false),
+    ISSUE_MESSAGE(false);
+
+    private final boolean numeric;
+
+    Field(final boolean numeric) {
+        this.numeric = numeric;
+    }
+
+    public boolean isNumeric() {
+        return numeric;
+    }
+
+    /**
+     * Returns whether this field holds <code>long</code> ids, which a <code>double</code> rounds past 2^53
+     */
+    public boolean isIntegral() {
+        return this == MTN || this == ISSUE_ID;
+    }
+
+    /**
+     * Returns the value of this field in <code>transaction</code>
+     */
+    public Object valueOf(final Transaction transaction) {
+        switch (this) {
+            case MTN:
+                return transaction.getMtn();
+            case AMOUNT:
+                return transaction.getAmount();
+            case SENDER_FULL_NAME:
+                return transaction.getSenderFullName();
+            case SENDER_AGE:
+                return transaction.getSenderAge();
+            case BENEFICIARY_FULL_NAME:
+                return transaction.getBeneficiaryFullName();
+            case BENEFICIARY_AGE:
+                return transaction.getBeneficiaryAge();
+            case ISSUE_ID:
+                return transaction.getIssueId();
+            case ISSUE_SOLVED:
+                return transaction.isIssueSolved();
+            default:
+                return transaction.getIssueMessage();
+        }
+    }
+
+    /**
+     * Returns the value of this field in <code>row</code> of <code>table</code>, boxed like
+     * {@link #valueOf(Transaction)}
+     */
+    public Object valueOf(final TransactionTable table, final int row) {
+        switch (this) {
+            case MTN:
+                return table.getMtn(row);
+            case AMOUNT:
+                return table.getAmount(row);
+            case SENDER_FULL_NAME:
+                return table.getSenderFullName(row);
+            case SENDER_AGE:
+                return table.getSenderAge(row);
+            case BENEFICIARY_FULL_NAME:
+                return table.getBeneficiaryFullName(row);
+            case BENEFICIARY_AGE:
+                return table.getBeneficiaryAge(row);
+            case ISSUE_ID:
+                return table.hasIssueId(row) ? table.getIssueId(row) : null;
+            case ISSUE_SOLVED:
+                return table.isIssueSolved(row);
+            default:
+                return table.getIssueMessage(row);
+        }
+    }
+
+    /**
+     * Returns the reader of this numeric field from transactions
+     */
+    ToDoubleFunction<Transaction> numericReader() {
+        switch (requireNumeric()) {
+            case MTN:
+                return transaction -> transaction.getMtn();
+            case AMOUNT:
+                return Transaction::getAmount;
+            case SENDER_AGE:
+                return Transaction::getSenderAge;
+            case BENEFICIARY_AGE:
+                return Transaction::getBeneficiaryAge;
+            default:
+                return transaction -> transaction.getIssueId() == null ? Double.NaN : transaction.getIssueId();
+        }
+    }
+
+    /**
+     * Returns the reader of this numeric field from the column of <code>table</code>
+     */
+    IntToDoubleFunction numericReader(final TransactionTable table) {
+        switch (requireNumeric()) {
+            case MTN:
+                return table::getMtn;
+            case AMOUNT:
+                return table::getAmount;
+            case SENDER_AGE:
+                return table::getSenderAge;
+            case BENEFICIARY_AGE:
+                return table::getBeneficiaryAge;
+            default:
+                return row -> table.hasIssueId(row) ? table.getIssueId(row) : Double.NaN;
+        }
+    }
+
+    private Field requireNumeric() {
+        if (!numeric) {
+            throw new OperationException("Field " + this + " is not numeric");
+        }
+        return this;
+    }
+}
@@ -0,0 +1,522 @@
+package com.smallworld.query;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import com.smallworld.store.ClientIndex;
+import com.smallworld.store.IssueMessageIndex;
+import com.smallworld.store.StringDictionary;
+import com.smallworld.store.TransactionTable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.trim;
+
+/**
+ * Condition on the fields of a transaction, compiled by a {@link Query} either to a {@link Predicate} over
+ * {@link Transaction}s or to an {@link IntPredicate} over the rows of a {@link TransactionTable}, where values are
+ * resolved once to dictionary ids and clients so that rows are matched by comparing ints.
+ */
+public abstract class Filter {
+
+    Filter() {
+
+    }
+
+    /**
+     * Returns a filter keeping transactions whose <code>field</code> equals <code>value</code>: numerically for
+     * numeric fields, exactly otherwise
+     */
+    public static Filter equalTo(final Field field, final Object value) {
+        if (field.isNumeric()) {
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return new Comparison(field, Operator.EQUAL, ((Number) value).longValue());
+            }
+            if (!(value instanceof Number)) {
+                throw new OperationException("Field " + field + " can only equal a number");
+            }
+            return new Comparison(field, Operator.EQUAL, ((Number) value).doubleValue());
+        }
+        return new ValueMatch(field, value);
+    }
+
+    public static Filter greaterThan(final Field field, final double value) {
+        return new Comparison(field, Operator.GREATER, value);
+    }
+
+    public static Filter greaterThan(final Field field, final long value) {
+        return new Comparison(field, Operator.GREATER, value);
+    }
+
+    public static Filter atLeast(final Field field, final double value) {
+        return new Comparison(field, Operator.GREATER_OR_EQUAL, value);
+    }
+
+    public static Filter atLeast(final Field field, final long value) {
+        return new Comparison(field, Operator.GREATER_OR_EQUAL, value);
+    }
+
+    public static Filter lessThan(final Field field, final double value) {
+        return new Comparison(field, Operator.LESS, value);
+    }
+
+    public static Filter lessThan(final Field field, final long value) {
+        return new Comparison(field, Operator.LESS, value);
+    }
+
+    public static Filter atMost(final Field field, final double value) {
+        return new Comparison(field, Operator.LESS_OR_EQUAL, value);
+    }
+
+    public static Filter atMost(final Field field, final long value) {
+        return new Comparison(field, Operator.LESS_OR_EQUAL, value);
+    }
+
+    /**
+     * Returns a filter keeping transactions whose <code>field</code> is within [min, max]
+     */
+    public static Filter between(final Field field, final double min, final double max) {
+        return and(atLeast(field, min), atMost(field, max));
+    }
+
+    public static Filter between(final Field field, final long min, final long max) {
+        return and(atLeast(field, min), atMost(field, max));
+    }
+
+    /**
+     * Returns a filter keeping successful transactions, whose issue is solved
+     */
+    public static Filter isSolved() {
+        return equalTo(Field.ISSUE_SOLVED, true);
+    }
+
+    /**
+     * Returns a filter keeping transactions whose sender or beneficiary name, per <code>field</code>, matches
+     * <code>name</code> once trimmed and ignoring case, as the fetcher compares client names
+     */
+    public static Filter nameIs(final Field field, final String name) {
+        if (field != Field.SENDER_FULL_NAME && field != Field.BENEFICIARY_FULL_NAME) {
+            throw new OperationException("Field " + field + " is not a client name");
+        }
+        if (isBlank(name)) {
+            throw new OperationException("Operation is not allowed with null or empty client name");
+        }
+        return new NameMatch(field, trim(name));
+    }
+
+    /**
+     * Returns a filter keeping transactions whose issue message holds the terms of <code>phrase</code>
+     * consecutively, ignoring case and punctuation
+     */
+    public static Filter messageContains(final String phrase) {
+        final List<String> terms = phrase == null ? List.of() : IssueMessageIndex.tokenize(phrase);
+        if (terms.isEmpty()) {
+            throw new OperationException("Operation is not allowed with a search without terms");
+        }
+        return new MessageMatch(phrase, terms);
+    }
+
+    public static Filter and(final Filter... filters) {
+        final List<Filter> conjuncts = new ArrayList<>();
+        for (final Filter filter : filters) {
+            conjuncts.addAll(filter.conjuncts());
+        }
+        return conjuncts.size() == 1 ? conjuncts.get(0) : new Conjunction(conjuncts);
+    }
+
+    public static Filter or(final Filter... filters) {
+        return new Disjunction(List.of(filters));
+    }
+
+    public static Filter not(final Filter filter) {
+        return new Negation(filter);
+    }
+
+    abstract Predicate<Transaction> compile();
+
+    abstract IntPredicate compile(TransactionTable table);
+
+    /**
+     * Returns, in ascending order, the rows of <code>table</code> this filter may keep when an index narrows them
+     * down, or <code>null</code> when every row must be tested. <code>messageIndex</code> may be <code>null</code>.
+     */
+    int[] candidateRows(final TransactionTable table, final IssueMessageIndex messageIndex) {
+        return null;
+    }
+
+    /**
+     * Returns the filters this one is the conjunction of, itself unless it is an {@link #and(Filter...)}
+     */
+    List<Filter> conjuncts() {
+        return List.of(this);
+    }
+
+    private enum Operator {
+        EQUAL,
+        GREATER,
+        GREATER_OR_EQUAL,
+        LESS,
+        LESS_OR_EQUAL;
+
+        private boolean test(final long left, final long right) {
+            return test(Long.compare(left, right));
+        }
+
+        private boolean test(final double left, final double right) {
+            switch (this) {
+                case EQUAL:
+                    return left == right;
+                case GREATER:
+                    return left > right;
+                case GREATER_OR_EQUAL:
+                    return left >= right;
+                case LESS:
+                    return left < right;
+                default:
+                    return left <= right;
+            }
+        }
+
+        private boolean test(final int comparison) {
+            switch (this) {
+                case EQUAL:
+                    return comparison == 0;
+                case GREATER:
+                    return comparison > 0;
+                case GREATER_OR_EQUAL:
+                    return comparison >= 0;
+                case LESS:
+                    return comparison < 0;
+                default:
+                    return comparison <= 0;
+            }
+        }
+    }
+
+    /**
+     * Comparison of a numeric field with a constant. Integral fields are compared as longs whenever the constant is a
+     * whole number, so that ids past 2^53 are not rounded onto their neighbours.
+     */
+    private static final class Comparison extends Filter {
+        private final Field field;
+        private final Operator operator;
+        private final double value;
+        private final boolean integral;
+        private final long longValue;
+
+        private Comparison(final Field field, final Operator operator, final double value) {
+            this(field, operator, value, isWhole(value), (long) value);
+        }
+
+        private Comparison(final Field field, final Operator operator, final long value) {
+            this(field, operator, value, true, value);
+        }
+
+        private Comparison(final Field field,
+                           final Operator operator,
+                           final double value,
+                           final boolean whole,
+                           final long longValue) {
+            if (!field.isNumeric()) {
+                throw new OperationException("Field " + field + " is not numeric");
+            }
+            this.field = field;
+            this.operator = operator;
+            this.value = value;
+            this.integral = whole && field.isIntegral();
+            this.longValue = longValue;
+        }
+
+        @Override
+        Predicate<Transaction> compile() {
+            if (integral) {
+                return field == Field.MTN
+                        ? transaction -> operator.test(transaction.getMtn(), longValue)
+                        : transaction -> transaction.getIssueId() != null && operator.test(transaction.getIssueId(), longValue);
+            }
+            final ToDoubleFunction<Transaction> reader = field.numericReader();
+            return transaction -> operator.test(reader.applyAsDouble(transaction), value);
+        }
+
+        @Override
+        IntPredicate compile(final TransactionTable table) {
+            if (integral) {
+                return field == Field.MTN
+                        ? row -> operator.test(table.getMtn(row), longValue)
+                        : row -> table.hasIssueId(row) && operator.test(table.getIssueId(row), longValue);
+            }
+            final IntToDoubleFunction reader = field.numericReader(table);
+            switch (operator) {
+                case EQUAL:
+                    return row -> reader.applyAsDouble(row) == value;
+                case GREATER:
+                    return row -> reader.applyAsDouble(row) > value;
+                case GREATER_OR_EQUAL:
+                    return row -> reader.applyAsDouble(row) >= value;
+                case LESS:
+                    return row -> reader.applyAsDouble(row) < value;
+                default:
+                    return row -> reader.applyAsDouble(row) <= value;
+            }
+        }
+    }
+
+    private static final class ValueMatch extends Filter {
+        private final Field field;
+        private final Object value;
+
+        private ValueMatch(final Field field, final Object value) {
+            this.field = field;
+            this.value = value;
+        }
+
+        @Override
+        Predicate<Transaction> compile() {
+            return transaction -> Objects.equals(field.valueOf(transaction), value);
+        }
+
+        @Override
+        IntPredicate compile(final TransactionTable table) {
+            switch (field) {
+                case SENDER_FULL_NAME:
+                    return idMatch(table.getNames(), table::getSenderId);
+                case BENEFICIARY_FULL_NAME:
+                    return idMatch(table.getNames(), table::getBeneficiaryId);
+                case ISSUE_MESSAGE:
+                    return idMatch(table.getIssueMessages(), table::getIssueMessageId);
+                default:
+                    final boolean solved = Boolean.TRUE.equals(value);
+                    return value instanceof Boolean ? row -> table.isIssueSolved(row) == solved : row -> false;
+            }
+        }
+
+        /**
+         * Narrows client name matches to the rows of the client of that exact name, a superset of the rows holding
+         * it which the compiled predicate then checks exactly
+         */
+        @Override
+        int[] candidateRows(final TransactionTable table, final IssueMessageIndex messageIndex) {
+            if ((field != Field.SENDER_FULL_NAME && field != Field.BENEFICIARY_FULL_NAME) || !(value instanceof String)) {
+                return null;
+            }
+            final int nameId = table.getNames().getId((String) value);
+            if (nameId == StringDictionary.NULL_ID) {
+                return new int[0];
+            }
+            final ClientIndex clientIndex = table.getClientIndex();
+            return clientIndex.getRows(clientIndex.getClientOfNameId(nameId));
+        }
+
+        private IntPredicate idMatch(final StringDictionary dictionary, final IntUnaryOperator idOf) {
+            if (value != null && !(value instanceof String)) {
+                return row -> false;
+            }
+            final int id = dictionary.getId((String) value);
+            if (value != null && id == StringDictionary.NULL_ID) {
+                return row -> false;
+            }
+            return row -> idOf.applyAsInt(row) == id;
+        }
+    }
+
+    private static final class NameMatch extends Filter {
+        private final Field field;
+        private final String name;
+
+        private NameMatch(final Field field, final String name) {
+            this.field = field;
+            this.name = name;
+        }
+
+        @Override
+        Predicate<Transaction> compile() {
+            return transaction -> name.equalsIgnoreCase((String) field.valueOf(transaction));
+        }
+
+        @Override
+        IntPredicate compile(final TransactionTable table) {
+            final ClientIndex clientIndex = table.getClientIndex();
+            final int client = clientIndex.getClient(name);
+            if (client == ClientIndex.NOT_FOUND) {
+                return row -> false;
+            }
+            return field == Field.SENDER_FULL_NAME
+                    ? row -> clientIndex.getClientOfNameId(table.getSenderId(row)) == client
+                    : row -> clientIndex.getClientOfNameId(table.getBeneficiaryId(row)) == client;
+        }
+
+        @Override
+        int[] candidateRows(final TransactionTable table, final IssueMessageIndex messageIndex) {
+            return clientRows(table, name);
+        }
+    }
+
+    private static final class MessageMatch extends Filter {
+        private final String phrase;
+        private final List<String> terms;
+
+        private MessageMatch(final String phrase, final List<String> terms) {
+            this.phrase = phrase;
+            this.terms = terms;
+        }
+
+        @Override
+        Predicate<Transaction> compile() {
+            return transaction -> matches(transaction.getIssueMessage());
+        }
+
+        /**
+         * Matches every distinct message once, so that rows are matched by a lookup on their message id
+         */
+        @Override
+        IntPredicate compile(final TransactionTable table) {
+            final StringDictionary messages = table.getIssueMessages();
+            final boolean[] matchingMessages = new boolean[messages.size()];
+            for (int messageId = 0; messageId < messages.size(); messageId++) {
+                matchingMessages[messageId] = matches(messages.get(messageId));
+            }
+            return row -> {
+                final int messageId = table.getIssueMessageId(row);
+                return messageId != StringDictionary.NULL_ID && matchingMessages[messageId];
+            };
+        }
+
+        @Override
+        int[] candidateRows(final TransactionTable table, final IssueMessageIndex messageIndex) {
+            return messageIndex == null ? null : messageIndex.findRows(phrase, IssueMessageIndex.Partition.ALL);
+        }
+
+        private boolean matches(final String message) {
+            return message != null && Collections.indexOfSubList(IssueMessageIndex.tokenize(message), terms) >= 0;
+        }
+    }
+
+    private static final class Conjunction extends Filter {
+        private final List<Filter> filters;
+
+        private Conjunction(final List<Filter> filters) {
+            this.filters = List.copyOf(filters);
+        }
+
+        @Override
+        Predicate<Transaction> compile() {
+            final List<Predicate<Transaction>> predicates = new ArrayList<>();
+            filters.forEach(filter -> predicates.add(filter.compile()));
+            return transaction -> {
+                for (final Predicate<Transaction> predicate : predicates) {
+                    if (!predicate.test(transaction)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+
+        @Override
+        IntPredicate compile(final TransactionTable table) {
+            final IntPredicate[] predicates = filters.stream().map(filter -> filter.compile(table)).toArray(IntPredicate[]::new);
+            return row -> {
+                for (final IntPredicate predicate : predicates) {
+                    if (!predicate.test(row)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+
+        @Override
+        int[] candidateRows(final TransactionTable table, final IssueMessageIndex messageIndex) {
+            int[] candidates = null;
+            for (final Filter filter : filters) {
+                final int[] rows = filter.candidateRows(table, messageIndex);
+                if (rows != null && (candidates == null || rows.length < candidates.length)) {
+                    candidates = rows;
+                }
+            }
+            return candidates;
+        }
+
+        @Override
+        List<Filter> conjuncts() {
+            return filters;
+        }
+    }
+
+    private static final class Disjunction extends Filter {
+        private final List<Filter> filters;
+
+        private Disjunction(final List<Filter> filters) {
+            if (filters.isEmpty()) {
+                throw new OperationException("At least one filter is required");
+            }
+            this.filters = filters;
+        }
+
+        @Override
+        Predicate<Transaction> compile() {
+            final List<Predicate<Transaction>> predicates = new ArrayList<>();
+            filters.forEach(filter -> predicates.add(filter.compile()));
+            return transaction -> {
+                for (final Predicate<Transaction> predicate : predicates) {
+                    if (predicate.test(transaction)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+
+        @Override
+        IntPredicate compile(final TransactionTable table) {
+            final IntPredicate[] predicates = filters.stream().map(filter -> filter.compile(table)).toArray(IntPredicate[]::new);
+            return row -> {
+                for (final IntPredicate predicate : predicates) {
+                    if (predicate.test(row)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+    }
+
+    private static final class Negation extends Filter {
+        private final Filter filter;
+
+        private Negation(final Filter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        Predicate<Transaction> compile() {
+            return filter.compile().negate();
+        }
+
+        @Override
+        IntPredicate compile(final TransactionTable table) {
+            return filter.compile(table).negate();
+        }
+    }
+
+    private static boolean isWhole(final double value) {
+        return value == Math.rint(value) && Math.abs(value) < 0x1p63;
+    }
+
+    /**
+     * Returns the rows of the client named <code>name</code>, a superset of the rows where it plays a given role
+     */
+    private static int[] clientRows(final TransactionTable table, final String name) {
+        final ClientIndex clientIndex = table.getClientIndex();
+        final int client = clientIndex.getClient(name);
+        return client == ClientIndex.NOT_FOUND ? new int[0] : clientIndex.getRows(client);
+    }
+}
@@ -0,0 +1,314 @@
+package com.smallworld.query;
+
+import com.smallworld.data.MinorUnits;
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import com.smallworld.store.IssueMessageIndex;
+import com.smallworld.store.TransactionTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Ad hoc report over transactions: keep the ones matching a {@link Filter}, group them by some {@link Field}s and
+ * compute {@link Aggregate}s per group, e.g. the count and total amount of the solved transfers above 500 from
+ * senders under 25, per sender:
+ * <pre>
+ * Query.Builder.newInstance()
+ *         .where(Filter.and(Filter.isSolved(), Filter.greaterThan(Field.AMOUNT, 500), Filter.lessThan(Field.SENDER_AGE, 25)))
+ *         .groupBy(Field.SENDER_FULL_NAME)
+ *         .select(Aggregate.count(), Aggregate.sum(Field.AMOUNT))
+ *         .build()
+ *         .execute(table);
+ * </pre>
+ * A query runs as one loop testing, grouping and aggregating each row. Before the loop, the conditions of the
+ * filter are compiled once against the data, ordered by the share of a sample of rows they keep, most selective
+ * first, and the rows to scan are narrowed down to the smallest set an index gives: the {@link
+ * com.smallworld.store.ClientIndex} rows of a client name condition, or the {@link IssueMessageIndex} rows of a
+ * message search. Amounts are aggregated as {@link MinorUnits micros}, exactly, and only turned into
+ * <code>double</code> in the result.
+ */
+public class Query {
+    private static final int SELECTIVITY_SAMPLE_SIZE = 1024;
+
+    private final Filter filter;
+    private final List<Field> groupBy;
+    private final List<Aggregate> aggregates;
+
+    private Query(final Builder builder) {
+        this.filter = builder.filter;
+        this.groupBy = List.copyOf(builder.groupBy);
+        this.aggregates = List.copyOf(builder.aggregates);
+    }
+
+    public QueryResult execute(final List<Transaction> transactions) {
+        final List<Transaction> rows = transactions instanceof RandomAccess ? transactions : new ArrayList<>(transactions);
+        final List<IntPredicate> predicates = new ArrayList<>();
+        for (final Filter conjunct : conjuncts()) {
+            final Predicate<Transaction> predicate = conjunct.compile();
+            predicates.add(row -> predicate.test(rows.get(row)));
+        }
+
+        return run(rows.size(), null, predicates,
+                field -> row -> field.valueOf(rows.get(row)),
+                field -> {
+                    final ToDoubleFunction<Transaction> reader = field.numericReader();
+                    return row -> reader.applyAsDouble(rows.get(row));
+                },
+                row -> rows.get(row).getAmountMicros());
+    }
+
+    public QueryResult execute(final TransactionTable table) {
+        return execute(table, null);
+    }
+
+    /**
+     * Runs the query over <code>table</code>, searching messages through <code>messageIndex</code>, which must
+     * index that same table
+     */
+    public QueryResult execute(final TransactionTable table, final IssueMessageIndex messageIndex) {
+        final List<IntPredicate> predicates = new ArrayList<>();
+        for (final Filter conjunct : conjuncts()) {
+            predicates.add(conjunct.compile(table));
+        }
+
+        return run(table.size(), filter == null ? null : filter.candidateRows(table, messageIndex), predicates,
+                field -> row -> field.valueOf(table, row),
+                field -> field.numericReader(table),
+                table::getAmountMicros);
+    }
+
+    private List<Filter> conjuncts() {
+        return filter == null ? List.of() : filter.conjuncts();
+    }
+
+    private QueryResult run(final int size,
+                            final int[] candidates,
+                            final List<IntPredicate> predicates,
+                            final Function<Field, IntFunction<Object>> valueReader,
+                            final Function<Field, IntToDoubleFunction> numericReader,
+                            final IntToLongFunction amountMicrosReader) {
+        final int scannedRows = candidates == null ? size : candidates.length;
+        final IntPredicate[] orderedPredicates = bySelectivity(predicates, scannedRows, candidates);
+
+        final List<IntFunction<Object>> keyReaders = new ArrayList<>();
+        groupBy.forEach(field -> keyReaders.add(valueReader.apply(field)));
+        final IntToDoubleFunction[] numericReaders = new IntToDoubleFunction[aggregates.size()];
+        final List<IntFunction<Object>> distinctReaders = new ArrayList<>();
+        for (int index = 0; index < aggregates.size(); index++) {
+            final Aggregate aggregate = aggregates.get(index);
+            if (aggregate.getFunction() == Aggregate.Function.COUNT_DISTINCT) {
+                distinctReaders.add(valueReader.apply(aggregate.getField()));
+            } else {
+                distinctReaders.add(null);
+                if (aggregate.getField() != null && aggregate.getField() != Field.AMOUNT) {
+                    numericReaders[index] = numericReader.apply(aggregate.getField());
+                }
+            }
+        }
+
+        final Map<List<Object>, GroupState> groups = new LinkedHashMap<>();
+        final GroupState ungrouped = keyReaders.isEmpty() ? new GroupState() : null;
+        if (ungrouped != null) {
+            groups.put(List.of(), ungrouped);
+        }
+
+        rows:
+        for (int index = 0; index < scannedRows; index++) {
+            final int row = candidates == null ? index : candidates[index];
+            for (final IntPredicate predicate : orderedPredicates) {
+                if (!predicate.test(row)) {
+                    continue rows;
+                }
+            }
+
+            GroupState group = ungrouped;
+            if (group == null) {
+                final Object[] key = new Object[keyReaders.size()];
+                for (int field = 0; field < key.length; field++) {
+                    key[field] = keyReaders.get(field).apply(row);
+                }
+                group = groups.computeIfAbsent(Arrays.asList(key), newKey -> new GroupState());
+            }
+            group.accept(row, numericReaders, amountMicrosReader, distinctReaders);
+        }
+
+        final List<QueryResult.Group> results = new ArrayList<>(groups.size());
+        groups.forEach((key, group) -> results.add(new QueryResult.Group(Collections.unmodifiableList(key), group.values())));
+        return new QueryResult(aggregates, Collections.unmodifiableList(results), scannedRows);
+    }
+
+    /**
+     * Returns the predicates sorted by how many rows of an evenly spread sample they keep, fewest first, so that
+     * most rows are rejected by the first test
+     */
+    private static IntPredicate[] bySelectivity(final List<IntPredicate> predicates, final int rows, final int[] candidates) {
+        if (predicates.size() < 2 || rows == 0) {
+            return predicates.toArray(new IntPredicate[0]);
+        }
+
+        final int step = Math.max(1, rows / SELECTIVITY_SAMPLE_SIZE);
+        final Map<IntPredicate, Integer> kept = new HashMap<>();
+        for (final IntPredicate predicate : predicates) {
+            int count = 0;
+            for (int index = 0; index < rows; index += step) {
+                if (predicate.test(candidates == null ? index : candidates[index])) {
+                    count++;
+                }
+            }
+            kept.put(predicate, count);
+        }
+
+        final List<IntPredicate> ordered = new ArrayList<>(predicates);
+        ordered.sort(Comparator.comparing(kept::get));
+        return ordered.toArray(new IntPredicate[0]);
+    }
+
+    private final class GroupState {
+        private final double[] values = new double[aggregates.size()];
+        private final long[] micros = new long[aggregates.size()];
+        private final long[] counts = new long[aggregates.size()];
+        private final List<Set<Object>> distinctValues = new ArrayList<>();
+        private long rows;
+
+        private GroupState() {
+            for (int index = 0; index < aggregates.size(); index++) {
+                final Aggregate.Function function = aggregates.get(index).getFunction();
+                distinctValues.add(function == Aggregate.Function.COUNT_DISTINCT ? new HashSet<>() : null);
+                if (function == Aggregate.Function.MIN) {
+                    values[index] = Double.POSITIVE_INFINITY;
+                    micros[index] = Long.MAX_VALUE;
+                } else if (function == Aggregate.Function.MAX) {
+                    values[index] = Double.NEGATIVE_INFINITY;
+                    micros[index] = Long.MIN_VALUE;
+                }
+            }
+        }
+
+        /**
+         * Accumulates <code>row</code>; missing values, read as {@link Double#NaN}, are skipped. Amounts are added
+         * as micros, failing rather than wrapping around past {@link Long#MAX_VALUE}.
+         */
+        private void accept(final int row,
+                            final IntToDoubleFunction[] numericReaders,
+                            final IntToLongFunction amountMicrosReader,
+                            final List<IntFunction<Object>> distinctReaders) {
+            rows++;
+            for (int index = 0; index < values.length; index++) {
+                final Aggregate.Function function = aggregates.get(index).getFunction();
+                if (function == Aggregate.Function.COUNT_DISTINCT) {
+                    distinctValues.get(index).add(distinctReaders.get(index).apply(row));
+                    continue;
+                }
+                if (function == Aggregate.Function.COUNT) {
+                    continue;
+                }
+                if (aggregates.get(index).getField() == Field.AMOUNT) {
+                    final long value = amountMicrosReader.applyAsLong(row);
+                    counts[index]++;
+                    if (function == Aggregate.Function.MIN) {
+                        micros[index] = Math.min(micros[index], value);
+                    } else if (function == Aggregate.Function.MAX) {
+                        micros[index] = Math.max(micros[index], value);
+                    } else {
+                        micros[index] = Math.addExact(micros[index], value);
+                    }
+                    continue;
+                }
+
+                final double value = numericReaders[index].applyAsDouble(row);
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                counts[index]++;
+                if (function == Aggregate.Function.MIN) {
+                    values[index] = Math.min(values[index], value);
+                } else if (function == Aggregate.Function.MAX) {
+                    values[index] = Math.max(values[index], value);
+                } else {
+                    values[index] += value;
+                }
+            }
+        }
+
+        private double[] values() {
+            final double[] results = new double[values.length];
+            for (int index = 0; index < values.length; index++) {
+                final Aggregate aggregate = aggregates.get(index);
+                final double value = aggregate.getField() == Field.AMOUNT
+                        && aggregate.getFunction() != Aggregate.Function.COUNT_DISTINCT
+                        ? MinorUnits.microsToDouble(micros[index])
+                        : values[index];
+                switch (aggregate.getFunction()) {
+                    case COUNT:
+                        results[index] = rows;
+                        break;
+                    case COUNT_DISTINCT:
+                        results[index] = distinctValues.get(index).size();
+                        break;
+                    case AVERAGE:
+                        results[index] = counts[index] == 0 ? 0 : value / counts[index];
+                        break;
+                    default:
+                        results[index] = counts[index] == 0 ? 0 : value;
+                        break;
+                }
+            }
+            return results;
+        }
+    }
+
+    public static class Builder {
+        private Filter filter;
+        private final List<Field> groupBy = new ArrayList<>();
+        private final List<Aggregate> aggregates = new ArrayList<>();
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        private Builder() {
+        }
+
+        public Query build() {
+            if (aggregates.isEmpty()) {
+                throw new OperationException("At least one aggregate is required");
+            }
+            return new Query(this);
+        }
+
+        /**
+         * Keeps the transactions matching <code>filter</code>, every transaction when never called
+         */
+        public Builder where(final Filter filter) {
+            this.filter = filter;
+            return this;
+        }
+
+        public Builder groupBy(final Field... fields) {
+            groupBy.addAll(Arrays.asList(fields));
+            return this;
+        }
+
+        public Builder select(final Aggregate... aggregates) {
+            this.aggregates.addAll(Arrays.asList(aggregates));
+            return this;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.smallworld.query;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Groups produced by a {@link Query}, in the order their first transaction was met, each with the values of the
+ * query aggregates in the order they were selected
+ */
+public class QueryResult {
+    private final List<Aggregate> aggregates;
+    private final List<Group> groups;
+    private final int scannedRows;
+
+    QueryResult(final List<Aggregate> aggregates, final List<Group> groups, final int scannedRows) {
+        this.aggregates = aggregates;
+        this.groups = groups;
+        this.scannedRows = scannedRows;
+    }
+
+    public List<Aggregate> getAggregates() {
+        return aggregates;
+    }
+
+    public List<Group> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Returns the number of rows the filter was tested on, fewer than the dataset when an index narrowed them down
+     */
+    public int getScannedRows() {
+        return scannedRows;
+    }
+
+    public static class Group {
+        private final List<Object> key;
+        private final double[] values;
+
+        Group(final List<Object> key, final double[] values) {
+            this.key = key;
+            this.values = values;
+        }
+
+        /**
+         * Returns the values of the group-by fields, empty when the query is not grouped
+         */
+        public List<Object> getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the value of the aggregate selected at <code>index</code>
+         */
+        public double getValue(final int index) {
+            return values[index];
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + Arrays.toString(values);
+        }
+    }
+}
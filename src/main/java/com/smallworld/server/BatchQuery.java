@@ -0,0 +1,62 @@
+package com.smallworld.server;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+
+/**
+ * One query of a batch sent to the {@link QueryServer}, as json: <code>{"type": "TOTAL_AMOUNT_SENT_BY",
+ * "client": "Tom Shelby"}</code>. The client is only read by the queries about one client. A type that is not one
+ * of {@link Type} is read as <code>null</code>, so that only this query of the batch fails.
+ */
+public class BatchQuery {
+    private Type type;
+    private String typeName;
+    private String client;
+
+    private BatchQuery() {
+
+    }
+
+    public BatchQuery(final Type type, final String client) {
+        this.type = type;
+        this.typeName = type == null ? null : type.name();
+        this.client = client;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the type as sent, even when it is not one of {@link Type}
+     */
+    String getTypeName() {
+        return typeName;
+    }
+
+    @JsonSetter("type")
+    private void setType(final String typeName) {
+        this.typeName = typeName;
+        this.type = null;
+        for (final Type knownType : Type.values()) {
+            if (knownType.name().equals(typeName)) {
+                this.type = knownType;
+            }
+        }
+    }
+
+    public String getClient() {
+        return client;
+    }
+
+    public enum Type {
+        TOTAL_AMOUNT,
+        TOTAL_AMOUNT_SENT_BY,
+        MAX_AMOUNT,
+        UNIQUE_CLIENTS,
+        HAS_OPEN_COMPLIANCE_ISSUES,
+        UNSOLVED_ISSUE_IDS,
+        SOLVED_ISSUE_MESSAGES,
+        TOP_3_TRANSACTIONS,
+        TOP_SENDER
+    }
+}
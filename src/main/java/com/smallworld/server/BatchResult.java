@@ -0,0 +1,38 @@
+package com.smallworld.server;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Answer to one {@link BatchQuery}, as json: <code>{"value": ...}</code>, or <code>{"error": "..."}</code> when
+ * that query alone was invalid. A query without answer, like the top sender of an empty dataset, yields
+ * <code>{}</code>.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult {
+    private Object value;
+    private String error;
+
+    private BatchResult() {
+
+    }
+
+    static BatchResult ofValue(final Object value) {
+        final BatchResult result = new BatchResult();
+        result.value = value;
+        return result;
+    }
+
+    static BatchResult ofError(final String error) {
+        final BatchResult result = new BatchResult();
+        result.error = error;
+        return result;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
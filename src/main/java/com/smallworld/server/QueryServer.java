@@ -0,0 +1,196 @@
+package com.smallworld.server;
+
+import com.smallworld.ConcurrentTransactionDataFetcher;
+import com.smallworld.exception.OperationException;
+import com.smallworld.util.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP endpoint answering batches of fetcher queries over one shared, in-memory dataset, so that many
+ * client lookups cost a single round trip. <code>POST /query</code> takes a json array of {@link BatchQuery} and
+ * answers a json array of {@link BatchResult}, in the same order; an invalid query fails alone, with an error
+ * result, while a malformed or oversized batch is rejected with 400 or 413. Request bodies are read up to
+ * {@link #MAX_QUERY_BYTES} per allowed query, so memory stays bounded whatever the client sends.
+ * <p>
+ * Requests are handled on virtual threads when the runtime has them (Java 21 and later), and on a cached thread
+ * pool otherwise. Queries run against a {@link ConcurrentTransactionDataFetcher}, which the embedding application
+ * may keep appending to while the server runs.
+ */
+public class QueryServer implements AutoCloseable {
+    static final String QUERY_PATH = "/query";
+    public static final int DEFAULT_MAX_BATCH_SIZE = 10_000;
+    /**
+     * Room given to each query of a batch in the request body
+     */
+    public static final int MAX_QUERY_BYTES = 1024;
+
+    private final ConcurrentTransactionDataFetcher fetcher;
+    private final int maxBatchSize;
+    private final int maxBodyBytes;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final JsonParser jsonParser = new JsonParser();
+
+    private QueryServer(final ConcurrentTransactionDataFetcher fetcher,
+                        final int maxBatchSize,
+                        final HttpServer server,
+                        final ExecutorService executor) {
+        this.fetcher = fetcher;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBodyBytes = (int) Math.min((long) maxBatchSize * MAX_QUERY_BYTES, Integer.MAX_VALUE - 8);
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a server answering queries over <code>fetcher</code> on an ephemeral port of the loopback interface
+     */
+    public static QueryServer start(final ConcurrentTransactionDataFetcher fetcher) throws IOException {
+        return start(fetcher, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public static QueryServer start(final ConcurrentTransactionDataFetcher fetcher,
+                                    final InetSocketAddress address,
+                                    final int maxBatchSize) throws IOException {
+        if (maxBatchSize < 1) {
+            throw new OperationException("Batches must allow at least one query");
+        }
+
+        final HttpServer server = HttpServer.create(address, 0);
+        final ExecutorService executor = newPerRequestExecutor();
+        final QueryServer queryServer = new QueryServer(fetcher, maxBatchSize, server, executor);
+        server.createContext(QUERY_PATH, queryServer::handleQuery);
+        server.setExecutor(executor);
+        server.start();
+        return queryServer;
+    }
+
+    public URI getUri() {
+        final InetSocketAddress address = server.getAddress();
+        return URI.create("http://" + address.getHostString() + ":" + address.getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * Returns an executor starting one virtual thread per task, looked up reflectively as this code compiles for
+     * Java 17, or a cached pool of platform threads when the runtime has no virtual threads
+     */
+    static ExecutorService newPerRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void handleQuery(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "text/plain", "Only POST is supported");
+                return;
+            }
+
+            final byte[] body;
+            try (InputStream input = exchange.getRequestBody()) {
+                body = input.readNBytes(maxBodyBytes + 1);
+            }
+            if (body.length > maxBodyBytes) {
+                respond(exchange, 413, "text/plain", "Requests are limited to " + maxBodyBytes + " bytes");
+                return;
+            }
+
+            final BatchQuery[] queries;
+            try {
+                queries = jsonParser.toObject(new String(body, StandardCharsets.UTF_8), BatchQuery[].class);
+            } catch (ParseException e) {
+                respond(exchange, 400, "text/plain", "Malformed json array of queries");
+                return;
+            }
+            if (queries == null) {
+                respond(exchange, 400, "text/plain", "A json array of queries is required");
+                return;
+            }
+            if (queries.length > maxBatchSize) {
+                respond(exchange, 413, "text/plain", "Batches are limited to " + maxBatchSize + " queries");
+                return;
+            }
+
+            final List<BatchResult> results = new ArrayList<>(queries.length);
+            for (final BatchQuery query : queries) {
+                results.add(answer(query));
+            }
+            try {
+                respond(exchange, 200, "application/json", jsonParser.toString(results));
+            } catch (ParseException e) {
+                respond(exchange, 500, "text/plain", e.getMessage());
+            }
+        }
+    }
+
+    private BatchResult answer(final BatchQuery query) {
+        if (query == null || query.getTypeName() == null) {
+            return BatchResult.ofError("Query type is required");
+        }
+        if (query.getType() == null) {
+            return BatchResult.ofError("Unsupported query type");
+        }
+
+        try {
+            switch (query.getType()) {
+                case TOTAL_AMOUNT:
+                    return BatchResult.ofValue(fetcher.getTotalTransactionAmount());
+                case TOTAL_AMOUNT_SENT_BY:
+                    return BatchResult.ofValue(fetcher.getTotalTransactionAmountSentBy(query.getClient()));
+                case MAX_AMOUNT:
+                    return BatchResult.ofValue(fetcher.getMaxTransactionAmount());
+                case UNIQUE_CLIENTS:
+                    return BatchResult.ofValue(fetcher.countUniqueClients());
+                case HAS_OPEN_COMPLIANCE_ISSUES:
+                    return BatchResult.ofValue(fetcher.hasOpenComplianceIssues(query.getClient()));
+                case UNSOLVED_ISSUE_IDS:
+                    return BatchResult.ofValue(fetcher.getUnsolvedIssueIds());
+                case SOLVED_ISSUE_MESSAGES:
+                    return BatchResult.ofValue(fetcher.getAllSolvedIssueMessages());
+                case TOP_3_TRANSACTIONS:
+                    return BatchResult.ofValue(fetcher.getTop3TransactionsByAmount());
+                case TOP_SENDER:
+                    return BatchResult.ofValue(fetcher.getTopSender().orElse(null));
+                default:
+                    return BatchResult.ofError("Unsupported query type " + query.getType());
+            }
+        } catch (OperationException e) {
+            return BatchResult.ofError(e.getMessage());
+        }
+    }
+
+    private static void respond(final HttpExchange exchange,
+                                final int status,
+                                final String contentType,
+                                final String message) throws IOException {
+        final byte[] body = String.valueOf(message).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+}
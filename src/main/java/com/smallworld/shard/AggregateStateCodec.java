@@ -0,0 +1,266 @@
+package com.smallworld.shard;
+
+import com.smallworld.aggregate.AggregateState;
+import com.smallworld.aggregate.Measure;
+import com.smallworld.data.Transaction;
+import com.smallworld.util.JsonParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Wire formats of an {@link AggregateState} exchanged between shard nodes and the coordinator
+ */
+public enum AggregateStateCodec {
+    /**
+     * Human readable json, through {@link JsonParser}
+     */
+    JSON {
+        @Override
+        public byte[] encode(final AggregateState state) throws ParseException {
+            return JSON_PARSER.toString(state).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public AggregateState decode(final byte[] bytes) throws ParseException {
+            return JSON_PARSER.toObject(new String(bytes, StandardCharsets.UTF_8), AggregateState.class);
+        }
+    },
+
+    /**
+     * Compact binary layout: fixed width numbers, amounts as micros or minor units with their scale, length prefixed
+     * UTF-8 strings and collections, -1 for null
+     */
+    BINARY {
+        @Override
+        public byte[] encode(final AggregateState state) throws ParseException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream output = new DataOutputStream(bytes)) {
+                output.writeByte(BINARY_VERSION);
+                int measures = 0;
+                for (final Measure measure : state.getMeasures()) {
+                    measures |= 1 << measure.ordinal();
+                }
+                output.writeInt(measures);
+                output.writeLong(state.getTotalAmountMicros());
+                output.writeLong(state.getMaxAmountMicros());
+                output.writeBoolean(state.isSolvedTransactionSeen());
+                writeStrings(output, state.getClients());
+                writeBytes(output, state.getClientSketch());
+                writeIssueIds(output, state.getUnsolvedIssueIds());
+                writeStrings(output, state.getSolvedIssueMessages());
+                writeTransactions(output, state.getTopTransactions());
+                writeTotals(output, state.getSenderTotalMicros());
+            } catch (IOException e) {
+                throw new ParseException("Failed to encode aggregate state: " + e.getMessage(), 0);
+            }
+            return bytes.toByteArray();
+        }
+
+        @Override
+        public AggregateState decode(final byte[] bytes) throws ParseException {
+            try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                final byte version = input.readByte();
+                if (version != BINARY_VERSION) {
+                    throw new ParseException("Unsupported aggregate state version " + version, 0);
+                }
+                final int measureBits = input.readInt();
+                final Set<Measure> measures = EnumSet.noneOf(Measure.class);
+                for (final Measure measure : Measure.values()) {
+                    if ((measureBits & 1 << measure.ordinal()) != 0) {
+                        measures.add(measure);
+                    }
+                }
+                final AggregateState.Builder builder = AggregateState.Builder.newInstance()
+                        .setMeasures(measures)
+                        .setTotalAmountMicros(input.readLong())
+                        .setMaxAmountMicros(input.readLong())
+                        .setSolvedTransactionSeen(input.readBoolean());
+                final List<String> clients = readStrings(input);
+                builder.setClients(clients == null ? null : new HashSet<>(clients))
+                        .setClientSketch(readBytes(input))
+                        .setUnsolvedIssueIds(readIssueIds(input))
+                        .setSolvedIssueMessages(readStrings(input))
+                        .setTopTransactions(readTransactions(input))
+                        .setSenderTotalMicros(readTotals(input));
+                return builder.build();
+            } catch (IOException e) {
+                throw new ParseException("Failed to decode aggregate state: " + e.getMessage(), 0);
+            }
+        }
+    };
+
+    private static final JsonParser JSON_PARSER = new JsonParser();
+    private static final byte BINARY_VERSION = 3;
+
+    public abstract byte[] encode(AggregateState state) throws ParseException;
+
+    public abstract AggregateState decode(byte[] bytes) throws ParseException;
+
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(final DataInputStream input) throws IOException {
+        final int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(final DataOutputStream output, final byte[] bytes) throws IOException {
+        output.writeInt(bytes == null ? -1 : bytes.length);
+        if (bytes != null) {
+            output.write(bytes);
+        }
+    }
+
+    private static byte[] readBytes(final DataInputStream input) throws IOException {
+        final int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeLong(final DataOutputStream output, final Long value) throws IOException {
+        output.writeBoolean(value != null);
+        output.writeLong(value == null ? 0 : value);
+    }
+
+    private static Long readLong(final DataInputStream input) throws IOException {
+        final boolean present = input.readBoolean();
+        final long value = input.readLong();
+        return present ? value : null;
+    }
+
+    private static void writeStrings(final DataOutputStream output, final Collection<String> values) throws IOException {
+        output.writeInt(values == null ? -1 : values.size());
+        if (values != null) {
+            for (final String value : values) {
+                writeString(output, value);
+            }
+        }
+    }
+
+    private static List<String> readStrings(final DataInputStream input) throws IOException {
+        final int count = input.readInt();
+        if (count < 0) {
+            return null;
+        }
+        final List<String> values = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            values.add(readString(input));
+        }
+        return values;
+    }
+
+    private static void writeIssueIds(final DataOutputStream output, final Set<Long> issueIds) throws IOException {
+        output.writeInt(issueIds == null ? -1 : issueIds.size());
+        if (issueIds != null) {
+            for (final Long issueId : issueIds) {
+                writeLong(output, issueId);
+            }
+        }
+    }
+
+    private static Set<Long> readIssueIds(final DataInputStream input) throws IOException {
+        final int count = input.readInt();
+        if (count < 0) {
+            return null;
+        }
+        final Set<Long> issueIds = new HashSet<>();
+        for (int index = 0; index < count; index++) {
+            issueIds.add(readLong(input));
+        }
+        return issueIds;
+    }
+
+    private static void writeTransactions(final DataOutputStream output, final List<Transaction> transactions) throws IOException {
+        output.writeInt(transactions == null ? -1 : transactions.size());
+        if (transactions != null) {
+            for (final Transaction transaction : transactions) {
+                writeLong(output, transaction.getMtn());
+                output.writeLong(transaction.getAmountMinorUnits());
+                output.writeByte(transaction.getAmountScale());
+                writeString(output, transaction.getSenderFullName());
+                output.writeInt(transaction.getSenderAge());
+                writeString(output, transaction.getBeneficiaryFullName());
+                output.writeInt(transaction.getBeneficiaryAge());
+                writeLong(output, transaction.getIssueId());
+                output.writeBoolean(transaction.isIssueSolved());
+                writeString(output, transaction.getIssueMessage());
+                writeLong(output, transaction.getTimestamp());
+            }
+        }
+    }
+
+    private static List<Transaction> readTransactions(final DataInputStream input) throws IOException {
+        final int count = input.readInt();
+        if (count < 0) {
+            return null;
+        }
+        final List<Transaction> transactions = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            transactions.add(Transaction.Builder.newInstance()
+                    .setMtn(readLong(input))
+                    .setAmount(input.readLong(), input.readByte())
+                    .setSenderFullName(readString(input))
+                    .setSenderAge(input.readInt())
+                    .setBeneficiaryFullName(readString(input))
+                    .setBeneficiaryAge(input.readInt())
+                    .setIssueId(readLong(input))
+                    .setIssueSolved(input.readBoolean())
+                    .setIssueMessage(readString(input))
+                    .setTimestamp(readLong(input))
+                    .build());
+        }
+        return transactions;
+    }
+
+    private static void writeTotals(final DataOutputStream output, final Map<String, Long> totals) throws IOException {
+        output.writeInt(totals == null ? -1 : totals.size());
+        if (totals != null) {
+            for (final Map.Entry<String, Long> total : totals.entrySet()) {
+                writeString(output, total.getKey());
+                output.writeLong(total.getValue());
+            }
+        }
+    }
+
+    private static Map<String, Long> readTotals(final DataInputStream input) throws IOException {
+        final int count = input.readInt();
+        if (count < 0) {
+            return null;
+        }
+        final Map<String, Long> totals = new HashMap<>();
+        for (int index = 0; index < count; index++) {
+            totals.put(readString(input), input.readLong());
+        }
+        return totals;
+    }
+}
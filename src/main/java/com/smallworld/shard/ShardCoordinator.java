@@ -0,0 +1,91 @@
+package com.smallworld.shard;
+
+import com.smallworld.aggregate.AggregateState;
+import com.smallworld.aggregate.Measure;
+import com.smallworld.aggregate.TransactionAggregator;
+import com.smallworld.aggregate.TransactionSummary;
+import com.smallworld.exception.OperationException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Answers {@link Measure}s over a dataset split across {@link ShardNode}s: the partial state of every node is
+ * requested concurrently, then the states are combined in node order.
+ * <p>
+ * Shards must be partitioned by <code>mtn</code>, see {@link ShardPartitioner}. Results are those of a single
+ * {@link TransactionAggregator} over the shards concatenated: amount sums are exact whatever the split, while
+ * solved issue messages and equally ranked top transactions come in shard order.
+ */
+public class ShardCoordinator {
+    private final List<URI> nodes;
+    private final AggregateStateCodec codec;
+    private final HttpClient client;
+
+    public ShardCoordinator(final List<URI> nodes, final AggregateStateCodec codec) {
+        if (nodes.isEmpty()) {
+            throw new OperationException("At least one shard node is required");
+        }
+
+        this.nodes = List.copyOf(nodes);
+        this.codec = codec;
+        this.client = HttpClient.newHttpClient();
+    }
+
+    public TransactionSummary summarize(final Set<Measure> measures) throws IOException {
+        if (measures == null || measures.isEmpty()) {
+            throw new OperationException("At least one measure is required");
+        }
+
+        final String query = "?measures=" + measures.stream().map(Measure::name).collect(joining(","))
+                + "&codec=" + codec.name();
+        final List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>(nodes.size());
+        for (final URI node : nodes) {
+            responses.add(client.sendAsync(HttpRequest.newBuilder(node.resolve(ShardNode.AGGREGATE_PATH + query)).GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray()));
+        }
+
+        TransactionAggregator aggregator = null;
+        for (int index = 0; index < nodes.size(); index++) {
+            final TransactionAggregator shardAggregator = TransactionAggregator.fromState(decode(nodes.get(index),
+                    await(responses.get(index))));
+            aggregator = aggregator == null ? shardAggregator : aggregator.combine(shardAggregator);
+        }
+        return aggregator.summarize();
+    }
+
+    private AggregateState decode(final URI node, final HttpResponse<byte[]> response) throws IOException {
+        if (response.statusCode() != 200) {
+            throw new IOException("Shard node " + node + " answered " + response.statusCode() + ": "
+                    + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        try {
+            return codec.decode(response.body());
+        } catch (ParseException e) {
+            throw new IOException("Shard node " + node + " sent an invalid state: " + e.getMessage(), e);
+        }
+    }
+
+    private static HttpResponse<byte[]> await(final CompletableFuture<HttpResponse<byte[]>> response) throws IOException {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.smallworld.shard;
+
+import com.smallworld.aggregate.Measure;
+import com.smallworld.aggregate.TransactionAggregator;
+import com.smallworld.data.Transaction;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serves the partial aggregates of one shard over HTTP. <code>GET /aggregate?measures=A,B&amp;codec=BINARY</code>
+ * answers the {@link com.smallworld.aggregate.AggregateState} of the requested {@link Measure}s over the
+ * transactions of the shard, encoded with the requested {@link AggregateStateCodec} (json by default).
+ */
+public class ShardNode implements AutoCloseable {
+    static final String AGGREGATE_PATH = "/aggregate";
+
+    private final List<Transaction> transactions;
+    private final HttpServer server;
+
+    private ShardNode(final List<Transaction> transactions, final HttpServer server) {
+        this.transactions = transactions;
+        this.server = server;
+    }
+
+    /**
+     * Starts a node serving <code>transactions</code> on an ephemeral port of the loopback interface
+     */
+    public static ShardNode start(final List<Transaction> transactions) throws IOException {
+        return start(transactions, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    public static ShardNode start(final List<Transaction> transactions, final InetSocketAddress address) throws IOException {
+        final HttpServer server = HttpServer.create(address, 0);
+        final ShardNode node = new ShardNode(transactions, server);
+        server.createContext(AGGREGATE_PATH, node::handleAggregate);
+        server.start();
+        return node;
+    }
+
+    public URI getUri() {
+        final InetSocketAddress address = server.getAddress();
+        return URI.create("http://" + address.getHostString() + ":" + address.getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handleAggregate(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "Only GET is supported");
+                return;
+            }
+
+            final Map<String, String> parameters = parameters(exchange.getRequestURI().getRawQuery());
+            final Set<Measure> measures;
+            final AggregateStateCodec codec;
+            try {
+                measures = EnumSet.noneOf(Measure.class);
+                for (final String measure : parameters.getOrDefault("measures", "").split(",")) {
+                    if (!measure.isEmpty()) {
+                        measures.add(Measure.valueOf(measure));
+                    }
+                }
+                codec = AggregateStateCodec.valueOf(parameters.getOrDefault("codec", AggregateStateCodec.JSON.name()));
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, e.getMessage());
+                return;
+            }
+            if (measures.isEmpty()) {
+                respond(exchange, 400, "At least one measure is required");
+                return;
+            }
+
+            final TransactionAggregator aggregator = new TransactionAggregator(measures);
+            transactions.forEach(aggregator);
+            final byte[] body;
+            try {
+                body = codec.encode(aggregator.toState());
+            } catch (ParseException e) {
+                respond(exchange, 500, e.getMessage());
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type",
+                    codec == AggregateStateCodec.JSON ? "application/json" : "application/octet-stream");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final String message) throws IOException {
+        final byte[] body = String.valueOf(message).getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static Map<String, String> parameters(final String query) {
+        final Map<String, String> parameters = new HashMap<>();
+        if (query != null) {
+            for (final String parameter : query.split("&")) {
+                final int separator = parameter.indexOf('=');
+                if (separator > 0) {
+                    parameters.put(parameter.substring(0, separator), parameter.substring(separator + 1));
+                }
+            }
+        }
+        return parameters;
+    }
+}
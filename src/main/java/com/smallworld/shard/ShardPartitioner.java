@@ -0,0 +1,46 @@
+package com.smallworld.shard;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Assigns transactions to shards by <code>mtn</code>, so all the issue rows of one transaction land on the same
+ * shard and per shard top transactions and issue sets can be merged without double counting.
+ */
+public class ShardPartitioner {
+    private final int shardCount;
+
+    public ShardPartitioner(final int shardCount) {
+        if (shardCount < 1) {
+            throw new OperationException("Shard count must be positive");
+        }
+
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Returns the shard, in [0, shardCount), owning transaction <code>mtn</code>
+     */
+    public int shardOf(final long mtn) {
+        long hash = mtn * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        return (int) Math.floorMod(hash, (long) shardCount);
+    }
+
+    /**
+     * Splits <code>transactions</code> into one list per shard, keeping their relative order
+     */
+    public List<List<Transaction>> partition(final List<Transaction> transactions) {
+        final List<List<Transaction>> shards = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.add(new ArrayList<>());
+        }
+        for (final Transaction transaction : transactions) {
+            shards.get(shardOf(transaction.getMtn())).add(transaction);
+        }
+        return shards;
+    }
+}
@@ -0,0 +1,144 @@
+package com.smallworld.store;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.commons.lang3.StringUtils.trim;
+
+/**
+ * Per client index of the rows of a {@link TransactionTable}. Names are canonicalized the way
+ * {@link com.smallworld.TransactionDataFetcher} compares them (trimmed query, case-insensitive match), so every
+ * spelling of a client maps to the same entry and a lookup costs O(matching rows).
+ * <p>
+ * The rows of every client, up to two ints per table row, are kept in chunks that can live outside the java heap
+ * for off-heap tables; the heap then only holds the per name and per client arrays.
+ */
+public class ClientIndex {
+    public static final int NOT_FOUND = -1;
+
+    private static final int CHUNK_SHIFT = 20;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int POSITION_MASK = CHUNK_SIZE - 1;
+
+    private final Map<String, Integer> clients = new HashMap<>();
+    private final int[] clientOfNameId;
+    private final int[] rowOffsets;
+    private final IntBuffer[] rows;
+
+    ClientIndex(final TransactionTable store) {
+        this(store, false);
+    }
+
+    /**
+     * @param direct Whether to keep the rows of the clients in direct buffers rather than on the heap
+     */
+    ClientIndex(final TransactionTable store, final boolean direct) {
+        final StringDictionary names = store.getNames();
+        clientOfNameId = new int[names.size()];
+        for (int nameId = 0; nameId < names.size(); nameId++) {
+            final Integer newClient = clients.size();
+            final Integer client = clients.putIfAbsent(canonicalize(names.get(nameId)), newClient);
+            clientOfNameId[nameId] = client == null ? newClient : client;
+        }
+
+        rowOffsets = new int[clients.size() + 1];
+        for (int row = 0; row < store.size(); row++) {
+            final int sender = clientOf(store.getSenderId(row));
+            final int beneficiary = clientOf(store.getBeneficiaryId(row));
+            countRow(sender);
+            if (beneficiary != sender) {
+                countRow(beneficiary);
+            }
+        }
+        for (int client = 0; client < clients.size(); client++) {
+            rowOffsets[client + 1] += rowOffsets[client];
+        }
+
+        rows = allocate(rowOffsets[clients.size()], direct);
+        final int[] nextRow = Arrays.copyOf(rowOffsets, clients.size());
+        for (int row = 0; row < store.size(); row++) {
+            final int sender = clientOf(store.getSenderId(row));
+            final int beneficiary = clientOf(store.getBeneficiaryId(row));
+            if (sender != NOT_FOUND) {
+                setRow(nextRow[sender]++, row);
+            }
+            if (beneficiary != NOT_FOUND && beneficiary != sender) {
+                setRow(nextRow[beneficiary]++, row);
+            }
+        }
+    }
+
+    /**
+     * Returns the case-folded form of <code>name</code> used as client key; two names get the same key exactly
+     * when {@link String#equalsIgnoreCase(String)} holds between them.
+     */
+    public static String canonicalize(final String name) {
+        final StringBuilder canonicalName = new StringBuilder(name.length());
+        name.codePoints().forEach(codePoint ->
+                canonicalName.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint))));
+        return canonicalName.toString();
+    }
+
+    /**
+     * Returns the client named <code>clientFullName</code> once trimmed, or {@link #NOT_FOUND}
+     */
+    public int getClient(final String clientFullName) {
+        final Integer client = clients.get(canonicalize(trim(clientFullName)));
+        return client == null ? NOT_FOUND : client;
+    }
+
+    /**
+     * Returns the client a name dictionary id belongs to
+     */
+    public int getClientOfNameId(final int nameId) {
+        return clientOf(nameId);
+    }
+
+    /**
+     * Returns, in ascending order, the rows where <code>client</code> is sender or beneficiary
+     */
+    public int[] getRows(final int client) {
+        final int[] clientRows = new int[rowOffsets[client + 1] - rowOffsets[client]];
+        int copied = 0;
+        while (copied < clientRows.length) {
+            final int position = rowOffsets[client] + copied;
+            final int length = Math.min(clientRows.length - copied, CHUNK_SIZE - (position & POSITION_MASK));
+            rows[position >>> CHUNK_SHIFT].get(position & POSITION_MASK, clientRows, copied, length);
+            copied += length;
+        }
+        return clientRows;
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    private int clientOf(final int nameId) {
+        return nameId == StringDictionary.NULL_ID ? NOT_FOUND : clientOfNameId[nameId];
+    }
+
+    private void setRow(final int position, final int row) {
+        rows[position >>> CHUNK_SHIFT].put(position & POSITION_MASK, row);
+    }
+
+    private static IntBuffer[] allocate(final int size, final boolean direct) {
+        final IntBuffer[] chunks = new IntBuffer[(size + CHUNK_SIZE - 1) >>> CHUNK_SHIFT];
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            final int chunkSize = Math.min(CHUNK_SIZE, size - (chunk << CHUNK_SHIFT));
+            chunks[chunk] = direct
+                    ? ByteBuffer.allocateDirect(chunkSize * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer()
+                    : IntBuffer.allocate(chunkSize);
+        }
+        return chunks;
+    }
+
+    private void countRow(final int client) {
+        if (client != NOT_FOUND) {
+            rowOffsets[client + 1]++;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.smallworld.store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link StringDictionary} keeping its strings on the java heap, in a hash map to their ids and an array by id
+ */
+final class HeapStringDictionary extends StringDictionary {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] values = new String[16];
+
+    static HeapStringDictionary of(final String[] values) {
+        final HeapStringDictionary dictionary = new HeapStringDictionary();
+        dictionary.values = values.length == 0 ? new String[16] : values;
+        for (int id = 0; id < values.length; id++) {
+            dictionary.ids.put(values[id], id);
+        }
+        return dictionary;
+    }
+
+    @Override
+    public int getId(final String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        final Integer id = ids.get(value);
+        return id == null ? NULL_ID : id;
+    }
+
+    @Override
+    public String get(final int id) {
+        return id == NULL_ID ? null : values[id];
+    }
+
+    @Override
+    public int size() {
+        return ids.size();
+    }
+
+    @Override
+    int encode(final String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        final Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+
+        final int newId = ids.size();
+        if (newId == values.length) {
+            values = Arrays.copyOf(values, newId * 2);
+        }
+        values[newId] = value;
+        ids.put(value, newId);
+        return newId;
+    }
+}
@@ -0,0 +1,294 @@
+package com.smallworld.store;
+
+import com.smallworld.exception.OperationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntUnaryOperator;
+
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Inverted index of the issue messages of a {@link TransactionTable}, answering term and phrase searches in time
+ * proportional to the matching postings instead of a scan of every row.
+ * <p>
+ * Messages are indexed once each, through the table's message dictionary: terms point to the ids of the distinct
+ * messages holding them, and each message points to its rows, split into a solved and an unsolved partition. All
+ * lists are {@link PostingLists delta encoded}. Terms are the runs of letters and digits of a message, compared
+ * ignoring case; a phrase matches the messages holding its terms consecutively.
+ * <p>
+ * Indexes are immutable and safe to query from several threads.
+ */
+public class IssueMessageIndex {
+    private final TransactionTable table;
+    private final Map<String, Integer> termIds;
+    private final PostingLists messagesOfTerm;
+    private final PostingLists solvedRows;
+    private final PostingLists unsolvedRows;
+    private final List<String> solvedIssueMessages;
+
+    private IssueMessageIndex(final TransactionTable table,
+                              final Map<String, Integer> termIds,
+                              final PostingLists messagesOfTerm,
+                              final PostingLists solvedRows,
+                              final PostingLists unsolvedRows,
+                              final List<String> solvedIssueMessages) {
+        this.table = table;
+        this.termIds = termIds;
+        this.messagesOfTerm = messagesOfTerm;
+        this.solvedRows = solvedRows;
+        this.unsolvedRows = unsolvedRows;
+        this.solvedIssueMessages = solvedIssueMessages;
+    }
+
+    /**
+     * Returns the index of the issue messages of <code>table</code>
+     */
+    public static IssueMessageIndex of(final TransactionTable table) {
+        final StringDictionary messages = table.getIssueMessages();
+
+        final Map<String, Integer> termIds = new HashMap<>();
+        int[] pairTerms = new int[Math.max(16, messages.size())];
+        int[] pairMessages = new int[pairTerms.length];
+        int pairCount = 0;
+        for (int messageId = 0; messageId < messages.size(); messageId++) {
+            for (final String term : new LinkedHashSet<>(tokenize(messages.get(messageId)))) {
+                final Integer newTermId = termIds.size();
+                final Integer termId = termIds.putIfAbsent(term, newTermId);
+                if (pairCount == pairTerms.length) {
+                    pairTerms = Arrays.copyOf(pairTerms, pairCount * 2);
+                    pairMessages = Arrays.copyOf(pairMessages, pairCount * 2);
+                }
+                pairTerms[pairCount] = termId == null ? newTermId : termId;
+                pairMessages[pairCount++] = messageId;
+            }
+        }
+        final int[] termOffsets = new int[termIds.size() + 1];
+        for (int pair = 0; pair < pairCount; pair++) {
+            termOffsets[pairTerms[pair] + 1]++;
+        }
+        final int[] termOfPair = pairTerms;
+        final int[] messageOfPair = pairMessages;
+        final int[] messagesByTerm = bucket(termOffsets, pairCount, pair -> termOfPair[pair],
+                pair -> messageOfPair[pair], pairCount);
+
+        final int[] solvedOffsets = new int[messages.size() + 1];
+        final int[] unsolvedOffsets = new int[messages.size() + 1];
+        final boolean[] solvedMessageSeen = new boolean[messages.size()];
+        final List<String> solvedIssueMessages = new ArrayList<>();
+        int solvedCount = 0;
+        int unsolvedCount = 0;
+        for (int row = 0; row < table.size(); row++) {
+            final int messageId = table.getIssueMessageId(row);
+            if (messageId == StringDictionary.NULL_ID) {
+                continue;
+            }
+            if (table.isIssueSolved(row)) {
+                solvedOffsets[messageId + 1]++;
+                solvedCount++;
+                if (!solvedMessageSeen[messageId] && !isEmpty(messages.get(messageId))) {
+                    solvedMessageSeen[messageId] = true;
+                    solvedIssueMessages.add(messages.get(messageId));
+                }
+            } else {
+                unsolvedOffsets[messageId + 1]++;
+                unsolvedCount++;
+            }
+        }
+        final int[] rowsBySolvedMessage = bucket(solvedOffsets, solvedCount,
+                row -> table.isIssueSolved(row) ? table.getIssueMessageId(row) : StringDictionary.NULL_ID, row -> row,
+                table.size());
+        final int[] rowsByUnsolvedMessage = bucket(unsolvedOffsets, unsolvedCount,
+                row -> table.isIssueSolved(row) ? StringDictionary.NULL_ID : table.getIssueMessageId(row), row -> row,
+                table.size());
+
+        return new IssueMessageIndex(table,
+                termIds,
+                PostingLists.encode(termOffsets, messagesByTerm),
+                PostingLists.encode(solvedOffsets, rowsBySolvedMessage),
+                PostingLists.encode(unsolvedOffsets, rowsByUnsolvedMessage),
+                Collections.unmodifiableList(solvedIssueMessages));
+    }
+
+    /**
+     * Returns the distinct non empty messages of solved issues, in the order of their first row
+     */
+    public List<String> getSolvedIssueMessages() {
+        return solvedIssueMessages;
+    }
+
+    /**
+     * Returns the number of distinct terms
+     */
+    public int getTermCount() {
+        return termIds.size();
+    }
+
+    /**
+     * Returns the distinct messages matching <code>phrase</code>, in dictionary order
+     */
+    public List<String> findMessages(final String phrase) {
+        final List<String> messages = new ArrayList<>();
+        for (final int messageId : findMessageIds(phrase)) {
+            messages.add(table.getIssueMessages().get(messageId));
+        }
+        return messages;
+    }
+
+    /**
+     * Returns, in ascending order, the rows of <code>partition</code> whose message matches <code>phrase</code>
+     */
+    public int[] findRows(final String phrase, final Partition partition) {
+        final int[] messageIds = findMessageIds(phrase);
+        int count = 0;
+        for (final int messageId : messageIds) {
+            count += (partition != Partition.UNSOLVED ? solvedRows.size(messageId) : 0)
+                    + (partition != Partition.SOLVED ? unsolvedRows.size(messageId) : 0);
+        }
+
+        final int[] rows = new int[count];
+        int position = 0;
+        for (final int messageId : messageIds) {
+            if (partition != Partition.UNSOLVED) {
+                position = solvedRows.decodeInto(messageId, rows, position);
+            }
+            if (partition != Partition.SOLVED) {
+                position = unsolvedRows.decodeInto(messageId, rows, position);
+            }
+        }
+        if (messageIds.length > 1 || partition == Partition.ALL) {
+            Arrays.sort(rows);
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the issue ids of the rows of <code>partition</code> whose message matches <code>phrase</code>, rows
+     * without an issue id being skipped
+     */
+    public Set<Long> findIssueIds(final String phrase, final Partition partition) {
+        final Set<Long> issueIds = new HashSet<>();
+        for (final int row : findRows(phrase, partition)) {
+            if (table.hasIssueId(row)) {
+                issueIds.add(table.getIssueId(row));
+            }
+        }
+        return issueIds;
+    }
+
+    /**
+     * Intersects the messages of every term of <code>phrase</code>, rarest first, then keeps the ones holding the
+     * terms in order
+     */
+    private int[] findMessageIds(final String phrase) {
+        final List<String> terms = phrase == null ? List.of() : tokenize(phrase);
+        if (terms.isEmpty()) {
+            throw new OperationException("Operation is not allowed with a search without terms");
+        }
+
+        final List<Integer> termsByRarity = new ArrayList<>();
+        for (final String term : new LinkedHashSet<>(terms)) {
+            final Integer termId = termIds.get(term);
+            if (termId == null) {
+                return new int[0];
+            }
+            termsByRarity.add(termId);
+        }
+        termsByRarity.sort((left, right) -> Integer.compare(messagesOfTerm.size(left), messagesOfTerm.size(right)));
+
+        int[] messageIds = messagesOfTerm.decode(termsByRarity.get(0));
+        for (int term = 1; term < termsByRarity.size() && messageIds.length > 0; term++) {
+            messageIds = intersect(messageIds, messagesOfTerm.decode(termsByRarity.get(term)));
+        }
+        if (terms.size() == 1) {
+            return messageIds;
+        }
+
+        int matches = 0;
+        for (final int messageId : messageIds) {
+            if (Collections.indexOfSubList(tokenize(table.getIssueMessages().get(messageId)), terms) >= 0) {
+                messageIds[matches++] = messageId;
+            }
+        }
+        return Arrays.copyOf(messageIds, matches);
+    }
+
+    /**
+     * Returns the case-folded runs of letters and digits of <code>text</code>, the terms searches match
+     */
+    public static List<String> tokenize(final String text) {
+        final List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int index = 0; index <= text.length(); ) {
+            final int codePoint = index < text.length() ? text.codePointAt(index) : ' ';
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (start < 0) {
+                    start = index;
+                }
+            } else if (start >= 0) {
+                terms.add(ClientIndex.canonicalize(text.substring(start, index)));
+                start = -1;
+            }
+            index += index < text.length() ? Character.charCount(codePoint) : 1;
+        }
+        return terms;
+    }
+
+    private static int[] intersect(final int[] left, final int[] right) {
+        final int[] common = new int[Math.min(left.length, right.length)];
+        int size = 0;
+        for (int leftIndex = 0, rightIndex = 0; leftIndex < left.length && rightIndex < right.length; ) {
+            if (left[leftIndex] < right[rightIndex]) {
+                leftIndex++;
+            } else if (left[leftIndex] > right[rightIndex]) {
+                rightIndex++;
+            } else {
+                common[size++] = left[leftIndex];
+                leftIndex++;
+                rightIndex++;
+            }
+        }
+        return Arrays.copyOf(common, size);
+    }
+
+    /**
+     * Turns the per list counts of <code>offsets</code> into offsets and scatters the values of
+     * <code>entries</code> entries to their list, keeping their order. Entries of list
+     * {@link StringDictionary#NULL_ID} are skipped.
+     */
+    private static int[] bucket(final int[] offsets,
+                                final int count,
+                                final IntUnaryOperator listOf,
+                                final IntUnaryOperator valueOf,
+                                final int entries) {
+        for (int list = 0; list < offsets.length - 1; list++) {
+            offsets[list + 1] += offsets[list];
+        }
+
+        final int[] values = new int[count];
+        final int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int entry = 0; entry < entries; entry++) {
+            final int list = listOf.applyAsInt(entry);
+            if (list != StringDictionary.NULL_ID) {
+                values[next[list]++] = valueOf.applyAsInt(entry);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Rows searched
+     */
+    public enum Partition {
+        SOLVED,
+        UNSOLVED,
+        ALL
+    }
+}
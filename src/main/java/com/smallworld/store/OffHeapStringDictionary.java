@@ -0,0 +1,164 @@
+package com.smallworld.store;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * {@link StringDictionary} keeping its strings outside the java heap, so that the distinct names and issue messages
+ * of a large table do not grow the heap. Everything lives in direct buffers:
+ * <ul>
+ * <li>the UTF-8 bytes of the strings, appended to an arena of 1MB chunks, a longer string getting a chunk of its
+ * own;</li>
+ * <li>an entry table holding the chunk, offset, length and hash code of every id, 16 bytes each;</li>
+ * <li>an open addressing table of ids, probed linearly from their hash code, that interns new strings and is kept
+ * at most half full.</li>
+ * </ul>
+ * Both tables grow by doubling. Strings are decoded on each {@link #get(int)}; as unpaired surrogates have no UTF-8
+ * encoding, only well-formed strings read back unchanged.
+ */
+final class OffHeapStringDictionary extends StringDictionary {
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int ENTRY_SIZE = 16;
+    private static final int CHUNK = 0;
+    private static final int OFFSET = 4;
+    private static final int LENGTH = 8;
+    private static final int HASH = 12;
+    private static final int INITIAL_SLOTS = 32;
+
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private int chunkPosition;
+    private ByteBuffer entries = allocate(INITIAL_SLOTS / 2 * ENTRY_SIZE);
+    private ByteBuffer slots = emptySlots(INITIAL_SLOTS);
+    private int slotCount = INITIAL_SLOTS;
+    private int size;
+
+    @Override
+    public int getId(final String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        return slots.getInt(slotOf(value.hashCode(), value.getBytes(StandardCharsets.UTF_8)) << 2);
+    }
+
+    @Override
+    public String get(final int id) {
+        if (id == NULL_ID) {
+            return null;
+        }
+        final int entry = id * ENTRY_SIZE;
+        final byte[] bytes = new byte[entries.getInt(entry + LENGTH)];
+        chunks[entries.getInt(entry + CHUNK)].get(entries.getInt(entry + OFFSET), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    int encode(final String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        final int hash = value.hashCode();
+        final int slot = slotOf(hash, bytes);
+        final int existingId = slots.getInt(slot << 2);
+        if (existingId != NULL_ID) {
+            return existingId;
+        }
+
+        final int id = size;
+        if ((id + 1) * ENTRY_SIZE > entries.capacity()) {
+            entries = copyOf(entries, Math.multiplyExact(entries.capacity(), 2));
+        }
+        final int entry = id * ENTRY_SIZE;
+        entries.putInt(entry + OFFSET, append(bytes));
+        entries.putInt(entry + CHUNK, chunks.length - 1);
+        entries.putInt(entry + LENGTH, bytes.length);
+        entries.putInt(entry + HASH, hash);
+        slots.putInt(slot << 2, id);
+        size++;
+        if (size * 2 > slotCount) {
+            rehash(slotCount * 2);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the slot holding the string of <code>bytes</code>, or the empty slot where it belongs
+     */
+    private int slotOf(final int hash, final byte[] bytes) {
+        final int mask = slotCount - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            final int id = slots.getInt(slot << 2);
+            if (id == NULL_ID || (entries.getInt(id * ENTRY_SIZE + HASH) == hash && holds(id, bytes))) {
+                return slot;
+            }
+        }
+    }
+
+    private boolean holds(final int id, final byte[] bytes) {
+        final int entry = id * ENTRY_SIZE;
+        return entries.getInt(entry + LENGTH) == bytes.length
+                && chunks[entries.getInt(entry + CHUNK)].slice(entries.getInt(entry + OFFSET), bytes.length)
+                .mismatch(ByteBuffer.wrap(bytes)) == -1;
+    }
+
+    /**
+     * Copies <code>bytes</code> to the arena, starting a new chunk when the last one is too full
+     *
+     * @return the offset of the bytes in the last chunk.
+     */
+    private int append(final byte[] bytes) {
+        if (chunks.length == 0 || chunks[chunks.length - 1].capacity() - chunkPosition < bytes.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunks.length - 1] = allocate(Math.max(CHUNK_SIZE, bytes.length));
+            chunkPosition = 0;
+        }
+        final int offset = chunkPosition;
+        chunks[chunks.length - 1].put(offset, bytes);
+        chunkPosition += bytes.length;
+        return offset;
+    }
+
+    private void rehash(final int newSlotCount) {
+        final ByteBuffer newSlots = emptySlots(newSlotCount);
+        final int mask = newSlotCount - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = spread(entries.getInt(id * ENTRY_SIZE + HASH)) & mask;
+            while (newSlots.getInt(slot << 2) != NULL_ID) {
+                slot = (slot + 1) & mask;
+            }
+            newSlots.putInt(slot << 2, id);
+        }
+        slots = newSlots;
+        slotCount = newSlotCount;
+    }
+
+    private static int spread(final int hash) {
+        final int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+
+    private static ByteBuffer emptySlots(final int count) {
+        final ByteBuffer slots = allocate(count * 4);
+        for (int slot = 0; slot < count; slot++) {
+            slots.putInt(slot << 2, NULL_ID);
+        }
+        return slots;
+    }
+
+    private static ByteBuffer copyOf(final ByteBuffer buffer, final int capacity) {
+        final ByteBuffer copy = allocate(capacity);
+        copy.put(0, buffer, 0, buffer.capacity());
+        return copy;
+    }
+
+    private static ByteBuffer allocate(final int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+}
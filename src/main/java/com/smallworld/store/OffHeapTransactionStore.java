@@ -0,0 +1,228 @@
+package com.smallworld.store;
+
+import com.smallworld.data.Transaction;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Row oriented {@link TransactionTable} keeping its records outside the java heap, in direct buffers of
+ * 65536 fixed size records each, and its name and issue message dictionaries there too as UTF-8 bytes, so the heap
+ * holds nothing that grows with the data but the per name and per client arrays of the client index once it is
+ * built. The cursor decodes names and messages from those bytes when read. Record layout, in bytes:
+ * <pre>
+ *  0 mtn              8 amount micros  16 issueId
+ * 24 senderId        28 senderAge      32 beneficiaryId
+ * 36 beneficiaryAge  40 issueMessageId 44 flags (issue id present, issue solved, timestamp present)
+ * 45 amount scale    48 timestamp
+ * </pre>
+ * Iterate with a {@link TransactionCursor} to read rows without creating objects. The client index is built on
+ * first use, with its rows in direct buffers too as they grow with the number of rows.
+ */
+public class OffHeapTransactionStore implements TransactionTable {
+    private static final int RECORD_SIZE = 56;
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+    private static final int ROW_MASK = CHUNK_ROWS - 1;
+    private static final int MTN = 0;
+    private static final int AMOUNT = 8;
+    private static final int ISSUE_ID = 16;
+    private static final int SENDER_ID = 24;
+    private static final int SENDER_AGE = 28;
+    private static final int BENEFICIARY_ID = 32;
+    private static final int BENEFICIARY_AGE = 36;
+    private static final int ISSUE_MESSAGE_ID = 40;
+    private static final int FLAGS = 44;
+    private static final int AMOUNT_SCALE = 45;
+    private static final int TIMESTAMP = 48;
+    private static final byte ISSUE_ID_PRESENT = 1;
+    private static final byte ISSUE_SOLVED = 2;
+    private static final byte TIMESTAMP_PRESENT = 4;
+
+    private final int size;
+    private final ByteBuffer[] chunks;
+    private final StringDictionary names;
+    private final StringDictionary issueMessages;
+    private volatile ClientIndex clientIndex;
+
+    private OffHeapTransactionStore(final Builder builder) {
+        this.size = builder.size;
+        this.chunks = builder.chunks.toArray(new ByteBuffer[0]);
+        this.names = builder.names;
+        this.issueMessages = builder.issueMessages;
+    }
+
+    /**
+     * Builds a store holding <code>transactions</code> in encounter order
+     */
+    public static OffHeapTransactionStore of(final Stream<Transaction> transactions) {
+        final Builder builder = Builder.newInstance();
+        final Iterator<Transaction> iterator = transactions.iterator();
+        while (iterator.hasNext()) {
+            builder.add(iterator.next());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a cursor positioned before the first row
+     */
+    public TransactionCursor cursor() {
+        return new TransactionCursor(this);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getMtn(final int row) {
+        return chunk(row).getLong(offset(row) + MTN);
+    }
+
+    @Override
+    public long getAmountMicros(final int row) {
+        return chunk(row).getLong(offset(row) + AMOUNT);
+    }
+
+    @Override
+    public int getAmountScale(final int row) {
+        return chunk(row).get(offset(row) + AMOUNT_SCALE);
+    }
+
+    @Override
+    public int getSenderId(final int row) {
+        return chunk(row).getInt(offset(row) + SENDER_ID);
+    }
+
+    @Override
+    public int getSenderAge(final int row) {
+        return chunk(row).getInt(offset(row) + SENDER_AGE);
+    }
+
+    @Override
+    public int getBeneficiaryId(final int row) {
+        return chunk(row).getInt(offset(row) + BENEFICIARY_ID);
+    }
+
+    @Override
+    public int getBeneficiaryAge(final int row) {
+        return chunk(row).getInt(offset(row) + BENEFICIARY_AGE);
+    }
+
+    @Override
+    public boolean hasIssueId(final int row) {
+        return (chunk(row).get(offset(row) + FLAGS) & ISSUE_ID_PRESENT) != 0;
+    }
+
+    @Override
+    public long getIssueId(final int row) {
+        return chunk(row).getLong(offset(row) + ISSUE_ID);
+    }
+
+    @Override
+    public boolean isIssueSolved(final int row) {
+        return (chunk(row).get(offset(row) + FLAGS) & ISSUE_SOLVED) != 0;
+    }
+
+    @Override
+    public int getIssueMessageId(final int row) {
+        return chunk(row).getInt(offset(row) + ISSUE_MESSAGE_ID);
+    }
+
+    @Override
+    public boolean hasTimestamp(final int row) {
+        return (chunk(row).get(offset(row) + FLAGS) & TIMESTAMP_PRESENT) != 0;
+    }
+
+    @Override
+    public long getTimestamp(final int row) {
+        return chunk(row).getLong(offset(row) + TIMESTAMP);
+    }
+
+    @Override
+    public StringDictionary getNames() {
+        return names;
+    }
+
+    @Override
+    public StringDictionary getIssueMessages() {
+        return issueMessages;
+    }
+
+    /**
+     * Returns the per client row index, built on first use
+     */
+    @Override
+    public ClientIndex getClientIndex() {
+        ClientIndex index = clientIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = clientIndex;
+                if (index == null) {
+                    index = new ClientIndex(this, true);
+                    clientIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private ByteBuffer chunk(final int row) {
+        return chunks[row >>> CHUNK_SHIFT];
+    }
+
+    private static int offset(final int row) {
+        return (row & ROW_MASK) * RECORD_SIZE;
+    }
+
+    public static class Builder {
+        private int size;
+        private final List<ByteBuffer> chunks = new ArrayList<>();
+        private final StringDictionary names = StringDictionary.offHeap();
+        private final StringDictionary issueMessages = StringDictionary.offHeap();
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        private Builder() {
+        }
+
+        /**
+         * Returns the store; the builder must not be used afterwards as both share the records
+         */
+        public OffHeapTransactionStore build() {
+            return new OffHeapTransactionStore(this);
+        }
+
+        public Builder add(final Transaction transaction) {
+            if ((size & ROW_MASK) == 0) {
+                chunks.add(ByteBuffer.allocateDirect(CHUNK_ROWS * RECORD_SIZE).order(ByteOrder.nativeOrder()));
+            }
+
+            final ByteBuffer chunk = chunks.get(size >>> CHUNK_SHIFT);
+            final int offset = offset(size);
+            chunk.putLong(offset + MTN, transaction.getMtn());
+            chunk.putLong(offset + AMOUNT, transaction.getAmountMicros());
+            chunk.putLong(offset + ISSUE_ID, transaction.getIssueId() == null ? 0 : transaction.getIssueId());
+            chunk.putInt(offset + SENDER_ID, names.encode(transaction.getSenderFullName()));
+            chunk.putInt(offset + SENDER_AGE, transaction.getSenderAge());
+            chunk.putInt(offset + BENEFICIARY_ID, names.encode(transaction.getBeneficiaryFullName()));
+            chunk.putInt(offset + BENEFICIARY_AGE, transaction.getBeneficiaryAge());
+            chunk.putInt(offset + ISSUE_MESSAGE_ID, issueMessages.encode(transaction.getIssueMessage()));
+            chunk.put(offset + AMOUNT_SCALE, (byte) transaction.getAmountScale());
+            chunk.putLong(offset + TIMESTAMP, transaction.getTimestamp() == null ? 0 : transaction.getTimestamp());
+            chunk.put(offset + FLAGS, (byte) ((transaction.getIssueId() != null ? ISSUE_ID_PRESENT : 0)
+                    | (transaction.isIssueSolved() ? ISSUE_SOLVED : 0)
+                    | (transaction.getTimestamp() != null ? TIMESTAMP_PRESENT : 0)));
+            size++;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.smallworld.store;
+
+import java.util.Arrays;
+
+/**
+ * Many ascending <code>int</code> lists packed into one byte array, each value stored as the variable length
+ * encoding of its difference with the previous one. Close values, like the rows of one message or the messages of
+ * one term, take a single byte each.
+ */
+final class PostingLists {
+    private final byte[] data;
+    private final int[] offsets;
+    private final int[] counts;
+
+    private PostingLists(final byte[] data, final int[] offsets, final int[] counts) {
+        this.data = data;
+        this.offsets = offsets;
+        this.counts = counts;
+    }
+
+    /**
+     * Returns the lists <code>values[listOffsets[list]]</code> to <code>values[listOffsets[list + 1]]</code>, each of
+     * which must be ascending
+     */
+    static PostingLists encode(final int[] listOffsets, final int[] values) {
+        final int lists = listOffsets.length - 1;
+        final int[] offsets = new int[lists + 1];
+        final int[] counts = new int[lists];
+        byte[] data = new byte[Math.max(16, values.length)];
+        int size = 0;
+        for (int list = 0; list < lists; list++) {
+            offsets[list] = size;
+            counts[list] = listOffsets[list + 1] - listOffsets[list];
+            int previous = 0;
+            for (int index = listOffsets[list]; index < listOffsets[list + 1]; index++) {
+                if (size + 5 > data.length) {
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+                int delta = values[index] - previous;
+                previous = values[index];
+                while ((delta & ~0x7F) != 0) {
+                    data[size++] = (byte) ((delta & 0x7F) | 0x80);
+                    delta >>>= 7;
+                }
+                data[size++] = (byte) delta;
+            }
+        }
+        offsets[lists] = size;
+        return new PostingLists(Arrays.copyOf(data, size), offsets, counts);
+    }
+
+    int size(final int list) {
+        return counts[list];
+    }
+
+    /**
+     * Decodes <code>list</code> into <code>target</code> from <code>position</code>
+     *
+     * @return the position following the last decoded value
+     */
+    int decodeInto(final int list, final int[] target, final int position) {
+        int offset = offsets[list];
+        int value = 0;
+        for (int index = 0; index < counts[list]; index++) {
+            int delta = 0;
+            int shift = 0;
+            byte next;
+            do {
+                next = data[offset++];
+                delta |= (next & 0x7F) << shift;
+                shift += 7;
+            } while (next < 0);
+            value += delta;
+            target[position + index] = value;
+        }
+        return position + counts[list];
+    }
+
+    int[] decode(final int list) {
+        final int[] values = new int[counts[list]];
+        decodeInto(list, values, 0);
+        return values;
+    }
+
+    /**
+     * Returns the size of the encoded lists in bytes
+     */
+    int getEncodedSize() {
+        return data.length;
+    }
+}
@@ -0,0 +1,53 @@
+package com.smallworld.store;
+
+/**
+ * Dense, insertion ordered encoding of strings to <code>int</code> ids, so repeated values are stored once and
+ * compared as ids. <code>null</code> is never stored and is encoded as {@link #NULL_ID}.
+ * <p>
+ * Dictionaries are filled while their table is built and only read afterwards, from any number of threads.
+ */
+public abstract class StringDictionary {
+    public static final int NULL_ID = -1;
+
+    StringDictionary() {
+
+    }
+
+    /**
+     * Returns an empty dictionary keeping its strings in a java hash map
+     */
+    static StringDictionary onHeap() {
+        return new HeapStringDictionary();
+    }
+
+    /**
+     * Returns an empty dictionary keeping its strings as UTF-8 outside the java heap
+     */
+    static StringDictionary offHeap() {
+        return new OffHeapStringDictionary();
+    }
+
+    /**
+     * Returns a dictionary encoding <code>values</code> as their positions
+     */
+    static StringDictionary of(final String[] values) {
+        return HeapStringDictionary.of(values);
+    }
+
+    /**
+     * Returns the id of <code>value</code>, or {@link #NULL_ID} if it was never encoded
+     */
+    public abstract int getId(String value);
+
+    /**
+     * Returns the string encoded as <code>id</code>, <code>null</code> for {@link #NULL_ID}
+     */
+    public abstract String get(int id);
+
+    public abstract int size();
+
+    /**
+     * Returns the id of <code>value</code>, encoding it first if it is new
+     */
+    abstract int encode(String value);
+}
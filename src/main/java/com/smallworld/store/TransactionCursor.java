@@ -0,0 +1,118 @@
+package com.smallworld.store;
+
+import com.smallworld.data.Transaction;
+
+/**
+ * Flyweight over the rows of a {@link TransactionTable}: one mutable object reading the current row in place,
+ * with the accessors of {@link Transaction} but none of its per-row allocation.
+ * <pre>
+ * final TransactionCursor cursor = new TransactionCursor(table);
+ * while (cursor.next()) {
+ *     totalMicros += cursor.isIssueSolved() ? cursor.getAmountMicros() : 0;
+ * }
+ * </pre>
+ */
+public class TransactionCursor {
+    private final TransactionTable table;
+    private int row = -1;
+
+    public TransactionCursor(final TransactionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Moves to the next row
+     *
+     * @return whether there was one
+     */
+    public boolean next() {
+        if (row < table.size()) {
+            row++;
+        }
+        return row < table.size();
+    }
+
+    /**
+     * Moves to <code>row</code>
+     */
+    public TransactionCursor moveTo(final int row) {
+        if (row < 0 || row >= table.size()) {
+            throw new IndexOutOfBoundsException("Row " + row + " of table of size " + table.size());
+        }
+        this.row = row;
+        return this;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public long getMtn() {
+        return table.getMtn(row);
+    }
+
+    public double getAmount() {
+        return table.getAmount(row);
+    }
+
+    public long getAmountMicros() {
+        return table.getAmountMicros(row);
+    }
+
+    public int getAmountScale() {
+        return table.getAmountScale(row);
+    }
+
+    public String getSenderFullName() {
+        return table.getSenderFullName(row);
+    }
+
+    public int getSenderAge() {
+        return table.getSenderAge(row);
+    }
+
+    public String getBeneficiaryFullName() {
+        return table.getBeneficiaryFullName(row);
+    }
+
+    public int getBeneficiaryAge() {
+        return table.getBeneficiaryAge(row);
+    }
+
+    public boolean hasIssueId() {
+        return table.hasIssueId(row);
+    }
+
+    /**
+     * Returns the issue id, only meaningful when {@link #hasIssueId()}
+     */
+    public long getIssueId() {
+        return table.getIssueId(row);
+    }
+
+    public boolean isIssueSolved() {
+        return table.isIssueSolved(row);
+    }
+
+    public String getIssueMessage() {
+        return table.getIssueMessage(row);
+    }
+
+    public boolean hasTimestamp() {
+        return table.hasTimestamp(row);
+    }
+
+    /**
+     * Returns the timestamp in epoch milliseconds, only meaningful when {@link #hasTimestamp()}
+     */
+    public long getTimestamp() {
+        return table.getTimestamp(row);
+    }
+
+    /**
+     * Materializes the current row into a {@link Transaction}
+     */
+    public Transaction toTransaction() {
+        return table.getTransaction(row);
+    }
+}
@@ -0,0 +1,429 @@
+package com.smallworld.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary image of a {@link TransactionTable}, written once and then memory mapped read-only, so opening
+ * it costs a few mappings instead of a json parse.
+ * <p>
+ * The file starts with a 64 byte header (magic, version, row and dictionary counts, CRC32C of the rest of the
+ * file) followed by 8 byte aligned sections: one fixed width little endian column per field, a flags byte and
+ * an amount scale byte per row (flags: issue id present, issue solved, timestamp present) and the name and issue message dictionaries as offsets plus UTF-8 bytes.
+ * Columns are read in place; only the dictionaries are decoded when the snapshot is opened. Each column is mapped
+ * on its own and must stay under 2GB, i.e. under 268M rows.
+ */
+public class TransactionSnapshot implements TransactionTable, AutoCloseable {
+    private static final int MAGIC = 0x53575458;
+    private static final int VERSION = 4;
+    private static final int HEADER_SIZE = 64;
+    private static final int CHECKSUM_OFFSET = 40;
+    private static final byte ISSUE_ID_PRESENT = 1;
+    private static final byte ISSUE_SOLVED = 2;
+    private static final byte TIMESTAMP_PRESENT = 4;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final int size;
+    private final ByteBuffer mtn;
+    private final ByteBuffer amount;
+    private final ByteBuffer issueId;
+    private final ByteBuffer timestamp;
+    private final ByteBuffer senderId;
+    private final ByteBuffer senderAge;
+    private final ByteBuffer beneficiaryId;
+    private final ByteBuffer beneficiaryAge;
+    private final ByteBuffer issueMessageId;
+    private final ByteBuffer flags;
+    private final ByteBuffer amountScale;
+    private final StringDictionary names;
+    private final StringDictionary issueMessages;
+    private volatile ClientIndex clientIndex;
+
+    private TransactionSnapshot(final FileChannel channel, final Layout layout) throws IOException {
+        this.channel = channel;
+        this.size = layout.rows;
+        this.mtn = map(channel, layout.mtn, 8L * size);
+        this.amount = map(channel, layout.amount, 8L * size);
+        this.issueId = map(channel, layout.issueId, 8L * size);
+        this.timestamp = map(channel, layout.timestamp, 8L * size);
+        this.senderId = map(channel, layout.senderId, 4L * size);
+        this.senderAge = map(channel, layout.senderAge, 4L * size);
+        this.beneficiaryId = map(channel, layout.beneficiaryId, 4L * size);
+        this.beneficiaryAge = map(channel, layout.beneficiaryAge, 4L * size);
+        this.issueMessageId = map(channel, layout.issueMessageId, 4L * size);
+        this.flags = map(channel, layout.flags, size);
+        this.amountScale = map(channel, layout.amountScale, size);
+        this.names = readDictionary(channel, layout.names, layout.nameCount, layout.namesBytes);
+        this.issueMessages = readDictionary(channel, layout.issueMessages, layout.issueMessageCount, layout.issueMessagesBytes);
+    }
+
+    /**
+     * Writes <code>table</code> to <code>path</code>, replacing any existing file
+     */
+    public static void write(final TransactionTable table, final Path path) throws IOException {
+        final Layout layout = new Layout(table.size(), table.getNames().size(), utf8Length(table.getNames()),
+                table.getIssueMessages().size(), utf8Length(table.getIssueMessages()));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            final SectionWriter writer = new SectionWriter(channel);
+            writer.skipTo(HEADER_SIZE);
+            for (int row = 0; row < table.size(); row++) {
+                writer.buffer(8).putLong(table.getMtn(row));
+            }
+            for (int row = 0; row < table.size(); row++) {
+                writer.buffer(8).putLong(table.getAmountMicros(row));
+            }
+            for (int row = 0; row < table.size(); row++) {
+                writer.buffer(8).putLong(table.hasIssueId(row) ? table.getIssueId(row) : 0);
+            }
+            for (int row = 0; row < table.size(); row++) {
+                writer.buffer(8).putLong(table.hasTimestamp(row) ? table.getTimestamp(row) : 0);
+            }
+            for (int row = 0; row < table.size(); row++) {
+                writer.buffer(4).putInt(table.getSenderId(row));
+            }
+            for (int row = 0; row < table.size(); row++) {
+                writer.buffer(4).putInt(table.getSenderAge(row));
+            }
+            for (int row = 0; row < table.size(); row++) {
+                writer.buffer(4).putInt(table.getBeneficiaryId(row));
+            }
+            for (int row = 0; row < table.size(); row++) {
+                writer.buffer(4).putInt(table.getBeneficiaryAge(row));
+            }
+            for (int row = 0; row < table.size(); row++) {
+                writer.buffer(4).putInt(table.getIssueMessageId(row));
+            }
+            writer.pad();
+            for (int row = 0; row < table.size(); row++) {
+                writer.buffer(1).put((byte) ((table.hasIssueId(row) ? ISSUE_ID_PRESENT : 0)
+                        | (table.isIssueSolved(row) ? ISSUE_SOLVED : 0)
+                        | (table.hasTimestamp(row) ? TIMESTAMP_PRESENT : 0)));
+            }
+            writer.pad();
+            for (int row = 0; row < table.size(); row++) {
+                writer.buffer(1).put((byte) table.getAmountScale(row));
+            }
+            writer.pad();
+            writeDictionary(writer, table.getNames());
+            writeDictionary(writer, table.getIssueMessages());
+            final long checksum = writer.finish();
+
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(layout.rows)
+                    .putInt(layout.nameCount)
+                    .putInt(layout.issueMessageCount)
+                    .putInt(0)
+                    .putLong(layout.namesBytes)
+                    .putLong(layout.issueMessagesBytes)
+                    .putLong(checksum)
+                    .flip();
+            header.limit(HEADER_SIZE);
+            channel.write(header, 0);
+        }
+    }
+
+    /**
+     * Maps the snapshot stored in <code>path</code>
+     *
+     * @param path           Snapshot file.
+     * @param verifyChecksum Whether to check the CRC32C of the whole file first, which reads all of it.
+     * @return the mapped snapshot, to be closed by the caller.
+     */
+    public static TransactionSnapshot open(final Path path, final boolean verifyChecksum) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.read(header, 0) != HEADER_SIZE || header.getInt(0) != MAGIC) {
+                throw new IOException(path + " is not a transaction snapshot");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported transaction snapshot version " + header.getInt(4));
+            }
+
+            final Layout layout = new Layout(header.getInt(8), header.getInt(12), header.getLong(24),
+                    header.getInt(16), header.getLong(32));
+            if (channel.size() != layout.end) {
+                throw new IOException(path + " is truncated: expected " + layout.end + " bytes, found " + channel.size());
+            }
+            if (verifyChecksum && checksum(channel, layout.end) != header.getLong(CHECKSUM_OFFSET)) {
+                throw new IOException(path + " failed checksum verification");
+            }
+            return new TransactionSnapshot(channel, layout);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getMtn(final int row) {
+        return mtn.getLong(row << 3);
+    }
+
+    @Override
+    public long getAmountMicros(final int row) {
+        return amount.getLong(row << 3);
+    }
+
+    @Override
+    public int getAmountScale(final int row) {
+        return amountScale.get(row);
+    }
+
+    @Override
+    public int getSenderId(final int row) {
+        return senderId.getInt(row << 2);
+    }
+
+    @Override
+    public int getSenderAge(final int row) {
+        return senderAge.getInt(row << 2);
+    }
+
+    @Override
+    public int getBeneficiaryId(final int row) {
+        return beneficiaryId.getInt(row << 2);
+    }
+
+    @Override
+    public int getBeneficiaryAge(final int row) {
+        return beneficiaryAge.getInt(row << 2);
+    }
+
+    @Override
+    public boolean hasIssueId(final int row) {
+        return (flags.get(row) & ISSUE_ID_PRESENT) != 0;
+    }
+
+    @Override
+    public long getIssueId(final int row) {
+        return issueId.getLong(row << 3);
+    }
+
+    @Override
+    public boolean isIssueSolved(final int row) {
+        return (flags.get(row) & ISSUE_SOLVED) != 0;
+    }
+
+    @Override
+    public int getIssueMessageId(final int row) {
+        return issueMessageId.getInt(row << 2);
+    }
+
+    @Override
+    public boolean hasTimestamp(final int row) {
+        return (flags.get(row) & TIMESTAMP_PRESENT) != 0;
+    }
+
+    @Override
+    public long getTimestamp(final int row) {
+        return timestamp.getLong(row << 3);
+    }
+
+    @Override
+    public StringDictionary getNames() {
+        return names;
+    }
+
+    @Override
+    public StringDictionary getIssueMessages() {
+        return issueMessages;
+    }
+
+    /**
+     * Returns the per client row index, built on first use so that opening stays cheap
+     */
+    @Override
+    public ClientIndex getClientIndex() {
+        ClientIndex index = clientIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = clientIndex;
+                if (index == null) {
+                    index = new ClientIndex(this);
+                    clientIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Closes the file; mapped columns stay readable until they are garbage collected
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static ByteBuffer map(final FileChannel channel, final long position, final long length) throws IOException {
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        return buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static StringDictionary readDictionary(final FileChannel channel,
+                                                   final long position,
+                                                   final int count,
+                                                   final long bytes) throws IOException {
+        final ByteBuffer offsets = map(channel, position, 4L * (count + 1));
+        final ByteBuffer content = map(channel, position + 4L * (count + 1), bytes);
+        final String[] values = new String[count];
+        for (int id = 0; id < count; id++) {
+            final int start = offsets.getInt(id << 2);
+            final int end = offsets.getInt((id + 1) << 2);
+            values[id] = StandardCharsets.UTF_8.decode(content.slice(start, end - start)).toString();
+        }
+        return StringDictionary.of(values);
+    }
+
+    private static void writeDictionary(final SectionWriter writer, final StringDictionary dictionary) throws IOException {
+        int offset = 0;
+        writer.buffer(4).putInt(offset);
+        for (int id = 0; id < dictionary.size(); id++) {
+            offset += dictionary.get(id).getBytes(StandardCharsets.UTF_8).length;
+            writer.buffer(4).putInt(offset);
+        }
+        for (int id = 0; id < dictionary.size(); id++) {
+            final byte[] bytes = dictionary.get(id).getBytes(StandardCharsets.UTF_8);
+            for (final byte value : bytes) {
+                writer.buffer(1).put(value);
+            }
+        }
+        writer.pad();
+    }
+
+    private static long utf8Length(final StringDictionary dictionary) {
+        long length = 0;
+        for (int id = 0; id < dictionary.size(); id++) {
+            length += dictionary.get(id).getBytes(StandardCharsets.UTF_8).length;
+        }
+        return length;
+    }
+
+    private static long checksum(final FileChannel channel, final long end) throws IOException {
+        final CRC32C crc = new CRC32C();
+        for (long position = HEADER_SIZE; position < end; position += Integer.MAX_VALUE) {
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(Integer.MAX_VALUE, end - position)));
+        }
+        return crc.getValue();
+    }
+
+    private static long align(final long position) {
+        return (position + 7) & ~7L;
+    }
+
+    /**
+     * Section offsets, derived from the counts in the header
+     */
+    private static final class Layout {
+        private final int rows;
+        private final int nameCount;
+        private final long namesBytes;
+        private final int issueMessageCount;
+        private final long issueMessagesBytes;
+        private final long mtn;
+        private final long amount;
+        private final long issueId;
+        private final long timestamp;
+        private final long senderId;
+        private final long senderAge;
+        private final long beneficiaryId;
+        private final long beneficiaryAge;
+        private final long issueMessageId;
+        private final long flags;
+        private final long amountScale;
+        private final long names;
+        private final long issueMessages;
+        private final long end;
+
+        private Layout(final int rows,
+                       final int nameCount,
+                       final long namesBytes,
+                       final int issueMessageCount,
+                       final long issueMessagesBytes) {
+            this.rows = rows;
+            this.nameCount = nameCount;
+            this.namesBytes = namesBytes;
+            this.issueMessageCount = issueMessageCount;
+            this.issueMessagesBytes = issueMessagesBytes;
+            this.mtn = HEADER_SIZE;
+            this.amount = mtn + 8L * rows;
+            this.issueId = amount + 8L * rows;
+            this.timestamp = issueId + 8L * rows;
+            this.senderId = timestamp + 8L * rows;
+            this.senderAge = senderId + 4L * rows;
+            this.beneficiaryId = senderAge + 4L * rows;
+            this.beneficiaryAge = beneficiaryId + 4L * rows;
+            this.issueMessageId = beneficiaryAge + 4L * rows;
+            this.flags = align(issueMessageId + 4L * rows);
+            this.amountScale = align(flags + rows);
+            this.names = align(amountScale + rows);
+            this.issueMessages = align(names + 4L * (nameCount + 1) + namesBytes);
+            this.end = align(issueMessages + 4L * (issueMessageCount + 1) + issueMessagesBytes);
+        }
+    }
+
+    /**
+     * Buffered sequential writer that keeps track of the position and of the CRC32C of what it wrote
+     */
+    private static final class SectionWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C crc = new CRC32C();
+        private long position;
+
+        private SectionWriter(final FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void skipTo(final long newPosition) throws IOException {
+            channel.position(newPosition);
+            position = newPosition;
+        }
+
+        private ByteBuffer buffer(final int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            position += bytes;
+            return buffer;
+        }
+
+        private void pad() throws IOException {
+            while ((position & 7) != 0) {
+                buffer(1).put((byte) 0);
+            }
+        }
+
+        private long finish() throws IOException {
+            flush();
+            return crc.getValue();
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.smallworld.store;
+
+import com.smallworld.data.Transaction;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Column oriented, primitive backed copy of a list of transactions. Each field lives in its own array indexed by
+ * row; names and issue messages are dictionary encoded and the nullable issue id and timestamp are backed by
+ * presence bitmaps.
+ */
+public class TransactionStore implements TransactionTable {
+    private final int size;
+    private final long[] mtn;
+    private final long[] amountMicros;
+    private final byte[] amountScale;
+    private final int[] senderId;
+    private final int[] senderAge;
+    private final int[] beneficiaryId;
+    private final int[] beneficiaryAge;
+    private final long[] issueId;
+    private final BitSet issueIdPresent;
+    private final BitSet issueSolved;
+    private final int[] issueMessageId;
+    private final long[] timestamp;
+    private final BitSet timestampPresent;
+    private final StringDictionary names;
+    private final StringDictionary issueMessages;
+    private final ClientIndex clientIndex;
+
+    private TransactionStore(final Builder builder) {
+        this.size = builder.size;
+        this.mtn = Arrays.copyOf(builder.mtn, size);
+        this.amountMicros = Arrays.copyOf(builder.amountMicros, size);
+        this.amountScale = Arrays.copyOf(builder.amountScale, size);
+        this.senderId = Arrays.copyOf(builder.senderId, size);
+        this.senderAge = Arrays.copyOf(builder.senderAge, size);
+        this.beneficiaryId = Arrays.copyOf(builder.beneficiaryId, size);
+        this.beneficiaryAge = Arrays.copyOf(builder.beneficiaryAge, size);
+        this.issueId = Arrays.copyOf(builder.issueId, size);
+        this.issueIdPresent = (BitSet) builder.issueIdPresent.clone();
+        this.issueSolved = (BitSet) builder.issueSolved.clone();
+        this.issueMessageId = Arrays.copyOf(builder.issueMessageId, size);
+        this.timestamp = Arrays.copyOf(builder.timestamp, size);
+        this.timestampPresent = (BitSet) builder.timestampPresent.clone();
+        this.names = builder.names;
+        this.issueMessages = builder.issueMessages;
+        this.clientIndex = new ClientIndex(this);
+    }
+
+    /**
+     * Builds a store holding <code>transactions</code> in encounter order
+     */
+    public static TransactionStore of(final Stream<Transaction> transactions) {
+        final Builder builder = Builder.newInstance();
+        final Iterator<Transaction> iterator = transactions.iterator();
+        while (iterator.hasNext()) {
+            builder.add(iterator.next());
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getMtn(final int row) {
+        return mtn[row];
+    }
+
+    @Override
+    public long getAmountMicros(final int row) {
+        return amountMicros[row];
+    }
+
+    @Override
+    public int getAmountScale(final int row) {
+        return amountScale[row];
+    }
+
+    @Override
+    public int getSenderId(final int row) {
+        return senderId[row];
+    }
+
+    @Override
+    public int getSenderAge(final int row) {
+        return senderAge[row];
+    }
+
+    @Override
+    public int getBeneficiaryId(final int row) {
+        return beneficiaryId[row];
+    }
+
+    @Override
+    public int getBeneficiaryAge(final int row) {
+        return beneficiaryAge[row];
+    }
+
+    @Override
+    public boolean hasIssueId(final int row) {
+        return issueIdPresent.get(row);
+    }
+
+    @Override
+    public long getIssueId(final int row) {
+        return issueId[row];
+    }
+
+    @Override
+    public boolean isIssueSolved(final int row) {
+        return issueSolved.get(row);
+    }
+
+    @Override
+    public int getIssueMessageId(final int row) {
+        return issueMessageId[row];
+    }
+
+    @Override
+    public boolean hasTimestamp(final int row) {
+        return timestampPresent.get(row);
+    }
+
+    @Override
+    public long getTimestamp(final int row) {
+        return timestamp[row];
+    }
+
+    @Override
+    public StringDictionary getNames() {
+        return names;
+    }
+
+    @Override
+    public StringDictionary getIssueMessages() {
+        return issueMessages;
+    }
+
+    /**
+     * Returns the per client row index, built when the store is
+     */
+    @Override
+    public ClientIndex getClientIndex() {
+        return clientIndex;
+    }
+
+    public static class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private int size;
+        private long[] mtn = new long[INITIAL_CAPACITY];
+        private long[] amountMicros = new long[INITIAL_CAPACITY];
+        private byte[] amountScale = new byte[INITIAL_CAPACITY];
+        private int[] senderId = new int[INITIAL_CAPACITY];
+        private int[] senderAge = new int[INITIAL_CAPACITY];
+        private int[] beneficiaryId = new int[INITIAL_CAPACITY];
+        private int[] beneficiaryAge = new int[INITIAL_CAPACITY];
+        private long[] issueId = new long[INITIAL_CAPACITY];
+        private final BitSet issueIdPresent = new BitSet();
+        private final BitSet issueSolved = new BitSet();
+        private int[] issueMessageId = new int[INITIAL_CAPACITY];
+        private long[] timestamp = new long[INITIAL_CAPACITY];
+        private final BitSet timestampPresent = new BitSet();
+        private final StringDictionary names = StringDictionary.onHeap();
+        private final StringDictionary issueMessages = StringDictionary.onHeap();
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        private Builder() {
+        }
+
+        public TransactionStore build() {
+            return new TransactionStore(this);
+        }
+
+        public Builder add(final Transaction transaction) {
+            if (size == mtn.length) {
+                grow();
+            }
+
+            mtn[size] = transaction.getMtn();
+            amountMicros[size] = transaction.getAmountMicros();
+            amountScale[size] = (byte) transaction.getAmountScale();
+            senderId[size] = names.encode(transaction.getSenderFullName());
+            senderAge[size] = transaction.getSenderAge();
+            beneficiaryId[size] = names.encode(transaction.getBeneficiaryFullName());
+            beneficiaryAge[size] = transaction.getBeneficiaryAge();
+            if (transaction.getIssueId() != null) {
+                issueId[size] = transaction.getIssueId();
+                issueIdPresent.set(size);
+            }
+            issueSolved.set(size, transaction.isIssueSolved());
+            issueMessageId[size] = issueMessages.encode(transaction.getIssueMessage());
+            if (transaction.getTimestamp() != null) {
+                timestamp[size] = transaction.getTimestamp();
+                timestampPresent.set(size);
+            }
+            size++;
+            return this;
+        }
+
+        private void grow() {
+            final int capacity = size * 2;
+            mtn = Arrays.copyOf(mtn, capacity);
+            amountMicros = Arrays.copyOf(amountMicros, capacity);
+            amountScale = Arrays.copyOf(amountScale, capacity);
+            senderId = Arrays.copyOf(senderId, capacity);
+            senderAge = Arrays.copyOf(senderAge, capacity);
+            beneficiaryId = Arrays.copyOf(beneficiaryId, capacity);
+            beneficiaryAge = Arrays.copyOf(beneficiaryAge, capacity);
+            issueId = Arrays.copyOf(issueId, capacity);
+            issueMessageId = Arrays.copyOf(issueMessageId, capacity);
+            timestamp = Arrays.copyOf(timestamp, capacity);
+        }
+    }
+}
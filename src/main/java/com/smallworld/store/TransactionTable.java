@@ -0,0 +1,95 @@
+package com.smallworld.store;
+
+import com.smallworld.data.MinorUnits;
+import com.smallworld.data.Transaction;
+
+/**
+ * Read access to transactions laid out as columns indexed by row, whatever the backing storage. Names and issue
+ * messages are dictionary encoded; the nullable issue id and timestamp come with presence flags. Amounts are kept in
+ * {@link MinorUnits micros}, whatever the currency scale of the transaction, next to that scale.
+ */
+public interface TransactionTable {
+
+    int size();
+
+    long getMtn(int row);
+
+    long getAmountMicros(int row);
+
+    /**
+     * Returns the currency scale the amount of <code>row</code> was given in
+     */
+    int getAmountScale(int row);
+
+    default double getAmount(final int row) {
+        return MinorUnits.microsToDouble(getAmountMicros(row));
+    }
+
+    int getSenderId(int row);
+
+    int getSenderAge(int row);
+
+    int getBeneficiaryId(int row);
+
+    int getBeneficiaryAge(int row);
+
+    boolean hasIssueId(int row);
+
+    /**
+     * Returns the issue id of <code>row</code>, only meaningful when {@link #hasIssueId(int)}
+     */
+    long getIssueId(int row);
+
+    boolean isIssueSolved(int row);
+
+    int getIssueMessageId(int row);
+
+    boolean hasTimestamp(int row);
+
+    /**
+     * Returns the timestamp of <code>row</code> in epoch milliseconds, only meaningful when {@link #hasTimestamp(int)}
+     */
+    long getTimestamp(int row);
+
+    /**
+     * Returns the dictionary shared by sender and beneficiary names
+     */
+    StringDictionary getNames();
+
+    StringDictionary getIssueMessages();
+
+    /**
+     * Returns the per client row index
+     */
+    ClientIndex getClientIndex();
+
+    default String getSenderFullName(final int row) {
+        return getNames().get(getSenderId(row));
+    }
+
+    default String getBeneficiaryFullName(final int row) {
+        return getNames().get(getBeneficiaryId(row));
+    }
+
+    default String getIssueMessage(final int row) {
+        return getIssueMessages().get(getIssueMessageId(row));
+    }
+
+    /**
+     * Materializes <code>row</code> back into a {@link Transaction}
+     */
+    default Transaction getTransaction(final int row) {
+        return Transaction.Builder.newInstance()
+                .setMtn(getMtn(row))
+                .setAmount(MinorUnits.fromMicros(getAmountMicros(row), getAmountScale(row)), getAmountScale(row))
+                .setSenderFullName(getSenderFullName(row))
+                .setSenderAge(getSenderAge(row))
+                .setBeneficiaryFullName(getBeneficiaryFullName(row))
+                .setBeneficiaryAge(getBeneficiaryAge(row))
+                .setIssueId(hasIssueId(row) ? getIssueId(row) : null)
+                .setIssueSolved(isIssueSolved(row))
+                .setIssueMessage(getIssueMessage(row))
+                .setTimestamp(hasTimestamp(row) ? getTimestamp(row) : null)
+                .build();
+    }
+}
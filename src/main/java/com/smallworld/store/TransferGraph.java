@@ -0,0 +1,412 @@
+package com.smallworld.store;
+
+import com.smallworld.data.MinorUnits;
+import com.smallworld.exception.OperationException;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Directed graph of the transfers of a {@link TransactionTable}, one node per {@link ClientIndex} client and one
+ * edge per sender and beneficiary pair, for compliance queries over a client's network rather than its own rows.
+ * <p>
+ * Edges are stored in compressed sparse row layout, in both directions: the outgoing edges of client
+ * <code>c</code> are the targets and amounts between <code>offsets[c]</code> and <code>offsets[c + 1]</code>, so a
+ * graph costs 24 bytes per edge and a few bytes per client whatever the number of rows. Every row
+ * links its clients; edge amounts sum the successful transactions only, each mtn counted once, unlike the
+ * {@link com.smallworld.TransactionDataFetcher} totals that add every successful row. A client is flagged
+ * when one of its rows has an open issue, like {@link com.smallworld.TransactionDataFetcher} answers
+ * <code>hasOpenComplianceIssues</code>.
+ * <p>
+ * Queries walk the graph breadth first, visiting each client within reach once, with per-thread scratch arrays
+ * reused across queries. Graphs are immutable and safe to query from several threads.
+ */
+public class TransferGraph {
+    private final ClientIndex clientIndex;
+    private final String[] clientNames;
+    private final boolean[] openIssues;
+    private final Adjacency outgoing;
+    private final Adjacency incoming;
+    private final ThreadLocal<Traversal> traversals;
+
+    private TransferGraph(final ClientIndex clientIndex,
+                          final String[] clientNames,
+                          final boolean[] openIssues,
+                          final Adjacency outgoing,
+                          final Adjacency incoming) {
+        this.clientIndex = clientIndex;
+        this.clientNames = clientNames;
+        this.openIssues = openIssues;
+        this.outgoing = outgoing;
+        this.incoming = incoming;
+        this.traversals = ThreadLocal.withInitial(() -> new Traversal(clientNames.length));
+    }
+
+    /**
+     * Returns the transfer graph of the rows of <code>table</code>, whose client index gives the node ids
+     */
+    public static TransferGraph of(final TransactionTable table) {
+        final ClientIndex clientIndex = table.getClientIndex();
+        final int clients = clientIndex.size();
+
+        final String[] clientNames = new String[clients];
+        for (int nameId = 0; nameId < table.getNames().size(); nameId++) {
+            final int client = clientIndex.getClientOfNameId(nameId);
+            if (clientNames[client] == null) {
+                clientNames[client] = table.getNames().get(nameId);
+            }
+        }
+
+        final boolean[] openIssues = new boolean[clients];
+        final int[] senders = new int[table.size()];
+        final int[] beneficiaries = new int[table.size()];
+        final long[] amountMicros = new long[table.size()];
+        final long[] solvedMtns = distinctSolvedMtns(table);
+        final BitSet countedMtns = new BitSet(solvedMtns.length);
+        int edges = 0;
+        for (int row = 0; row < table.size(); row++) {
+            final int sender = clientIndex.getClientOfNameId(table.getSenderId(row));
+            final int beneficiary = clientIndex.getClientOfNameId(table.getBeneficiaryId(row));
+            if (!table.isIssueSolved(row)) {
+                flag(openIssues, sender);
+                flag(openIssues, beneficiary);
+            }
+            if (sender == ClientIndex.NOT_FOUND || beneficiary == ClientIndex.NOT_FOUND || sender == beneficiary) {
+                continue;
+            }
+
+            senders[edges] = sender;
+            beneficiaries[edges] = beneficiary;
+            amountMicros[edges] = table.isIssueSolved(row) && count(countedMtns, solvedMtns, table.getMtn(row))
+                    ? table.getAmountMicros(row)
+                    : 0;
+            edges++;
+        }
+
+        final Adjacency outgoing = Adjacency.of(clients, senders, beneficiaries, amountMicros, edges);
+        final int[] sources = new int[outgoing.targets.length];
+        for (int client = 0; client < clients; client++) {
+            Arrays.fill(sources, outgoing.offsets[client], outgoing.offsets[client + 1], client);
+        }
+        final Adjacency incoming = Adjacency.of(clients, outgoing.targets, sources, outgoing.amountMicros, sources.length);
+        return new TransferGraph(clientIndex, clientNames, openIssues, outgoing, incoming);
+    }
+
+    /**
+     * Returns the number of clients
+     */
+    public int size() {
+        return clientNames.length;
+    }
+
+    /**
+     * Returns the number of distinct sender and beneficiary pairs
+     */
+    public int getEdgeCount() {
+        return outgoing.targets.length;
+    }
+
+    /**
+     * Returns the total amount of the successful transactions from <code>senderFullName</code> to
+     * <code>beneficiaryFullName</code>
+     */
+    public double getTransferredAmount(final String senderFullName, final String beneficiaryFullName) {
+        final int sender = client(senderFullName);
+        final int beneficiary = client(beneficiaryFullName);
+        if (sender == ClientIndex.NOT_FOUND || beneficiary == ClientIndex.NOT_FOUND) {
+            return 0;
+        }
+
+        for (int edge = outgoing.offsets[sender]; edge < outgoing.offsets[sender + 1]; edge++) {
+            if (outgoing.targets[edge] == beneficiary) {
+                return MinorUnits.microsToDouble(outgoing.amountMicros[edge]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns whether a counterparty of <code>clientFullName</code> reachable within <code>hops</code> transfers
+     * has a compliance issue that has not been solved. The client's own issues are not considered.
+     */
+    public boolean hasOpenComplianceIssuesWithin(final String clientFullName, final int hops, final Direction direction) {
+        final int client = start(clientFullName, hops);
+        if (client == ClientIndex.NOT_FOUND) {
+            return false;
+        }
+
+        final boolean[] found = new boolean[1];
+        traverse(client, hops, direction, (target, amountMicros, firstReached) -> {
+            found[0] = openIssues[target];
+            return !found[0];
+        });
+        return found[0];
+    }
+
+    /**
+     * Returns the counterparties of <code>clientFullName</code> reachable within <code>hops</code> transfers,
+     * closest first
+     */
+    public Set<String> getCounterparties(final String clientFullName, final int hops, final Direction direction) {
+        final Set<String> counterparties = new LinkedHashSet<>();
+        final int client = start(clientFullName, hops);
+        if (client != ClientIndex.NOT_FOUND) {
+            traverse(client, hops, direction, (target, amountMicros, firstReached) -> {
+                if (firstReached) {
+                    counterparties.add(clientNames[target]);
+                }
+                return true;
+            });
+        }
+        return counterparties;
+    }
+
+    /**
+     * Returns the amount flowing to flagged counterparties within <code>hops</code> transfers of
+     * <code>clientFullName</code>: the sum of the edges that reach a client with an open issue from a client one
+     * hop closer, in <code>direction</code>
+     */
+    public double getExposure(final String clientFullName, final int hops, final Direction direction) {
+        final int client = start(clientFullName, hops);
+        if (client == ClientIndex.NOT_FOUND) {
+            return 0;
+        }
+
+        final long[] exposureMicros = new long[1];
+        traverse(client, hops, direction, (target, amountMicros, firstReached) -> {
+            if (openIssues[target]) {
+                exposureMicros[0] = Math.addExact(exposureMicros[0], amountMicros);
+            }
+            return true;
+        });
+        return MinorUnits.microsToDouble(exposureMicros[0]);
+    }
+
+    /**
+     * Visits the edges from every client at distance d &lt; <code>hops</code> to clients at distance d + 1,
+     * stopping when <code>visitor</code> returns false
+     */
+    private void traverse(final int client, final int hops, final Direction direction, final EdgeVisitor visitor) {
+        final int maxHops = Math.min(hops, size());
+        final Adjacency[] adjacencies = direction.adjacencies(this);
+        final Traversal traversal = traversals.get();
+        final int base = traversal.begin(maxHops);
+        final int[] stamps = traversal.stamps;
+        stamps[client] = base;
+        traversal.queue[0] = client;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            final int source = traversal.queue[head++];
+            final int distance = stamps[source] - base;
+            if (distance == maxHops) {
+                continue;
+            }
+
+            for (final Adjacency adjacency : adjacencies) {
+                for (int edge = adjacency.offsets[source]; edge < adjacency.offsets[source + 1]; edge++) {
+                    final int target = adjacency.targets[edge];
+                    final boolean firstReached = stamps[target] < base;
+                    if (firstReached) {
+                        stamps[target] = base + distance + 1;
+                        traversal.queue[tail++] = target;
+                    } else if (stamps[target] != base + distance + 1) {
+                        continue;
+                    }
+                    if (!visitor.visit(target, adjacency.amountMicros[edge], firstReached)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private int start(final String clientFullName, final int hops) {
+        if (hops < 0) {
+            throw new OperationException("Operation is not allowed with a negative number of hops");
+        }
+
+        return client(clientFullName);
+    }
+
+    private int client(final String clientFullName) {
+        if (isBlank(clientFullName)) {
+            throw new OperationException("Operation is not allowed with null or empty client name");
+        }
+
+        return clientIndex.getClient(clientFullName);
+    }
+
+    private static void flag(final boolean[] openIssues, final int client) {
+        if (client != ClientIndex.NOT_FOUND) {
+            openIssues[client] = true;
+        }
+    }
+
+    /**
+     * Returns the sorted, distinct mtns of the successful rows, 8 bytes per row rather than a boxed set
+     */
+    private static long[] distinctSolvedMtns(final TransactionTable table) {
+        final long[] mtns = new long[table.size()];
+        int count = 0;
+        for (int row = 0; row < table.size(); row++) {
+            if (table.isIssueSolved(row)) {
+                mtns[count++] = table.getMtn(row);
+            }
+        }
+        Arrays.sort(mtns, 0, count);
+
+        int distinct = 0;
+        for (int index = 0; index < count; index++) {
+            if (distinct == 0 || mtns[index] != mtns[distinct - 1]) {
+                mtns[distinct++] = mtns[index];
+            }
+        }
+        return Arrays.copyOf(mtns, distinct);
+    }
+
+    /**
+     * Marks <code>mtn</code>, one of <code>mtns</code>, as counted
+     *
+     * @return whether it was not counted yet
+     */
+    private static boolean count(final BitSet countedMtns, final long[] mtns, final long mtn) {
+        final int index = Arrays.binarySearch(mtns, mtn);
+        if (countedMtns.get(index)) {
+            return false;
+        }
+        countedMtns.set(index);
+        return true;
+    }
+
+    /**
+     * Edges followed from a client
+     */
+    public enum Direction {
+        /**
+         * From senders to their beneficiaries
+         */
+        OUTGOING,
+        /**
+         * From beneficiaries to their senders
+         */
+        INCOMING,
+        /**
+         * Both ways, any counterparty
+         */
+        BOTH;
+
+        private Adjacency[] adjacencies(final TransferGraph graph) {
+            switch (this) {
+                case OUTGOING:
+                    return new Adjacency[]{graph.outgoing};
+                case INCOMING:
+                    return new Adjacency[]{graph.incoming};
+                default:
+                    return new Adjacency[]{graph.outgoing, graph.incoming};
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface EdgeVisitor {
+        boolean visit(int target, long amountMicros, boolean firstReached);
+    }
+
+    /**
+     * Edges of one direction in compressed sparse row layout, one edge per distinct pair
+     */
+    private static final class Adjacency {
+        private final int[] offsets;
+        private final int[] targets;
+        private final long[] amountMicros;
+
+        private Adjacency(final int[] offsets, final int[] targets, final long[] amountMicros) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.amountMicros = amountMicros;
+        }
+
+        /**
+         * Buckets the first <code>count</code> (source, target, amount) triples by source, then folds the triples of
+         * a same pair into one edge summing their amounts
+         */
+        private static Adjacency of(final int clients,
+                                    final int[] sources,
+                                    final int[] targets,
+                                    final long[] amountMicros,
+                                    final int count) {
+            final int[] offsets = new int[clients + 1];
+            for (int index = 0; index < count; index++) {
+                offsets[sources[index] + 1]++;
+            }
+            for (int client = 0; client < clients; client++) {
+                offsets[client + 1] += offsets[client];
+            }
+
+            final int[] bucketTargets = new int[count];
+            final long[] bucketAmounts = new long[count];
+            final int[] next = Arrays.copyOf(offsets, clients);
+            for (int index = 0; index < count; index++) {
+                final int slot = next[sources[index]]++;
+                bucketTargets[slot] = targets[index];
+                bucketAmounts[slot] = amountMicros[index];
+            }
+
+            final int[] lastSource = new int[clients];
+            Arrays.fill(lastSource, -1);
+            final int[] edgeOfTarget = new int[clients];
+            int edges = 0;
+            int start = 0;
+            for (int source = 0; source < clients; source++) {
+                final int end = offsets[source + 1];
+                offsets[source] = edges;
+                for (int slot = start; slot < end; slot++) {
+                    final int target = bucketTargets[slot];
+                    if (lastSource[target] == source) {
+                        bucketAmounts[edgeOfTarget[target]] = Math.addExact(bucketAmounts[edgeOfTarget[target]], bucketAmounts[slot]);
+                    } else {
+                        lastSource[target] = source;
+                        edgeOfTarget[target] = edges;
+                        bucketTargets[edges] = target;
+                        bucketAmounts[edges] = bucketAmounts[slot];
+                        edges++;
+                    }
+                }
+                start = end;
+            }
+            offsets[clients] = edges;
+            return new Adjacency(offsets, Arrays.copyOf(bucketTargets, edges), Arrays.copyOf(bucketAmounts, edges));
+        }
+    }
+
+    /**
+     * Scratch state of the queries of one thread. A client is reached by the current query when its stamp is at
+     * least the query base, and its distance is the difference; moving the base past the previous query's stamps
+     * resets every client without clearing the array.
+     */
+    private static final class Traversal {
+        private final int[] stamps;
+        private final int[] queue;
+        private int nextBase = 1;
+
+        private Traversal(final int clients) {
+            this.stamps = new int[clients];
+            this.queue = new int[clients];
+        }
+
+        private int begin(final int hops) {
+            if (nextBase > Integer.MAX_VALUE - hops - 1) {
+                Arrays.fill(stamps, 0);
+                nextBase = 1;
+            }
+            final int base = nextBase;
+            nextBase = base + hops + 1;
+            return base;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.smallworld.util;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list view of the range [from, to) of an array. Many slices can share one backing array, which must
+ * not be modified once they are handed out.
+ *
+ * @param <T> Type of element
+ */
+public class ArraySlice<T> extends AbstractList<T> implements RandomAccess {
+    private final T[] elements;
+    private final int from;
+    private final int to;
+
+    public ArraySlice(final T[] elements, final int from, final int to) {
+        if (from < 0 || from > to || to > elements.length) {
+            throw new IndexOutOfBoundsException("Slice [" + from + ", " + to + ") of array of length " + elements.length);
+        }
+
+        this.elements = elements;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public T get(final int index) {
+        if (index < 0 || index >= to - from) {
+            throw new IndexOutOfBoundsException("Index " + index + " of slice of size " + (to - from));
+        }
+        return elements[from + index];
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+}
@@ -2,22 +2,53 @@ package com.smallworld.util;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.smallworld.metrics.MetricsRecorder;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.ParseException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.smallworld.metrics.Instrumentation.UNKNOWN_ROWS;
+import static com.smallworld.metrics.Instrumentation.time;
 
 public class JsonParser {
 
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    private final MetricsRecorder metrics;
+
     static {
         objectMapper.setDefaultPropertyInclusion(JsonInclude.Value.construct(JsonInclude.Include.ALWAYS, JsonInclude.Include.NON_NULL));
         objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
     }
 
+    public JsonParser() {
+        this(MetricsRecorder.NOOP);
+    }
+
+    /**
+     * @param metrics Recorder of the latency of {@link #toString(Object)} and {@link #toObject(String, Class)} and of
+     *                the number of json chars they produce and consume.
+     */
+    public JsonParser(final MetricsRecorder metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Convert <code>object</code> to json string.
      *
@@ -26,11 +57,15 @@ public class JsonParser {
      * @return json as string.
      */
     public <T> String toString(final T object) throws ParseException {
-        try {
-            return objectMapper.writeValueAsString(object);
-        } catch (JsonProcessingException e) {
-            throw new ParseException("Failed to convert " + object.getClass().getName() + " to json: " + e.getMessage(), 0);
-        }
+        return time(metrics, "json.toString", UNKNOWN_ROWS, () -> {
+            try {
+                final String json = objectMapper.writeValueAsString(object);
+                metrics.increment("json.toString.chars", json.length());
+                return json;
+            } catch (JsonProcessingException e) {
+                throw new ParseException("Failed to convert " + object.getClass().getName() + " to json: " + e.getMessage(), 0);
+            }
+        });
     }
 
     /**
@@ -42,10 +77,140 @@ public class JsonParser {
      * @return object representing json.
      */
     public <T> T toObject(final String json, final Class<T> clazz) throws ParseException {
+        return time(metrics, "json.toObject", UNKNOWN_ROWS, () -> {
+            metrics.increment("json.toObject.chars", json == null ? 0 : json.length());
+            try {
+                return objectMapper.readValue(json, clazz);
+            } catch (IOException e) {
+                throw new ParseException("Failed to convert json '" + json + "' to " + clazz.getName(), 0);
+            }
+        });
+    }
+
+    /**
+     * Lazily read the elements of the top level json array stored in <code>path</code>. Only the element being
+     * deserialized is held in memory; the file is closed when the returned stream is closed.
+     *
+     * @param path  File holding a json array.
+     * @param clazz Element type.
+     * @param <T>   Type of element
+     * @return ordered stream of array elements.
+     */
+    public <T> Stream<T> toStream(final Path path, final Class<T> clazz) throws ParseException {
+        final InputStream inputStream;
+        try {
+            inputStream = Files.newInputStream(path);
+        } catch (IOException e) {
+            throw new ParseException("Failed to open " + path + ": " + e.getMessage(), 0);
+        }
+
+        try {
+            return toStream(inputStream, clazz).onClose(() -> closeQuietly(inputStream));
+        } catch (ParseException e) {
+            closeQuietly(inputStream);
+            throw e;
+        }
+    }
+
+    /**
+     * Lazily read the elements of the top level json array available on <code>inputStream</code>. Failures found
+     * after the stream is returned are reported as {@link UncheckedIOException}.
+     *
+     * @param inputStream Source of a json array, not closed by this method.
+     * @param clazz       Element type.
+     * @param <T>         Type of element
+     * @return ordered stream of array elements.
+     */
+    public <T> Stream<T> toStream(final InputStream inputStream, final Class<T> clazz) throws ParseException {
+        final com.fasterxml.jackson.core.JsonParser parser;
         try {
-            return objectMapper.readValue(json, clazz);
+            parser = objectMapper.getFactory().createParser(inputStream);
         } catch (IOException e) {
-            throw new ParseException("Failed to convert json '" + json + "' to " + clazz.getName(), 0);
+            throw new ParseException("Failed to read json array of " + clazz.getName() + ": " + e.getMessage(), 0);
+        }
+        parser.disable(com.fasterxml.jackson.core.JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        try {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                closeQuietly(parser);
+                throw new ParseException("Expected a json array of " + clazz.getName(), 0);
+            }
+        } catch (IOException e) {
+            closeQuietly(parser);
+            throw new ParseException("Failed to read json array of " + clazz.getName() + ": " + e.getMessage(), 0);
+        }
+
+        final Iterator<T> iterator = new ArrayElementIterator<>(parser, objectMapper.readerFor(clazz));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> closeQuietly(parser));
+    }
+
+    /**
+     * Hand every element of the top level json array stored in <code>path</code> to <code>consumer</code>, one at a time.
+     *
+     * @param path     File holding a json array.
+     * @param clazz    Element type.
+     * @param consumer Callback receiving each element in file order.
+     * @param <T>      Type of element
+     */
+    public <T> void forEach(final Path path, final Class<T> clazz, final Consumer<? super T> consumer) throws ParseException {
+        try (Stream<T> stream = toStream(path, clazz)) {
+            stream.forEach(consumer);
+        } catch (UncheckedIOException e) {
+            throw new ParseException("Failed to read " + path + ": " + e.getCause().getMessage(), 0);
+        }
+    }
+
+    /**
+     * Returns an immutable, thread-safe reader of <code>clazz</code> configured like this parser
+     */
+    static ObjectReader readerFor(final Class<?> clazz) {
+        return objectMapper.readerFor(clazz);
+    }
+
+    private static void closeQuietly(final AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // nothing left to release
+        }
+    }
+
+    private static final class ArrayElementIterator<T> implements Iterator<T> {
+        private final com.fasterxml.jackson.core.JsonParser parser;
+        private final ObjectReader reader;
+        private JsonToken nextToken;
+
+        private ArrayElementIterator(final com.fasterxml.jackson.core.JsonParser parser, final ObjectReader reader) {
+            this.parser = parser;
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextToken == null) {
+                try {
+                    nextToken = parser.nextToken();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (nextToken == null) {
+                    throw new UncheckedIOException(new IOException("Unterminated json array"));
+                }
+            }
+            return nextToken != JsonToken.END_ARRAY;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            nextToken = null;
+            try {
+                return reader.readValue(parser);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
     }
 }
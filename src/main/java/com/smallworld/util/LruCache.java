@@ -0,0 +1,84 @@
+package com.smallworld.util;
+
+import com.smallworld.exception.OperationException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe map holding at most <code>maxEntries</code> values, evicting the least recently read one first.
+ * Values are computed outside the lock, so two threads missing on the same key may both compute it.
+ *
+ * @param <K> Type of key
+ * @param <V> Type of value
+ */
+public class LruCache<K, V> {
+    private final Map<K, V> entries;
+    private long hitCount;
+    private long missCount;
+
+    public LruCache(final int maxEntries) {
+        if (maxEntries < 1) {
+            throw new OperationException("Cache size must be positive");
+        }
+
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the value cached for <code>key</code>, computing and caching it with <code>loader</code> on a miss
+     */
+    public V get(final K key, final Supplier<? extends V> loader) {
+        return get(key, loader, () -> true);
+    }
+
+    /**
+     * Returns the value cached for <code>key</code>, computing it with <code>loader</code> on a miss. The computed
+     * value is cached only if <code>current</code> still holds once it is computed; the check runs under the cache
+     * lock, so callers invalidating under that lock never see a value computed before the invalidation.
+     */
+    public V get(final K key, final Supplier<? extends V> loader, final BooleanSupplier current) {
+        synchronized (this) {
+            final V value = entries.get(key);
+            if (value != null) {
+                hitCount++;
+                return value;
+            }
+            missCount++;
+        }
+
+        final V value = loader.get();
+        synchronized (this) {
+            if (current.getAsBoolean()) {
+                entries.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops every cached value, keeping the counters
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+}
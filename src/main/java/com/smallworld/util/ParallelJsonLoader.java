@@ -0,0 +1,301 @@
+package com.smallworld.util;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.smallworld.exception.OperationException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Loads large json files on a {@link ForkJoinPool}: the file is cut into byte ranges holding whole elements,
+ * ranges are deserialized concurrently and their elements are concatenated in file order, so results are the ones
+ * of {@link JsonParser#toStream(Path, Class)}.
+ * <p>
+ * Two formats are read. A top level json array, as read by {@link JsonParser}, is cut at the commas separating its
+ * elements; finding them takes one sequential scan tracking strings and nesting depth, which is a byte loop much
+ * cheaper than deserializing. Newline delimited json, one element per line, is cut at the first newline after each
+ * split point without scanning anything else.
+ * <p>
+ * Ranges are about the file size divided by four times the pool parallelism, and never smaller than
+ * <code>minChunkBytes</code> so that small files are not split for nothing.
+ */
+public class ParallelJsonLoader {
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int SCAN_BUFFER_BYTES = 1 << 20;
+    private static final int MAX_CHUNK_BYTES = Integer.MAX_VALUE - 16;
+
+    private final ForkJoinPool pool;
+    private final int minChunkBytes;
+
+    public ParallelJsonLoader(final ForkJoinPool pool, final int minChunkBytes) {
+        if (minChunkBytes < 1) {
+            throw new OperationException("Minimum chunk size must be positive");
+        }
+
+        this.pool = pool;
+        this.minChunkBytes = minChunkBytes;
+    }
+
+    /**
+     * Returns the elements of the top level json array stored in <code>path</code>, in file order
+     */
+    public <T> List<T> readArray(final Path path, final Class<T> clazz) throws ParseException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readChunks(channel, arrayChunks(channel, clazz), JsonParser.readerFor(clazz), true);
+        } catch (IOException e) {
+            throw new ParseException("Failed to read " + path + ": " + e.getMessage(), 0);
+        }
+    }
+
+    /**
+     * Returns the elements of the newline delimited json stored in <code>path</code>, one per line, in file order.
+     * Blank lines are skipped.
+     */
+    public <T> List<T> readLines(final Path path, final Class<T> clazz) throws ParseException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readChunks(channel, lineChunks(channel), JsonParser.readerFor(clazz), false);
+        } catch (IOException e) {
+            throw new ParseException("Failed to read " + path + ": " + e.getMessage(), 0);
+        }
+    }
+
+    private <T> List<T> readChunks(final FileChannel channel,
+                                   final List<Chunk> chunks,
+                                   final ObjectReader reader,
+                                   final boolean wrapped) throws ParseException {
+        final List<Future<List<T>>> parsedChunks = new ArrayList<>(chunks.size());
+        for (final Chunk chunk : chunks) {
+            parsedChunks.add(pool.submit(() -> readChunk(channel, chunk, reader, wrapped)));
+        }
+
+        final List<T> values = new ArrayList<>();
+        try {
+            for (final Future<List<T>> parsedChunk : parsedChunks) {
+                values.addAll(parsedChunk.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ParseException("Interrupted while loading json", 0);
+        } catch (ExecutionException e) {
+            // the pool wraps checked exceptions of tasks in a RuntimeException
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof ParseException) {
+                    throw (ParseException) cause;
+                }
+                if (cause instanceof IOException) {
+                    throw new ParseException("Failed to load json: " + cause.getMessage(), 0);
+                }
+            }
+            throw new ParseException("Failed to load json: " + e.getCause(), 0);
+        } finally {
+            parsedChunks.forEach(parsedChunk -> parsedChunk.cancel(false));
+        }
+        return values;
+    }
+
+    /**
+     * Returns the values of the byte range <code>chunk</code>, wrapped in brackets first when it holds comma
+     * separated array elements
+     */
+    private static <T> List<T> readChunk(final FileChannel channel,
+                                         final Chunk chunk,
+                                         final ObjectReader reader,
+                                         final boolean wrapped) throws IOException, ParseException {
+        final long length = chunk.end - chunk.start;
+        if (length > MAX_CHUNK_BYTES) {
+            throw new ParseException("Element at byte " + chunk.start + " is too large", errorOffset(chunk.start));
+        }
+
+        final int prefix = wrapped ? 1 : 0;
+        final byte[] bytes = new byte[(int) length + 2 * prefix];
+        if (wrapped) {
+            bytes[0] = '[';
+            bytes[bytes.length - 1] = ']';
+        }
+        final ByteBuffer target = ByteBuffer.wrap(bytes, prefix, (int) length);
+        long position = chunk.start;
+        while (target.hasRemaining()) {
+            final int read = channel.read(target, position);
+            if (read < 0) {
+                throw new EOFException("File truncated at byte " + position);
+            }
+            position += read;
+        }
+
+        final List<T> values = new ArrayList<>();
+        try (MappingIterator<T> iterator = reader.readValues(bytes)) {
+            while (iterator.hasNextValue()) {
+                values.add(iterator.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            final JsonLocation location = e.getLocation();
+            final long offset = chunk.start - prefix + (location == null ? 0 : Math.max(0, location.getByteOffset()));
+            throw new ParseException("Failed to parse json at byte " + offset + ": " + e.getOriginalMessage(),
+                    errorOffset(offset));
+        }
+        return values;
+    }
+
+    /**
+     * Scans the array once, cutting it at the first element separator past each split point. Only the outer
+     * array is validated here; elements are validated when deserialized.
+     */
+    private List<Chunk> arrayChunks(final FileChannel channel, final Class<?> clazz) throws IOException, ParseException {
+        final long chunkBytes = chunkBytes(channel.size());
+        final List<Chunk> chunks = new ArrayList<>();
+        final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long chunkStart = -1;
+        long nextSplit = 0;
+        boolean arrayEnded = false;
+        boolean inString = false;
+        boolean escaped = false;
+        boolean separatorSeen = false;
+        boolean elementSeen = false;
+        int depth = 0;
+
+        long position = 0;
+        int read;
+        while ((read = channel.read(buffer.clear(), position)) > 0) {
+            for (int index = 0; index < read; index++) {
+                final long offset = position + index;
+                final byte value = buffer.get(index);
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (value == '\\') {
+                        escaped = true;
+                    } else if (value == '"') {
+                        inString = false;
+                    }
+                    continue;
+                }
+                if (isWhitespace(value)) {
+                    continue;
+                }
+                if (arrayEnded) {
+                    throw new ParseException("Unexpected content after the json array at byte " + offset, errorOffset(offset));
+                }
+                if (depth == 0) {
+                    if (value != '[') {
+                        throw new ParseException("Expected a json array of " + clazz.getName(), errorOffset(offset));
+                    }
+                    depth = 1;
+                    chunkStart = offset + 1;
+                    nextSplit = chunkStart + chunkBytes;
+                    continue;
+                }
+
+                if (depth == 1 && (value == ',' || value == ']')) {
+                    if (!elementSeen && (value == ',' || separatorSeen)) {
+                        throw new ParseException("Missing array element at byte " + offset, errorOffset(offset));
+                    }
+                    separatorSeen = true;
+                    elementSeen = false;
+                } else {
+                    elementSeen = true;
+                }
+
+                switch (value) {
+                    case '"':
+                        inString = true;
+                        break;
+                    case '[':
+                    case '{':
+                        depth++;
+                        break;
+                    case ']':
+                    case '}':
+                        if (--depth == 0) {
+                            if (value != ']') {
+                                throw new ParseException("Unbalanced json array at byte " + offset, errorOffset(offset));
+                            }
+                            chunks.add(new Chunk(chunkStart, offset));
+                            arrayEnded = true;
+                        }
+                        break;
+                    case ',':
+                        if (depth == 1 && offset >= nextSplit) {
+                            chunks.add(new Chunk(chunkStart, offset));
+                            chunkStart = offset + 1;
+                            nextSplit = chunkStart + chunkBytes;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            position += read;
+        }
+
+        if (!arrayEnded) {
+            throw new ParseException("Unterminated json array of " + clazz.getName(), errorOffset(position));
+        }
+        return chunks;
+    }
+
+    /**
+     * Cuts the file at the first newline past each split point
+     */
+    private List<Chunk> lineChunks(final FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final long chunkBytes = chunkBytes(size);
+        final List<Chunk> chunks = new ArrayList<>();
+        final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        long chunkStart = 0;
+        while (chunkStart < size) {
+            long chunkEnd = size;
+            long position = chunkStart + chunkBytes;
+            int read;
+            search:
+            while (position < size && (read = channel.read(buffer.clear(), position)) > 0) {
+                for (int index = 0; index < read; index++) {
+                    if (buffer.get(index) == '\n') {
+                        chunkEnd = position + index + 1;
+                        break search;
+                    }
+                }
+                position += read;
+            }
+            chunks.add(new Chunk(chunkStart, chunkEnd));
+            chunkStart = chunkEnd;
+        }
+        return chunks;
+    }
+
+    private long chunkBytes(final long size) {
+        final long chunks = (long) pool.getParallelism() * CHUNKS_PER_THREAD;
+        return Math.max(minChunkBytes, (size + chunks - 1) / chunks);
+    }
+
+    private static boolean isWhitespace(final byte value) {
+        return value == ' ' || value == '\n' || value == '\r' || value == '\t';
+    }
+
+    private static int errorOffset(final long offset) {
+        return (int) Math.min(offset, Integer.MAX_VALUE);
+    }
+
+    private static final class Chunk {
+        private final long start;
+        private final long end;
+
+        private Chunk(final long start, final long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
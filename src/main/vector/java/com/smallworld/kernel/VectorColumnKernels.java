@@ -0,0 +1,172 @@
+package com.smallworld.kernel;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link ColumnKernels} on <code>jdk.incubator.vector</code>, processing as many entries per instruction as the
+ * widest vectors of the CPU hold. Each loop runs over whole vectors and finishes the tail with the scalar code.
+ * Sums add lanes without overflow checks and flag a lane that wrapped around by the sign of the result, which then
+ * fails like {@link Math#addExact(long, long)}.
+ * <p>
+ * Lives in its own source directory, compiled by the <code>vector</code> profile only, and is loaded by
+ * {@link VectorSupport}.
+ */
+final class VectorColumnKernels implements ColumnKernels {
+    static final VectorColumnKernels INSTANCE = new VectorColumnKernels();
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    /**
+     * Ints with as many lanes as {@link #LONGS}, widened to longs to filter amounts on ages: comparing longs beats
+     * casting int masks to long ones, which the JIT does not turn into vector instructions
+     */
+    private static final VectorSpecies<Integer> INTS_PER_LONG =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+    /**
+     * Past this many buckets, the compare per bucket boundary costs more than the scalar loop
+     */
+    private static final int MAX_VECTOR_BUCKETS = 16;
+
+    private final ScalarColumnKernels scalar = ScalarColumnKernels.INSTANCE;
+
+    private VectorColumnKernels() {
+    }
+
+    @Override
+    public long sum(final long[] values, final boolean[] mask, final int length) {
+        final int bound = LONGS.loopBound(length);
+        LongVector sums = LongVector.zero(LONGS);
+        LongVector overflows = LongVector.zero(LONGS);
+        for (int row = 0; row < bound; row += LONGS.length()) {
+            final LongVector addends = LongVector.zero(LONGS)
+                    .blend(LongVector.fromArray(LONGS, values, row), VectorMask.fromArray(LONGS, mask, row));
+            final LongVector next = sums.add(addends);
+            overflows = overflows.or(sums.lanewise(VectorOperators.XOR, next).and(addends.lanewise(VectorOperators.XOR, next)));
+            sums = next;
+        }
+        return Math.addExact(reduceExact(sums, overflows), scalar.sum(values, mask, bound, length));
+    }
+
+    @Override
+    public long sumInRange(final long[] values,
+                           final boolean[] mask,
+                           final int[] keys,
+                           final int min,
+                           final int max,
+                           final int length) {
+        final int bound = LONGS.loopBound(length);
+        LongVector sums = LongVector.zero(LONGS);
+        LongVector overflows = LongVector.zero(LONGS);
+        for (int row = 0; row < bound; row += LONGS.length()) {
+            final LongVector rowKeys = (LongVector) IntVector.fromArray(INTS_PER_LONG, keys, row)
+                    .convertShape(VectorOperators.I2L, LONGS, 0);
+            final VectorMask<Long> selected = rowKeys.compare(VectorOperators.GE, min)
+                    .and(rowKeys.compare(VectorOperators.LE, max))
+                    .and(VectorMask.fromArray(LONGS, mask, row));
+            final LongVector addends = LongVector.zero(LONGS).blend(LongVector.fromArray(LONGS, values, row), selected);
+            final LongVector next = sums.add(addends);
+            overflows = overflows.or(sums.lanewise(VectorOperators.XOR, next).and(addends.lanewise(VectorOperators.XOR, next)));
+            sums = next;
+        }
+        return Math.addExact(reduceExact(sums, overflows),
+                scalar.sumInRange(values, mask, keys, min, max, bound, length));
+    }
+
+    @Override
+    public long max(final long[] values, final boolean[] mask, final int length) {
+        final int bound = LONGS.loopBound(length);
+        LongVector maxima = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        for (int row = 0; row < bound; row += LONGS.length()) {
+            maxima = maxima.lanewise(VectorOperators.MAX, LongVector.fromArray(LONGS, values, row),
+                    VectorMask.fromArray(LONGS, mask, row));
+        }
+        return Math.max(maxima.reduceLanes(VectorOperators.MAX),
+                scalar.max(values, mask, bound, length));
+    }
+
+    @Override
+    public int count(final boolean[] mask, final int length) {
+        final int bound = BYTES.loopBound(length);
+        int count = 0;
+        for (int row = 0; row < bound; row += BYTES.length()) {
+            count += VectorMask.fromArray(BYTES, mask, row).trueCount();
+        }
+        return count + scalar.count(mask, bound, length);
+    }
+
+    @Override
+    public int countInRange(final boolean[] mask, final int[] keys, final int min, final int max, final int length) {
+        final int bound = INTS.loopBound(length);
+        int count = 0;
+        for (int row = 0; row < bound; row += INTS.length()) {
+            final IntVector rowKeys = IntVector.fromArray(INTS, keys, row);
+            count += rowKeys.compare(VectorOperators.GE, min)
+                    .and(rowKeys.compare(VectorOperators.LE, max))
+                    .and(VectorMask.fromArray(INTS, mask, row))
+                    .trueCount();
+        }
+        return count + scalar.countInRange(mask, keys, min, max, bound, length);
+    }
+
+    /**
+     * Adds up the lanes of <code>sums</code>, failing when a lane wrapped around, i.e. when an addition ever gave a
+     * result whose sign differs from both its terms', as flagged by the sign bits of <code>overflows</code>
+     */
+    private static long reduceExact(final LongVector sums, final LongVector overflows) {
+        if (overflows.compare(VectorOperators.LT, 0).anyTrue()) {
+            throw new ArithmeticException("long overflow");
+        }
+        long total = 0;
+        for (int lane = 0; lane < LONGS.length(); lane++) {
+            total = Math.addExact(total, sums.lane(lane));
+        }
+        return total;
+    }
+
+    /**
+     * Counts, per bucket boundary, the masked keys at or above it, a bucket holding the difference between its
+     * boundary and the next one
+     */
+    @Override
+    public long[] histogram(final boolean[] mask,
+                            final int[] keys,
+                            final int min,
+                            final int width,
+                            final int buckets,
+                            final int length) {
+        if (buckets > MAX_VECTOR_BUCKETS) {
+            return scalar.histogram(mask, keys, min, width, buckets, length);
+        }
+
+        int boundaries = 0;
+        final int[] lowerBounds = new int[buckets + 1];
+        while (boundaries <= buckets && (long) min + (long) boundaries * width <= Integer.MAX_VALUE) {
+            lowerBounds[boundaries] = min + boundaries * width;
+            boundaries++;
+        }
+
+        final int bound = INTS.loopBound(length);
+        final long[] atLeast = new long[buckets + 1];
+        for (int row = 0; row < bound; row += INTS.length()) {
+            final IntVector rowKeys = IntVector.fromArray(INTS, keys, row);
+            final VectorMask<Integer> rowMask = VectorMask.fromArray(INTS, mask, row);
+            for (int boundary = 0; boundary < boundaries; boundary++) {
+                atLeast[boundary] += rowKeys.compare(VectorOperators.GE, lowerBounds[boundary]).and(rowMask).trueCount();
+            }
+        }
+
+        final long[] counts = new long[buckets];
+        scalar.histogram(mask, keys, min, width, counts, bound, length);
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            counts[bucket] += atLeast[bucket] - atLeast[bucket + 1];
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,97 @@
+package com.smallworld;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import com.smallworld.util.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingTransactionDataFetcherTest {
+
+    private final TransactionDataFetcher transactionDataFetcher = new TransactionDataFetcher();
+    private List<Transaction> transactions;
+    private CachingTransactionDataFetcher cachingFetcher;
+
+    @BeforeEach
+    void setUp() throws IOException, ParseException {
+        final String json = Files.readString(Path.of("src/test/resources/test_transactions.json"));
+        transactions = Arrays.asList(new JsonParser().toObject(json, Transaction[].class));
+        cachingFetcher = new CachingTransactionDataFetcher(transactionDataFetcher, transactions, 16);
+    }
+
+    @Test
+    void shouldAnswerLikeFetcherAndServeRepeatsFromCache() {
+        assertEquals(transactionDataFetcher.getTransactionsByBeneficiaryName(transactions),
+                cachingFetcher.getTransactionsByBeneficiaryName());
+        assertSame(cachingFetcher.getTransactionsByBeneficiaryName(), cachingFetcher.getTransactionsByBeneficiaryName());
+        assertEquals(transactionDataFetcher.getUnsolvedIssueIds(transactions), cachingFetcher.getUnsolvedIssueIds());
+        assertEquals(transactionDataFetcher.getTopSender(transactions), cachingFetcher.getTopSender());
+        assertEquals(transactionDataFetcher.getTotalTransactionAmount(transactions), cachingFetcher.getTotalTransactionAmount());
+
+        assertEquals(2, cachingFetcher.getHitCount());
+        assertEquals(4, cachingFetcher.getMissCount());
+    }
+
+    @Test
+    void shouldShareEntryBetweenSpellingsOfClientName() {
+        assertTrue(cachingFetcher.hasOpenComplianceIssues("Arthur Shelby"));
+        assertTrue(cachingFetcher.hasOpenComplianceIssues(" arthur shelby "));
+        assertEquals(transactionDataFetcher.getTotalTransactionAmountSentBy("Tom Shelby", transactions),
+                cachingFetcher.getTotalTransactionAmountSentBy("TOM SHELBY"));
+
+        assertEquals(1, cachingFetcher.getHitCount());
+    }
+
+    @Test
+    void shouldInvalidateOnReload() {
+        assertEquals(Set.of(1L, 3L, 15L), cachingFetcher.getUnsolvedIssueIds());
+        assertTrue(cachingFetcher.hasOpenComplianceIssues("Arthur Shelby"));
+
+        assertEquals(1, cachingFetcher.reload(emptyList()));
+        assertEquals(Set.of(), cachingFetcher.getUnsolvedIssueIds());
+        assertFalse(cachingFetcher.hasOpenComplianceIssues("Arthur Shelby"));
+        assertEquals(0, cachingFetcher.getHitCount());
+    }
+
+    @Test
+    void shouldNotCacheRejectedQueries() {
+        assertThrows(OperationException.class, () -> cachingFetcher.hasOpenComplianceIssues(" "));
+        assertThrows(OperationException.class, () -> cachingFetcher.getTotalTransactionAmountSentBy(null));
+        assertEquals(0, cachingFetcher.getHitCount());
+    }
+
+    @Test
+    void shouldNotCacheResultLoadedOverReplacedDataset() {
+        final CachingTransactionDataFetcher[] fetcher = new CachingTransactionDataFetcher[1];
+        fetcher[0] = new CachingTransactionDataFetcher(new TransactionDataFetcher() {
+            @Override
+            double getTotalTransactionAmount(final List<Transaction> transactions) {
+                if (fetcher[0].getVersion() == 0) {
+                    fetcher[0].reload(emptyList());
+                    fetcher[0].getMaxTransactionAmount();
+                }
+                return super.getTotalTransactionAmount(transactions);
+            }
+        }, transactions, 1);
+
+        fetcher[0].getTotalTransactionAmount();
+        assertEquals(0.0, fetcher[0].getMaxTransactionAmount());
+
+        assertEquals(1, fetcher[0].getHitCount());
+    }
+}
@@ -0,0 +1,146 @@
+package com.smallworld;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import com.smallworld.util.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentTransactionDataFetcherTest {
+
+    private final TransactionDataFetcher transactionDataFetcher = new TransactionDataFetcher();
+    private List<Transaction> transactions;
+
+    @BeforeEach
+    void setUp() throws IOException, ParseException {
+        final String json = Files.readString(Path.of("src/test/resources/test_transactions.json"));
+        transactions = Arrays.asList(new JsonParser().toObject(json, Transaction[].class));
+    }
+
+    @Test
+    void shouldMatchBatchFetcherAfterAppends() {
+        final ConcurrentTransactionDataFetcher fetcher = new ConcurrentTransactionDataFetcher().appendAll(transactions);
+
+        assertEquals(transactionDataFetcher.getTotalTransactionAmount(transactions), fetcher.getTotalTransactionAmount(), 1e-9);
+        assertEquals(transactionDataFetcher.getTotalTransactionAmountSentBy("tom shelby", transactions),
+                fetcher.getTotalTransactionAmountSentBy(" Tom Shelby "), 1e-9);
+        assertEquals(0.0, fetcher.getTotalTransactionAmountSentBy("Nobody"));
+        assertEquals(transactionDataFetcher.getMaxTransactionAmount(transactions), fetcher.getMaxTransactionAmount());
+        assertEquals(transactionDataFetcher.countUniqueClients(transactions), fetcher.countUniqueClients());
+        assertTrue(fetcher.hasOpenComplianceIssues("ARTHUR SHELBY"));
+        assertFalse(fetcher.hasOpenComplianceIssues("Nobody"));
+        assertEquals(transactionDataFetcher.getUnsolvedIssueIds(transactions), fetcher.getUnsolvedIssueIds());
+        assertEquals(transactionDataFetcher.getAllSolvedIssueMessages(transactions), fetcher.getAllSolvedIssueMessages());
+        assertEquals(transactionDataFetcher.getTop3TransactionsByAmount(transactions), fetcher.getTop3TransactionsByAmount());
+        assertEquals(transactionDataFetcher.getTopSender(transactions), fetcher.getTopSender());
+        assertEquals(transactionDataFetcher.getTopSenders(2, transactions), fetcher.getTopSenders(2));
+    }
+
+    @Test
+    void shouldRejectTransactionWithoutNameBeforeRecordingIt() {
+        final ConcurrentTransactionDataFetcher fetcher = new ConcurrentTransactionDataFetcher();
+        final Transaction withoutBeneficiary = Transaction.Builder.newInstance()
+                .setMtn(1L)
+                .setAmount(10.0)
+                .setSenderFullName("Tom Shelby")
+                .build();
+
+        assertThrows(OperationException.class, () -> fetcher.append(withoutBeneficiary));
+        assertEquals(0.0, fetcher.getTotalTransactionAmount());
+        assertEquals(List.of(), fetcher.getTop3TransactionsByAmount());
+        assertEquals(0, fetcher.countUniqueClients());
+    }
+
+    @Test
+    void shouldAnswerEmptyDataset() {
+        final ConcurrentTransactionDataFetcher fetcher = new ConcurrentTransactionDataFetcher();
+
+        assertEquals(0.0, fetcher.getTotalTransactionAmount());
+        assertEquals(0.0, fetcher.getMaxTransactionAmount());
+        assertEquals(0, fetcher.countUniqueClients());
+        assertTrue(fetcher.getTop3TransactionsByAmount().isEmpty());
+        assertTrue(fetcher.getTopSender().isEmpty());
+        assertThrows(OperationException.class, () -> fetcher.hasOpenComplianceIssues(" "));
+    }
+
+    @Test
+    void shouldQueryWhileSeveralThreadsAppend() throws Exception {
+        final List<Transaction> rows = new ArrayList<>();
+        for (int copy = 0; copy < 500; copy++) {
+            for (final Transaction transaction : transactions) {
+                rows.add(Transaction.Builder.newInstance()
+                        .setMtn(copy * 1_000_000L + transaction.getMtn())
+                        .setAmount(transaction.getAmount() + copy)
+                        .setSenderFullName(transaction.getSenderFullName())
+                        .setBeneficiaryFullName(transaction.getBeneficiaryFullName())
+                        .setIssueId(transaction.getIssueId())
+                        .setIssueMessage(transaction.getIssueMessage())
+                        .setIssueSolved(transaction.isIssueSolved())
+                        .build());
+            }
+        }
+
+        final ConcurrentTransactionDataFetcher fetcher = new ConcurrentTransactionDataFetcher();
+        final int writers = 4;
+        final ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        try {
+            final AtomicBoolean done = new AtomicBoolean();
+            final Future<Integer> reader = executor.submit(() -> {
+                int queries = 0;
+                double previousMax = 0;
+                while (!done.get()) {
+                    final double max = fetcher.getMaxTransactionAmount();
+                    assertTrue(max >= previousMax);
+                    assertTrue(fetcher.getTop3TransactionsByAmount().size() <= 3);
+                    fetcher.getTopSender();
+                    previousMax = max;
+                    queries++;
+                }
+                return queries;
+            });
+
+            final List<Future<?>> appends = new ArrayList<>();
+            for (int writer = 0; writer < writers; writer++) {
+                final int first = writer;
+                appends.add(executor.submit(() -> {
+                    for (int index = first; index < rows.size(); index += writers) {
+                        fetcher.append(rows.get(index));
+                    }
+                }));
+            }
+            for (final Future<?> append : appends) {
+                append.get();
+            }
+            done.set(true);
+            assertTrue(reader.get() > 0);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(transactionDataFetcher.getTotalTransactionAmount(rows), fetcher.getTotalTransactionAmount(), 1e-6);
+        assertEquals(transactionDataFetcher.getMaxTransactionAmount(rows), fetcher.getMaxTransactionAmount());
+        assertEquals(transactionDataFetcher.countUniqueClients(rows), fetcher.countUniqueClients());
+        assertEquals(transactionDataFetcher.getUnsolvedIssueIds(rows), fetcher.getUnsolvedIssueIds());
+        assertEquals(new HashSet<>(transactionDataFetcher.getTop3TransactionsByAmount(rows)),
+                new HashSet<>(fetcher.getTop3TransactionsByAmount()));
+        assertEquals(transactionDataFetcher.getTopSender(rows), fetcher.getTopSender());
+    }
+}
@@ -0,0 +1,149 @@
+package com.smallworld;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import com.smallworld.util.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalTransactionDataFetcherTest {
+
+    private final TransactionDataFetcher transactionDataFetcher = new TransactionDataFetcher();
+    private final IncrementalTransactionDataFetcher incrementalFetcher = new IncrementalTransactionDataFetcher();
+    private List<Transaction> transactions;
+
+    @BeforeEach
+    void setUp() throws IOException, ParseException {
+        final String json = Files.readString(Path.of("src/test/resources/test_transactions.json"));
+        transactions = Arrays.asList(new JsonParser().toObject(json, Transaction[].class));
+        transactions.forEach(incrementalFetcher::append);
+    }
+
+    @Test
+    void shouldMatchBatchFetcherAfterAppends() {
+        assertMatchesBatchFetcher(transactions);
+    }
+
+    @Test
+    void shouldUpdateAggregatesWhenIssueIsResolved() {
+        assertTrue(incrementalFetcher.resolveIssue(663458L, 1L));
+        assertFalse(incrementalFetcher.resolveIssue(663458L, 1L));
+
+        final List<Transaction> resolvedTransactions = new ArrayList<>(transactions);
+        final Transaction openTransaction = resolvedTransactions.get(2);
+        resolvedTransactions.set(2, Transaction.Builder.newInstance()
+                .setMtn(openTransaction.getMtn())
+                .setAmount(openTransaction.getAmount())
+                .setSenderFullName(openTransaction.getSenderFullName())
+                .setSenderAge(openTransaction.getSenderAge())
+                .setBeneficiaryFullName(openTransaction.getBeneficiaryFullName())
+                .setBeneficiaryAge(openTransaction.getBeneficiaryAge())
+                .setIssueId(openTransaction.getIssueId())
+                .setIssueMessage(openTransaction.getIssueMessage())
+                .setIssueSolved(true)
+                .build());
+
+        assertMatchesBatchFetcher(resolvedTransactions);
+        assertEquals(Set.of(3L, 15L), incrementalFetcher.getUnsolvedIssueIds());
+        assertFalse(incrementalFetcher.hasOpenComplianceIssues("Alfie Solomons"));
+    }
+
+    @Test
+    void shouldKeepIssueOpenWhileAnyOfItsRowsIsOpen() {
+        final Transaction duplicateIssue = Transaction.Builder.newInstance()
+                .setMtn(42L)
+                .setAmount(1.0)
+                .setSenderFullName("Aunt Polly")
+                .setBeneficiaryFullName("Aberama Gold")
+                .setIssueId(15L)
+                .setIssueSolved(false)
+                .build();
+        incrementalFetcher.append(duplicateIssue);
+
+        assertTrue(incrementalFetcher.resolveIssue(5465465L, 15L));
+        assertTrue(incrementalFetcher.getUnsolvedIssueIds().contains(15L));
+        assertTrue(incrementalFetcher.hasOpenComplianceIssues("aberama gold"));
+    }
+
+    @Test
+    void shouldThrowExceptionOnBlankNames() {
+        assertThrows(OperationException.class, () -> incrementalFetcher.hasOpenComplianceIssues(" "));
+        assertThrows(OperationException.class, () -> incrementalFetcher.getTotalTransactionAmountSentBy(null));
+    }
+
+    @Test
+    void shouldKeepTimestampOfResolvedRow() {
+        final IncrementalTransactionDataFetcher fetcher = new IncrementalTransactionDataFetcher();
+        fetcher.append(Transaction.Builder.newInstance()
+                .setMtn(1L)
+                .setAmount(10.0)
+                .setSenderFullName("Tom Shelby")
+                .setBeneficiaryFullName("Arthur Shelby")
+                .setIssueId(7L)
+                .setIssueSolved(false)
+                .setTimestamp(1_677_628_800_000L)
+                .build());
+
+        assertTrue(fetcher.resolveIssue(1L, 7L));
+        assertTrue(fetcher.getTop3TransactionsByAmount().get(0).isIssueSolved());
+        assertEquals(1_677_628_800_000L, fetcher.getTop3TransactionsByAmount().get(0).getTimestamp());
+    }
+
+    @Test
+    void shouldRejectRowWithoutNameBeforeUpdatingState() {
+        final IncrementalTransactionDataFetcher fetcher = new IncrementalTransactionDataFetcher();
+        final Transaction withoutSender = Transaction.Builder.newInstance()
+                .setMtn(1L)
+                .setAmount(10.0)
+                .setBeneficiaryFullName("Tom Shelby")
+                .setIssueSolved(true)
+                .build();
+
+        assertThrows(OperationException.class, () -> fetcher.append(withoutSender));
+        assertTrue(fetcher.getTop3TransactionsByAmount().isEmpty());
+        assertEquals(0.0, fetcher.getTotalTransactionAmount());
+        assertEquals(0, fetcher.countUniqueClients());
+    }
+
+    @Test
+    void shouldAnswerEmptyFetcher() {
+        final IncrementalTransactionDataFetcher emptyFetcher = new IncrementalTransactionDataFetcher();
+        assertEquals(0.0, emptyFetcher.getMaxTransactionAmount());
+        assertEquals(0, emptyFetcher.countUniqueClients());
+        assertEquals(Optional.empty(), emptyFetcher.getTopSender());
+        assertTrue(emptyFetcher.getTop3TransactionsByAmount().isEmpty());
+    }
+
+    private void assertMatchesBatchFetcher(final List<Transaction> expectedTransactions) {
+        assertEquals(transactionDataFetcher.getTotalTransactionAmount(expectedTransactions), incrementalFetcher.getTotalTransactionAmount());
+        assertEquals(transactionDataFetcher.getTotalTransactionAmountSentBy("tom shelby ", expectedTransactions),
+                incrementalFetcher.getTotalTransactionAmountSentBy("tom shelby "));
+        assertEquals(transactionDataFetcher.getMaxTransactionAmount(expectedTransactions), incrementalFetcher.getMaxTransactionAmount());
+        assertEquals(transactionDataFetcher.countUniqueClients(expectedTransactions), incrementalFetcher.countUniqueClients());
+        assertEquals(transactionDataFetcher.hasOpenComplianceIssues("Tom Shelby", expectedTransactions),
+                incrementalFetcher.hasOpenComplianceIssues("Tom Shelby"));
+        assertEquals(transactionDataFetcher.getUnsolvedIssueIds(expectedTransactions), incrementalFetcher.getUnsolvedIssueIds());
+        assertEquals(transactionDataFetcher.getAllSolvedIssueMessages(expectedTransactions), incrementalFetcher.getAllSolvedIssueMessages());
+        assertEquals(transactionDataFetcher.getTop3TransactionsByAmount(expectedTransactions), incrementalFetcher.getTop3TransactionsByAmount());
+        assertEquals(transactionDataFetcher.getTop3TransactionsByAmount(expectedTransactions).stream()
+                        .map(Transaction::isIssueSolved).collect(toList()),
+                incrementalFetcher.getTop3TransactionsByAmount().stream().map(Transaction::isIssueSolved).collect(toList()));
+        assertEquals(transactionDataFetcher.getTopSender(expectedTransactions), incrementalFetcher.getTopSender());
+    }
+}
@@ -0,0 +1,47 @@
+package com.smallworld;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.metrics.InMemoryMetricsRegistry;
+import com.smallworld.metrics.MetricsRecorder;
+import com.smallworld.util.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InstrumentedTransactionDataFetcherTest {
+
+    private final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+
+    @Test
+    void shouldRecordQueriesAndParsing() throws IOException, ParseException {
+        final String json = Files.readString(Path.of("src/test/resources/test_transactions.json"));
+        final List<Transaction> transactions = Arrays.asList(new JsonParser(registry).toObject(json, Transaction[].class));
+        final TransactionDataFetcher fetcher = new InstrumentedTransactionDataFetcher(registry);
+
+        assertEquals(new TransactionDataFetcher().getTopSender(transactions), fetcher.getTopSender(transactions));
+        fetcher.getTopSender(transactions);
+        fetcher.getTotalTransactionAmount(transactions.stream());
+
+        assertEquals(1, registry.getTimerCount("json.toObject"));
+        assertEquals(json.length(), registry.getCounter("json.toObject.chars"));
+        assertEquals(2, registry.getTimerCount("fetcher.getTopSender"));
+        assertEquals(2, registry.getCounter("fetcher.getTopSender.calls"));
+        assertEquals(2L * transactions.size(), registry.getCounter("fetcher.getTopSender.rows"));
+        assertEquals(0, registry.getTimerCount("fetcher.getTopSenders"));
+        assertEquals(1, registry.getCounter("fetcher.getTotalTransactionAmount.calls"));
+        assertEquals(0, registry.getCounter("fetcher.getTotalTransactionAmount.rows"));
+    }
+
+    @Test
+    void shouldAnswerUntimedWithNoopRecorder() {
+        final TransactionDataFetcher fetcher = new InstrumentedTransactionDataFetcher(MetricsRecorder.NOOP);
+        assertEquals(0.0, fetcher.getTotalTransactionAmount(List.of()));
+    }
+}
@@ -0,0 +1,99 @@
+package com.smallworld;
+
+import com.smallworld.aggregate.Measure;
+import com.smallworld.aggregate.TransactionSummary;
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelTransactionDataFetcherTest {
+
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+    private final TransactionDataFetcher sequentialFetcher = new TransactionDataFetcher();
+    private final TransactionDataFetcher parallelFetcher = new ParallelTransactionDataFetcher(pool, 64);
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void shouldMatchSequentialFetcher() {
+        final List<Transaction> transactions = randomTransactions(20_000);
+
+        assertEquals(sequentialFetcher.getTotalTransactionAmount(transactions), parallelFetcher.getTotalTransactionAmount(transactions));
+        assertEquals(sequentialFetcher.getTotalTransactionAmountSentBy("CLIENT 7", transactions),
+                parallelFetcher.getTotalTransactionAmountSentBy("CLIENT 7", transactions));
+        assertEquals(sequentialFetcher.getMaxTransactionAmount(transactions), parallelFetcher.getMaxTransactionAmount(transactions));
+        assertEquals(sequentialFetcher.countUniqueClients(transactions), parallelFetcher.countUniqueClients(transactions));
+        assertEquals(sequentialFetcher.hasOpenComplianceIssues("client 3", transactions),
+                parallelFetcher.hasOpenComplianceIssues("client 3", transactions));
+        assertEquals(sequentialFetcher.hasOpenComplianceIssues("Tom Cruise", transactions),
+                parallelFetcher.hasOpenComplianceIssues("Tom Cruise", transactions));
+        assertEquals(sequentialFetcher.getTransactionsByBeneficiaryName(transactions),
+                parallelFetcher.getTransactionsByBeneficiaryName(transactions));
+        assertEquals(sequentialFetcher.getUnsolvedIssueIds(transactions), parallelFetcher.getUnsolvedIssueIds(transactions));
+        assertEquals(sequentialFetcher.getAllSolvedIssueMessages(transactions), parallelFetcher.getAllSolvedIssueMessages(transactions));
+        assertEquals(sequentialFetcher.getTopTransactionsByAmount(100, transactions),
+                parallelFetcher.getTopTransactionsByAmount(100, transactions));
+        assertEquals(sequentialFetcher.getTop3TransactionsByAmount(transactions), parallelFetcher.getTop3TransactionsByAmount(transactions));
+        assertEquals(sequentialFetcher.getTopSenders(10, transactions), parallelFetcher.getTopSenders(10, transactions));
+        assertEquals(sequentialFetcher.getTopBeneficiaries(10, transactions), parallelFetcher.getTopBeneficiaries(10, transactions));
+        assertEquals(sequentialFetcher.getTopSender(transactions), parallelFetcher.getTopSender(transactions));
+    }
+
+    @Test
+    void shouldSummarizeLikeSequentialFetcher() {
+        final List<Transaction> transactions = new LinkedList<>(randomTransactions(5_000));
+        final TransactionSummary sequentialSummary = sequentialFetcher.summarize(EnumSet.allOf(Measure.class), transactions);
+        final TransactionSummary parallelSummary = parallelFetcher.summarize(EnumSet.allOf(Measure.class), transactions);
+
+        assertEquals(sequentialSummary.getTotalAmount(), parallelSummary.getTotalAmount());
+        assertEquals(sequentialSummary.getMaxAmount(), parallelSummary.getMaxAmount());
+        assertEquals(sequentialSummary.getUniqueClients(), parallelSummary.getUniqueClients());
+        assertEquals(sequentialSummary.getUnsolvedIssueIds(), parallelSummary.getUnsolvedIssueIds());
+        assertEquals(sequentialSummary.getSolvedIssueMessages(), parallelSummary.getSolvedIssueMessages());
+        assertEquals(sequentialSummary.getTop3Transactions(), parallelSummary.getTop3Transactions());
+        assertEquals(sequentialSummary.getTopSender(), parallelSummary.getTopSender());
+    }
+
+    @Test
+    void shouldRejectNonPositiveSplitThreshold() {
+        assertThrows(OperationException.class, () -> new ParallelTransactionDataFetcher(pool, 0));
+    }
+
+    /**
+     * Amounts have arbitrary cents, whose <code>double</code> sums would depend on the order of additions
+     */
+    private static List<Transaction> randomTransactions(final int size) {
+        final Random random = new Random(42);
+        return IntStream.range(0, size)
+                .mapToObj(index -> {
+                    final long mtn = index / 2;
+                    final boolean issueSolved = random.nextInt(4) > 0;
+                    return Transaction.Builder.newInstance()
+                            .setMtn(mtn)
+                            .setAmount((mtn * 7919 % 100_003) / 100.0)
+                            .setSenderFullName("Client " + (mtn % 50))
+                            .setBeneficiaryFullName((mtn % 2 == 0 ? "client " : "Client ") + (mtn % 31))
+                            .setIssueId(issueSolved && random.nextBoolean() ? null : (long) random.nextInt(500))
+                            .setIssueSolved(issueSolved)
+                            .setIssueMessage("Issue " + random.nextInt(20))
+                            .build();
+                })
+                .collect(toList());
+    }
+}
@@ -1,7 +1,14 @@
 package com.smallworld;
 
+import com.smallworld.aggregate.HyperLogLog;
+import com.smallworld.aggregate.Measure;
+import com.smallworld.aggregate.TransactionSummary;
+import com.smallworld.data.ClientTotal;
 import com.smallworld.data.Transaction;
+import com.smallworld.data.TransactionNormalizer;
 import com.smallworld.exception.OperationException;
+import com.smallworld.store.OffHeapTransactionStore;
+import com.smallworld.store.TransactionStore;
 import com.smallworld.util.JsonParser;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -14,13 +21,16 @@ import java.nio.file.Path;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static java.text.MessageFormat.format;
 import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -143,6 +153,14 @@ class TransactionDataFetcherTest {
         assertEquals(expectedValue, transactionDataFetcher.getTotalTransactionAmount(transactions));
     }
 
+    @ParameterizedTest
+    @CsvSource(value = {"4:test_transactions.json", "0:"}, delimiter = ':')
+    void shouldEstimateUniqueClientsCount(final long expectedValue, final String datafileName) {
+        List<Transaction> transactions = buildTransaction(datafileName);
+        assertEquals(expectedValue, transactionDataFetcher.estimateUniqueClients(12, transactions));
+        assertEquals(expectedValue, transactionDataFetcher.estimateUniqueClients(12, TransactionStore.of(transactions.stream())));
+    }
+
     @Test
     void shouldReturnAllTransactionByBeneficiary() {
         List<Transaction> transactions = buildTransaction("test_transactions.json");
@@ -154,6 +172,36 @@ class TransactionDataFetcherTest {
         assertEquals(1, beneficiaryTransaction.get("Alfie Solomons").size());
     }
 
+    @Test
+    void shouldGroupBeneficiarySpellingsInEncounterOrder() {
+        List<Transaction> transactions = List.of(beneficiaryTransaction(1L, "Ben Younger"),
+                beneficiaryTransaction(2L, "arthur shelby"), beneficiaryTransaction(3L, "BEN YOUNGER"),
+                beneficiaryTransaction(4L, "Ben Younger"));
+        Map<String, List<Transaction>> beneficiaryTransaction = transactionDataFetcher.getTransactionsByBeneficiaryName(transactions);
+        assertEquals(Set.of("Ben Younger", "arthur shelby"), beneficiaryTransaction.keySet());
+        assertEquals(List.of(1L, 3L, 4L),
+                beneficiaryTransaction.get("Ben Younger").stream().map(Transaction::getMtn).collect(toList()));
+        assertEquals(beneficiaryTransaction, transactionDataFetcher.getTransactionsByBeneficiaryName(TransactionStore.of(transactions.stream())));
+        assertThrows(UnsupportedOperationException.class, () -> beneficiaryTransaction.get("arthur shelby").clear());
+    }
+
+    @Test
+    void shouldSkipNullNamesInTables() {
+        List<Transaction> transactions = List.of(beneficiaryTransaction(1L, "Ben Younger"),
+                beneficiaryTransaction(2L, null), beneficiaryTransaction(3L, "ben younger"));
+        TransactionStore store = TransactionStore.of(transactions.stream());
+        assertEquals(3, transactionDataFetcher.countUniqueClients(store));
+        assertEquals(3, transactionDataFetcher.estimateUniqueClients(12, store));
+        assertEquals(List.of("Ben Younger", "ben younger"), transactionDataFetcher.getTopBeneficiaries(5, store).stream()
+                .map(ClientTotal::getClientFullName).sorted().collect(toList()));
+
+        Map<String, List<Transaction>> beneficiaryTransaction = transactionDataFetcher.getTransactionsByBeneficiaryName(store);
+        assertEquals(List.of(2L), beneficiaryTransaction.get(null).stream().map(Transaction::getMtn).collect(toList()));
+        assertEquals(List.of(1L, 3L),
+                beneficiaryTransaction.get("Ben Younger").stream().map(Transaction::getMtn).collect(toList()));
+        assertEquals(beneficiaryTransaction, transactionDataFetcher.getTransactionsByBeneficiaryName(transactions));
+    }
+
     @Test
     void shouldNotReturnAnyTransactionByBeneficiaryOnEmptyList() {
         Map<String, List<Transaction>> beneficiaryTransaction = transactionDataFetcher.getTransactionsByBeneficiaryName(emptyList());
@@ -181,6 +229,147 @@ class TransactionDataFetcherTest {
         assertTrue(senderOptional.isEmpty());
     }
 
+    @Test
+    void shouldRunQueriesStraightOffStreamingParser() throws ParseException {
+        final Path filePath = Path.of("src/test/resources/test_transactions.json");
+        try (Stream<Transaction> transactions = jsonParser.toStream(filePath, Transaction.class)) {
+            assertEquals(667.8, transactionDataFetcher.getTotalTransactionAmount(transactions));
+        }
+        try (Stream<Transaction> transactions = jsonParser.toStream(filePath, Transaction.class)) {
+            assertEquals(Optional.of("Tom Shelby"), transactionDataFetcher.getTopSender(transactions));
+        }
+        try (Stream<Transaction> transactions = jsonParser.toStream(filePath, Transaction.class)) {
+            assertTrue(transactionDataFetcher.hasOpenComplianceIssues("tom shelby", transactions));
+        }
+    }
+
+    @Test
+    void shouldSummarizeAllMeasuresInSinglePass() {
+        List<Transaction> transactions = buildTransaction("test_transactions.json");
+        TransactionSummary summary = transactionDataFetcher.summarize(EnumSet.allOf(Measure.class), transactions);
+        assertEquals(transactionDataFetcher.getTotalTransactionAmount(transactions), summary.getTotalAmount());
+        assertEquals(transactionDataFetcher.getMaxTransactionAmount(transactions), summary.getMaxAmount());
+        assertEquals(transactionDataFetcher.countUniqueClients(transactions), summary.getUniqueClients());
+        assertEquals(transactionDataFetcher.estimateUniqueClients(HyperLogLog.DEFAULT_PRECISION, transactions),
+                summary.getApproximateUniqueClients());
+        assertEquals(transactionDataFetcher.getUnsolvedIssueIds(transactions), summary.getUnsolvedIssueIds());
+        assertEquals(transactionDataFetcher.getAllSolvedIssueMessages(transactions), summary.getSolvedIssueMessages());
+        assertEquals(transactionDataFetcher.getTop3TransactionsByAmount(transactions), summary.getTop3Transactions());
+        assertEquals(transactionDataFetcher.getTopSender(transactions), summary.getTopSender());
+    }
+
+    @Test
+    void shouldEstimateNullNameLikeExactCount() {
+        List<Transaction> transactions = List.of(beneficiaryTransaction(1L, "Ben Younger"),
+                beneficiaryTransaction(2L, null), beneficiaryTransaction(3L, null));
+        TransactionSummary summary = transactionDataFetcher.summarize(
+                EnumSet.of(Measure.UNIQUE_CLIENTS, Measure.APPROXIMATE_UNIQUE_CLIENTS), transactions);
+        assertEquals(3, transactionDataFetcher.countUniqueClients(transactions));
+        assertEquals(3, transactionDataFetcher.estimateUniqueClients(HyperLogLog.DEFAULT_PRECISION, transactions));
+        assertEquals(3, summary.getUniqueClients());
+        assertEquals(3, summary.getApproximateUniqueClients());
+    }
+
+    @Test
+    void shouldSummarizeEmptyList() {
+        TransactionSummary summary = transactionDataFetcher.summarize(EnumSet.allOf(Measure.class), emptyList());
+        assertEquals(0.0, summary.getTotalAmount());
+        assertEquals(0.0, summary.getMaxAmount());
+        assertEquals(0, summary.getUniqueClients());
+        assertTrue(summary.getTop3Transactions().isEmpty());
+        assertTrue(summary.getTopSender().isEmpty());
+    }
+
+    @Test
+    void shouldRejectReadingMeasureThatWasNotRequested() {
+        List<Transaction> transactions = buildTransaction("test_transactions.json");
+        TransactionSummary summary = transactionDataFetcher.summarize(EnumSet.of(Measure.TOTAL_AMOUNT), transactions);
+        assertEquals(667.8, summary.getTotalAmount());
+        assertThrows(OperationException.class, summary::getTopSender);
+        assertThrows(OperationException.class, () -> transactionDataFetcher.summarize(EnumSet.noneOf(Measure.class), transactions));
+    }
+
+    @Test
+    void shouldCountEachTransferOnceWhenSummarizingNormalizedTransactions() {
+        List<Transaction> transactions = buildTransaction("test_transactions.json");
+        TransactionSummary summary = transactionDataFetcher.summarizeTransfers(EnumSet.allOf(Measure.class),
+                new TransactionNormalizer().normalize(transactions.stream()));
+        assertEquals(117.6, summary.getTotalAmount());
+        assertEquals(67.8, summary.getMaxAmount());
+        assertEquals(4, summary.getUniqueClients());
+        assertEquals(Set.of(1L, 3L, 15L), summary.getUnsolvedIssueIds());
+        assertEquals(List.of("Never gonna give you up"), summary.getSolvedIssueMessages());
+        assertEquals(List.of(5465465L, 1284564L, 663458L),
+                summary.getTop3Transactions().stream().map(Transaction::getMtn).collect(toList()));
+        assertEquals(Optional.of("Aunt Polly"), summary.getTopSender());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"test_transactions.json", ""})
+    void shouldAnswerFromColumnarStoreLikeFromList(final String dataFileName) {
+        List<Transaction> transactions = buildTransaction(dataFileName);
+        TransactionStore store = TransactionStore.of(transactions.stream());
+        assertEquals(transactionDataFetcher.getTotalTransactionAmount(transactions), transactionDataFetcher.getTotalTransactionAmount(store));
+        assertEquals(transactionDataFetcher.getTotalTransactionAmountSentBy(" tom shelby", transactions),
+                transactionDataFetcher.getTotalTransactionAmountSentBy(" tom shelby", store));
+        assertEquals(transactionDataFetcher.getMaxTransactionAmount(transactions), transactionDataFetcher.getMaxTransactionAmount(store));
+        assertEquals(transactionDataFetcher.countUniqueClients(transactions), transactionDataFetcher.countUniqueClients(store));
+        assertEquals(transactionDataFetcher.hasOpenComplianceIssues("Arthur Shelby", transactions),
+                transactionDataFetcher.hasOpenComplianceIssues("Arthur Shelby", store));
+        assertEquals(transactionDataFetcher.hasOpenComplianceIssues("Aberama Gold", transactions),
+                transactionDataFetcher.hasOpenComplianceIssues("Aberama Gold", store));
+        assertEquals(transactionDataFetcher.getTransactionsByBeneficiaryName(transactions),
+                transactionDataFetcher.getTransactionsByBeneficiaryName(store));
+        assertEquals(transactionDataFetcher.getUnsolvedIssueIds(transactions), transactionDataFetcher.getUnsolvedIssueIds(store));
+        assertEquals(transactionDataFetcher.getAllSolvedIssueMessages(transactions), transactionDataFetcher.getAllSolvedIssueMessages(store));
+        assertEquals(transactionDataFetcher.getTop3TransactionsByAmount(transactions), transactionDataFetcher.getTop3TransactionsByAmount(store));
+        assertEquals(transactionDataFetcher.getTopSender(transactions), transactionDataFetcher.getTopSender(store));
+    }
+
+    @Test
+    void shouldAnswerFromOffHeapStoreLikeFromList() {
+        List<Transaction> transactions = buildTransaction("test_transactions.json");
+        OffHeapTransactionStore store = OffHeapTransactionStore.of(transactions.stream());
+        assertEquals(transactionDataFetcher.getTotalTransactionAmount(transactions), transactionDataFetcher.getTotalTransactionAmount(store));
+        assertEquals(transactionDataFetcher.getTotalTransactionAmountSentBy("Tom Shelby", transactions),
+                transactionDataFetcher.getTotalTransactionAmountSentBy("Tom Shelby", store));
+        assertEquals(transactionDataFetcher.hasOpenComplianceIssues("Arthur Shelby", transactions),
+                transactionDataFetcher.hasOpenComplianceIssues("Arthur Shelby", store));
+        assertEquals(transactionDataFetcher.getTransactionsByBeneficiaryName(transactions),
+                transactionDataFetcher.getTransactionsByBeneficiaryName(store));
+        assertEquals(transactionDataFetcher.getUnsolvedIssueIds(transactions), transactionDataFetcher.getUnsolvedIssueIds(store));
+        assertEquals(transactionDataFetcher.getTop3TransactionsByAmount(transactions), transactionDataFetcher.getTop3TransactionsByAmount(store));
+        assertEquals(transactionDataFetcher.getTopSender(transactions), transactionDataFetcher.getTopSender(store));
+    }
+
+    @Test
+    void shouldReturnTopNTransactionsByAmount() {
+        List<Transaction> transactions = buildTransaction("test_transactions.json");
+        List<Transaction> topTransactions = transactionDataFetcher.getTopTransactionsByAmount(100, transactions);
+        assertEquals(List.of(5465465L, 1284564L, 663458L, 96132456L, 1534564L),
+                topTransactions.stream().map(Transaction::getMtn).collect(toList()));
+        assertEquals(topTransactions, transactionDataFetcher.getTopTransactionsByAmount(100, TransactionStore.of(transactions.stream())));
+        assertTrue(transactionDataFetcher.getTopTransactionsByAmount(0, transactions).isEmpty());
+    }
+
+    @Test
+    void shouldReturnTopSendersAndBeneficiaries() {
+        List<Transaction> transactions = buildTransaction("test_transactions.json");
+        TransactionStore store = TransactionStore.of(transactions.stream());
+        List<ClientTotal> topSenders = transactionDataFetcher.getTopSenders(5, transactions);
+        assertEquals(List.of(new ClientTotal("Tom Shelby", 600.0), new ClientTotal("Aunt Polly", 67.8)), topSenders);
+        assertEquals(topSenders, transactionDataFetcher.getTopSenders(5, store));
+
+        List<ClientTotal> topBeneficiaries = transactionDataFetcher.getTopBeneficiaries(1, transactions);
+        assertEquals(List.of(new ClientTotal("Arthur Shelby", 600.0)), topBeneficiaries);
+        assertEquals(topBeneficiaries, transactionDataFetcher.getTopBeneficiaries(1, store));
+    }
+
+    @Test
+    void shouldThrowExceptionOnNegativeTopSize() {
+        assertThrows(OperationException.class, () -> transactionDataFetcher.getTopSenders(-1, emptyList()));
+    }
+
     private List<Transaction> buildTransaction(final String fileName) {
         List<Transaction> transactions = new ArrayList<>();
         try {
@@ -193,4 +382,12 @@ class TransactionDataFetcherTest {
         }
         return transactions;
     }
+
+    private static Transaction beneficiaryTransaction(final long mtn, final String beneficiaryFullName) {
+        return Transaction.Builder.newInstance()
+                .setMtn(mtn)
+                .setSenderFullName("Tom Shelby")
+                .setBeneficiaryFullName(beneficiaryFullName)
+                .build();
+    }
 }
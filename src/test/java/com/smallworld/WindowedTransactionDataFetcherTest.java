@@ -0,0 +1,119 @@
+package com.smallworld;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import com.smallworld.util.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WindowedTransactionDataFetcherTest {
+
+    private static final Instant DAY = Instant.parse("2023-03-01T00:00:00Z");
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    private final WindowedTransactionDataFetcher windowedFetcher = new WindowedTransactionDataFetcher(HOUR);
+
+    @BeforeEach
+    void setUp() {
+        windowedFetcher.appendAll(List.of(
+                transaction(1L, 100.0, "Tom Shelby", DAY.plus(Duration.ofMinutes(10)), null),
+                transaction(2L, 40.0, "Aunt Polly", DAY.plus(Duration.ofMinutes(70)), 5L),
+                transaction(3L, 70.0, "Aunt Polly", DAY.plus(Duration.ofMinutes(80)), null),
+                transaction(4L, 50.0, "Aunt Polly", DAY.plus(Duration.ofHours(5)), null)));
+    }
+
+    @Test
+    void shouldAnswerOnlyFromTransactionsOfWindow() {
+        final Instant to = DAY.plus(Duration.ofHours(2));
+        assertEquals(170.0, windowedFetcher.getTotalTransactionAmount(DAY, to));
+        assertEquals(100.0, windowedFetcher.getMaxTransactionAmount(DAY, to));
+        assertEquals(Set.of(5L), windowedFetcher.getUnsolvedIssueIds(DAY, to));
+        assertEquals(Optional.of("Aunt Polly"), windowedFetcher.getTopSender(DAY.plus(HOUR), DAY.plus(Duration.ofDays(1))));
+        assertEquals(Optional.of("Tom Shelby"), windowedFetcher.getTopSender(DAY, DAY.plus(HOUR)));
+        assertEquals(0.0, windowedFetcher.getTotalTransactionAmount(DAY.minus(HOUR), DAY));
+    }
+
+    @Test
+    void shouldRejectWindowBoundsBetweenBuckets() {
+        assertThrows(OperationException.class,
+                () -> windowedFetcher.getTotalTransactionAmount(DAY.plus(Duration.ofMinutes(30)), DAY.plus(HOUR)));
+        assertThrows(OperationException.class,
+                () -> windowedFetcher.summarize(DAY, DAY.plus(HOUR).plusNanos(1)));
+        assertThrows(OperationException.class, () -> windowedFetcher.getTumblingWindows(
+                DAY.plus(Duration.ofMinutes(30)), DAY.plus(Duration.ofMinutes(270)), Duration.ofHours(2)));
+    }
+
+    @Test
+    void shouldCoverRangeExactlyWithTumblingWindows() {
+        final Instant from = DAY.plus(HOUR);
+        final Instant to = DAY.plus(Duration.ofHours(6));
+        final List<WindowedTransactionDataFetcher.Window> tumbling = windowedFetcher.getTumblingWindows(from, to,
+                Duration.ofHours(2));
+
+        assertEquals(to, tumbling.get(tumbling.size() - 1).getEnd());
+        assertEquals(windowedFetcher.getTotalTransactionAmount(from, to),
+                tumbling.stream().mapToDouble(window -> window.getSummary().getTotalAmount()).sum());
+    }
+
+    @Test
+    void shouldSplitRangeIntoTumblingAndSlidingWindows() {
+        final List<WindowedTransactionDataFetcher.Window> tumbling = windowedFetcher.getTumblingWindows(DAY,
+                DAY.plus(Duration.ofHours(6)), Duration.ofHours(2));
+        assertEquals(List.of(170.0, 0.0, 50.0),
+                tumbling.stream().map(window -> window.getSummary().getTotalAmount()).collect(toList()));
+        assertEquals(DAY.plus(Duration.ofHours(2)), tumbling.get(1).getStart());
+
+        final List<WindowedTransactionDataFetcher.Window> sliding = windowedFetcher.getSlidingWindows(DAY,
+                DAY.plus(Duration.ofHours(3)), Duration.ofHours(2), HOUR);
+        assertEquals(List.of(170.0, 70.0, 0.0),
+                sliding.stream().map(window -> window.getSummary().getTotalAmount()).collect(toList()));
+    }
+
+    @Test
+    void shouldReadTimestampFromJson() throws ParseException {
+        final Transaction[] transactions = new JsonParser().toObject(
+                "[{\"mtn\": 9, \"amount\": 20.5, \"senderFullName\": \"Tom Shelby\", \"issueSolved\": true,"
+                        + " \"timestamp\": " + DAY.toEpochMilli() + "}]", Transaction[].class);
+        windowedFetcher.appendAll(Arrays.asList(transactions));
+
+        assertEquals(DAY.toEpochMilli(), transactions[0].getTimestamp());
+        assertEquals(120.5, windowedFetcher.getTotalTransactionAmount(DAY, DAY.plus(HOUR)));
+    }
+
+    @Test
+    void shouldRejectTransactionWithoutTimestampAndUnalignedWindows() {
+        assertThrows(OperationException.class, () -> windowedFetcher.append(Transaction.Builder.newInstance().setMtn(1L).build()));
+        assertThrows(OperationException.class, () -> windowedFetcher.getTumblingWindows(DAY, DAY.plus(HOUR), Duration.ofMinutes(90)));
+        assertThrows(OperationException.class, () -> windowedFetcher.summarize(DAY.plus(HOUR), DAY));
+        assertTrue(windowedFetcher.getSlidingWindows(DAY, DAY, HOUR, HOUR).isEmpty());
+    }
+
+    private static Transaction transaction(final long mtn,
+                                           final double amount,
+                                           final String senderFullName,
+                                           final Instant timestamp,
+                                           final Long openIssueId) {
+        return Transaction.Builder.newInstance()
+                .setMtn(mtn)
+                .setAmount(amount)
+                .setSenderFullName(senderFullName)
+                .setBeneficiaryFullName("Arthur Shelby")
+                .setIssueId(openIssueId)
+                .setIssueSolved(openIssueId == null)
+                .setTimestamp(timestamp.toEpochMilli())
+                .build();
+    }
+}
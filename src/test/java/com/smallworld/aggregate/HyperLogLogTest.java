@@ -0,0 +1,70 @@
+package com.smallworld.aggregate;
+
+import com.smallworld.exception.OperationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    @Test
+    void shouldCountSmallCardinalitiesExactly() {
+        final HyperLogLog sketch = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (int client = 0; client < 20; client++) {
+                sketch.add("client " + client);
+            }
+        }
+
+        assertEquals(20, sketch.estimate());
+    }
+
+    @Test
+    void shouldCountNullAsOneValue() {
+        final HyperLogLog sketch = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+        sketch.add(null);
+        sketch.add(null);
+        sketch.add("");
+
+        assertEquals(2, sketch.estimate());
+    }
+
+    @Test
+    void shouldEstimateWithinErrorBound() {
+        final int precision = 12;
+        final int distinct = 500_000;
+        final HyperLogLog sketch = new HyperLogLog(precision);
+        for (int client = 0; client < distinct; client++) {
+            sketch.add("client " + client);
+        }
+
+        final double relativeError = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+        assertTrue(relativeError < 3 * HyperLogLog.relativeStandardError(precision), "relative error " + relativeError);
+    }
+
+    @Test
+    void shouldMergeLikeSingleSketch() {
+        final HyperLogLog january = new HyperLogLog(10);
+        final HyperLogLog february = new HyperLogLog(10);
+        final HyperLogLog both = new HyperLogLog(10);
+        for (int client = 0; client < 30_000; client++) {
+            (client < 20_000 ? january : february).add("client " + client);
+            both.add("client " + client);
+        }
+        for (int client = 10_000; client < 15_000; client++) {
+            february.add("client " + client);
+        }
+
+        assertEquals(both.estimate(), january.merge(february).estimate());
+        assertEquals(both.estimate(), HyperLogLog.fromByteArray(both.toByteArray()).estimate());
+    }
+
+    @Test
+    void shouldRejectInvalidPrecision() {
+        assertThrows(OperationException.class, () -> new HyperLogLog(3));
+        assertThrows(OperationException.class, () -> new HyperLogLog(19));
+        assertThrows(OperationException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(11)));
+    }
+}
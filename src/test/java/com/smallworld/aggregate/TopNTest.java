@@ -0,0 +1,73 @@
+package com.smallworld.aggregate;
+
+import com.smallworld.exception.OperationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopNTest {
+
+    @Test
+    void shouldKeepBestValuesLikeSortingEverything() {
+        final List<Integer> values = IntStream.range(0, 10_000)
+                .map(value -> (value * 7919) % 1000)
+                .boxed()
+                .collect(toList());
+        final TopN<Integer> topN = new TopN<>(100, Comparator.<Integer>reverseOrder());
+        values.forEach(topN::offer);
+
+        assertEquals(values.stream().sorted(Comparator.reverseOrder()).limit(100).collect(toList()), topN.toList());
+    }
+
+    @Test
+    void shouldReplaceRetainedValueInPlace() {
+        final TopN<String> topN = new TopN<>(2, Comparator.comparingInt(String::length), value -> value.charAt(0));
+        final String first = "a1";
+        topN.offer(first);
+        topN.offer("b1");
+
+        assertTrue(topN.replace(first, "a2"));
+        assertFalse(topN.replace("c1", "c2"));
+        assertEquals(List.of("a2", "b1"), topN.toList());
+        assertFalse(topN.offer("a3"));
+    }
+
+    @Test
+    void shouldKeepEncounterOrderOnTies() {
+        final TopN<String> topN = new TopN<>(2, Comparator.comparingInt(String::length));
+        topN.offer("bb");
+        topN.offer("a1");
+        topN.offer("a2");
+        topN.offer("a3");
+
+        assertEquals(List.of("bb", "a1"), topN.toList());
+        assertEquals("a1", topN.peekWorst());
+    }
+
+    @Test
+    void shouldKeepFirstValueOfEachKey() {
+        final TopN<String> topN = new TopN<>(3, Comparator.comparingInt(String::length).reversed(), value -> value.charAt(0));
+        assertTrue(topN.offer("aaa"));
+        assertFalse(topN.offer("abc"));
+        assertTrue(topN.offer("bb"));
+
+        assertEquals(List.of("aaa", "bb"), topN.toList());
+        assertFalse(topN.isFull());
+    }
+
+    @Test
+    void shouldHandleZeroAndRejectNegativeSize() {
+        final TopN<Integer> topN = new TopN<>(0, Comparator.naturalOrder());
+        assertFalse(topN.offer(1));
+        assertTrue(topN.toList().isEmpty());
+        assertThrows(OperationException.class, () -> new TopN<Integer>(-1, Comparator.naturalOrder()));
+    }
+}
@@ -0,0 +1,28 @@
+package com.smallworld.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClientTotalTest {
+
+    @Test
+    void shouldRankMissingNameLastOnTies() {
+        final List<ClientTotal> totals = new ArrayList<>(List.of(
+                new ClientTotal(null, 10.0),
+                new ClientTotal("Tom Shelby", 10.0),
+                new ClientTotal("Arthur Shelby", 10.0),
+                new ClientTotal(null, 20.0)));
+
+        totals.sort(ClientTotal.BY_TOTAL_AMOUNT_DESCENDING);
+
+        assertEquals(List.of(
+                new ClientTotal(null, 20.0),
+                new ClientTotal("Arthur Shelby", 10.0),
+                new ClientTotal("Tom Shelby", 10.0),
+                new ClientTotal(null, 10.0)), totals);
+    }
+}
@@ -0,0 +1,89 @@
+package com.smallworld.data;
+
+import com.smallworld.aggregate.Measure;
+import com.smallworld.aggregate.TransactionAggregator;
+import com.smallworld.exception.OperationException;
+import com.smallworld.util.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MinorUnitsTest {
+
+    @Test
+    void shouldKeepEveryDigitOfJsonAmounts() throws ParseException {
+        final Transaction[] transactions = new JsonParser().toObject(
+                "[{\"mtn\": 1, \"amount\": 12.345}, {\"mtn\": 2, \"amount\": 7}, {\"mtn\": 3, \"amount\": 0.1}]",
+                Transaction[].class);
+
+        assertEquals(12345, transactions[0].getAmountMinorUnits());
+        assertEquals(3, transactions[0].getAmountScale());
+        assertEquals(12.345, transactions[0].getAmount());
+        assertEquals(700, transactions[1].getAmountMinorUnits());
+        assertEquals(MinorUnits.DEFAULT_SCALE, transactions[1].getAmountScale());
+        assertEquals(100_000, transactions[2].getAmountMicros());
+    }
+
+    @Test
+    void shouldRoundDoublesToBuilderScale() {
+        assertEquals(1000, Transaction.Builder.newInstance().setAmount(10.005).build().getAmountMinorUnits());
+        assertEquals(1002, Transaction.Builder.newInstance().setAmount(10.015).build().getAmountMinorUnits());
+        assertEquals(10, Transaction.Builder.newInstance().setAmountScale(0).setAmount(10.5).build().getAmountMinorUnits());
+        assertEquals(55_020, Transaction.Builder.newInstance().setAmount(550.2).build().getAmountMinorUnits());
+
+        final Transaction exact = Transaction.Builder.newInstance().setAmount(1_999, 3).build();
+        assertEquals(1.999, exact.getAmount());
+        assertEquals(1_999_000, exact.getAmountMicros());
+        assertEquals(new BigDecimal("1.999"), MinorUnits.toBigDecimal(exact.getAmountMinorUnits(), exact.getAmountScale()));
+    }
+
+    @Test
+    void shouldRejectInvalidAmounts() {
+        assertThrows(OperationException.class, () -> MinorUnits.of(new BigDecimal("0.1234567"), 6));
+        assertThrows(OperationException.class, () -> MinorUnits.of(Double.NaN, 2));
+        assertThrows(OperationException.class, () -> MinorUnits.of(1e30, 2));
+        assertThrows(OperationException.class, () -> Transaction.Builder.newInstance().setAmount(1, 7));
+        assertThrows(ArithmeticException.class, () -> MinorUnits.toMicros(Long.MAX_VALUE / 10, 0));
+    }
+
+    @Test
+    void shouldSumToSameValueInAnyOrder() {
+        final Random random = new Random(7);
+        final List<Transaction> transactions = new ArrayList<>();
+        for (int index = 0; index < 10_000; index++) {
+            transactions.add(Transaction.Builder.newInstance()
+                    .setMtn((long) index)
+                    .setAmount(random.nextInt(1_000_000), random.nextInt(MinorUnits.MICROS_SCALE + 1))
+                    .setSenderFullName("Client " + random.nextInt(10))
+                    .build());
+        }
+        final Set<Measure> measures = EnumSet.of(Measure.TOTAL_AMOUNT, Measure.TOP_SENDER);
+        final TransactionAggregator sequential = new TransactionAggregator(measures);
+        transactions.forEach(sequential);
+
+        for (final int parts : new int[]{2, 7, 64}) {
+            Collections.shuffle(transactions, random);
+            TransactionAggregator combined = new TransactionAggregator(measures);
+            for (int part = parts - 1; part >= 0; part--) {
+                final TransactionAggregator partial = new TransactionAggregator(measures);
+                transactions.subList(part * transactions.size() / parts, (part + 1) * transactions.size() / parts)
+                        .forEach(partial);
+                combined = partial.combine(combined);
+            }
+
+            assertEquals(sequential.toState().getTotalAmountMicros(), combined.toState().getTotalAmountMicros());
+            assertEquals(sequential.toState().getSenderTotalMicros(), combined.toState().getSenderTotalMicros());
+            assertEquals(sequential.summarize().getTotalAmount(), combined.summarize().getTotalAmount());
+        }
+    }
+}
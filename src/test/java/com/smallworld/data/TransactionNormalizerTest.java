@@ -0,0 +1,80 @@
+package com.smallworld.data;
+
+import com.smallworld.exception.OperationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionNormalizerTest {
+
+    private final TransactionNormalizer transactionNormalizer = new TransactionNormalizer();
+
+    @Test
+    void shouldFoldIssueRowsIntoOneTransaction() {
+        final List<NormalizedTransaction> transactions = transactionNormalizer.normalize(List.of(
+                row(1L, 2L, true, "Never gonna give you up"),
+                row(1L, 3L, false, "Looks like money laundering"),
+                row(2L, null, true, null)));
+
+        assertEquals(2, transactions.size());
+        assertEquals(1L, transactions.get(0).getMtn());
+        assertEquals(2, transactions.get(0).getIssues().size());
+        assertEquals(3L, transactions.get(0).getIssues().get(1).getIssueId());
+        assertFalse(transactions.get(0).isIssueSolved());
+        assertTrue(transactions.get(1).getIssues().isEmpty());
+        assertTrue(transactions.get(1).isIssueSolved());
+    }
+
+    @Test
+    void shouldDropRepeatedRows() {
+        final List<NormalizedTransaction> transactions = transactionNormalizer.normalize(Stream.of(
+                row(1L, 2L, true, "Never gonna give you up"),
+                row(1L, 2L, true, "Never gonna give you up"),
+                row(1L, 2L, true, "Never gonna let you down")))
+                .collect(toList());
+
+        assertEquals(1, transactions.size());
+        assertEquals(2, transactions.get(0).getIssues().size());
+        assertTrue(transactions.get(0).isIssueSolved());
+    }
+
+    @Test
+    void shouldStartNewTransactionWhenRowsAreNotContiguous() {
+        final List<NormalizedTransaction> transactions = transactionNormalizer.normalize(List.of(
+                row(1L, 2L, true, null),
+                row(2L, null, true, null),
+                row(1L, 3L, false, null)));
+
+        assertEquals(List.of(1L, 2L, 1L), transactions.stream().map(NormalizedTransaction::getMtn).collect(toList()));
+        assertFalse(transactions.get(2).isIssueSolved());
+    }
+
+    @Test
+    void shouldRejectRowsOfTransactionThatAreNotContiguous() {
+        final Stream<NormalizedTransaction> transactions = new TransactionNormalizer(true).normalize(Stream.of(
+                row(1L, 2L, true, null),
+                row(2L, null, true, null),
+                row(1L, 3L, false, null)));
+
+        assertThrows(OperationException.class, transactions::count);
+    }
+
+    private static Transaction row(final Long mtn, final Long issueId, final boolean issueSolved, final String issueMessage) {
+        return Transaction.Builder.newInstance()
+                .setMtn(mtn)
+                .setAmount(10.0)
+                .setSenderFullName("Tom Shelby")
+                .setBeneficiaryFullName("Arthur Shelby")
+                .setIssueId(issueId)
+                .setIssueSolved(issueSolved)
+                .setIssueMessage(issueMessage)
+                .build();
+    }
+}
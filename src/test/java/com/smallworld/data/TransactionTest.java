@@ -1,7 +1,10 @@
 package com.smallworld.data;
 
+import com.smallworld.util.JsonParser;
 import org.junit.jupiter.api.Test;
 
+import java.text.ParseException;
+
 import static com.smallworld.constant.TestConstant.amount;
 import static com.smallworld.constant.TestConstant.beneficiaryAge;
 import static com.smallworld.constant.TestConstant.beneficiaryFullName;
@@ -63,4 +66,24 @@ class TransactionTest {
         assertNull(transaction.getIssueMessage());
         assertTrue(transaction.isIssueSolved());
     }
+
+    @Test
+    void shouldRoundDoubleAmountsHalfEvenToTwoDecimals() {
+        assertEquals(10.13, Transaction.Builder.newInstance().setAmount(10.129).build().getAmount());
+        assertEquals(0.12, Transaction.Builder.newInstance().setAmount(0.125).build().getAmount());
+        assertEquals(0.14, Transaction.Builder.newInstance().setAmount(0.135).build().getAmount());
+        assertEquals(2, Transaction.Builder.newInstance().setAmount(0.125).build().getAmountScale());
+    }
+
+    @Test
+    void shouldRoundJsonAmountsHalfEvenBeyondSixDecimals() throws ParseException {
+        final Transaction[] transactions = new JsonParser().toObject(
+                "[{\"amount\": 0.1234565}, {\"amount\": 0.1234575}, {\"amount\": 1.00000049}]", Transaction[].class);
+
+        assertEquals(123_456, transactions[0].getAmountMinorUnits());
+        assertEquals(6, transactions[0].getAmountScale());
+        assertEquals(0.123458, transactions[1].getAmount());
+        assertEquals(100, transactions[2].getAmountMinorUnits());
+        assertEquals(2, transactions[2].getAmountScale());
+    }
 }
@@ -0,0 +1,86 @@
+package com.smallworld.kernel;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColumnKernelsTest {
+
+    private final ColumnKernels scalar = ColumnKernels.scalar();
+    /**
+     * The vector kernels when the tests run with the <code>vector</code> profile, the scalar ones otherwise
+     */
+    private final ColumnKernels best = ColumnKernels.get();
+
+    @Test
+    void shouldAggregateMaskedRows() {
+        final long[] values = {500, 150, 900, 200, 700};
+        final boolean[] mask = {true, true, false, true, false};
+        final int[] keys = {20, 35, 40, 18, 35};
+
+        for (final ColumnKernels kernels : new ColumnKernels[]{scalar, best}) {
+            assertEquals(850, kernels.sum(values, mask, 5));
+            assertEquals(500, kernels.max(values, mask, 5));
+            assertEquals(3, kernels.count(mask, 5));
+            assertEquals(2, kernels.countInRange(mask, keys, 19, 35, 5));
+            assertEquals(650, kernels.sumInRange(values, mask, keys, 19, 35, 5));
+            assertArrayEquals(new long[]{2, 0, 1}, kernels.histogram(mask, keys, 15, 10, 3, 5));
+            assertEquals(Long.MIN_VALUE, kernels.max(values, mask, 0));
+            assertEquals(2, kernels.count(mask, 2));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 7, 63, 64, 1000, 4099})
+    void shouldMatchScalarKernels(final int length) {
+        final Random random = new Random(length);
+        final long[] values = new long[length + 5];
+        final boolean[] mask = new boolean[length + 5];
+        final int[] keys = new int[length + 5];
+        for (int row = 0; row < values.length; row++) {
+            values[row] = random.nextInt(1_000_000_000) - 100_000_000L;
+            mask[row] = random.nextInt(3) > 0;
+            keys[row] = 10 + random.nextInt(80);
+        }
+
+        assertEquals(scalar.sum(values, mask, length), best.sum(values, mask, length));
+        assertEquals(scalar.sumInRange(values, mask, keys, 25, 40, length),
+                best.sumInRange(values, mask, keys, 25, 40, length));
+        assertEquals(scalar.max(values, mask, length), best.max(values, mask, length));
+        assertEquals(scalar.count(mask, length), best.count(mask, length));
+        assertEquals(scalar.countInRange(mask, keys, 25, 40, length), best.countInRange(mask, keys, 25, 40, length));
+        assertArrayEquals(scalar.histogram(mask, keys, 18, 7, 8, length), best.histogram(mask, keys, 18, 7, 8, length));
+        assertArrayEquals(scalar.histogram(mask, keys, 0, 3, 40, length), best.histogram(mask, keys, 0, 3, 40, length));
+    }
+
+    @Test
+    void shouldFailOnSumOverflow() {
+        final long[] values = new long[64];
+        final boolean[] mask = new boolean[64];
+        final int[] keys = new int[64];
+        Arrays.fill(values, Long.MAX_VALUE / 8);
+        Arrays.fill(mask, true);
+
+        for (final ColumnKernels kernels : new ColumnKernels[]{scalar, best}) {
+            assertThrows(ArithmeticException.class, () -> kernels.sum(values, mask, 64));
+            assertThrows(ArithmeticException.class, () -> kernels.sumInRange(values, mask, keys, 0, 0, 64));
+            assertEquals(Long.MAX_VALUE / 8 * 4, kernels.sum(values, mask, 4));
+        }
+    }
+
+    @Test
+    void shouldNotOverflowLastBuckets() {
+        final boolean[] mask = {true, true, true, true};
+        final int[] keys = {Integer.MAX_VALUE, Integer.MAX_VALUE - 1, 0, Integer.MIN_VALUE};
+
+        assertArrayEquals(new long[]{0, 2, 0}, scalar.histogram(mask, keys, Integer.MAX_VALUE - 3, 2, 3, 4));
+        assertArrayEquals(new long[]{0, 2, 0}, best.histogram(mask, keys, Integer.MAX_VALUE - 3, 2, 3, 4));
+    }
+}
@@ -0,0 +1,92 @@
+package com.smallworld.kernel;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import com.smallworld.store.TransactionStore;
+import com.smallworld.util.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionColumnsTest {
+
+    private List<Transaction> transactions;
+    private TransactionColumns columns;
+
+    @BeforeEach
+    void setUp() throws IOException, ParseException {
+        final String json = Files.readString(Path.of("src/test/resources/test_transactions.json"));
+        transactions = Arrays.asList(new JsonParser().toObject(json, Transaction[].class));
+        columns = TransactionColumns.of(TransactionStore.of(transactions.stream()));
+    }
+
+    @Test
+    void shouldReportSuccessfulTransactions() {
+        assertEquals(transactions.size(), columns.size());
+        assertEquals(transactions.stream().filter(Transaction::isIssueSolved).mapToDouble(Transaction::getAmount).sum(),
+                columns.getTotalAmount(), 1e-9);
+        assertEquals(transactions.stream().filter(Transaction::isIssueSolved).mapToDouble(Transaction::getAmount).max().orElse(0),
+                columns.getMaxAmount());
+        assertEquals(transactions.stream().filter(Transaction::isIssueSolved).count(), columns.countSolved());
+        assertEquals(0, TransactionColumns.of(List.of()).getMaxAmount());
+    }
+
+    @Test
+    void shouldReportBySenderAge() {
+        assertEquals(transactions.stream()
+                        .filter(transaction -> transaction.isIssueSolved() && transaction.getSenderAge() <= 29)
+                        .count(),
+                columns.countSentByAgedBetween(18, 29));
+        assertEquals(transactions.stream()
+                        .filter(transaction -> transaction.isIssueSolved() && transaction.getSenderAge() >= 30)
+                        .mapToDouble(Transaction::getAmount)
+                        .sum(),
+                columns.getTotalAmountSentByAgedBetween(30, 200), 1e-9);
+
+        final long[] histogram = new long[10];
+        transactions.stream()
+                .filter(Transaction::isIssueSolved)
+                .forEach(transaction -> histogram[transaction.getSenderAge() / 10]++);
+        assertArrayEquals(histogram, columns.getSenderAgeHistogram(0, 10, 10));
+    }
+
+    @Test
+    void shouldGiveSameReportsWithEveryKernel() {
+        final TransactionColumns scalar = TransactionColumns.of(transactions).using(ColumnKernels.scalar());
+
+        assertEquals(scalar.getTotalAmount(), columns.getTotalAmount());
+        assertEquals(scalar.getMaxAmount(), columns.getMaxAmount());
+        assertEquals(scalar.countSentByAgedBetween(20, 40), columns.countSentByAgedBetween(20, 40));
+        assertArrayEquals(scalar.getSenderAgeHistogram(20, 5, 8), columns.getSenderAgeHistogram(20, 5, 8));
+    }
+
+    @Test
+    void shouldSumAmountsExactly() {
+        final TransactionColumns tenths = TransactionColumns.of(IntStream.range(0, 10)
+                .mapToObj(row -> Transaction.Builder.newInstance().setMtn((long) row).setAmount(0.1).build())
+                .collect(toList()));
+
+        assertEquals(1.0, tenths.getTotalAmount());
+        assertEquals(1.0, tenths.using(ColumnKernels.scalar()).getTotalAmount());
+    }
+
+    @Test
+    void shouldRejectInvalidRanges() {
+        assertThrows(OperationException.class, () -> columns.countSentByAgedBetween(40, 20));
+        assertThrows(OperationException.class, () -> columns.getTotalAmountSentByAgedBetween(40, 20));
+        assertThrows(OperationException.class, () -> columns.getSenderAgeHistogram(0, 0, 5));
+        assertThrows(OperationException.class, () -> columns.getSenderAgeHistogram(0, 10, 0));
+    }
+}
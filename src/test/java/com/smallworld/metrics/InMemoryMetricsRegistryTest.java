@@ -0,0 +1,53 @@
+package com.smallworld.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryMetricsRegistryTest {
+
+    @Test
+    void shouldDumpCountersAndHistogramsInPrometheusFormat() {
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        registry.increment("fetcher.getTopSender.rows", 7);
+        registry.recordNanos("fetcher.getTopSender", 2_000);
+        registry.recordNanos("fetcher.getTopSender", 3_000_000_000L);
+
+        final String text = registry.toPrometheus();
+
+        assertTrue(text.contains("# TYPE fetcher_getTopSender_rows_total counter\nfetcher_getTopSender_rows_total 7\n"), text);
+        assertTrue(text.contains("fetcher_getTopSender_seconds_bucket{le=\"1.0E-6\"} 0\n"), text);
+        assertTrue(text.contains("fetcher_getTopSender_seconds_bucket{le=\"2.5E-6\"} 1\n"), text);
+        assertTrue(text.contains("fetcher_getTopSender_seconds_bucket{le=\"5.0\"} 2\n"), text);
+        assertTrue(text.contains("fetcher_getTopSender_seconds_bucket{le=\"+Inf\"} 2\n"), text);
+        assertTrue(text.contains("fetcher_getTopSender_seconds_count 2\n"), text);
+    }
+
+    @Test
+    void shouldDumpAsJson() throws ParseException {
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        registry.increment("json.toObject.chars", 12);
+        registry.recordNanos("json.toObject", 500);
+
+        final String json = registry.toJson();
+
+        assertTrue(json.startsWith("{\"counters\":{\"json.toObject.chars\":12},\"timers\":{\"json.toObject\":{\"count\":1,\"sumNanos\":500,"), json);
+        assertTrue(json.contains("\"buckets\":{\"1000\":1,"), json);
+    }
+
+    @Test
+    void shouldRecordOnlyOutermostInstrumentedCall() {
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry(true);
+        final int result = Instrumentation.time(registry, "outer", 3,
+                () -> Instrumentation.time(registry, "inner", 3, () -> new int[64].length));
+
+        assertEquals(64, result);
+        assertEquals(1, registry.getTimerCount("outer"));
+        assertEquals(0, registry.getTimerCount("inner"));
+        assertEquals(3, registry.getCounter("outer.rows"));
+        assertTrue(registry.getCounter("outer.allocated_bytes") >= 0);
+    }
+}
@@ -0,0 +1,183 @@
+package com.smallworld.query;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import com.smallworld.store.IssueMessageIndex;
+import com.smallworld.store.TransactionStore;
+import com.smallworld.util.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static com.smallworld.query.Filter.and;
+import static com.smallworld.query.Filter.greaterThan;
+import static com.smallworld.query.Filter.isSolved;
+import static com.smallworld.query.Filter.lessThan;
+import static com.smallworld.query.Filter.messageContains;
+import static com.smallworld.query.Filter.nameIs;
+import static com.smallworld.query.Filter.not;
+import static com.smallworld.query.Filter.or;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryTest {
+
+    private List<Transaction> transactions;
+    private TransactionStore store;
+
+    @BeforeEach
+    void setUp() throws IOException, ParseException {
+        final String json = Files.readString(Path.of("src/test/resources/test_transactions.json"));
+        transactions = Arrays.asList(new JsonParser().toObject(json, Transaction[].class));
+        store = TransactionStore.of(transactions.stream());
+    }
+
+    @Test
+    void shouldAggregateFilteredTransactions() {
+        final Query query = Query.Builder.newInstance()
+                .where(and(isSolved(), greaterThan(Field.AMOUNT, 500), lessThan(Field.SENDER_AGE, 25)))
+                .select(Aggregate.count(), Aggregate.sum(Field.AMOUNT), Aggregate.max(Field.AMOUNT),
+                        Aggregate.countDistinct(Field.MTN))
+                .build();
+        final Predicate<Transaction> expected = transaction -> transaction.isIssueSolved()
+                && transaction.getAmount() > 500 && transaction.getSenderAge() < 25;
+
+        final QueryResult.Group group = query.execute(store).getGroups().get(0);
+        assertEquals(List.of(), group.getKey());
+        assertEquals(transactions.stream().filter(expected).count(), group.getValue(0));
+        assertEquals(transactions.stream().filter(expected).mapToDouble(Transaction::getAmount).sum(), group.getValue(1), 1e-9);
+        assertEquals(transactions.stream().filter(expected).mapToDouble(Transaction::getAmount).max().orElse(0), group.getValue(2));
+        assertEquals(transactions.stream().filter(expected).map(Transaction::getMtn).distinct().count(), group.getValue(3));
+    }
+
+    @Test
+    void shouldGroupInFirstSeenOrder() {
+        final Query query = Query.Builder.newInstance()
+                .groupBy(Field.SENDER_FULL_NAME)
+                .select(Aggregate.sum(Field.AMOUNT), Aggregate.average(Field.ISSUE_ID))
+                .build();
+        final Map<String, Double> expected = new LinkedHashMap<>();
+        transactions.forEach(transaction ->
+                expected.merge(transaction.getSenderFullName(), transaction.getAmount(), Double::sum));
+
+        final List<QueryResult.Group> groups = query.execute(store).getGroups();
+        assertEquals(expected.size(), groups.size());
+        int index = 0;
+        for (final Map.Entry<String, Double> entry : expected.entrySet()) {
+            assertEquals(List.of(entry.getKey()), groups.get(index).getKey());
+            assertEquals(entry.getValue(), groups.get(index).getValue(0), 1e-9);
+            index++;
+        }
+    }
+
+    @Test
+    void shouldGiveSameResultsOnListsAndTables() {
+        final Query query = Query.Builder.newInstance()
+                .where(or(nameIs(Field.SENDER_FULL_NAME, " tom SHELBY "), not(isSolved())))
+                .groupBy(Field.BENEFICIARY_FULL_NAME, Field.ISSUE_SOLVED)
+                .select(Aggregate.count(), Aggregate.min(Field.AMOUNT), Aggregate.countDistinct(Field.ISSUE_ID))
+                .build();
+
+        assertEquals(query.execute(transactions).getGroups().toString(), query.execute(store).getGroups().toString());
+    }
+
+    @Test
+    void shouldNarrowScanThroughIndexes() {
+        final Query query = Query.Builder.newInstance()
+                .where(and(isSolved(), messageContains("never gonna")))
+                .select(Aggregate.count())
+                .build();
+        final long expected = transactions.stream()
+                .filter(transaction -> transaction.isIssueSolved() && transaction.getIssueMessage() != null
+                        && transaction.getIssueMessage().toLowerCase().contains("never gonna"))
+                .count();
+
+        final QueryResult indexed = query.execute(store, IssueMessageIndex.of(store));
+        assertEquals(expected, indexed.getGroups().get(0).getValue(0));
+        assertEquals(transactions.stream()
+                .filter(transaction -> transaction.getIssueMessage() != null
+                        && transaction.getIssueMessage().toLowerCase().contains("never gonna"))
+                .count(), indexed.getScannedRows());
+        assertEquals(expected, query.execute(store).getGroups().get(0).getValue(0));
+        assertEquals(store.size(), query.execute(transactions).getScannedRows());
+
+        final QueryResult byName = Query.Builder.newInstance()
+                .where(nameIs(Field.SENDER_FULL_NAME, "Tom Shelby"))
+                .select(Aggregate.count())
+                .build()
+                .execute(store);
+        assertEquals(byName.getScannedRows(), byName.getGroups().get(0).getValue(0));
+    }
+
+    @Test
+    void shouldMatchNamesExactlyWhenNarrowingByClient() {
+        final List<Transaction> spellings = List.of(senderTransaction(1L, " Tom Shelby"),
+                senderTransaction(2L, "tom shelby"), senderTransaction(3L, "Tom Shelby"));
+        final TransactionStore spellingStore = TransactionStore.of(spellings.stream());
+
+        for (final String name : List.of(" Tom Shelby", "Tom Shelby")) {
+            final Query query = Query.Builder.newInstance()
+                    .where(Filter.equalTo(Field.SENDER_FULL_NAME, name))
+                    .select(Aggregate.count())
+                    .build();
+            assertEquals(1L, query.execute(spellings).getGroups().get(0).getValue(0));
+            assertEquals(1L, query.execute(spellingStore).getGroups().get(0).getValue(0));
+        }
+    }
+
+    @Test
+    void shouldCompareIdsAsLongs() {
+        final long mtn = 1L << 53;
+        final List<Transaction> neighbours = List.of(senderTransaction(mtn, "Tom Shelby"),
+                senderTransaction(mtn + 1, "Tom Shelby"));
+        final TransactionStore neighbourStore = TransactionStore.of(neighbours.stream());
+
+        for (final Filter filter : List.of(Filter.equalTo(Field.MTN, mtn + 1), greaterThan(Field.MTN, mtn),
+                Filter.between(Field.MTN, mtn + 1, mtn + 1))) {
+            final Query query = Query.Builder.newInstance().where(filter).select(Aggregate.count()).build();
+            assertEquals(1L, query.execute(neighbours).getGroups().get(0).getValue(0));
+            assertEquals(1L, query.execute(neighbourStore).getGroups().get(0).getValue(0));
+        }
+    }
+
+    @Test
+    void shouldAggregateAmountsExactly() {
+        final List<Transaction> tenths = new ArrayList<>();
+        for (long mtn = 0; mtn < 10; mtn++) {
+            tenths.add(Transaction.Builder.newInstance().setMtn(mtn).setAmount(0.1).build());
+        }
+        final Query query = Query.Builder.newInstance()
+                .select(Aggregate.sum(Field.AMOUNT), Aggregate.average(Field.AMOUNT), Aggregate.max(Field.AMOUNT))
+                .build();
+
+        for (final QueryResult result : List.of(query.execute(tenths), query.execute(TransactionStore.of(tenths.stream())))) {
+            assertEquals(1.0, result.getGroups().get(0).getValue(0));
+            assertEquals(0.1, result.getGroups().get(0).getValue(1));
+            assertEquals(0.1, result.getGroups().get(0).getValue(2));
+        }
+    }
+
+    @Test
+    void shouldRejectQueryWithoutAggregates() {
+        assertThrows(OperationException.class, () -> Query.Builder.newInstance().build());
+        assertThrows(OperationException.class, () -> Aggregate.sum(Field.SENDER_FULL_NAME));
+    }
+
+    private static Transaction senderTransaction(final long mtn, final String senderFullName) {
+        return Transaction.Builder.newInstance()
+                .setMtn(mtn)
+                .setSenderFullName(senderFullName)
+                .setBeneficiaryFullName("Arthur Shelby")
+                .build();
+    }
+}
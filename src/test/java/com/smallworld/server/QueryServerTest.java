@@ -0,0 +1,109 @@
+package com.smallworld.server;
+
+import com.smallworld.ConcurrentTransactionDataFetcher;
+import com.smallworld.data.Transaction;
+import com.smallworld.util.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class QueryServerTest {
+
+    private final JsonParser jsonParser = new JsonParser();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private QueryServer server;
+
+    @BeforeEach
+    void setUp() throws IOException, ParseException {
+        final String json = Files.readString(Path.of("src/test/resources/test_transactions.json"));
+        final List<Transaction> transactions = Arrays.asList(jsonParser.toObject(json, Transaction[].class));
+        server = QueryServer.start(new ConcurrentTransactionDataFetcher().appendAll(transactions),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void shouldAnswerBatchInOrder() throws Exception {
+        final HttpResponse<String> response = post(jsonParser.toString(List.of(
+                new BatchQuery(BatchQuery.Type.HAS_OPEN_COMPLIANCE_ISSUES, "Tom Shelby"),
+                new BatchQuery(BatchQuery.Type.TOTAL_AMOUNT_SENT_BY, " tom shelby "),
+                new BatchQuery(BatchQuery.Type.HAS_OPEN_COMPLIANCE_ISSUES, "Aberama Gold"),
+                new BatchQuery(BatchQuery.Type.TOP_SENDER, null))));
+
+        assertEquals(200, response.statusCode());
+        final BatchResult[] results = jsonParser.toObject(response.body(), BatchResult[].class);
+        assertEquals(true, results[0].getValue());
+        assertEquals(600.0, results[1].getValue());
+        assertEquals(false, results[2].getValue());
+        assertEquals("Tom Shelby", results[3].getValue());
+        assertNull(results[3].getError());
+    }
+
+    @Test
+    void shouldFailInvalidQueryAlone() throws Exception {
+        final HttpResponse<String> response = post(
+                "[{\"type\":\"HAS_OPEN_COMPLIANCE_ISSUES\"},{\"type\":\"UNIQUE_CLIENTS\"},{\"type\":\"UNKNOWN\"},{}]");
+
+        assertEquals(200, response.statusCode());
+        final BatchResult[] results = jsonParser.toObject(response.body(), BatchResult[].class);
+        assertEquals("Operation is not allowed with null or empty client name", results[0].getError());
+        assertEquals(4, results[1].getValue());
+        assertEquals("Unsupported query type", results[2].getError());
+        assertEquals("Query type is required", results[3].getError());
+    }
+
+    @Test
+    void shouldRejectMalformedAndOversizedBatches() throws Exception {
+        final HttpResponse<String> malformed = post("{\"type\":\"secret\"");
+        assertEquals(400, malformed.statusCode());
+        assertEquals("Malformed json array of queries", malformed.body());
+        assertEquals(413, post("[{},{},{},{},{}]").statusCode());
+        assertEquals(413, post("[{\"client\":\"" + "x".repeat(4 * QueryServer.MAX_QUERY_BYTES) + "\"}]").statusCode());
+        assertEquals(405, client.send(HttpRequest.newBuilder(server.getUri().resolve(QueryServer.QUERY_PATH)).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    void shouldServeConcurrentRequests() throws Exception {
+        final String batch = "[{\"type\":\"TOTAL_AMOUNT_SENT_BY\",\"client\":\"Tom Shelby\"}]";
+        final List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, 32)
+                .mapToObj(request -> client.sendAsync(request(batch), HttpResponse.BodyHandlers.ofString()))
+                .collect(Collectors.toList());
+
+        for (final CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals("[{\"value\":600.0}]", response.get().body());
+        }
+    }
+
+    private HttpResponse<String> post(final String body) throws IOException, InterruptedException {
+        return client.send(request(body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(final String body) {
+        return HttpRequest.newBuilder(server.getUri().resolve(QueryServer.QUERY_PATH))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
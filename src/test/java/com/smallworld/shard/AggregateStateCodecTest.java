@@ -0,0 +1,57 @@
+package com.smallworld.shard;
+
+import com.smallworld.aggregate.AggregateState;
+import com.smallworld.aggregate.Measure;
+import com.smallworld.data.Transaction;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AggregateStateCodecTest {
+
+    @ParameterizedTest
+    @EnumSource(AggregateStateCodec.class)
+    void shouldRoundTripState(final AggregateStateCodec codec) throws ParseException {
+        final Transaction topTransaction = Transaction.Builder.newInstance()
+                .setMtn(5L)
+                .setAmount(12.5)
+                .setSenderFullName("Tom Shelby")
+                .setBeneficiaryFullName("Arthur Shelby")
+                .setIssueId(7L)
+                .setIssueMessage("Looks like money laundering")
+                .setIssueSolved(true)
+                .build();
+        final AggregateState state = AggregateState.Builder.newInstance()
+                .setMeasures(EnumSet.of(Measure.TOTAL_AMOUNT, Measure.UNSOLVED_ISSUE_IDS, Measure.TOP_3_TRANSACTIONS,
+                        Measure.TOP_SENDER))
+                .setTotalAmountMicros(42_250_000L)
+                .setSolvedTransactionSeen(true)
+                .setUnsolvedIssueIds(new HashSet<>(Arrays.asList(1L, null)))
+                .setTopTransactions(List.of(topTransaction))
+                .setSenderTotalMicros(Map.of("Tom Shelby", 42_250_000L))
+                .build();
+
+        final AggregateState decoded = codec.decode(codec.encode(state));
+
+        assertEquals(state.getMeasures(), decoded.getMeasures());
+        assertEquals(42_250_000L, decoded.getTotalAmountMicros());
+        assertEquals(true, decoded.isSolvedTransactionSeen());
+        assertNull(decoded.getClients());
+        assertNull(decoded.getSolvedIssueMessages());
+        assertEquals(state.getUnsolvedIssueIds(), decoded.getUnsolvedIssueIds());
+        assertEquals(state.getSenderTotalMicros(), decoded.getSenderTotalMicros());
+        final Transaction decodedTransaction = decoded.getTopTransactions().get(0);
+        assertEquals(topTransaction, decodedTransaction);
+        assertEquals("Looks like money laundering", decodedTransaction.getIssueMessage());
+        assertEquals(7L, decodedTransaction.getIssueId());
+    }
+}
@@ -0,0 +1,96 @@
+package com.smallworld.shard;
+
+import com.smallworld.aggregate.Measure;
+import com.smallworld.aggregate.TransactionAggregator;
+import com.smallworld.aggregate.TransactionSummary;
+import com.smallworld.data.Transaction;
+import com.smallworld.util.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardCoordinatorTest {
+
+    private static final int SHARD_COUNT = 3;
+
+    private final List<ShardNode> nodes = new ArrayList<>();
+    private List<Transaction> transactions;
+
+    @BeforeEach
+    void setUp() throws IOException, ParseException {
+        final String json = Files.readString(Path.of("src/test/resources/test_transactions.json"));
+        transactions = Arrays.asList(new JsonParser().toObject(json, Transaction[].class));
+        for (final List<Transaction> shard : new ShardPartitioner(SHARD_COUNT).partition(transactions)) {
+            nodes.add(ShardNode.start(shard));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ShardNode::close);
+    }
+
+    @ParameterizedTest
+    @EnumSource(AggregateStateCodec.class)
+    void shouldMergeShardStatesLikeSingleAggregator(final AggregateStateCodec codec) throws IOException {
+        final TransactionAggregator aggregator = new TransactionAggregator(EnumSet.allOf(Measure.class));
+        transactions.forEach(aggregator);
+        final TransactionSummary expected = aggregator.summarize();
+
+        final TransactionSummary summary = new ShardCoordinator(nodeUris(), codec).summarize(EnumSet.allOf(Measure.class));
+
+        assertEquals(expected.getTotalAmount(), summary.getTotalAmount());
+        assertEquals(expected.getMaxAmount(), summary.getMaxAmount());
+        assertEquals(expected.getUniqueClients(), summary.getUniqueClients());
+        assertEquals(expected.getApproximateUniqueClients(), summary.getApproximateUniqueClients());
+        assertEquals(expected.getUnsolvedIssueIds(), summary.getUnsolvedIssueIds());
+        assertEquals(new HashSet<>(expected.getSolvedIssueMessages()), new HashSet<>(summary.getSolvedIssueMessages()));
+        assertEquals(expected.getTop3Transactions().stream().map(Transaction::getMtn).collect(toList()),
+                summary.getTop3Transactions().stream().map(Transaction::getMtn).collect(toList()));
+        assertEquals(expected.getTopSender(), summary.getTopSender());
+    }
+
+    @Test
+    void shouldKeepRowsOfOneTransactionOnOneShard() {
+        final ShardPartitioner partitioner = new ShardPartitioner(SHARD_COUNT);
+        final List<List<Transaction>> shards = partitioner.partition(transactions);
+
+        assertEquals(transactions.size(), shards.stream().mapToInt(List::size).sum());
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            final Set<Long> mtns = shards.get(shard).stream().map(Transaction::getMtn).collect(toSet());
+            for (final Long mtn : mtns) {
+                assertEquals(shard, partitioner.shardOf(mtn));
+            }
+        }
+    }
+
+    @Test
+    void shouldReportUnreachableNode() {
+        final ShardCoordinator coordinator = new ShardCoordinator(nodeUris(), AggregateStateCodec.JSON);
+        nodes.get(1).close();
+        assertThrows(IOException.class, () -> coordinator.summarize(EnumSet.of(Measure.TOTAL_AMOUNT)));
+    }
+
+    private List<URI> nodeUris() {
+        return nodes.stream().map(ShardNode::getUri).collect(toList());
+    }
+}
@@ -0,0 +1,57 @@
+package com.smallworld.store;
+
+import com.smallworld.data.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClientIndexTest {
+
+    private final TransactionStore store = TransactionStore.of(Stream.of(
+            transaction(1L, "Tom Shelby", "Arthur Shelby"),
+            transaction(2L, "Aunt Polly", "Aberama Gold"),
+            transaction(3L, "TOM SHELBY", "Tom Shelby"),
+            transaction(4L, "Arthur Shelby", "tom shelby")));
+
+    @Test
+    void shouldMapEverySpellingOfClientToSameRows() {
+        final ClientIndex clientIndex = store.getClientIndex();
+        final int client = clientIndex.getClient("  tOm sHeLbY ");
+
+        assertEquals(4, clientIndex.size());
+        assertArrayEquals(new int[]{0, 2, 3}, clientIndex.getRows(client));
+        assertEquals(client, clientIndex.getClientOfNameId(store.getSenderId(2)));
+    }
+
+    @Test
+    void shouldKeepSameRowsInDirectBuffers() {
+        final ClientIndex heapIndex = store.getClientIndex();
+        final ClientIndex directIndex = new ClientIndex(store, true);
+
+        for (int client = 0; client < heapIndex.size(); client++) {
+            assertArrayEquals(heapIndex.getRows(client), directIndex.getRows(client));
+        }
+    }
+
+    @Test
+    void shouldNotFindUnknownClient() {
+        assertEquals(ClientIndex.NOT_FOUND, store.getClientIndex().getClient("Tom Cruise"));
+    }
+
+    @Test
+    void shouldCanonicalizeLikeEqualsIgnoreCase() {
+        assertEquals(ClientIndex.canonicalize("Aberama Gold"), ClientIndex.canonicalize("ABERAMA gold"));
+        assertEquals(" aberama gold", ClientIndex.canonicalize(" Aberama Gold"));
+    }
+
+    private static Transaction transaction(final Long mtn, final String senderFullName, final String beneficiaryFullName) {
+        return Transaction.Builder.newInstance()
+                .setMtn(mtn)
+                .setSenderFullName(senderFullName)
+                .setBeneficiaryFullName(beneficiaryFullName)
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.smallworld.store;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import com.smallworld.util.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.smallworld.store.IssueMessageIndex.Partition.ALL;
+import static com.smallworld.store.IssueMessageIndex.Partition.SOLVED;
+import static com.smallworld.store.IssueMessageIndex.Partition.UNSOLVED;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IssueMessageIndexTest {
+
+    private TransactionStore store;
+    private IssueMessageIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException, ParseException {
+        final String json = Files.readString(Path.of("src/test/resources/test_transactions.json"));
+        final List<Transaction> transactions = Arrays.asList(new JsonParser().toObject(json, Transaction[].class));
+        store = TransactionStore.of(transactions.stream());
+        index = IssueMessageIndex.of(store);
+    }
+
+    @Test
+    void shouldFindPhraseInEachPartition() {
+        assertArrayEquals(scan("looks like money laundering", ALL), index.findRows("Money laundering", ALL));
+        assertArrayEquals(scan("looks like money laundering", SOLVED), index.findRows("money LAUNDERING", SOLVED));
+        assertArrayEquals(scan("looks like money laundering", UNSOLVED), index.findRows("money laundering", UNSOLVED));
+        assertEquals(List.of("Looks like money laundering"), index.findMessages("  money, laundering! "));
+        assertEquals(0, index.findRows("laundering money", ALL).length);
+        assertEquals(0, index.findRows("money unknown", ALL).length);
+    }
+
+    @Test
+    void shouldFindTermsIgnoringCase() {
+        assertEquals(List.of("Something's fishy"), index.findMessages("FISHY"));
+        assertEquals(List.of("Looks like money laundering"), index.findMessages("looks"));
+        assertEquals(Set.of(2L), index.findIssueIds("gonna", ALL));
+        assertThrows(OperationException.class, () -> index.findRows(" ... ", ALL));
+    }
+
+    @Test
+    void shouldSkipRowsWithoutIssueIdWhenFindingIssueIds() {
+        final TransactionStore messagesWithoutIds = TransactionStore.of(Stream.of(
+                Transaction.Builder.newInstance().setMtn(1L).setIssueId(7L).setIssueMessage("Something's fishy").build(),
+                Transaction.Builder.newInstance().setMtn(2L).setIssueMessage("Fishy again").build()));
+
+        assertEquals(Set.of(7L), IssueMessageIndex.of(messagesWithoutIds).findIssueIds("fishy", ALL));
+    }
+
+    @Test
+    void shouldListDistinctSolvedMessagesInRowOrder() {
+        final List<String> solvedMessages = IntStream.range(0, store.size())
+                .filter(store::isIssueSolved)
+                .mapToObj(store::getIssueMessage)
+                .filter(message -> message != null && !message.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+
+        assertEquals(solvedMessages, index.getSolvedIssueMessages());
+        assertTrue(index.getTermCount() > 0);
+    }
+
+    @Test
+    void shouldRoundTripPostingLists() {
+        final int[] values = {0, 1, 127, 128, 16_384, 2_000_000, Integer.MAX_VALUE};
+        final PostingLists lists = PostingLists.encode(new int[]{0, 3, 3, values.length}, values);
+
+        assertArrayEquals(new int[]{0, 1, 127}, lists.decode(0));
+        assertEquals(0, lists.size(1));
+        assertArrayEquals(new int[]{128, 16_384, 2_000_000, Integer.MAX_VALUE}, lists.decode(2));
+    }
+
+    private int[] scan(final String message, final IssueMessageIndex.Partition partition) {
+        return IntStream.range(0, store.size())
+                .filter(row -> message.equalsIgnoreCase(store.getIssueMessage(row)))
+                .filter(row -> partition == ALL || store.isIssueSolved(row) == (partition == SOLVED))
+                .toArray();
+    }
+}
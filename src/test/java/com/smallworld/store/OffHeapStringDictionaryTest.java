@@ -0,0 +1,83 @@
+package com.smallworld.store;
+
+import com.smallworld.data.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OffHeapStringDictionaryTest {
+
+    @Test
+    void shouldInternEqualStringsOnce() {
+        final StringDictionary dictionary = StringDictionary.offHeap();
+
+        assertEquals(0, dictionary.encode("Tom Shelby"));
+        assertEquals(1, dictionary.encode("Arthur Shelby"));
+        assertEquals(0, dictionary.encode(new String("Tom Shelby")));
+        assertEquals(StringDictionary.NULL_ID, dictionary.encode(null));
+
+        assertEquals(2, dictionary.size());
+        assertEquals(1, dictionary.getId("Arthur Shelby"));
+        assertEquals(StringDictionary.NULL_ID, dictionary.getId("Grace Burgess"));
+        assertEquals(StringDictionary.NULL_ID, dictionary.getId(null));
+        assertNull(dictionary.get(StringDictionary.NULL_ID));
+    }
+
+    @Test
+    void shouldRoundTripNonAsciiAndEmptyStrings() {
+        final StringDictionary dictionary = StringDictionary.offHeap();
+        final String[] values = {"", "Zo\u00eb \u00c5str\u00f6m", "\u674e\u534e", "\ud83d\ude00 smile"};
+        for (final String value : values) {
+            dictionary.encode(value);
+        }
+
+        for (int id = 0; id < values.length; id++) {
+            assertEquals(values[id], dictionary.get(id));
+            assertEquals(id, dictionary.getId(values[id]));
+        }
+    }
+
+    @Test
+    void shouldGrowTablesAndArenaPastInitialSizes() {
+        final StringDictionary dictionary = StringDictionary.offHeap();
+        final String large = "x".repeat(3 << 20);
+        for (int index = 0; index < 100_000; index++) {
+            dictionary.encode("Client " + index);
+        }
+        dictionary.encode(large);
+        dictionary.encode("After large");
+
+        assertEquals(100_002, dictionary.size());
+        for (final int index : new int[]{0, 15, 16, 65_535, 99_999}) {
+            assertEquals("Client " + index, dictionary.get(index));
+            assertEquals(index, dictionary.getId("Client " + index));
+        }
+        assertEquals(large, dictionary.get(100_000));
+        assertEquals(100_000, dictionary.getId(large));
+        assertEquals("After large", dictionary.get(100_001));
+    }
+
+    @Test
+    void shouldReadOffHeapStoreStringsThroughCursor() {
+        final OffHeapTransactionStore store = OffHeapTransactionStore.of(Stream.of(
+                Transaction.Builder.newInstance().setMtn(1L).setSenderFullName("Zo\u00eb")
+                        .setBeneficiaryFullName("Tom").setIssueId(3L).setIssueMessage("Stuck \u20ac").build(),
+                Transaction.Builder.newInstance().setMtn(2L).setSenderFullName("Tom")
+                        .setBeneficiaryFullName("Zo\u00eb").build()));
+        final TransactionCursor cursor = store.cursor();
+
+        assertInstanceOf(OffHeapStringDictionary.class, store.getNames());
+        assertInstanceOf(OffHeapStringDictionary.class, store.getIssueMessages());
+        assertEquals(2, store.getNames().size());
+        cursor.moveTo(0);
+        assertEquals("Zo\u00eb", cursor.getSenderFullName());
+        assertEquals("Stuck \u20ac", cursor.getIssueMessage());
+        cursor.moveTo(1);
+        assertEquals("Zo\u00eb", cursor.getBeneficiaryFullName());
+        assertNull(cursor.getIssueMessage());
+    }
+}
@@ -0,0 +1,108 @@
+package com.smallworld.store;
+
+import com.smallworld.data.MinorUnits;
+import com.smallworld.data.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.smallworld.constant.TestConstant.amount;
+import static com.smallworld.constant.TestConstant.beneficiaryAge;
+import static com.smallworld.constant.TestConstant.beneficiaryFullName;
+import static com.smallworld.constant.TestConstant.issueId;
+import static com.smallworld.constant.TestConstant.issueMessage;
+import static com.smallworld.constant.TestConstant.issueSolved;
+import static com.smallworld.constant.TestConstant.mtn;
+import static com.smallworld.constant.TestConstant.senderAge;
+import static com.smallworld.constant.TestConstant.senderFullName;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapTransactionStoreTest {
+
+    @Test
+    void shouldRoundTripTransactionThroughRecord() {
+        final OffHeapTransactionStore store = OffHeapTransactionStore.of(Stream.of(Transaction.Builder.newInstance()
+                .setMtn(mtn)
+                .setAmount(amount)
+                .setSenderFullName(senderFullName)
+                .setSenderAge(senderAge)
+                .setBeneficiaryFullName(beneficiaryFullName)
+                .setBeneficiaryAge(beneficiaryAge)
+                .setIssueId(issueId)
+                .setIssueMessage(issueMessage)
+                .setIssueSolved(issueSolved)
+                .build()));
+        final TransactionCursor cursor = store.cursor();
+
+        assertTrue(cursor.next());
+        assertEquals(mtn, cursor.getMtn());
+        assertEquals(amount, cursor.getAmount());
+        assertEquals(senderFullName, cursor.getSenderFullName());
+        assertEquals(senderAge, cursor.getSenderAge());
+        assertEquals(beneficiaryFullName, cursor.getBeneficiaryFullName());
+        assertEquals(beneficiaryAge, cursor.getBeneficiaryAge());
+        assertEquals(issueId, cursor.getIssueId());
+        assertEquals(issueMessage, cursor.getIssueMessage());
+        assertEquals(issueSolved, cursor.isIssueSolved());
+        assertFalse(cursor.next());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    void shouldKeepMissingIssueAsNull() {
+        final OffHeapTransactionStore store = OffHeapTransactionStore.of(Stream.of(Transaction.Builder.newInstance()
+                .setMtn(mtn)
+                .setSenderFullName(senderFullName)
+                .setBeneficiaryFullName(beneficiaryFullName)
+                .build()));
+
+        assertFalse(store.hasIssueId(0));
+        assertTrue(store.isIssueSolved(0));
+        assertNull(store.getIssueMessage(0));
+        assertNull(store.getTransaction(0).getIssueId());
+    }
+
+    @Test
+    void shouldMatchHeapStoreAcrossChunks() {
+        final List<Transaction> transactions = IntStream.range(0, 150_000)
+                .mapToObj(row -> Transaction.Builder.newInstance()
+                        .setMtn((long) row)
+                        .setAmount(row, row % (MinorUnits.MICROS_SCALE + 1))
+                        .setSenderFullName("sender " + row % 7)
+                        .setBeneficiaryFullName("beneficiary " + row % 11)
+                        .setIssueId(row % 3 == 0 ? null : (long) row)
+                        .setIssueSolved(row % 5 != 0)
+                        .setTimestamp(row % 2 == 0 ? null : 1_000L * row)
+                        .build())
+                .collect(toList());
+        final TransactionStore heapStore = TransactionStore.of(transactions.stream());
+        final OffHeapTransactionStore offHeapStore = OffHeapTransactionStore.of(transactions.stream());
+
+        assertEquals(heapStore.size(), offHeapStore.size());
+        for (final int row : new int[]{0, 65_535, 65_536, 131_072, 149_999}) {
+            assertEquals(heapStore.getTransaction(row), offHeapStore.getTransaction(row));
+            assertEquals(heapStore.getSenderFullName(row), offHeapStore.getSenderFullName(row));
+            assertEquals(heapStore.hasIssueId(row), offHeapStore.hasIssueId(row));
+            assertEquals(heapStore.isIssueSolved(row), offHeapStore.isIssueSolved(row));
+            assertEquals(heapStore.getTransaction(row).getTimestamp(), offHeapStore.getTransaction(row).getTimestamp());
+            assertEquals(heapStore.getAmountScale(row), offHeapStore.getAmountScale(row));
+            assertEquals(heapStore.getTransaction(row).getAmountMinorUnits(),
+                    offHeapStore.getTransaction(row).getAmountMinorUnits());
+        }
+        assertEquals(heapStore.getClientIndex().size(), offHeapStore.getClientIndex().size());
+    }
+
+    @Test
+    void shouldRejectCursorMoveOutsideTable() {
+        final TransactionCursor cursor = OffHeapTransactionStore.of(Stream.empty()).cursor();
+        assertFalse(cursor.next());
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.moveTo(0));
+    }
+}
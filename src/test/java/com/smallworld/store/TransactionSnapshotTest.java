@@ -0,0 +1,121 @@
+package com.smallworld.store;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.util.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionSnapshotTest {
+
+    private static final Path TEST_TRANSACTIONS = Path.of("src/test/resources/test_transactions.json");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadBackEveryTransaction() throws IOException, ParseException {
+        final TransactionStore store = loadTestStore();
+        final Path path = directory.resolve("transactions.snapshot");
+        TransactionSnapshot.write(store, path);
+
+        try (TransactionSnapshot snapshot = TransactionSnapshot.open(path, true)) {
+            assertEquals(store.size(), snapshot.size());
+            for (int row = 0; row < store.size(); row++) {
+                assertEquals(store.getTransaction(row), snapshot.getTransaction(row));
+                assertEquals(store.hasIssueId(row), snapshot.hasIssueId(row));
+            }
+            assertEquals(store.getClientIndex().size(), snapshot.getClientIndex().size());
+            assertEquals(store.getClientIndex().getClient("tom shelby"), snapshot.getClientIndex().getClient("tom shelby"));
+        }
+    }
+
+    @Test
+    void shouldRoundTripEmptyTable() throws IOException {
+        final Path path = directory.resolve("empty.snapshot");
+        TransactionSnapshot.write(TransactionStore.of(Stream.empty()), path);
+
+        try (TransactionSnapshot snapshot = TransactionSnapshot.open(path, true)) {
+            assertEquals(0, snapshot.size());
+            assertEquals(0, snapshot.getNames().size());
+        }
+    }
+
+    @Test
+    void shouldKeepNonAsciiNames() throws IOException {
+        final Path path = directory.resolve("names.snapshot");
+        TransactionSnapshot.write(TransactionStore.of(Stream.of(Transaction.Builder.newInstance()
+                .setMtn(1L)
+                .setAmount(10.5)
+                .setSenderFullName("Zo\u00eb \u00c5ngstr\u00f6m")
+                .setBeneficiaryFullName("Ruair\u00ed \u00d3 Briain")
+                .build())), path);
+
+        try (TransactionSnapshot snapshot = TransactionSnapshot.open(path, false)) {
+            assertEquals("Zo\u00eb \u00c5ngstr\u00f6m", snapshot.getSenderFullName(0));
+            assertEquals("Ruair\u00ed \u00d3 Briain", snapshot.getBeneficiaryFullName(0));
+        }
+    }
+
+    @Test
+    void shouldKeepTimestampsAndAmountScales() throws IOException {
+        final Path path = directory.resolve("timestamps.snapshot");
+        TransactionSnapshot.write(TransactionStore.of(Stream.of(
+                Transaction.Builder.newInstance().setMtn(1L).setAmount(1_999, 3).setTimestamp(1_677_628_800_000L).build(),
+                Transaction.Builder.newInstance().setMtn(2L).build())), path);
+
+        try (TransactionSnapshot snapshot = TransactionSnapshot.open(path, true)) {
+            assertEquals(1_677_628_800_000L, snapshot.getTransaction(0).getTimestamp());
+            assertEquals(3, snapshot.getTransaction(0).getAmountScale());
+            assertEquals(1_999, snapshot.getTransaction(0).getAmountMinorUnits());
+            assertNull(snapshot.getTransaction(1).getTimestamp());
+        }
+    }
+
+    @Test
+    void shouldDetectCorruptedContent() throws IOException, ParseException {
+        final Path path = directory.resolve("corrupted.snapshot");
+        TransactionSnapshot.write(loadTestStore(), path);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(70);
+            file.write(file.read() ^ 0xFF);
+        }
+
+        assertThrows(IOException.class, () -> TransactionSnapshot.open(path, true));
+    }
+
+    @Test
+    void shouldRejectFileWithoutSnapshotHeader() throws IOException {
+        final Path path = directory.resolve("transactions.json");
+        Files.copy(TEST_TRANSACTIONS, path);
+
+        assertThrows(IOException.class, () -> TransactionSnapshot.open(path, false));
+    }
+
+    @Test
+    void shouldRejectTruncatedFile() throws IOException, ParseException {
+        final Path path = directory.resolve("truncated.snapshot");
+        TransactionSnapshot.write(loadTestStore(), path);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(file.length() - 8);
+        }
+
+        assertThrows(IOException.class, () -> TransactionSnapshot.open(path, false));
+    }
+
+    private static TransactionStore loadTestStore() throws ParseException {
+        try (Stream<Transaction> transactions = new JsonParser().toStream(TEST_TRANSACTIONS, Transaction.class)) {
+            return TransactionStore.of(transactions);
+        }
+    }
+}
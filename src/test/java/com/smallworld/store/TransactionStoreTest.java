@@ -0,0 +1,98 @@
+package com.smallworld.store;
+
+import com.smallworld.data.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.smallworld.constant.TestConstant.amount;
+import static com.smallworld.constant.TestConstant.beneficiaryAge;
+import static com.smallworld.constant.TestConstant.beneficiaryFullName;
+import static com.smallworld.constant.TestConstant.issueId;
+import static com.smallworld.constant.TestConstant.issueMessage;
+import static com.smallworld.constant.TestConstant.issueSolved;
+import static com.smallworld.constant.TestConstant.mtn;
+import static com.smallworld.constant.TestConstant.senderAge;
+import static com.smallworld.constant.TestConstant.senderFullName;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionStoreTest {
+
+    @Test
+    void shouldRoundTripTransactionThroughColumns() {
+        final Transaction transaction = Transaction.Builder.newInstance()
+                .setMtn(mtn)
+                .setAmount(amount)
+                .setSenderFullName(senderFullName)
+                .setSenderAge(senderAge)
+                .setBeneficiaryFullName(beneficiaryFullName)
+                .setBeneficiaryAge(beneficiaryAge)
+                .setIssueId(issueId)
+                .setIssueMessage(issueMessage)
+                .setIssueSolved(issueSolved)
+                .setTimestamp(1_677_628_800_000L)
+                .build();
+
+        final TransactionStore store = TransactionStore.of(Stream.of(transaction));
+        final Transaction stored = store.getTransaction(0);
+
+        assertEquals(1, store.size());
+        assertEquals(mtn, stored.getMtn());
+        assertEquals(amount, stored.getAmount());
+        assertEquals(senderFullName, stored.getSenderFullName());
+        assertEquals(senderAge, stored.getSenderAge());
+        assertEquals(beneficiaryFullName, stored.getBeneficiaryFullName());
+        assertEquals(beneficiaryAge, stored.getBeneficiaryAge());
+        assertEquals(issueId, stored.getIssueId());
+        assertEquals(issueMessage, stored.getIssueMessage());
+        assertEquals(issueSolved, stored.isIssueSolved());
+        assertEquals(1_677_628_800_000L, stored.getTimestamp());
+    }
+
+    @Test
+    void shouldKeepAmountScale() {
+        final TransactionStore store = TransactionStore.of(Stream.of(
+                Transaction.Builder.newInstance().setMtn(1L).setAmount(1_999, 3).build(),
+                Transaction.Builder.newInstance().setMtn(2L).setAmount(12, 0).build()));
+
+        assertEquals(3, store.getTransaction(0).getAmountScale());
+        assertEquals(1_999, store.getTransaction(0).getAmountMinorUnits());
+        assertEquals(0, store.getTransaction(1).getAmountScale());
+        assertEquals(12, store.getTransaction(1).getAmountMinorUnits());
+    }
+
+    @Test
+    void shouldKeepMissingIssueAsNull() {
+        final TransactionStore store = TransactionStore.of(Stream.of(Transaction.Builder.newInstance()
+                .setMtn(mtn)
+                .setSenderFullName(senderFullName)
+                .setBeneficiaryFullName(beneficiaryFullName)
+                .build()));
+
+        assertFalse(store.hasIssueId(0));
+        assertTrue(store.isIssueSolved(0));
+        assertNull(store.getIssueMessage(0));
+        assertNull(store.getTransaction(0).getIssueId());
+        assertNull(store.getTransaction(0).getTimestamp());
+    }
+
+    @Test
+    void shouldEncodeRepeatedNamesOnceAcrossGrowth() {
+        final TransactionStore store = TransactionStore.of(IntStream.range(0, 5000)
+                .mapToObj(row -> Transaction.Builder.newInstance()
+                        .setMtn((long) row)
+                        .setAmount(row)
+                        .setSenderFullName(row % 2 == 0 ? senderFullName : beneficiaryFullName)
+                        .setBeneficiaryFullName(beneficiaryFullName)
+                        .build()));
+
+        assertEquals(5000, store.size());
+        assertEquals(2, store.getNames().size());
+        assertEquals(store.getBeneficiaryId(0), store.getSenderId(4999));
+        assertEquals(4999.0, store.getAmount(4999));
+    }
+}
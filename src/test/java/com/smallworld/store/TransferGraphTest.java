@@ -0,0 +1,111 @@
+package com.smallworld.store;
+
+import com.smallworld.data.Transaction;
+import com.smallworld.exception.OperationException;
+import com.smallworld.util.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.smallworld.store.TransferGraph.Direction.BOTH;
+import static com.smallworld.store.TransferGraph.Direction.INCOMING;
+import static com.smallworld.store.TransferGraph.Direction.OUTGOING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransferGraphTest {
+
+    // Alice -> Bob -> Carol -> Dave, Eve -> Bob, Carol has an open issue with Dave
+    private final TransferGraph graph = TransferGraph.of(TransactionStore.of(Stream.of(
+            transaction(1, "Alice", "Bob", 100, true),
+            transaction(2, "alice", "BOB", 50, true),
+            transaction(3, "Bob", "Carol", 30, true),
+            transaction(3, "Bob", "Carol", 30, true),
+            transaction(4, "Carol", "Dave", 20, false),
+            transaction(5, "Eve", "Bob", 10, true))));
+
+    @Test
+    void shouldFoldTransfersOfSamePairIntoOneEdge() {
+        assertEquals(5, graph.size());
+        assertEquals(4, graph.getEdgeCount());
+        assertEquals(150.0, graph.getTransferredAmount("ALICE", " bob "));
+        assertEquals(30.0, graph.getTransferredAmount("Bob", "Carol"));
+        assertEquals(0.0, graph.getTransferredAmount("Carol", "Dave"));
+        assertEquals(0.0, graph.getTransferredAmount("Bob", "Alice"));
+    }
+
+    @Test
+    void shouldFindOpenIssuesWithinHops() {
+        assertFalse(graph.hasOpenComplianceIssuesWithin("Alice", 1, OUTGOING));
+        assertTrue(graph.hasOpenComplianceIssuesWithin("Alice", 2, OUTGOING));
+        assertFalse(graph.hasOpenComplianceIssuesWithin("Alice", 5, INCOMING));
+        assertFalse(graph.hasOpenComplianceIssuesWithin("Eve", 1, BOTH));
+        assertTrue(graph.hasOpenComplianceIssuesWithin("Eve", 2, BOTH));
+        assertTrue(graph.hasOpenComplianceIssuesWithin("Carol", 1, OUTGOING));
+        assertFalse(graph.hasOpenComplianceIssuesWithin("Carol", 0, BOTH));
+        assertFalse(graph.hasOpenComplianceIssuesWithin("Nobody", 3, BOTH));
+    }
+
+    @Test
+    void shouldListCounterpartiesClosestFirst() {
+        assertEquals(List.of("Bob", "Carol", "Eve", "Dave"), List.copyOf(graph.getCounterparties("alice", 3, BOTH)));
+        assertEquals(Set.of("Bob", "Carol"), graph.getCounterparties("Alice", 2, OUTGOING));
+        assertEquals(Set.of("Bob", "Alice", "Eve"), graph.getCounterparties("Carol", 2, INCOMING));
+        assertTrue(graph.getCounterparties("Alice", 0, BOTH).isEmpty());
+    }
+
+    @Test
+    void shouldSumExposureToFlaggedCounterparties() {
+        assertEquals(0.0, graph.getExposure("Alice", 1, OUTGOING));
+        assertEquals(30.0, graph.getExposure("Alice", 2, OUTGOING));
+        assertEquals(30.0, graph.getExposure("Bob", 2, OUTGOING));
+        assertEquals(30.0, graph.getExposure("Eve", 3, BOTH));
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        assertThrows(OperationException.class, () -> graph.getExposure(" ", 1, BOTH));
+        assertThrows(OperationException.class, () -> graph.getCounterparties("Alice", -1, BOTH));
+    }
+
+    @Test
+    void shouldFlagClientsLikeFetcherOnOneHop() throws IOException, ParseException {
+        final String json = Files.readString(Path.of("src/test/resources/test_transactions.json"));
+        final List<Transaction> transactions = Arrays.asList(new JsonParser().toObject(json, Transaction[].class));
+        final TransactionStore store = TransactionStore.of(transactions.stream());
+        final TransferGraph testGraph = TransferGraph.of(store);
+
+        for (final Transaction transaction : transactions) {
+            final String client = transaction.getSenderFullName();
+            final boolean expected = testGraph.getCounterparties(client, 1, BOTH).stream()
+                    .anyMatch(counterparty -> transactions.stream().anyMatch(row -> !row.isIssueSolved()
+                            && (row.getSenderFullName().equalsIgnoreCase(counterparty)
+                            || row.getBeneficiaryFullName().equalsIgnoreCase(counterparty))));
+            assertEquals(expected, testGraph.hasOpenComplianceIssuesWithin(client, 1, BOTH), client);
+        }
+    }
+
+    private static Transaction transaction(final long mtn,
+                                           final String sender,
+                                           final String beneficiary,
+                                           final double amount,
+                                           final boolean issueSolved) {
+        return Transaction.Builder.newInstance()
+                .setMtn(mtn)
+                .setAmount(amount)
+                .setSenderFullName(sender)
+                .setBeneficiaryFullName(beneficiary)
+                .setIssueId(issueSolved ? null : mtn)
+                .setIssueSolved(issueSolved)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.smallworld.util;
+
+import com.smallworld.data.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonParserTest {
+
+    private static final Path TEST_TRANSACTIONS = Path.of("src/test/resources/test_transactions.json");
+
+    private final JsonParser jsonParser = new JsonParser();
+
+    @Test
+    void shouldStreamAllTransactionsInFileOrder() throws ParseException {
+        try (Stream<Transaction> transactions = jsonParser.toStream(TEST_TRANSACTIONS, Transaction.class)) {
+            final List<Long> mtns = transactions.map(Transaction::getMtn).collect(toList());
+            assertEquals(List.of(1284564L, 1284564L, 663458L, 1534564L, 96132456L, 5465465L, 5465465L), mtns);
+        }
+    }
+
+    @Test
+    void shouldReadOnlyRequestedElements() throws ParseException {
+        final InputStream inputStream = stream("[{\"mtn\": 1, \"amount\": 2.5}, {\"mtn\": 2, broken");
+        try (Stream<Transaction> transactions = jsonParser.toStream(inputStream, Transaction.class)) {
+            final Iterator<Transaction> iterator = transactions.iterator();
+            assertEquals(1L, iterator.next().getMtn());
+            assertThrows(UncheckedIOException.class, iterator::next);
+        }
+    }
+
+    @Test
+    void shouldStreamEmptyArray() throws ParseException {
+        try (Stream<Transaction> transactions = jsonParser.toStream(stream("[ ]"), Transaction.class)) {
+            assertEquals(0, transactions.count());
+        }
+    }
+
+    @Test
+    void shouldRejectNonArrayJson() {
+        assertThrows(ParseException.class, () -> jsonParser.toStream(stream("{\"mtn\": 1}"), Transaction.class));
+    }
+
+    @Test
+    void shouldLeaveCallerStreamOpen() throws ParseException {
+        final boolean[] closed = new boolean[1];
+        final InputStream inputStream = new ByteArrayInputStream("[{\"mtn\": 1}]".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        try (Stream<Transaction> transactions = jsonParser.toStream(inputStream, Transaction.class)) {
+            assertEquals(1, transactions.count());
+        }
+        assertThrows(ParseException.class, () -> jsonParser.toStream(inputStream, Transaction.class));
+
+        assertFalse(closed[0]);
+    }
+
+    @Test
+    void shouldHandEachTransactionToCallback() throws ParseException {
+        final List<Transaction> transactions = new ArrayList<>();
+        jsonParser.forEach(TEST_TRANSACTIONS, Transaction.class, transactions::add);
+        assertEquals(7, transactions.size());
+        assertTrue(transactions.get(0).isIssueSolved());
+    }
+
+    @Test
+    void shouldFailOnMissingFile() {
+        assertThrows(ParseException.class, () -> jsonParser.toStream(Path.of("missing.json"), Transaction.class));
+    }
+
+    private static InputStream stream(final String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
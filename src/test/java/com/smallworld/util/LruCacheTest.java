@@ -0,0 +1,47 @@
+package com.smallworld.util;
+
+import com.smallworld.exception.OperationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LruCacheTest {
+
+    @Test
+    void shouldComputeOnlyOnMiss() {
+        final LruCache<String, String> cache = new LruCache<>(2);
+        assertEquals("a1", cache.get("a", () -> "a1"));
+        assertEquals("a1", cache.get("a", () -> "a2"));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyReadEntry() {
+        final LruCache<String, String> cache = new LruCache<>(2);
+        cache.get("a", () -> "a1");
+        cache.get("b", () -> "b1");
+        cache.get("a", () -> "a2");
+        cache.get("c", () -> "c1");
+
+        assertEquals(2, cache.size());
+        assertEquals("a1", cache.get("a", () -> "a3"));
+        assertEquals("b2", cache.get("b", () -> "b2"));
+    }
+
+    @Test
+    void shouldNotCacheValueNoLongerCurrent() {
+        final LruCache<String, String> cache = new LruCache<>(2);
+        assertEquals("a1", cache.get("a", () -> "a1", () -> false));
+
+        assertEquals(0, cache.size());
+        assertEquals("a2", cache.get("a", () -> "a2"));
+    }
+
+    @Test
+    void shouldRejectNonPositiveSize() {
+        assertThrows(OperationException.class, () -> new LruCache<String, String>(0));
+    }
+}
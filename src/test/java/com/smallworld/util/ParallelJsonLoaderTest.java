@@ -0,0 +1,107 @@
+package com.smallworld.util;
+
+import com.smallworld.data.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelJsonLoaderTest {
+
+    private final JsonParser jsonParser = new JsonParser();
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final ParallelJsonLoader loader = new ParallelJsonLoader(pool, 64);
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void shouldReadArrayInFileOrder() throws IOException, ParseException {
+        final List<Transaction> transactions = transactions(500);
+        final Path file = write("transactions.json", jsonParser.toString(transactions).replace("},{", "},\n  {"));
+
+        final List<Transaction> loaded = loader.readArray(file, Transaction.class);
+
+        assertEquals(transactions, loaded);
+        assertEquals(transactions.get(7).getIssueMessage(), loaded.get(7).getIssueMessage());
+        assertEquals(transactions.get(499).getAmount(), loaded.get(499).getAmount());
+    }
+
+    @Test
+    void shouldReadTestDataLikeSequentialParser() throws ParseException {
+        final Path file = Path.of("src/test/resources/test_transactions.json");
+
+        final List<Transaction> expected;
+        try (var stream = jsonParser.toStream(file, Transaction.class)) {
+            expected = stream.collect(Collectors.toList());
+        }
+        assertEquals(expected, new ParallelJsonLoader(pool, 1).readArray(file, Transaction.class));
+    }
+
+    @Test
+    void shouldReadNewlineDelimitedJson() throws IOException, ParseException {
+        final List<Transaction> transactions = transactions(300);
+        final StringBuilder lines = new StringBuilder();
+        for (final Transaction transaction : transactions) {
+            lines.append(jsonParser.toString(transaction)).append('\n');
+        }
+        lines.append("\n");
+
+        assertEquals(transactions, loader.readLines(write("transactions.ndjson", lines.toString()), Transaction.class));
+    }
+
+    @Test
+    void shouldReadEmptyArray() throws IOException, ParseException {
+        assertTrue(loader.readArray(write("empty.json", " [ ] \n"), Transaction.class).isEmpty());
+    }
+
+    @Test
+    void shouldRejectMalformedArrays() throws IOException, ParseException {
+        assertThrows(ParseException.class, () -> loader.readArray(write("object.json", "{\"mtn\":1}"), Transaction.class));
+        assertThrows(ParseException.class, () -> loader.readArray(write("open.json", "[{\"mtn\":1}"), Transaction.class));
+        assertThrows(ParseException.class, () -> loader.readArray(write("trailing.json", "[{\"mtn\":1},]"), Transaction.class));
+        assertThrows(ParseException.class, () -> loader.readArray(write("after.json", "[{\"mtn\":1}] x"), Transaction.class));
+
+        final String json = jsonParser.toString(transactions(50));
+        final ParseException exception = assertThrows(ParseException.class,
+                () -> loader.readArray(write("broken.json", json.replace("\"mtn\":40,", "\"mtn\":40,,")), Transaction.class));
+        assertTrue(exception.getErrorOffset() > json.indexOf("\"mtn\":40,"), exception.getMessage());
+    }
+
+    private Path write(final String name, final String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content);
+    }
+
+    private static List<Transaction> transactions(final int count) {
+        final List<Transaction> transactions = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            transactions.add(Transaction.Builder.newInstance()
+                    .setMtn((long) index)
+                    .setAmount(index * 1.5)
+                    .setSenderFullName("Sender \"" + index % 7 + "\"")
+                    .setBeneficiaryFullName("Beneficiary [" + index % 11 + "]")
+                    .setIssueId((long) index)
+                    .setIssueSolved(index % 3 != 0)
+                    .setIssueMessage(index % 2 == 0 ? "Looks like }, {\"mtn\":0} \\ but is text \u00e9" : null)
+                    .build());
+        }
+        return transactions;
+    }
+}